@@ -0,0 +1,99 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wimp.benchmark;
+
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.surftools.wimp.benchmark.ParserFixtures.Fixture;
+import com.surftools.wimp.configuration.Key;
+import com.surftools.wimp.core.MessageManager;
+import com.surftools.wimp.core.MessageType;
+import com.surftools.wimp.processors.std.ClassifierProcessor;
+import com.surftools.wimp.utils.config.impl.MemoryConfigurationManager;
+
+/**
+ * ClassifierProcessor.findMessageType() of one message per operation, cycling over the whole fixture corpus
+ *
+ * findMessageType() evicts decoded attachments after each message, so every operation pays for its own FormData and
+ * PDF decoding
+ *
+ * @author bobt
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClassifierBenchmark {
+  private List<Fixture> fixtures;
+  private int index;
+  private ClassifierProcessor processor;
+
+  @Setup
+  public void setup() throws Exception {
+    var cm = new MemoryConfigurationManager(Key.values());
+    cm.putString(Key.PATH_EXERCISES, "!!" + Files.createTempDirectory("wimp-classifier-benchmark").toString());
+    cm.putString(Key.EXERCISE_DATE, "2024-09-12");
+    var mm = new MessageManager();
+    processor = new ClassifierProcessor();
+    processor.initialize(cm, mm);
+
+    fixtures = ParserFixtures.makeCorpus();
+    index = 0;
+
+    // a benchmark of the wrong answer isn't worth much
+    for (var fixture : fixtures) {
+      var type = processor.findMessageType(fixture.message());
+      if (type != fixture.type()) {
+        throw new RuntimeException("fixture: " + fixture.type() + "/" + fixture.variant() + " classified as: " + type);
+      }
+    }
+  }
+
+  @Benchmark
+  public MessageType findMessageType() {
+    var message = fixtures.get(index).message();
+    index = (index + 1) % fixtures.size();
+    return processor.findMessageType(message);
+  }
+}
@@ -0,0 +1,140 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wimp.benchmark;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.kohsuke.args4j.CmdLineParser;
+import org.kohsuke.args4j.Option;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.surftools.wimp.configuration.Key;
+import com.surftools.wimp.core.MessageManager;
+import com.surftools.wimp.message.ExportedMessage;
+import com.surftools.wimp.processors.std.ReadProcessor;
+import com.surftools.wimp.utils.config.impl.MemoryConfigurationManager;
+
+/**
+ * report heap retained by messages read from a synthetic export, with and without interning
+ *
+ * retained heap isn't something JMH measures, so this is a plain main(), built with the benchmarks by the jmh profile;
+ * run with a fixed heap (-Xms == -Xmx) for more stable numbers
+ */
+public class InternHeapReportTool {
+  static {
+    System.setProperty("logback.configurationFile", "src/main/resources/logback.xml");
+  }
+
+  private static final Logger logger = LoggerFactory.getLogger(InternHeapReportTool.class);
+
+  @Option(name = "--fileCount", usage = "number of synthetic export files", required = false)
+  private int fileCount = 40;
+
+  @Option(name = "--messagesPerFile", usage = "number of messages per synthetic export file", required = false)
+  private int messagesPerFile = 250;
+
+  public static void main(String[] args) {
+    var tool = new InternHeapReportTool();
+    CmdLineParser parser = new CmdLineParser(tool);
+    try {
+      parser.parseArgument(args);
+      tool.run();
+    } catch (Exception e) {
+      System.err.println(e.getMessage());
+      parser.printUsage(System.err);
+    }
+  }
+
+  public void run() {
+    logger.info("begin run");
+    try {
+      var exercisePath = Files.createTempDirectory("wimp-intern-report");
+      var inputPath = Path.of(exercisePath.toString(), "input");
+      var filePaths = new SyntheticExportGenerator(1L).generate(inputPath, fileCount, messagesPerFile);
+
+      var sb = new StringBuilder();
+      sb.append("\nfiles: " + fileCount + ", messages per file: " + messagesPerFile + "\n");
+      var plainBytes = measure(exercisePath, filePaths, false, sb);
+      var internedBytes = measure(exercisePath, filePaths, true, sb);
+      sb.append("measured savings: " + (plainBytes - internedBytes) + " bytes ("
+          + String.format("%.1f", 100d * (plainBytes - internedBytes) / Math.max(1, plainBytes)) + "%)\n");
+      logger.info(sb.toString());
+    } catch (Exception e) {
+      logger.error("Exception: " + e.getLocalizedMessage());
+    }
+    logger.info("end run");
+  }
+
+  private long measure(Path exercisePath, List<Path> filePaths, boolean isInterning, StringBuilder sb) {
+    var cm = new MemoryConfigurationManager(Key.values());
+    cm.putString(Key.PATH_EXERCISES, "!!" + exercisePath.toString());
+    cm.putString(Key.EXERCISE_DATE, "2024-09-12");
+    cm.putString(Key.READ_INTERN_ENABLED, String.valueOf(isInterning));
+    var readProcessor = new ReadProcessor();
+    readProcessor.initialize(cm, new MessageManager());
+
+    // release messages from any previous measurement, before the baseline
+    keepAlive(null);
+    var before = usedHeap();
+    var messages = readProcessor.readAll(filePaths, 1);
+    for (var m : messages) {
+      // what WriteProcessor and the recipient index would build
+      m.getToAddresses();
+      m.getCcAddresses();
+    }
+    var retained = usedHeap() - before;
+
+    var interner = readProcessor.getStringInterner();
+    sb.append("interning: " + isInterning + ", messages: " + messages.size() + ", retained: " + retained + " bytes");
+    if (interner != null) {
+      sb.append(", " + interner.toString());
+    }
+    sb.append("\n");
+
+    keepAlive(messages);
+    return retained;
+  }
+
+  private long usedHeap() {
+    var runtime = Runtime.getRuntime();
+    for (var i = 0; i < 3; ++i) {
+      System.gc();
+    }
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+
+  // so that messages are still reachable when heap is measured
+  private static volatile Object sink;
+
+  private static void keepAlive(List<ExportedMessage> messages) {
+    sink = messages;
+  }
+}
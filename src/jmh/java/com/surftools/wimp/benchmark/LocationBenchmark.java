@@ -0,0 +1,152 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wimp.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.surftools.utils.location.CoordinateParser;
+import com.surftools.utils.location.LatLongPair;
+import com.surftools.utils.location.LocationUtils;
+
+/**
+ * LocationUtils.computeDistanceMeters call paths, LatLongPair construction and coordinate parsing, one pair per
+ * operation, cycling over random locations in the continental US
+ *
+ * the "reparse" benchmarks parse the Strings on every call, as LatLongPair used to
+ *
+ * @author bobt
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LocationBenchmark {
+  private static final int PAIR_COUNT = 10_000;
+
+  private final LatLongPair center = new LatLongPair("39.8283", "-98.5795");
+  private List<String> latStrings;
+  private List<String> lonStrings;
+  private List<String> xLocationLatitudes;
+  private List<LatLongPair> pairs;
+  private int index;
+
+  @Setup
+  public void setup() {
+    var random = new Random(1L);
+    latStrings = new ArrayList<>(PAIR_COUNT);
+    lonStrings = new ArrayList<>(PAIR_COUNT);
+    xLocationLatitudes = new ArrayList<>(PAIR_COUNT);
+    pairs = new ArrayList<>(PAIR_COUNT);
+    for (var i = 0; i < PAIR_COUNT; ++i) {
+      var latString = String.format("%.6f", 25d + 23d * random.nextDouble());
+      latStrings.add(latString);
+      lonStrings.add(String.format("%.6f", -70d - 50d * random.nextDouble()));
+      xLocationLatitudes.add(latString + "N");
+      pairs.add(new LatLongPair(latStrings.get(i), lonStrings.get(i)));
+    }
+    index = 0;
+  }
+
+  @Benchmark
+  public double distanceRawDoubles() {
+    var p = pairs.get(next());
+    return LocationUtils
+        .computeDistanceMeters(center.getLatitudeAsDouble(), center.getLongitudeAsDouble(), p.getLatitudeAsDouble(),
+            p.getLongitudeAsDouble());
+  }
+
+  @Benchmark
+  public double distanceLatLongPair() {
+    return LocationUtils.computeDistanceMeters(center, pairs.get(next()));
+  }
+
+  @Benchmark
+  public double distanceReparseStrings() {
+    var p = pairs.get(next());
+    return LocationUtils
+        .computeDistanceMeters(Double.parseDouble(center.getLatitude()), Double.parseDouble(center.getLongitude()),
+            Double.parseDouble(p.getLatitude()), Double.parseDouble(p.getLongitude()));
+  }
+
+  @Benchmark
+  public boolean isValidNotZero() {
+    return pairs.get(next()).isValidNotZero();
+  }
+
+  @Benchmark
+  public LatLongPair constructFromStrings() {
+    var i = next();
+    return new LatLongPair(latStrings.get(i), lonStrings.get(i));
+  }
+
+  @Benchmark
+  public LatLongPair constructFromDoubles() {
+    var p = pairs.get(next());
+    return new LatLongPair(p.getLatitudeAsDouble(), p.getLongitudeAsDouble());
+  }
+
+  @Benchmark
+  public double parseDouble() {
+    return Double.parseDouble(latStrings.get(next()));
+  }
+
+  @Benchmark
+  public double parseDecimal() {
+    var s = latStrings.get(next());
+    return CoordinateParser.parseDecimal(s, 0, s.length());
+  }
+
+  @Benchmark
+  public String parseHemisphere() {
+    var s = xLocationLatitudes.get(next());
+    return CoordinateParser.parseHemisphere(s, 0, s.length(), 'N', 'S');
+  }
+
+  private int next() {
+    var i = index;
+    index = (index + 1) % PAIR_COUNT;
+    return i;
+  }
+}
@@ -0,0 +1,122 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wimp.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.surftools.wimp.core.MessageManager;
+import com.surftools.wimp.core.MessageType;
+import com.surftools.wimp.message.ExportedMessage;
+
+/**
+ * the de-duplication access pattern: for every sender, get its messages, rebuild its lists and put them back, then read
+ * every type
+ *
+ * when every put rebuilt and re-sorted all types, this was O(senders x messages log messages)
+ *
+ * @author bobt
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageManagerBenchmark {
+  private static final List<MessageType> TYPES = List
+      .of(MessageType.PLAIN, MessageType.CHECK_IN, MessageType.ICS_213, MessageType.POSITION);
+
+  @Param({ "100", "1000", "5000" })
+  public int senderCount;
+
+  @Param({ "10" })
+  public int messagesPerSender;
+
+  private LinkedHashMap<MessageType, List<ExportedMessage>> typeMap;
+  private MessageManager mm;
+
+  @Setup(Level.Trial)
+  public void setupTrial() {
+    typeMap = new LinkedHashMap<>();
+    var n = 0;
+    for (var iSender = 0; iSender < senderCount; ++iSender) {
+      var from = String.format("K%05dSYN", iSender);
+      for (var iMessage = 0; iMessage < messagesPerSender; ++iMessage) {
+        var dateTime = LocalDateTime.of(2024, 9, 12, 0, 0).plusSeconds(n * 7919L % 86_400L);
+        var message = new ExportedMessage(String.format("SYN%09d", ++n), from, from, "ETO-01", "ETO-01", "",
+            "subject", dateTime, null, null, "", "", new LinkedHashMap<>(), false, "synthetic.xml", null);
+        typeMap.computeIfAbsent(TYPES.get(n % TYPES.size()), k -> new ArrayList<>()).add(message);
+      }
+    }
+  }
+
+  @Setup(Level.Invocation)
+  public void setupInvocation() {
+    mm = new MessageManager();
+    mm.load(typeMap);
+  }
+
+  @Benchmark
+  public int putMessagesForEverySender() {
+    var senders = new ArrayList<String>();
+    mm.getSenderIterator().forEachRemaining(senders::add);
+    for (var sender : senders) {
+      var map = mm.getMessagesForSender(sender);
+      for (var type : map.keySet()) {
+        var outputList = new ArrayList<>(map.get(type));
+        outputList.remove(outputList.size() - 1);
+        map.put(type, outputList);
+      }
+      mm.putMessagesForSender(sender, map);
+    }
+
+    var count = 0;
+    for (var type : TYPES) {
+      count += mm.getMessagesForType(type).size();
+    }
+    return count;
+  }
+}
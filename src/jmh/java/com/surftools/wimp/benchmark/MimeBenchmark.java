@@ -0,0 +1,90 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wimp.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.surftools.wimp.benchmark.ParserFixtures.Fixture;
+import com.surftools.wimp.parser.AbstractBaseParser;
+import com.surftools.wimp.parser.MimeDecoder;
+
+/**
+ * MIME decoding of one message per operation, cycling over the whole fixture corpus: javax.mail (as
+ * makeMimeMessageParser() + getAttachments()) vs the one-pass MimeDecoder
+ *
+ * @author bobt
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MimeBenchmark {
+  private List<Fixture> fixtures;
+  private int index;
+
+  @Setup
+  public void setup() {
+    fixtures = ParserFixtures.makeCorpus();
+    index = 0;
+  }
+
+  @Benchmark
+  public void makeMimeMessageParser(Blackhole blackhole) {
+    var message = next().message();
+    var parser = AbstractBaseParser.makeMimeMessageParser(message.messageId, message.getMime());
+    blackhole.consume(parser.getPlainContent());
+    blackhole.consume(AbstractBaseParser.getAttachments(parser));
+  }
+
+  @Benchmark
+  public void mimeDecoder(Blackhole blackhole) {
+    blackhole.consume(MimeDecoder.decode(next().message().getMime()));
+  }
+
+  private Fixture next() {
+    var fixture = fixtures.get(index);
+    index = (index + 1) % fixtures.size();
+    return fixture;
+  }
+}
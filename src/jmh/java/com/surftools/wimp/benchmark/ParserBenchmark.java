@@ -0,0 +1,113 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wimp.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.surftools.wimp.benchmark.ParserFixtures.Fixture;
+import com.surftools.wimp.configuration.Key;
+import com.surftools.wimp.core.IParser;
+import com.surftools.wimp.core.MessageManager;
+import com.surftools.wimp.core.MessageType;
+import com.surftools.wimp.message.ExportedMessage;
+import com.surftools.wimp.utils.config.impl.MemoryConfigurationManager;
+
+/**
+ * parse() of every parser in com.surftools.wimp.parser, one message per operation, cycling over the fixtures (viewer,
+ * FormData-only, subject, ...) for the type
+ *
+ * parsers are initialized without a shared ParsedAttachmentCache, so every operation decodes its own attachments
+ *
+ * use -p type=ics_213,check_in to run a subset
+ *
+ * @author bobt
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserBenchmark {
+
+  // every MessageType not in ClassifierProcessor.IGNORED_TYPES; must be a compile-time constant
+  @Param({ "plain", "ack", "position", "check_in", "check_out", "spotrep", "field_situation", "dyfi", "wx_local",
+      "wx_severe", "wx_hurricane", "ics_205", "ics_213", "ics_213_reply", "ics_213_rr", "ics_214", "ics_214a",
+      "ics_309", "pdf_ics_309", "eto_check_in", "eto_check_in_v2", "eto_resume", "miro_check_in", "damage_assessment",
+      "quick", "hics_259", "hospital_bed", "hospital_status", "humanitarian_needs", "rri_quick_welfare",
+      "rri_welfare_radiogram", "rri_reply_welfare_radiogram", "wa_ics_213_rr_web_eoc", "wa_ics_213_rr", "wa_isnap",
+      "wa_wsdot_bridge_damage", "wa_wsdot_roadway_damage", "wa_wsdot_bridge_roadway_damage", "wa_eyewarn",
+      "wa_field_situation", "welfare_bulletin_board", "bulletin", "customizable_form", "blood_availability", "eyewarn",
+      "pegelstand" })
+  public String type;
+
+  // StAX vs DOM extraction of RMS viewer fields
+  @Param({ "true", "false" })
+  public boolean viewerStreaming;
+
+  private List<Fixture> fixtures;
+  private int index;
+  private IParser parser;
+
+  @Setup
+  public void setup() {
+    var messageType = MessageType.fromString(type);
+    if (messageType == null) {
+      throw new RuntimeException("unknown type: " + type + ", not one of: " + MessageType.getAllNames());
+    }
+
+    var cm = new MemoryConfigurationManager(Key.values());
+    cm.putBoolean(Key.PARSE_VIEWER_STREAMING_ENABLED, viewerStreaming);
+    parser = ParserFixtures.makeParser(messageType);
+    parser.initialize(cm, new MessageManager());
+
+    fixtures = ParserFixtures.makeFixtures(messageType);
+    index = 0;
+  }
+
+  @Benchmark
+  public ExportedMessage parse() {
+    var message = fixtures.get(index).message();
+    index = (index + 1) % fixtures.size();
+    return parser.parse(message);
+  }
+}
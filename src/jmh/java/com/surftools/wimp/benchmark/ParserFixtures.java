@@ -0,0 +1,308 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wimp.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.itextpdf.text.Document;
+import com.itextpdf.text.Paragraph;
+import com.itextpdf.text.pdf.PdfWriter;
+import com.surftools.wimp.core.IParser;
+import com.surftools.wimp.core.MessageType;
+import com.surftools.wimp.core.SubjectPredicate;
+import com.surftools.wimp.message.ExportedMessage;
+import com.surftools.wimp.parser.AbstractBaseParser;
+import com.surftools.wimp.parser.MimeDecoder;
+import com.surftools.wimp.parser.MimeDecoder.DecodedMime;
+import com.surftools.wimp.processors.std.ClassifierProcessor;
+
+/**
+ * deterministic, in-memory fixture corpus for the benchmarks: at least one message per parsed MessageType
+ *
+ * types with an RMS viewer get a "viewer" variant, types with a FormData name get a "formData" variant (FormData.txt
+ * only, no viewer), types recognized by subject get a "subject" variant, PDF_ICS_309 gets a "pdf" variant and PLAIN a
+ * "plain" variant. Each fixture carries the full MIME, so that MIME decoding can be benchmarked on the same corpus
+ *
+ * the viewer XML has the tags common to most forms, not every field of every form, so some parsers reject; that is
+ * still their parse() path
+ *
+ * @author bobt
+ *
+ */
+public class ParserFixtures {
+  public static final String VIEWER = "viewer";
+  public static final String FORM_DATA = "formData";
+  public static final String SUBJECT = "subject";
+  public static final String PDF = "pdf";
+  public static final String PLAIN = "plain";
+
+  public static final String PDF_NAME = "ICS-309.pdf";
+  public static final String PDF_FOOTER = "309 communications log generated by Winlink Express ";
+
+  private static final String SENDER = "K1SYN";
+
+  public static record Fixture(MessageType type, String variant, ExportedMessage message) {
+  };
+
+  /**
+   * @return every MessageType that ClassifierProcessor has a parser for, in ordinal order
+   */
+  public static List<MessageType> getParsedTypes() {
+    var list = new ArrayList<MessageType>();
+    for (var type : MessageType.values()) {
+      if (!ClassifierProcessor.IGNORED_TYPES.contains(type)) {
+        list.add(type);
+      }
+    }
+    return list;
+  }
+
+  /**
+   * @return all fixtures for all parsed types
+   */
+  public static List<Fixture> makeCorpus() {
+    var list = new ArrayList<Fixture>();
+    for (var type : getParsedTypes()) {
+      list.addAll(makeFixtures(type));
+    }
+    return list;
+  }
+
+  /**
+   * @param type
+   * @return all fixtures for the type, never empty
+   */
+  public static List<Fixture> makeFixtures(MessageType type) {
+    var list = new ArrayList<Fixture>();
+    var n = type.ordinal();
+
+    if (type.rmsViewerName() != null) {
+      list.add(new Fixture(type, VIEWER, makeMessage(n, "Synthetic " + type, //
+          type.rmsViewerName(), makeViewerXml(n, type).getBytes())));
+    }
+
+    if (type.formDataName() != null) {
+      list.add(new Fixture(type, FORM_DATA, makeMessage(n, "Synthetic " + type, //
+          "FormData.txt", makeFormData(n, type).getBytes())));
+    }
+
+    var subject = makeSubject(type);
+    if (subject != null) {
+      list.add(new Fixture(type, SUBJECT, makeMessage(n, subject, null, null)));
+    }
+
+    if (type == MessageType.PDF_ICS_309) {
+      list.add(new Fixture(type, PDF, makeMessage(n, "Synthetic ICS-309", PDF_NAME, makeIcs309Pdf(n))));
+    }
+
+    if (list.size() == 0) {
+      list.add(new Fixture(type, PLAIN, makeMessage(n, "Synthetic plain message " + n, null, null)));
+    }
+
+    return list;
+  }
+
+  /**
+   * @param type
+   * @return
+   */
+  public static IParser makeParser(MessageType type) {
+    var parserName = "com.surftools.wimp.parser." + type.makeParserName() + "Parser";
+    try {
+      return (IParser) Class.forName(parserName).getDeclaredConstructor().newInstance();
+    } catch (Exception e) {
+      throw new RuntimeException("Couldn't create parser for: " + type.toString() + ", " + e.getLocalizedMessage());
+    }
+  }
+
+  /**
+   * a subject that the type's predicate accepts, built from its declared prefixes
+   *
+   * @param type
+   * @return subject, or null if the type isn't recognized by subject
+   */
+  private static String makeSubject(MessageType type) {
+    if (!(type.getSubjectPredicate() instanceof SubjectPredicate predicate)) {
+      return null;
+    }
+
+    var prefixes = new ArrayList<String>(predicate.getPrefixes());
+    prefixes.addAll(predicate.getUpperCasePrefixes());
+    for (var prefix : prefixes) {
+      for (var subject : List.of(prefix, prefix + " 1", prefix + " " + SENDER + " - DO NOT REPLY!")) {
+        if (type.testSubject(subject)) {
+          return subject;
+        }
+      }
+    }
+    throw new RuntimeException("no synthetic subject for type: " + type.toString());
+  }
+
+  private static ExportedMessage makeMessage(int n, String subject, String attachmentName, byte[] attachment) {
+    var messageId = String.format("SYN%09d", n);
+    var mime = "Date: Thu, 12 Sep 2024 15:30:00 +0000\n" //
+        + "From: " + SENDER + "@winlink.org\n" //
+        + "Subject: " + subject + "\n" //
+        + "To: ETO-01@winlink.org\n" //
+        + "Message-ID: " + messageId + "\n" //
+        + "X-Source: " + SENDER + "\n" //
+        + "X-Location: 47.600000N, 122.300000W (GPS)\n" //
+        + "X-Express-Version: Winlink Express 1.7.12.0\n" //
+        + "MIME-Version: 1.0\n" //
+        + (attachmentName == null ? makePlainBody(n) : makeAttachmentBody(n, attachmentName, attachment));
+
+    var decoded = MimeDecoder.decode(mime);
+    if (decoded == null) {
+      var parser = AbstractBaseParser.makeMimeMessageParser(messageId, mime);
+      decoded = new DecodedMime(parser.getPlainContent(), AbstractBaseParser.getAttachments(parser));
+    }
+    return new ExportedMessage(messageId, SENDER, SENDER, "ETO-01", "ETO-01", "", subject,
+        LocalDateTime.of(2024, 9, 12, 15, 30), null, null, mime, decoded.plainContent(), decoded.attachments(), false,
+        "synthetic.xml", null);
+  }
+
+  private static String makePlainBody(int n) {
+    return "Content-Type: text/plain; charset=\"iso-8859-1\"\n" //
+        + "Content-Transfer-Encoding: quoted-printable\n" //
+        + "\n" //
+        + "This is synthetic message =3D " + n + "\n" //
+        + "Latitude: 47.6000\n" //
+        + "Longitude: -122.3000\n" //
+        + "Comments: synthetic " + n + "\n";
+  }
+
+  private static String makeAttachmentBody(int n, String attachmentName, byte[] attachment) {
+    var boundary = "boundary_" + n;
+    var encoded = Base64.getMimeEncoder(76, "\n".getBytes()).encodeToString(attachment);
+    return "Content-Type: multipart/mixed; boundary=\"" + boundary + "\"\n" //
+        + "\n" //
+        + "--" + boundary + "\n" //
+        + "Content-Type: text/plain; charset=\"iso-8859-1\"\n" //
+        + "Content-Transfer-Encoding: quoted-printable\n" //
+        + "\n" //
+        + "Synthetic form message " + n + "\n" //
+        + "\n" //
+        + "--" + boundary + "\n" //
+        + "Content-Type: application/octet-stream; name=\"" + attachmentName + "\"\n" //
+        + "Content-Transfer-Encoding: base64\n" //
+        + "Content-Disposition: attachment; filename=\"" + attachmentName + "\"\n" //
+        + "\n" //
+        + encoded + "\n" //
+        + "--" + boundary + "--\n";
+  }
+
+  private static String makeViewerXml(int n, MessageType type) {
+    var sb = new StringBuilder();
+    sb.append("<?xml version=\"1.0\"?>\n");
+    sb.append("<RMS_Express_Form>\n");
+    sb.append("  <form_parameters>\n");
+    sb.append("    <xml_file_version>1.0</xml_file_version>\n");
+    sb.append("    <rms_express_version>1.7.12.0</rms_express_version>\n");
+    sb.append("    <submission_datetime>20240912153000</submission_datetime>\n");
+    sb.append("    <senders_callsign>" + SENDER + "</senders_callsign>\n");
+    sb.append("    <display_form>" + type.rmsViewerName().replace(".xml", ".html") + "</display_form>\n");
+    sb.append("  </form_parameters>\n");
+    sb.append("  <variables>\n");
+    for (var entry : makeFieldMap(n).entrySet()) {
+      sb.append("    <" + entry.getKey() + ">" + entry.getValue() + "</" + entry.getKey() + ">\n");
+    }
+    sb.append("  </variables>\n");
+    sb.append("</RMS_Express_Form>\n");
+    return sb.toString();
+  }
+
+  private static String makeFormData(int n, MessageType type) {
+    var sb = new StringBuilder();
+    sb.append("*** FormData ***\n");
+    sb.append("MapFileName=" + type.formDataName() + "\n");
+    for (var entry : makeFieldMap(n).entrySet()) {
+      sb.append(entry.getKey() + "=" + entry.getValue() + "\n");
+    }
+    return sb.toString();
+  }
+
+  private static Map<String, String> makeFieldMap(int n) {
+    var map = new LinkedHashMap<String, String>();
+    map.put("msgto", "ETO-01");
+    map.put("msgfrom", SENDER);
+    map.put("msgsender", SENDER);
+    map.put("subjectline", "Synthetic " + n);
+    map.put("mdate", "2024-09-12");
+    map.put("mtime", "15:30");
+    map.put("datetime", "2024-09-12 15:30");
+    map.put("organization", "Synthetic");
+    map.put("incident_name", "Synthetic Drill");
+    map.put("message", "Synthetic message " + n);
+    map.put("comments", "synthetic " + n);
+    map.put("approved_name", "Operator " + SENDER);
+    map.put("approved_postitle", "Radio");
+    map.put("templateversion", "Synthetic v 1.0");
+    map.put("maplat", "47.600000");
+    map.put("maplon", "-122.300000");
+    map.put("latitude", "47.600000");
+    map.put("longitude", "-122.300000");
+    map.put("msgisdrill", "true");
+    return map;
+  }
+
+  private static byte[] makeIcs309Pdf(int n) {
+    var lines = List.of(//
+        "DATE PREPARED: 2024-09-12", //
+        "COMMUNICATIONS LOG TASK # " + n, //
+        "TIME PREPARED: 15:30", //
+        "OPERATIONAL PERIOD # 1 TASK NAME: Synthetic Drill", //
+        "RADIO OPERATOR NAME: Operator " + SENDER + " STATION I.D. " + SENDER, //
+        "LOG", //
+        "TIME FROM TO SUBJECT", //
+        "2024-09-12 15:00 " + SENDER + " ETO-01 Synthetic check in", //
+        "2024-09-12 15:10 ETO-01 " + SENDER + " Re: Synthetic check in", //
+        "2024-09-12 15:20 " + SENDER + " ETO-02 Synthetic report", //
+        "Page 1 of 1", //
+        PDF_FOOTER + "1.7.12.0");
+
+    try {
+      var outputStream = new ByteArrayOutputStream();
+      var document = new Document();
+      PdfWriter.getInstance(document, outputStream);
+      document.open();
+      for (var line : lines) {
+        document.add(new Paragraph(line));
+      }
+      document.close();
+      return outputStream.toByteArray();
+    } catch (Exception e) {
+      throw new RuntimeException("Exception making ICS-309 PDF: " + e.getLocalizedMessage());
+    }
+  }
+}
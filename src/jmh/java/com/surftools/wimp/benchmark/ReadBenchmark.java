@@ -0,0 +1,115 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wimp.benchmark;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.surftools.wimp.configuration.Key;
+import com.surftools.wimp.core.MessageManager;
+import com.surftools.wimp.message.ExportedMessage;
+import com.surftools.wimp.processors.std.ReadProcessor;
+import com.surftools.wimp.utils.config.impl.MemoryConfigurationManager;
+
+/**
+ * reading a synthetic multi-file export, one whole export per operation: serial vs parallel, DOM vs streaming (StAX)
+ *
+ * @author bobt
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class ReadBenchmark {
+  @Param({ "40" })
+  public int fileCount;
+
+  @Param({ "250" })
+  public int messagesPerFile;
+
+  // 0 for all cores
+  @Param({ "1", "0" })
+  public int parallelism;
+
+  @Param({ "false", "true" })
+  public boolean isStreaming;
+
+  private ReadProcessor readProcessor;
+  private List<Path> filePaths;
+  private int nThreads;
+
+  @Setup
+  public void setup() throws Exception {
+    var exercisePath = Files.createTempDirectory("wimp-read-benchmark");
+    var inputPath = Path.of(exercisePath.toString(), "input");
+    filePaths = new SyntheticExportGenerator(1L).generate(inputPath, fileCount, messagesPerFile);
+
+    var cm = new MemoryConfigurationManager(Key.values());
+    cm.putString(Key.PATH_EXERCISES, "!!" + exercisePath.toString());
+    cm.putString(Key.EXERCISE_DATE, "2024-09-12");
+    cm.putString(Key.READ_STREAMING_ENABLED, String.valueOf(isStreaming));
+    readProcessor = new ReadProcessor();
+    readProcessor.initialize(cm, new MessageManager());
+
+    nThreads = parallelism <= 0 ? Runtime.getRuntime().availableProcessors() : parallelism;
+
+    // a benchmark of the wrong answer isn't worth much
+    var serialIds = getIds(readProcessor.readAll(filePaths, 1));
+    var ids = getIds(readProcessor.readAll(filePaths, nThreads));
+    if (serialIds.size() != fileCount * messagesPerFile || !ids.equals(serialIds)) {
+      throw new RuntimeException("read " + ids.size() + " messages with " + nThreads + " threads, " + serialIds.size()
+          + " serially, or not in the same order");
+    }
+  }
+
+  @Benchmark
+  public List<ExportedMessage> readAll() {
+    return readProcessor.readAll(filePaths, nThreads);
+  }
+
+  private List<String> getIds(List<ExportedMessage> messages) {
+    return messages.stream().map(m -> m.messageId).toList();
+  }
+}
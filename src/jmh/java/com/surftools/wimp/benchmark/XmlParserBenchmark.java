@@ -0,0 +1,108 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wimp.benchmark;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.parsers.DocumentBuilder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.w3c.dom.Document;
+import org.xml.sax.InputSource;
+
+import com.surftools.utils.XmlParsers;
+
+/**
+ * per-message XML parser setup cost: a new DocumentBuilderFactory/DocumentBuilder per message vs the pooled,
+ * per-thread DocumentBuilder from XmlParsers, with and without parsing one synthetic exported message per operation
+ *
+ * @author bobt
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class XmlParserBenchmark {
+  private static final int MESSAGE_COUNT = 1000;
+
+  private List<String> xmlStrings;
+  private int index;
+
+  @Setup
+  public void setup() {
+    var generator = new SyntheticExportGenerator(1L);
+    xmlStrings = new ArrayList<>(MESSAGE_COUNT);
+    for (var i = 1; i <= MESSAGE_COUNT; ++i) {
+      xmlStrings.add(generator.makeMessage(i));
+    }
+    index = 0;
+  }
+
+  @Benchmark
+  public DocumentBuilder setupUnpooled() {
+    return XmlParsers.newDocumentBuilder();
+  }
+
+  @Benchmark
+  public DocumentBuilder setupPooled() {
+    return XmlParsers.getDocumentBuilder();
+  }
+
+  @Benchmark
+  public Document parseUnpooled() throws Exception {
+    return parse(XmlParsers.newDocumentBuilder());
+  }
+
+  @Benchmark
+  public Document parsePooled() throws Exception {
+    return parse(XmlParsers.getDocumentBuilder());
+  }
+
+  private Document parse(DocumentBuilder documentBuilder) throws Exception {
+    var xmlString = xmlStrings.get(index);
+    index = (index + 1) % xmlStrings.size();
+    var document = documentBuilder.parse(new InputSource(new StringReader(xmlString)));
+    document.getDocumentElement().normalize();
+    return document;
+  }
+}
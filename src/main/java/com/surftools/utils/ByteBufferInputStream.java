@@ -0,0 +1,97 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.utils;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * InputStream over the remaining bytes of a ByteBuffer, typically memory-mapped, without copying it onto the heap
+ *
+ * @author bobt
+ *
+ */
+public class ByteBufferInputStream extends InputStream {
+  private final ByteBuffer buffer;
+  private int markPosition;
+
+  /**
+   * @param buffer
+   *          not shared: position is advanced as bytes are read
+   */
+  public ByteBufferInputStream(ByteBuffer buffer) {
+    this.buffer = buffer;
+    this.markPosition = buffer.position();
+  }
+
+  @Override
+  public int read() {
+    return buffer.hasRemaining() ? (buffer.get() & 0xff) : -1;
+  }
+
+  @Override
+  public int read(byte[] bytes, int offset, int length) {
+    if (length == 0) {
+      return 0;
+    }
+    if (!buffer.hasRemaining()) {
+      return -1;
+    }
+
+    var n = Math.min(length, buffer.remaining());
+    buffer.get(bytes, offset, n);
+    return n;
+  }
+
+  @Override
+  public long skip(long n) {
+    var skipped = (int) Math.max(0, Math.min(n, buffer.remaining()));
+    buffer.position(buffer.position() + skipped);
+    return skipped;
+  }
+
+  @Override
+  public int available() {
+    return buffer.remaining();
+  }
+
+  @Override
+  public boolean markSupported() {
+    return true;
+  }
+
+  @Override
+  public synchronized void mark(int readLimit) {
+    markPosition = buffer.position();
+  }
+
+  @Override
+  public synchronized void reset() {
+    buffer.position(markPosition);
+  }
+}
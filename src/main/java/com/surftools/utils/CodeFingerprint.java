@@ -0,0 +1,169 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.utils;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.JarFile;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * fingerprint of compiled code: a hash of the class files of whole packages (and their sub-packages), read from the
+ * classes directories or jars they were loaded from
+ *
+ * for invalidating on-disk caches automatically, when the code that made what's in them changes. If a package can't be
+ * read, it's fingerprint is unique to this run, so that nothing cached is trusted
+ *
+ * @author bobt
+ *
+ */
+public class CodeFingerprint {
+  private static final Logger logger = LoggerFactory.getLogger(CodeFingerprint.class);
+
+  // package name -> hash of it's class files, computed once per run
+  private static final Map<String, String> packageHashMap = new ConcurrentHashMap<>();
+
+  /**
+   * @param classes
+   * @param packageNames
+   *          additional packages, typically of the helpers that classes call
+   * @return hash of the class files in the packages of classes and of all their superclasses, and in packageNames
+   */
+  public static String of(Collection<Class<?>> classes, String... packageNames) {
+    var names = new TreeSet<String>();
+    for (var packageName : packageNames) {
+      names.add(packageName);
+    }
+    for (var c : classes) {
+      for (var k = c; k != null && k != Object.class; k = k.getSuperclass()) {
+        names.add(k.getPackageName());
+      }
+    }
+
+    var md = newDigest();
+    for (var name : names) {
+      update(md, name.getBytes());
+      update(md, getPackageHash(name).getBytes());
+    }
+    return HexFormat.of().formatHex(md.digest());
+  }
+
+  /**
+   * @param packageName
+   * @return hash of the class files in the package and it's sub-packages
+   */
+  public static String getPackageHash(String packageName) {
+    return packageHashMap.computeIfAbsent(packageName, CodeFingerprint::makePackageHash);
+  }
+
+  private static String makePackageHash(String packageName) {
+    var resourceName = packageName.replace('.', '/');
+
+    // sorted, so the hash doesn't depend on directory or jar order
+    var classFileMap = new TreeMap<String, byte[]>();
+    try {
+      var urls = CodeFingerprint.class.getClassLoader().getResources(resourceName);
+      while (urls.hasMoreElements()) {
+        var url = urls.nextElement();
+        switch (url.getProtocol()) {
+        case "file" -> readDirectory(Path.of(url.toURI()), classFileMap);
+        case "jar" -> readJar(url, resourceName, classFileMap);
+        default -> throw new IOException("unsupported location: " + url);
+        }
+      }
+    } catch (Exception e) {
+      logger.warn("could not fingerprint package: " + packageName + ", " + e.getLocalizedMessage());
+      classFileMap.clear();
+    }
+
+    if (classFileMap.isEmpty()) {
+      logger.warn("no class files for package: " + packageName + ", fingerprint won't match any other run");
+      return UUID.randomUUID().toString();
+    }
+
+    var md = newDigest();
+    for (var entry : classFileMap.entrySet()) {
+      update(md, entry.getKey().getBytes());
+      update(md, entry.getValue());
+    }
+    return HexFormat.of().formatHex(md.digest());
+  }
+
+  private static void readDirectory(Path dirPath, Map<String, byte[]> classFileMap) throws IOException {
+    try (var stream = Files.walk(dirPath)) {
+      for (var path : stream.filter(p -> p.toString().endsWith(".class")).toList()) {
+        classFileMap.put(dirPath.relativize(path).toString().replace('\\', '/'), Files.readAllBytes(path));
+      }
+    }
+  }
+
+  private static void readJar(URL url, String resourceName, Map<String, byte[]> classFileMap) throws Exception {
+    // jar:file:/path/to/some.jar!/com/surftools/...
+    var spec = url.getPath();
+    var jarPath = Path.of(new URI(spec.substring(0, spec.indexOf("!/"))));
+    var prefix = resourceName + "/";
+    try (var jarFile = new JarFile(jarPath.toFile())) {
+      var entries = jarFile.entries();
+      while (entries.hasMoreElements()) {
+        var entry = entries.nextElement();
+        var name = entry.getName();
+        if (name.startsWith(prefix) && name.endsWith(".class")) {
+          try (var inputStream = jarFile.getInputStream(entry)) {
+            classFileMap.put(name.substring(prefix.length()), inputStream.readAllBytes());
+          }
+        }
+      }
+    }
+  }
+
+  private static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (Exception e) {
+      throw new RuntimeException("no SHA-256: " + e.getLocalizedMessage());
+    }
+  }
+
+  private static void update(MessageDigest md, byte[] bytes) {
+    md.update(bytes);
+    md.update((byte) 0);
+  }
+}
@@ -0,0 +1,124 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * canonicalize repeated strings (callsigns, addresses, file names), so that equal values share one instance
+ *
+ * unlike String.intern(), the table belongs to its owner, and goes away with it; safe for concurrent use
+ *
+ * @author bobt
+ *
+ */
+public class StringInterner {
+  private final ConcurrentHashMap<String, String> map = new ConcurrentHashMap<>();
+  private final LongAdder duplicateCount = new LongAdder();
+  private final LongAdder bytesSaved = new LongAdder();
+
+  /**
+   * @param s
+   * @return the canonical instance equal to s, or null if s is null
+   */
+  public String intern(String s) {
+    if (s == null) {
+      return null;
+    }
+
+    var existing = map.putIfAbsent(s, s);
+    if (existing == null) {
+      return s;
+    }
+
+    duplicateCount.increment();
+    bytesSaved.add(estimateBytes(s));
+    return existing;
+  }
+
+  /**
+   * @param list
+   * @return unmodifiable list of canonical instances, in the same order
+   */
+  public List<String> internAll(List<String> list) {
+    var internedList = new ArrayList<String>(list.size());
+    for (var s : list) {
+      internedList.add(intern(s));
+    }
+    return Collections.unmodifiableList(internedList);
+  }
+
+  /**
+   * @return number of distinct strings
+   */
+  public int size() {
+    return map.size();
+  }
+
+  /**
+   * @return number of strings replaced by an existing instance
+   */
+  public long getDuplicateCount() {
+    return duplicateCount.sum();
+  }
+
+  /**
+   * @return estimate of heap no longer retained by duplicates, assuming compact (one byte per char) strings
+   */
+  public long getBytesSaved() {
+    return bytesSaved.sum();
+  }
+
+  public void clear() {
+    map.clear();
+  }
+
+  /**
+   * String object (header, hash, coder, value) plus its byte[] (header, length, content), 8-byte aligned
+   *
+   * @param s
+   * @return
+   */
+  static long estimateBytes(String s) {
+    return 24 + align(16 + s.length());
+  }
+
+  private static long align(long n) {
+    return (n + 7) & ~7L;
+  }
+
+  @Override
+  public String toString() {
+    return "StringInterner {distinct: " + size() + ", duplicates: " + getDuplicateCount() + ", bytesSaved: "
+        + getBytesSaved() + "}";
+  }
+}
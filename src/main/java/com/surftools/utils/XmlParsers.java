@@ -0,0 +1,155 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2025, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.utils;
+
+import java.io.InputStream;
+import java.io.Reader;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.w3c.dom.Document;
+import org.xml.sax.InputSource;
+
+/**
+ * per-thread, reusable XML parsers, configured for secure processing once
+ *
+ * DocumentBuilderFactory.newInstance() does a service-loader lookup, and newDocumentBuilder() allocates a fresh parser,
+ * so doing both for every message is expensive. A DocumentBuilder isn't thread-safe, but can be reset() and reused, so
+ * each thread gets it's own
+ *
+ * @author bobt
+ *
+ */
+public class XmlParsers {
+
+  private static final ThreadLocal<DocumentBuilder> documentBuilders = ThreadLocal
+      .withInitial(XmlParsers::newDocumentBuilder);
+
+  private static final ThreadLocal<XMLInputFactory> xmlInputFactories = ThreadLocal
+      .withInitial(() -> newXmlInputFactory(true));
+
+  // not coalescing, so that CDATA stays a separate node, like the DOM
+  private static final ThreadLocal<XMLInputFactory> domLikeXmlInputFactories = ThreadLocal
+      .withInitial(() -> newXmlInputFactory(false));
+
+  // the JDK's StAX otherwise reports CDATA as CHARACTERS, even when not coalescing
+  private static final String REPORT_CDATA_EVENT = "http://java.sun.com/xml/stream/properties/report-cdata-event";
+
+  /**
+   * @return this thread's DocumentBuilder, reset to it's initial configuration
+   */
+  public static DocumentBuilder getDocumentBuilder() {
+    var documentBuilder = documentBuilders.get();
+    documentBuilder.reset();
+    return documentBuilder;
+  }
+
+  /**
+   * @return this thread's XMLInputFactory, no DTDs, no external entities, coalescing
+   */
+  public static XMLInputFactory getXmlInputFactory() {
+    return xmlInputFactories.get();
+  }
+
+  /**
+   * parse into a normalized Document, with this thread's DocumentBuilder
+   *
+   * @param reader
+   * @return
+   * @throws Exception
+   */
+  public static Document parse(Reader reader) throws Exception {
+    return normalize(getDocumentBuilder().parse(new InputSource(reader)));
+  }
+
+  /**
+   * parse into a normalized Document, with this thread's DocumentBuilder
+   *
+   * @param inputStream
+   * @return
+   * @throws Exception
+   */
+  public static Document parse(InputStream inputStream) throws Exception {
+    return normalize(getDocumentBuilder().parse(inputStream));
+  }
+
+  public static XMLStreamReader createXMLStreamReader(Reader reader) throws XMLStreamException {
+    return getXmlInputFactory().createXMLStreamReader(reader);
+  }
+
+  /**
+   * make a reader with this thread's non-coalescing, non-namespace-aware XMLInputFactory, that reports text, CDATA and
+   * comments as separate events, the way the DOM has separate nodes for them
+   *
+   * @param reader
+   * @return
+   * @throws XMLStreamException
+   */
+  public static XMLStreamReader createDomLikeXMLStreamReader(Reader reader) throws XMLStreamException {
+    return domLikeXmlInputFactories.get().createXMLStreamReader(reader);
+  }
+
+  /**
+   * make a new DocumentBuilder, the un-pooled way, with secure processing
+   *
+   * @return
+   */
+  public static DocumentBuilder newDocumentBuilder() {
+    try {
+      var dbf = DocumentBuilderFactory.newInstance();
+      dbf.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+      return dbf.newDocumentBuilder();
+    } catch (Exception e) {
+      throw new RuntimeException("Exception creating DocumentBuilder: " + e.getLocalizedMessage());
+    }
+  }
+
+  private static XMLInputFactory newXmlInputFactory(boolean isCoalescing) {
+    var xmlInputFactory = XMLInputFactory.newInstance();
+    xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    xmlInputFactory.setProperty(XMLInputFactory.IS_COALESCING, isCoalescing);
+    if (!isCoalescing) {
+      xmlInputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+      if (xmlInputFactory.isPropertySupported(REPORT_CDATA_EVENT)) {
+        xmlInputFactory.setProperty(REPORT_CDATA_EVENT, true);
+      }
+    }
+    return xmlInputFactory;
+  }
+
+  private static Document normalize(Document document) {
+    document.getDocumentElement().normalize();
+    return document;
+  }
+}
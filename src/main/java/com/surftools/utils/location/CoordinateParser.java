@@ -0,0 +1,140 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2022, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.utils.location;
+
+/**
+ * exception-free parsing of decimal coordinates, allocation-free except for the String result of parseHemisphere()
+ *
+ * @author bobt
+ *
+ */
+public class CoordinateParser {
+
+  // exactly representable powers of ten
+  static final double[] POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12,
+      1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+
+  // at most 15 digits fit exactly in the 53 bits of a double mantissa
+  private static final int MAX_DIGITS = 15;
+
+  /**
+   * parse a plain decimal number, [+-]digits[.digits], in s[start, end)
+   *
+   * when there are no more than 15 digits, the digits and the power of ten are both exact doubles, so a single
+   * division gives the same, correctly rounded, result as Double.parseDouble
+   *
+   * @param s
+   * @param start
+   * @param end
+   * @return value, or NaN if not a plain decimal number of 15 or fewer digits
+   */
+  public static double parseDecimal(CharSequence s, int start, int end) {
+    if (s == null || start >= end) {
+      return Double.NaN;
+    }
+
+    var i = start;
+    var isNegative = false;
+    var c = s.charAt(i);
+    if (c == '-' || c == '+') {
+      isNegative = c == '-';
+      ++i;
+    }
+
+    long mantissa = 0;
+    var nDigits = 0;
+    var nFractionDigits = 0;
+    var isFraction = false;
+    for (; i < end; ++i) {
+      c = s.charAt(i);
+      if (c >= '0' && c <= '9') {
+        if (++nDigits > MAX_DIGITS) {
+          return Double.NaN;
+        }
+        mantissa = mantissa * 10 + (c - '0');
+        if (isFraction) {
+          ++nFractionDigits;
+        }
+      } else if (c == '.' && !isFraction) {
+        isFraction = true;
+      } else {
+        return Double.NaN;
+      }
+    } // end loop over characters
+
+    if (nDigits == 0) {
+      return Double.NaN;
+    }
+
+    var value = mantissa / POWERS_OF_TEN[nFractionDigits];
+    return isNegative ? -value : value;
+  }
+
+  /**
+   * parse a coordinate with a trailing hemisphere, like "38.660000N" or "122.870667W", in s[start, end), ignoring
+   * surrounding spaces
+   *
+   * @param s
+   * @param start
+   * @param end
+   * @param positive
+   *          hemisphere of positive values, 'N' or 'E'
+   * @param negative
+   *          hemisphere of negative values, 'S' or 'W'
+   * @return signed decimal String, like "-122.870667", or null if not an unsigned decimal number of 15 or fewer digits
+   *         followed by positive or negative
+   */
+  public static String parseHemisphere(CharSequence s, int start, int end, char positive, char negative) {
+    if (s == null) {
+      return null;
+    }
+
+    while (start < end && s.charAt(start) == ' ') {
+      ++start;
+    }
+    while (end > start && s.charAt(end - 1) == ' ') {
+      --end;
+    }
+    if (end - start < 2) {
+      return null;
+    }
+
+    var hemisphere = Character.toUpperCase(s.charAt(end - 1));
+    if (hemisphere != positive && hemisphere != negative) {
+      return null;
+    }
+
+    var first = s.charAt(start);
+    if (first == '-' || first == '+' || Double.isNaN(parseDecimal(s, start, end - 1))) {
+      return null;
+    }
+
+    var value = s.subSequence(start, end - 1).toString();
+    return hemisphere == negative ? "-" + value : value;
+  }
+}
@@ -27,6 +27,7 @@ SOFTWARE.
 
 package com.surftools.utils.location;
 
+import java.io.Serializable;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 
@@ -39,13 +40,18 @@ import org.slf4j.LoggerFactory;
  * The "natural" type is the String, not double. The default precision is 4 decimal digits. This is 111 m at the
  * equator, etc. We are primarily interested in people's locations, and will be storing in text, CSV files.
  *
+ * The doubles are parsed and validated once, at construction, since distance, bearing, jitter and map code call the
+ * double accessors in tight loops. When constructed from doubles, the Strings are made on first use
+ *
  * https://en.wikipedia.org/wiki/Decimal_degrees
  *
  *
  * @author bobt
  *
  */
-public class LatLongPair {
+public class LatLongPair implements Serializable {
+  private static final long serialVersionUID = 2L;
+
   private static final Logger logger = LoggerFactory.getLogger(LatLongPair.class);
 
   public static final LatLongPair ZERO_ZERO = new LatLongPair(0, 0);
@@ -53,26 +59,63 @@ public class LatLongPair {
   public static final LatLongPair SOUTH_POLE = new LatLongPair(-90, 0);
   public static final LatLongPair INVALID = new LatLongPair(null, null);
 
-  private final String latitude;
-  private final String longitude;
+  // null until first use, when constructed from doubles
+  private String latitude;
+  private String longitude;
+
+  // the arguments and the precision of the Strings, when constructed from doubles
+  private final double rawLatitude;
+  private final double rawLongitude;
+  private final int stringPrecision;
 
-  private double dLatitude;
-  private double dLongitude;
+  private final double dLatitude;
+  private final double dLongitude;
+  private final boolean isValid;
+  private final String parseError;
 
   private static int precision = 4;
 
   public LatLongPair(String latitude, String longitude) {
     // for Europeans
     if (latitude != null && latitude.indexOf(".") == -1 && latitude.indexOf(",") != -1) {
-      latitude = latitude.replaceAll(",", ".");
+      latitude = latitude.replace(',', '.');
     }
 
     if (longitude != null && longitude.indexOf(".") == -1 && longitude.indexOf(",") != -1) {
-      longitude = longitude.replaceAll(",", ".");
+      longitude = longitude.replace(',', '.');
     }
 
     this.latitude = latitude;
     this.longitude = longitude;
+    this.rawLatitude = 0d;
+    this.rawLongitude = 0d;
+    this.stringPrecision = -1;
+
+    // same checks, in the same order, leaving the same values behind, as when we re-parsed on every call
+    double dLat = 0d;
+    double dLon = 0d;
+    var valid = false;
+    String error = null;
+    if (latitude != null && longitude != null && latitude.length() > 0 && longitude.length() > 0) {
+      try {
+        dLat = parse(latitude);
+        if (!(Math.abs(dLat) > 90d)) {
+          try {
+            dLon = parse(longitude);
+            valid = !(Math.abs(dLon) > 180d);
+          } catch (Exception e) {
+            error = "could not parse longitude from: " + longitude;
+          }
+        }
+      } catch (Exception e) {
+        error = "could not parse latitude from: " + latitude;
+      }
+    }
+
+    dLatitude = dLat;
+    dLongitude = dLon;
+    isValid = valid;
+    parseError = error;
   }
 
   public LatLongPair(String grid) {
@@ -80,9 +123,18 @@ public class LatLongPair {
         String.valueOf(LocationUtils.getLongitudeFromMaidenhead(grid)));
   }
 
+  /**
+   * @param s
+   * @return same as Double.parseDouble(s), without the expense for plain decimal numbers
+   */
+  private static double parse(String s) {
+    var value = CoordinateParser.parseDecimal(s, 0, s.length());
+    return Double.isNaN(value) ? Double.parseDouble(s) : value;
+  }
+
   @Override
   public String toString() {
-    return "lat:" + latitude + ", lon: " + longitude;
+    return "lat:" + getLatitude() + ", lon: " + getLongitude();
   }
 
   private static double centeredModulus(double dividend, double divisor) {
@@ -119,21 +171,54 @@ public class LatLongPair {
    * @param places
    * @return
    */
-  private static String round(double value, int places) {
+  private static BigDecimal roundDecimal(double value, int places) {
     var bd = new BigDecimal(value);
-    bd = bd.setScale(places, RoundingMode.HALF_UP);
-    return bd.toString();
+    return bd.setScale(places, RoundingMode.HALF_UP);
+  }
+
+  private static String round(double value, int places) {
+    return roundDecimal(value, places).toString();
+  }
+
+  /**
+   * @param bd
+   * @return the same value as Double.parseDouble(bd.toString())
+   */
+  private static double toDouble(BigDecimal bd) {
+    var scale = bd.scale();
+    if (scale >= 0 && scale <= 22 && bd.unscaledValue().bitLength() <= 49) {
+      // both exact, so a single, correctly rounded, division
+      return bd.unscaledValue().longValue() / CoordinateParser.POWERS_OF_TEN[scale];
+    }
+    return Double.parseDouble(bd.toString());
   }
 
   public LatLongPair(double lat, double lon) {
-    this(round(normalizeLatitude(lat), precision), round(normalizeLongitude(lon), precision));
+    rawLatitude = lat;
+    rawLongitude = lon;
+    stringPrecision = precision;
+    dLatitude = toDouble(roundDecimal(normalizeLatitude(lat), stringPrecision));
+    dLongitude = toDouble(roundDecimal(normalizeLongitude(lon), stringPrecision));
+    isValid = !(Math.abs(dLatitude) > 90d) && !(Math.abs(dLongitude) > 180d);
+    parseError = null;
   }
 
   public LatLongPair(LatLongPair other) {
-    this(other.latitude, other.longitude);
+    latitude = other.latitude;
+    longitude = other.longitude;
+    rawLatitude = other.rawLatitude;
+    rawLongitude = other.rawLongitude;
+    stringPrecision = other.stringPrecision;
+    dLatitude = other.dLatitude;
+    dLongitude = other.dLongitude;
+    isValid = other.isValid;
+    parseError = other.parseError;
   }
 
   public String getLatitude() {
+    if (latitude == null && stringPrecision >= 0) {
+      latitude = round(normalizeLatitude(rawLatitude), stringPrecision);
+    }
     return latitude;
   }
 
@@ -145,6 +230,9 @@ public class LatLongPair {
   }
 
   public String getLongitude() {
+    if (longitude == null && stringPrecision >= 0) {
+      longitude = round(normalizeLongitude(rawLongitude), stringPrecision);
+    }
     return longitude;
   }
 
@@ -165,40 +253,22 @@ public class LatLongPair {
     return dLongitude;
   }
 
+  /**
+   * same as !getLatitude(0).equals("0") && !getLongitude(0).equals("0"), without the Strings: HALF_UP rounds to zero
+   * only when the magnitude is under one half
+   *
+   * @return
+   */
   public boolean isValidNotZero() {
-    return isValid() && !getLatitude(0).equals("0") && !getLongitude(0).equals("0");
+    return isValid() && Math.abs(normalizeLatitude(dLatitude)) >= 0.5d
+        && Math.abs(normalizeLongitude(dLongitude)) >= 0.5d;
   }
 
   public boolean isValid() {
-    if (latitude == null || longitude == null) {
-      return false;
+    if (parseError != null) {
+      logger.error(parseError);
     }
-
-    if (latitude.length() == 0 || longitude.length() == 0) {
-      return false;
-    }
-
-    try {
-      dLatitude = Double.parseDouble(latitude);
-      if (Math.abs(dLatitude) > 90d) {
-        return false;
-      }
-    } catch (Exception e) {
-      logger.error("could not parse latitude from: " + latitude);
-      return false;
-    }
-
-    try {
-      dLongitude = Double.parseDouble(longitude);
-      if (Math.abs(dLongitude) > 180d) {
-        return false;
-      }
-    } catch (Exception e) {
-      logger.error("could not parse longitude from: " + longitude);
-      return false;
-    }
-
-    return true;
+    return isValid;
   }
 
   public int computeDistanceMiles(LatLongPair other) {
@@ -95,6 +95,8 @@ public enum Key implements IConfigurationKey {
   PIPELINE_STDIN("pipeline.stdin"), // list of input processors
   PIPELINE_STDOUT("pipeline.stdout"), // list of output processors
   PIPELINE_MAIN("pipeline.main"), // list of main processors
+  PIPELINE_CONCURRENT_MESSAGE_MANAGER("pipeline.concurrentMessageManager"), // snapshot-based, thread-safe message manager; default false
+  PIPELINE_PARALLELISM("pipeline.parallelism"), // number of non-conflicting processors run concurrently, default 1; 0 for all cores
 
   PRACTICE_PATH("practice.path"), // path where practice files are written
   PRACTICE_ALL_FEEDBACK_TEXT_EDITOR("practice.all_feedback.textEditor"), // class name of text editor for AllFeedback
@@ -146,6 +148,24 @@ public enum Key implements IConfigurationKey {
   WEB_SERVER_PORT("web.serverPort"), // that we listen on
 
   READ_FILTER_ENABLED("read.filterEnabled"), // to filter in/out messages by sender/from in BaseReadProcessor
+  READ_STREAMING_ENABLED("read.streamingEnabled"), // single-pass StAX read of exported messages, no DOM
+  READ_PARALLELISM("read.parallelism"), // number of input files read concurrently, default 1; 0 for all cores
+  READ_INGEST_INDEX_ENABLED("read.ingestIndexEnabled"), // reuse messages from unchanged input files on re-runs
+  READ_FILTER_WINDOW_ENABLED("read.filterWindowEnabled"), // skip messages outside exerciseWindowOpen/Close, before MIME decode
+  READ_FILTER_SUBJECT_PREFIXES("read.filterSubjectPrefixes"), // comma-delimited, case-insensitive, skip other subjects
+  READ_FILTER_DESTINATIONS_ENABLED("read.filterDestinationsEnabled"), // skip messages not to expected/secondary destinations
+  READ_MIME_DECODER_ENABLED("read.mimeDecoderEnabled"), // one-pass MIME decode, javax.mail only as fallback; default true
+  READ_INTERN_ENABLED("read.internEnabled"), // share one instance of repeated callsigns, addresses, file names; default true
+  READ_MAX_ENTRY_MB("read.maxEntryMB"), // largest decompressed .zip entry or .gz file read, in megabytes; default 100
+  CLASSIFY_PARALLELISM("classify.parallelism"), // number of messages classified and parsed concurrently, default 1; 0 for all cores
+  CLASSIFY_PARSE_CACHE_ENABLED("classify.parseCacheEnabled"), // reuse parsed messages from previous runs, unless message or parser changed
+  CLASSIFY_SPOOL_ENABLED("classify.spoolEnabled"), // after parsing, move raw mime, lines and attachments to a scratch file
+  PDF_THREADS("pdf.threads"), // PDF text extraction pool size, default 2; 0 to extract on the calling thread, no timeout
+  PDF_MAX_PAGES("pdf.maxPages"), // don't extract text from PDFs with more pages, default 100; 0 for no limit
+  PDF_TIMEOUT_SECONDS("pdf.timeoutSeconds"), // stop waiting for PDF text extraction after, default 60
+  PDF_CACHE_ENABLED("pdf.cacheEnabled"), // keep extracted PDF text on disk, by attachment hash, across runs
+  PARSE_VIEWER_STREAMING_ENABLED("parse.viewerStreamingEnabled"), // StAX tag->value map for RMS viewer XML, DOM only if needed; default true
+  WATCH_QUIET_SECONDS("watch.quietSeconds"), // in watch mode, seconds without input changes before re-running
 
   MAP_TEMPLATE_METHOD("map.template.method"), // "fast" or "slow", default "fast"
   ;
@@ -0,0 +1,316 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wimp.core;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.surftools.utils.location.LatLongPair;
+import com.surftools.wimp.message.ExportedMessage;
+
+/**
+ * IMessageManager that can be shared by concurrent threads
+ *
+ * changes are serialized on a single lock; readers see an immutable snapshot of the by-type lists, senders and
+ * indexes, published atomically by the first read after a change, so reads never see a half-made change and never
+ * block each other once a snapshot is published
+ *
+ * getMessagesForSender() returns a copy, which callers may mutate and put back, same as with MessageManager
+ *
+ * @author bobt
+ *
+ */
+public class ConcurrentMessageManager implements IMessageManager {
+
+  private final Map<String, Object> contextMap = new ConcurrentHashMap<>();
+
+  // guards store and originalMessageList
+  private final Object lock = new Object();
+
+  // source of truth, plus the by-type index
+  private final MessageStore store = new MessageStore();
+
+  private volatile List<ExportedMessage> originalMessageList = List.of();
+
+  // null after any change to the store, until next read
+  private volatile Snapshot snapshot = null;
+
+  /**
+   * everything a reader can see, as of one point in time; never modified
+   */
+  private static class Snapshot {
+    private final Map<MessageType, List<ExportedMessage>> typeMap;
+    private final List<String> senderList;
+
+    // built on first query
+    private volatile MessageIndexes indexes;
+
+    private Snapshot(Map<MessageType, List<ExportedMessage>> typeMap, List<String> senderList) {
+      this.typeMap = typeMap;
+      this.senderList = senderList;
+    }
+
+    /**
+     * @return indexes over all messages, by type (in ordinal order), then in sorted order
+     */
+    private MessageIndexes getIndexes() {
+      var value = indexes;
+      if (value == null) {
+        synchronized (this) {
+          value = indexes;
+          if (value == null) {
+            var messages = new ArrayList<ExportedMessage>();
+            for (var list : typeMap.values()) {
+              messages.addAll(list);
+            }
+            value = new MessageIndexes(messages);
+            indexes = value;
+          }
+        }
+      }
+      return value;
+    }
+  }
+
+  public ConcurrentMessageManager() {
+    clear();
+  }
+
+  @Override
+  public void clear() {
+    contextMap.clear();
+    synchronized (lock) {
+      store.clear();
+      snapshot = null;
+    }
+  }
+
+  @Override
+  public Object getContextObject(String key) {
+    return contextMap.get(key);
+  }
+
+  @Override
+  public void putContextObject(String key, Object value) {
+    // ConcurrentHashMap doesn't allow null values; absent is the same as null to getContextObject()
+    if (value == null) {
+      contextMap.remove(key);
+    } else {
+      contextMap.put(key, value);
+    }
+  }
+
+  @Override
+  public void load(List<ExportedMessage> messages) {
+    var senderMap = new LinkedHashMap<String, Map<MessageType, List<ExportedMessage>>>();
+    for (var message : messages) {
+      senderMap
+          .computeIfAbsent(message.from, k -> new HashMap<MessageType, List<ExportedMessage>>())
+            .computeIfAbsent(message.getMessageType(), k -> new ArrayList<ExportedMessage>())
+            .add(message);
+    }
+
+    synchronized (lock) {
+      if (originalMessageList.size() == 0) {
+        originalMessageList = Collections.unmodifiableList(new ArrayList<>(messages));
+      }
+      loadSenderMap(senderMap);
+    }
+  }
+
+  @Override
+  public List<ExportedMessage> getOriginalMessages() {
+    return originalMessageList;
+  }
+
+  @Override
+  public Map<MessageType, List<ExportedMessage>> getMessagesForSender(String sender) {
+    synchronized (lock) {
+      var map = store.getMessagesForSender(sender);
+      if (map == null) {
+        return null;
+      }
+
+      var copy = new HashMap<MessageType, List<ExportedMessage>>(map.size());
+      for (var entry : map.entrySet()) {
+        copy.put(entry.getKey(), entry.getValue() == null ? null : new ArrayList<>(entry.getValue()));
+      }
+      return copy;
+    }
+  }
+
+  @Override
+  public List<ExportedMessage> getAllMessagesForSender(String sender) {
+    var list = new ArrayList<ExportedMessage>();
+    synchronized (lock) {
+      var map = store.getMessagesForSender(sender);
+      if (map != null) {
+        for (var sublist : map.values()) {
+          list.addAll(sublist);
+        }
+      }
+    }
+    return list;
+  }
+
+  @Override
+  public void putMessagesForSender(String sender, Map<MessageType, List<ExportedMessage>> messages) {
+    synchronized (lock) {
+      store.putMessagesForSender(sender, messages);
+      snapshot = null;
+    }
+  }
+
+  @Override
+  public void removeMessagesForSender(String sender) {
+    synchronized (lock) {
+      store.removeMessagesForSender(sender);
+      snapshot = null;
+    }
+  }
+
+  @Override
+  public void removeMesseagesForSenders(ArrayList<String> removeList) {
+    synchronized (lock) {
+      for (var sender : removeList) {
+        store.removeMessagesForSender(sender);
+      }
+      snapshot = null;
+    }
+  }
+
+  @Override
+  public List<ExportedMessage> getMessagesForType(MessageType type) {
+    return getSnapshot().typeMap.get(type);
+  }
+
+  @Override
+  public Iterator<MessageType> getMessageTypeIteror() {
+    return getSnapshot().typeMap.keySet().iterator();
+  }
+
+  @Override
+  public Iterator<String> getSenderIterator() {
+    return getSnapshot().senderList.iterator();
+  }
+
+  @Override
+  public void load(Map<MessageType, List<ExportedMessage>> messages) {
+    var senderMap = new LinkedHashMap<String, Map<MessageType, List<ExportedMessage>>>();
+    for (var messageType : messages.keySet()) {
+      var typeList = messages.get(messageType);
+      for (var message : typeList) {
+        senderMap
+            .computeIfAbsent(message.from, k -> new HashMap<MessageType, List<ExportedMessage>>())
+              .computeIfAbsent(messageType, k -> new ArrayList<ExportedMessage>())
+              .add(message);
+      } // end loop over messages in typeList
+    } // end loop over messageTypes
+
+    synchronized (lock) {
+      loadSenderMap(senderMap);
+    }
+  }
+
+  /**
+   * senderMap must be in first-seen order, so that sender iteration order is as if put one message at a time
+   *
+   * caller must hold lock
+   */
+  private void loadSenderMap(Map<String, Map<MessageType, List<ExportedMessage>>> senderMap) {
+    store.clear();
+    for (var entry : senderMap.entrySet()) {
+      store.putMessagesForSender(entry.getKey(), entry.getValue());
+    }
+    snapshot = null;
+  }
+
+  @Override
+  public List<ExportedMessage> getMessagesForId(String messageId) {
+    return getSnapshot().getIndexes().getMessagesForId(messageId);
+  }
+
+  @Override
+  public List<ExportedMessage> getMessagesForRecipient(String recipient) {
+    return getSnapshot().getIndexes().getMessagesForRecipient(recipient);
+  }
+
+  @Override
+  public List<ExportedMessage> getMessagesForTimeWindow(LocalDateTime start, LocalDateTime end) {
+    return getSnapshot().getIndexes().getMessagesForTimeWindow(start, end);
+  }
+
+  @Override
+  public List<ExportedMessage> getMessagesNear(LatLongPair location, double radiusMiles) {
+    return getSnapshot().getIndexes().getMessagesNear(location, radiusMiles);
+  }
+
+  /**
+   * @return current snapshot, publishing a new one if the store has changed since the last
+   */
+  private Snapshot getSnapshot() {
+    var value = snapshot;
+    if (value == null) {
+      synchronized (lock) {
+        value = snapshot;
+        if (value == null) {
+          value = makeSnapshot();
+          snapshot = value;
+        }
+      }
+    }
+    return value;
+  }
+
+  /**
+   * by-type lists are shared, not copied: the store never modifies a list once it's been returned
+   *
+   * caller must hold lock
+   */
+  private Snapshot makeSnapshot() {
+    var typeMap = new EnumMap<MessageType, List<ExportedMessage>>(MessageType.class);
+    var it = store.getMessageTypeIterator();
+    while (it.hasNext()) {
+      var type = it.next();
+      typeMap.put(type, Collections.unmodifiableList(store.getMessagesForType(type)));
+    }
+
+    var senderList = new ArrayList<String>();
+    store.getSenderIterator().forEachRemaining(senderList::add);
+
+    return new Snapshot(Collections.unmodifiableMap(typeMap), Collections.unmodifiableList(senderList));
+  }
+}
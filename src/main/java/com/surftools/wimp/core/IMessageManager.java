@@ -27,11 +27,13 @@ SOFTWARE.
 
 package com.surftools.wimp.core;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
+import com.surftools.utils.location.LatLongPair;
 import com.surftools.wimp.message.ExportedMessage;
 
 public interface IMessageManager {
@@ -135,6 +137,42 @@ public interface IMessageManager {
    */
   public Iterator<String> getSenderIterator();
 
+  /**
+   * get all messages with given messageId, from a lazily-built index
+   *
+   * @param messageId
+   * @return
+   */
+  public List<ExportedMessage> getMessagesForId(String messageId);
+
+  /**
+   * get all messages with given recipient in to, toList or ccList, from a lazily-built index
+   *
+   * @param recipient
+   * @return
+   */
+  public List<ExportedMessage> getMessagesForRecipient(String recipient);
+
+  /**
+   * get all messages with sortDateTime in [start, end), in sortDateTime order, from a lazily-built index
+   *
+   * @param start
+   *          or null for no lower bound
+   * @param end
+   *          or null for no upper bound
+   * @return
+   */
+  public List<ExportedMessage> getMessagesForTimeWindow(LocalDateTime start, LocalDateTime end);
+
+  /**
+   * get all messages with mapLocation within radiusMiles of location, from a lazily-built index
+   *
+   * @param location
+   * @param radiusMiles
+   * @return
+   */
+  public List<ExportedMessage> getMessagesNear(LatLongPair location, double radiusMiles);
+
   /**
    * clear all messages
    */
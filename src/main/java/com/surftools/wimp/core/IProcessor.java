@@ -49,6 +49,15 @@ public interface IProcessor {
    */
   public void postProcess();
 
+  /**
+   * what this processor reads and writes during process() and postProcess()
+   *
+   * @return resources, or null if undeclared, in which case the pipeline never runs it concurrently with another
+   */
+  public default ProcessorResources getResources() {
+    return null;
+  }
+
   public default String getName() {
     var fullName = getClass().getName();
     var fields = fullName.split("\\.");
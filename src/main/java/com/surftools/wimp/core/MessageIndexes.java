@@ -0,0 +1,233 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wimp.core;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import com.surftools.utils.location.LatLongPair;
+import com.surftools.utils.location.LocationUtils;
+import com.surftools.wimp.message.ExportedMessage;
+
+/**
+ * secondary indexes over a fixed set of messages: by messageId, by recipient, by sortDateTime and by mapLocation
+ *
+ * each index is built on first use, from the field values at that time; results are in the order of the messages given
+ * (except for time windows, which are in sortDateTime order)
+ *
+ * queries are synchronized, so that one instance can be shared by concurrent readers
+ *
+ * @author bobt
+ *
+ */
+public class MessageIndexes {
+  private static final double METERS_PER_MILE = 1d / 0.000621371d;
+  private static final double MILES_PER_DEGREE_LATITUDE = 69d;
+
+  private final List<ExportedMessage> messages;
+
+  private Map<String, List<ExportedMessage>> idMap;
+  private Map<String, List<ExportedMessage>> recipientMap;
+  private List<ExportedMessage> timeList;
+  private Map<Long, List<GridEntry>> gridMap;
+
+  private static record GridEntry(int ordinal, ExportedMessage message) {
+  };
+
+  public MessageIndexes(List<ExportedMessage> messages) {
+    this.messages = messages;
+  }
+
+  /**
+   * @param messageId
+   * @return all messages with messageId, empty if none
+   */
+  public synchronized List<ExportedMessage> getMessagesForId(String messageId) {
+    if (idMap == null) {
+      idMap = new HashMap<>();
+      for (var m : messages) {
+        idMap.computeIfAbsent(m.messageId, k -> new ArrayList<>()).add(m);
+      }
+    }
+    return unmodifiable(idMap.get(messageId));
+  }
+
+  /**
+   * @param recipient
+   *          address as it appears in to, toList or ccList
+   * @return all messages addressed to recipient, empty if none
+   */
+  public synchronized List<ExportedMessage> getMessagesForRecipient(String recipient) {
+    if (recipientMap == null) {
+      recipientMap = new HashMap<>();
+      for (var m : messages) {
+        var recipients = new LinkedHashSet<String>();
+        addRecipients(recipients, ExportedMessage.splitAddresses(m.to));
+        addRecipients(recipients, m.getToAddresses());
+        addRecipients(recipients, m.getCcAddresses());
+        for (var r : recipients) {
+          recipientMap.computeIfAbsent(r, k -> new ArrayList<>()).add(m);
+        }
+      }
+    }
+    return recipient == null ? List.of() : unmodifiable(recipientMap.get(recipient.strip()));
+  }
+
+  /**
+   * @param start
+   *          inclusive, or null for no lower bound
+   * @param end
+   *          exclusive, or null for no upper bound
+   * @return messages with sortDateTime in [start, end), in sortDateTime order
+   */
+  public synchronized List<ExportedMessage> getMessagesForTimeWindow(LocalDateTime start, LocalDateTime end) {
+    if (timeList == null) {
+      timeList = new ArrayList<>(messages.size());
+      for (var m : messages) {
+        if (m.sortDateTime != null) {
+          timeList.add(m);
+        }
+      }
+      // stable
+      timeList.sort((m1, m2) -> m1.sortDateTime.compareTo(m2.sortDateTime));
+    }
+
+    var fromIndex = start == null ? 0 : lowerBound(start);
+    var toIndex = end == null ? timeList.size() : lowerBound(end);
+    if (fromIndex >= toIndex) {
+      return List.of();
+    }
+    return Collections.unmodifiableList(timeList.subList(fromIndex, toIndex));
+  }
+
+  /**
+   * @param location
+   * @param radiusMiles
+   * @return messages with a valid mapLocation within radiusMiles of location, empty if none
+   */
+  public synchronized List<ExportedMessage> getMessagesNear(LatLongPair location, double radiusMiles) {
+    if (location == null || !location.isValid() || radiusMiles < 0) {
+      return List.of();
+    }
+
+    if (gridMap == null) {
+      gridMap = new HashMap<>();
+      for (var ordinal = 0; ordinal < messages.size(); ++ordinal) {
+        var m = messages.get(ordinal);
+        if (m.mapLocation != null && m.mapLocation.isValid()) {
+          var latitude = LatLongPair.normalizeLatitude(m.mapLocation.getLatitudeAsDouble());
+          var longitude = LatLongPair.normalizeLongitude(m.mapLocation.getLongitudeAsDouble());
+          var cell = makeCell(latIndex(latitude), lonIndex(longitude));
+          gridMap.computeIfAbsent(cell, k -> new ArrayList<>()).add(new GridEntry(ordinal, m));
+        }
+      }
+    }
+
+    var latitude = LatLongPair.normalizeLatitude(location.getLatitudeAsDouble());
+    var longitude = LatLongPair.normalizeLongitude(location.getLongitudeAsDouble());
+    var radiusDegrees = radiusMiles / MILES_PER_DEGREE_LATITUDE;
+    var minLatIndex = latIndex(Math.max(-90d, latitude - radiusDegrees));
+    var maxLatIndex = latIndex(Math.min(90d, latitude + radiusDegrees));
+
+    // near the poles, or for big circles, every longitude
+    var maxAbsLatitude = Math.abs(latitude) + radiusDegrees;
+    var firstLonIndex = 0;
+    var lonCellCount = 360;
+    if (maxAbsLatitude < 89d) {
+      var lonRadiusDegrees = radiusDegrees / Math.cos(Math.toRadians(maxAbsLatitude));
+      if (lonRadiusDegrees < 180d) {
+        firstLonIndex = lonIndex(longitude - lonRadiusDegrees);
+        lonCellCount = Math.min(360, lonIndex(longitude + lonRadiusDegrees) - firstLonIndex + 1);
+      }
+    }
+
+    var radiusMeters = radiusMiles * METERS_PER_MILE;
+    var entries = new ArrayList<GridEntry>();
+    for (var latIndex = minLatIndex; latIndex <= maxLatIndex; ++latIndex) {
+      for (var i = 0; i < lonCellCount; ++i) {
+        var list = gridMap.get(makeCell(latIndex, firstLonIndex + i));
+        if (list == null) {
+          continue;
+        }
+        for (var entry : list) {
+          if (LocationUtils.computeDistanceMeters(location, entry.message().mapLocation) <= radiusMeters) {
+            entries.add(entry);
+          }
+        }
+      }
+    }
+
+    // back to the order of the messages given
+    entries.sort((e1, e2) -> Integer.compare(e1.ordinal(), e2.ordinal()));
+    return entries.stream().map(GridEntry::message).toList();
+  }
+
+  private int lowerBound(LocalDateTime dateTime) {
+    var low = 0;
+    var high = timeList.size();
+    while (low < high) {
+      var mid = (low + high) >>> 1;
+      if (timeList.get(mid).sortDateTime.isBefore(dateTime)) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  private static void addRecipients(LinkedHashSet<String> recipients, List<String> addresses) {
+    for (var address : addresses) {
+      address = address.strip();
+      if (!address.isEmpty()) {
+        recipients.add(address);
+      }
+    }
+  }
+
+  private static int latIndex(double latitude) {
+    return Math.min(179, (int) Math.floor(latitude + 90d));
+  }
+
+  private static int lonIndex(double longitude) {
+    return (int) Math.floor(longitude + 180d);
+  }
+
+  private static long makeCell(int latIndex, int lonIndex) {
+    return ((long) latIndex << 32) | Math.floorMod(lonIndex, 360);
+  }
+
+  private static List<ExportedMessage> unmodifiable(List<ExportedMessage> list) {
+    return list == null ? List.of() : Collections.unmodifiableList(list);
+  }
+}
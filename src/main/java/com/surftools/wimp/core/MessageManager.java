@@ -27,13 +27,15 @@ SOFTWARE.
 
 package com.surftools.wimp.core;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
+import com.surftools.utils.location.LatLongPair;
 import com.surftools.wimp.message.ExportedMessage;
 
 public class MessageManager implements IMessageManager {
@@ -43,12 +45,11 @@ public class MessageManager implements IMessageManager {
   private List<ExportedMessage> messageList = new ArrayList<>();
   private List<ExportedMessage> originalMessageList = new ArrayList<>();
 
-  // source of truth
-  private final Map<String, Map<MessageType, List<ExportedMessage>>> senderMap = new HashMap<>();
+  // source of truth, plus the by-type index
+  private final MessageStore store = new MessageStore();
 
-  // convenience object, once senderMap is not dirty
-  private final Map<MessageType, List<ExportedMessage>> messageMap = new HashMap<>();
-  private boolean isSenderMapDirty = false;
+  // built on first query, discarded on any change to the store
+  private MessageIndexes indexes = null;
 
   public MessageManager() {
     clear();
@@ -58,9 +59,8 @@ public class MessageManager implements IMessageManager {
   public void clear() {
     contextMap.clear();
     messageList.clear();
-    senderMap.clear();
-    messageMap.clear();
-    isSenderMapDirty = false;
+    store.clear();
+    indexes = null;
   }
 
   @Override
@@ -83,18 +83,14 @@ public class MessageManager implements IMessageManager {
     }
 
     // convert to our source of truth!
-    senderMap.clear();
+    var senderMap = new LinkedHashMap<String, Map<MessageType, List<ExportedMessage>>>();
     for (var message : messages) {
-      var from = message.from;
-      var type = message.getMessageType();
-      var map = senderMap.getOrDefault(from, new HashMap<MessageType, List<ExportedMessage>>());
-      var list = map.getOrDefault(type, new ArrayList<ExportedMessage>());
-      list.add(message);
-      map.put(type, list);
-      senderMap.put(from, map);
+      senderMap
+          .computeIfAbsent(message.from, k -> new HashMap<MessageType, List<ExportedMessage>>())
+            .computeIfAbsent(message.getMessageType(), k -> new ArrayList<ExportedMessage>())
+            .add(message);
     }
-    isSenderMapDirty = true;
-    rebuildMessageMap();
+    loadSenderMap(senderMap);
   }
 
   @Override
@@ -104,20 +100,19 @@ public class MessageManager implements IMessageManager {
 
   @Override
   public Map<MessageType, List<ExportedMessage>> getMessagesForSender(String sender) {
-    return senderMap.get(sender);
+    return store.getMessagesForSender(sender);
   }
 
   @Override
   public void putMessagesForSender(String sender, Map<MessageType, List<ExportedMessage>> messages) {
-    senderMap.put(sender, messages);
-    isSenderMapDirty = true;
-    rebuildMessageMap();
+    store.putMessagesForSender(sender, messages);
+    indexes = null;
   }
 
   @Override
   public void removeMessagesForSender(String sender) {
-    senderMap.remove(sender);
-    isSenderMapDirty = true;
+    store.removeMessagesForSender(sender);
+    indexes = null;
   }
 
   @Override
@@ -125,76 +120,91 @@ public class MessageManager implements IMessageManager {
     for (var sender : removeList) {
       removeMessagesForSender(sender);
     }
-    rebuildMessageMap();
-  }
-
-  /**
-   * if senderMap is dirty, then we must rebuild the messageMap before using it
-   */
-  private void rebuildMessageMap() {
-    messageMap.clear();
-    for (var containedMap : senderMap.values()) {
-      for (var entry : containedMap.entrySet()) {
-        var entryMessageType = entry.getKey();
-        var entryList = entry.getValue();
-        var messageList = messageMap.getOrDefault(entryMessageType, new ArrayList<ExportedMessage>());
-        messageList.addAll(entryList);
-        Collections.sort(messageList);
-        messageMap.put(entryMessageType, messageList);
-      }
-    }
-    isSenderMapDirty = false;
   }
 
   @Override
   public List<ExportedMessage> getMessagesForType(MessageType type) {
-    if (isSenderMapDirty) {
-      rebuildMessageMap();
-    }
-
-    return messageMap.get(type);
+    return store.getMessagesForType(type);
   }
 
   @Override
   public Iterator<MessageType> getMessageTypeIteror() {
-    if (isSenderMapDirty) {
-      rebuildMessageMap();
-    }
-
-    return messageMap.keySet().iterator();
+    return store.getMessageTypeIterator();
   }
 
   @Override
   public Iterator<String> getSenderIterator() {
-    return senderMap.keySet().iterator();
+    return store.getSenderIterator();
   }
 
   @Override
   public void load(Map<MessageType, List<ExportedMessage>> messages) {
-    senderMap.clear();
+    var senderMap = new LinkedHashMap<String, Map<MessageType, List<ExportedMessage>>>();
     for (var messageType : messages.keySet()) {
       var typeList = messages.get(messageType);
       for (var message : typeList) {
-        var sender = message.from;
-        var tmpSenderMap = senderMap.getOrDefault(sender, new HashMap<MessageType, List<ExportedMessage>>());
-        var tmpSenderList = tmpSenderMap.getOrDefault(messageType, new ArrayList<ExportedMessage>());
-
         /**
          * NOTE WELL: possible duplication here
          */
-        tmpSenderList.add(message);
-        tmpSenderMap.put(messageType, tmpSenderList);
-        senderMap.put(sender, tmpSenderMap);
+        senderMap
+            .computeIfAbsent(message.from, k -> new HashMap<MessageType, List<ExportedMessage>>())
+              .computeIfAbsent(messageType, k -> new ArrayList<ExportedMessage>())
+              .add(message);
       } // end loop over messages in typeList
     } // end loop over messageTypes
-    rebuildMessageMap();
-    isSenderMapDirty = false;
+    loadSenderMap(senderMap);
+  }
+
+  /**
+   * senderMap must be in first-seen order, so that sender iteration order is as if put one message at a time
+   */
+  private void loadSenderMap(Map<String, Map<MessageType, List<ExportedMessage>>> senderMap) {
+    store.clear();
+    for (var entry : senderMap.entrySet()) {
+      store.putMessagesForSender(entry.getKey(), entry.getValue());
+    }
+    indexes = null;
+  }
+
+  @Override
+  public List<ExportedMessage> getMessagesForId(String messageId) {
+    return getIndexes().getMessagesForId(messageId);
+  }
+
+  @Override
+  public List<ExportedMessage> getMessagesForRecipient(String recipient) {
+    return getIndexes().getMessagesForRecipient(recipient);
+  }
+
+  @Override
+  public List<ExportedMessage> getMessagesForTimeWindow(LocalDateTime start, LocalDateTime end) {
+    return getIndexes().getMessagesForTimeWindow(start, end);
+  }
+
+  @Override
+  public List<ExportedMessage> getMessagesNear(LatLongPair location, double radiusMiles) {
+    return getIndexes().getMessagesNear(location, radiusMiles);
+  }
+
+  /**
+   * @return indexes over all messages, by type (in ordinal order), then in sorted order
+   */
+  private MessageIndexes getIndexes() {
+    if (indexes == null) {
+      var messages = new ArrayList<ExportedMessage>();
+      var it = store.getMessageTypeIterator();
+      while (it.hasNext()) {
+        messages.addAll(store.getMessagesForType(it.next()));
+      }
+      indexes = new MessageIndexes(messages);
+    }
+    return indexes;
   }
 
   @Override
   public List<ExportedMessage> getAllMessagesForSender(String sender) {
     var list = new ArrayList<ExportedMessage>();
-    var map = senderMap.get(sender);
+    var map = store.getMessagesForSender(sender);
     if (map != null) {
       for (var sublist : map.values()) {
         list.addAll(sublist);
@@ -0,0 +1,200 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wimp.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import com.surftools.wimp.message.ExportedMessage;
+
+/**
+ * sender -> type -> list and type -> sorted list, maintained incrementally as senders are put or removed, rather than
+ * rebuilt and re-sorted from scratch
+ *
+ * each put records what the sender contributed; the next put or remove for that sender tombstones exactly those
+ * messages, so callers may (and do) mutate the map returned by getMessagesForSender() before putting it back
+ *
+ * additions and tombstones are applied to a type's sorted list when it is next read, with one stable sort of the
+ * additions and one merge, so that per-sender puts without intervening reads cost O(messages) in total
+ *
+ * lists returned by getMessagesForType() are never modified afterwards; changes publish a new list
+ *
+ * @author bobt
+ *
+ */
+public class MessageStore {
+
+  // source of truth, exactly as put by callers
+  private final Map<String, Map<MessageType, List<ExportedMessage>>> senderMap = new HashMap<>();
+
+  // what each sender contributed to typeMap, as of its last put
+  private final Map<String, Map<MessageType, List<ExportedMessage>>> contributionMap = new HashMap<>();
+
+  private final Map<MessageType, TypeEntry> typeMap = new EnumMap<>(MessageType.class);
+
+  /**
+   * sorted list for a single type, plus changes not yet applied to it
+   */
+  private static class TypeEntry {
+    private List<ExportedMessage> sortedList = new ArrayList<>();
+    private List<ExportedMessage> additionList = new ArrayList<>();
+
+    // identity -> number of copies to drop; ExportedMessage.equals() only compares messageId
+    private final Map<ExportedMessage, Integer> tombstoneMap = new IdentityHashMap<>();
+
+    // number of senders with a (possibly empty) list of this type
+    private int senderCount = 0;
+
+    private List<ExportedMessage> getSortedList() {
+      if (additionList.isEmpty() && tombstoneMap.isEmpty()) {
+        return sortedList;
+      }
+
+      // stable, so ties (same sortDateTime and sender) keep their order within the sender's list
+      Collections.sort(additionList);
+
+      var mergedList = new ArrayList<ExportedMessage>(sortedList.size() + additionList.size());
+      var i = 0;
+      var j = 0;
+      while (i < sortedList.size() || j < additionList.size()) {
+        ExportedMessage message;
+        if (j >= additionList.size()
+            || (i < sortedList.size() && sortedList.get(i).compareTo(additionList.get(j)) <= 0)) {
+          message = sortedList.get(i++);
+        } else {
+          message = additionList.get(j++);
+        }
+
+        var count = tombstoneMap.get(message);
+        if (count != null) {
+          if (count == 1) {
+            tombstoneMap.remove(message);
+          } else {
+            tombstoneMap.put(message, count - 1);
+          }
+          continue;
+        }
+        mergedList.add(message);
+      } // end merge
+
+      sortedList = mergedList;
+      additionList = new ArrayList<>();
+      tombstoneMap.clear();
+      return sortedList;
+    }
+  }
+
+  public void clear() {
+    senderMap.clear();
+    contributionMap.clear();
+    typeMap.clear();
+  }
+
+  /**
+   * @param sender
+   * @return the map as last put, or null
+   */
+  public Map<MessageType, List<ExportedMessage>> getMessagesForSender(String sender) {
+    return senderMap.get(sender);
+  }
+
+  /**
+   * replace all messages for sender
+   *
+   * @param sender
+   * @param messages
+   */
+  public void putMessagesForSender(String sender, Map<MessageType, List<ExportedMessage>> messages) {
+    removeContribution(sender);
+    senderMap.put(sender, messages);
+    if (messages == null) {
+      return;
+    }
+
+    var contribution = new HashMap<MessageType, List<ExportedMessage>>(messages.size());
+    for (var entry : messages.entrySet()) {
+      var type = entry.getKey();
+      var list = entry.getValue() == null ? List.<ExportedMessage>of() : entry.getValue();
+      var typeEntry = typeMap.computeIfAbsent(type, k -> new TypeEntry());
+      ++typeEntry.senderCount;
+      typeEntry.additionList.addAll(list);
+      contribution.put(type, new ArrayList<>(list));
+    }
+    contributionMap.put(sender, contribution);
+  }
+
+  public void removeMessagesForSender(String sender) {
+    removeContribution(sender);
+    senderMap.remove(sender);
+  }
+
+  /**
+   * @param type
+   * @return all messages of type, sorted; null if no sender has a list of that type
+   */
+  public List<ExportedMessage> getMessagesForType(MessageType type) {
+    var typeEntry = typeMap.get(type);
+    return typeEntry == null ? null : typeEntry.getSortedList();
+  }
+
+  /**
+   * @return types that at least one sender has a list of, in ordinal order
+   */
+  public Iterator<MessageType> getMessageTypeIterator() {
+    return Collections.unmodifiableSet(typeMap.keySet()).iterator();
+  }
+
+  public Iterator<String> getSenderIterator() {
+    return senderMap.keySet().iterator();
+  }
+
+  private void removeContribution(String sender) {
+    var contribution = contributionMap.remove(sender);
+    if (contribution == null) {
+      return;
+    }
+
+    for (var entry : contribution.entrySet()) {
+      var type = entry.getKey();
+      var typeEntry = typeMap.get(type);
+      if (--typeEntry.senderCount == 0) {
+        typeMap.remove(type);
+        continue;
+      }
+      for (var message : entry.getValue()) {
+        typeEntry.tombstoneMap.merge(message, 1, Integer::sum);
+      }
+    }
+  }
+}
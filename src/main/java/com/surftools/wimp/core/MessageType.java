@@ -44,18 +44,18 @@ public enum MessageType {
   EXPORTED(), // read but not classified
   PLAIN(), // attempted to classify, but can't infer message type
   REJECTS(), //
-  ACK((s -> s.startsWith("ACK:"))), //
-  POSITION((s -> s.equals("Position Report"))), //
+  ACK(SubjectPredicate.startsWith("ACK:")), //
+  POSITION(SubjectPredicate.equalTo("Position Report")), //
 
   CHECK_IN("RMS_Express_Form_Winlink_Check_In_Viewer.xml", "Winlink Check-in"), //
   CHECK_OUT("RMS_Express_Form_Winlink_Check_out_Viewer.xml", "Winlink Check-out"), //
   SPOTREP("RMS_Express_Form_Shares_Spotrep-2_Viewer.xml"), //
   FIELD_SITUATION("RMS_Express_Form_Field Situation Report"), //
-  DYFI((s -> s.startsWith("DYFI Automatic Entry") || s.startsWith("FW: DYFI Automatic Entry"))), //
+  DYFI(SubjectPredicate.startsWith("DYFI Automatic Entry", "FW: DYFI Automatic Entry")), //
 
   WX_LOCAL("RMS_Express_Form_Local Weather Report Viewer.xml"), //
   WX_SEVERE("RMS_Express_Form_Severe WX Report viewer.xml"), //
-  WX_HURRICANE((s -> s.startsWith("HurricaneReport"))), //
+  WX_HURRICANE(SubjectPredicate.startsWith("HurricaneReport")), //
 
   ICS_205("RMS_Express_Form_ICS205 Radio Plan_Viewer.xml"), //
   ICS_213("RMS_Express_Form_ICS213_Initial_Viewer.xml", "ICS-213"), //
@@ -66,13 +66,12 @@ public enum MessageType {
   ICS_309("RMS_Express_Form_ICS309_Viewer.xml"), //
   PDF_ICS_309(), // generated by Winlink Express
 
-  ETO_CHECK_IN(
-      (s -> s.startsWith("Winlink Thursday Net Check-In") || s.startsWith("Re: Winlink Thursday Net Check-In"))), //
-  ETO_CHECK_IN_V2(
-      (s -> s.startsWith("ETO Winlink Thursday Check-In") || s.startsWith("Re: ETO Winlink Thursday Check-In"))), //
-  ETO_RESUME((s -> s.startsWith("ETO Participant resume") || s.startsWith("ETO Resume") || s.startsWith("ETO-RESUME"))), //
-  MIRO_CHECK_IN(
-      (s -> s.equals("MIRO Check In") || s.startsWith("MIRO Winlink Check In") || s.startsWith("MIRO After Action"))),
+  ETO_CHECK_IN(SubjectPredicate.startsWith("Winlink Thursday Net Check-In", "Re: Winlink Thursday Net Check-In")), //
+  ETO_CHECK_IN_V2(SubjectPredicate.startsWith("ETO Winlink Thursday Check-In", "Re: ETO Winlink Thursday Check-In")), //
+  ETO_RESUME(SubjectPredicate.startsWith("ETO Participant resume", "ETO Resume", "ETO-RESUME")), //
+  MIRO_CHECK_IN(SubjectPredicate
+      .equalTo("MIRO Check In")
+      .or(SubjectPredicate.startsWith("MIRO Winlink Check In", "MIRO After Action"))),
 
   DAMAGE_ASSESSMENT("RMS_Express_Form_Damage_Assessment_Viewer.xml"), //
   QUICK("RMS_Express_Form_Quick Message Viewer.xml"), //
@@ -82,10 +81,9 @@ public enum MessageType {
   HOSPITAL_STATUS("RMS_Express_Form_Hospital_Status_Viewer.xml"), //
   HUMANITARIAN_NEEDS("RMS_Express_Form_Humanitarian Needs Identification viewer.xml"), //
 
-  RRI_QUICK_WELFARE((s -> s.startsWith("I Am Safe Message From") && s.endsWith(" - DO NOT REPLY!"))), //
-  RRI_WELFARE_RADIOGRAM((s -> s.startsWith("QTC 1 W") || s.startsWith("QTC 1 TEST W"))), //
-  RRI_REPLY_WELFARE_RADIOGRAM(
-      (s -> s.toUpperCase().startsWith("RE: QTC 1 W") || s.toUpperCase().startsWith("RE: QTC 1 TEST W"))), //
+  RRI_QUICK_WELFARE(SubjectPredicate.startsWith("I Am Safe Message From").and(s -> s.endsWith(" - DO NOT REPLY!"))), //
+  RRI_WELFARE_RADIOGRAM(SubjectPredicate.startsWith("QTC 1 W", "QTC 1 TEST W")), //
+  RRI_REPLY_WELFARE_RADIOGRAM(SubjectPredicate.upperCaseStartsWith("RE: QTC 1 W", "RE: QTC 1 TEST W")), //
 
   WA_ICS_213_RR_WEB_EOC("RMS_Express_Form_RR_WebEOC_WA_Viewer.xml"), //
   WA_ICS_213_RR("RMS_Express_Form_ICS213RR_WA_Viewer.xml"), //
@@ -104,17 +102,19 @@ public enum MessageType {
   EYEWARN("RMS_Express_Form_Eyewarn.xml"), // custom form from SnoVArc
   EYEWARN_DETAIL(), // generated details
 
-  PEGELSTAND((s -> s.startsWith("Pegelstand Report"))), // German water level message, for Tsunami 2025
+  PEGELSTAND(SubjectPredicate.startsWith("Pegelstand Report")), // German water level message, for Tsunami 2025
   ;
 
   private final String rmsViewerName;
   private final String formDataName;
   private final Predicate<String> subjectPredicate;
+  private final String string; // one instance, for every message and table row of this type
 
   private MessageType(String rmsViewerName, String formDataName, Predicate<String> subjectPredicate) {
     this.rmsViewerName = rmsViewerName;
     this.formDataName = formDataName;
     this.subjectPredicate = subjectPredicate;
+    this.string = name().toLowerCase();
   }
 
   private MessageType() {
@@ -152,7 +152,7 @@ public enum MessageType {
 
   @Override
   public String toString() {
-    return name().toLowerCase();
+    return string;
   }
 
   public String rmsViewerName() {
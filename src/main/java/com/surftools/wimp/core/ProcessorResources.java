@@ -0,0 +1,101 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wimp.core;
+
+import java.util.Set;
+
+/**
+ * what a processor reads and writes, so the pipeline can run processors that don't conflict concurrently
+ *
+ * resources are names, like "messageType:ics_213", "context:dedupeCount" or "file:typedMessages.csv"; a trailing "*"
+ * matches any name with that prefix
+ *
+ * @author bobt
+ *
+ */
+public record ProcessorResources(Set<String> reads, Set<String> writes) {
+
+  public static final String ALL_MESSAGE_TYPES = "messageType:*";
+  public static final String ORIGINAL_MESSAGES = "originalMessages";
+  public static final String PERSISTENCE = "persistence";
+
+  public ProcessorResources {
+    reads = Set.copyOf(reads);
+    writes = Set.copyOf(writes);
+  }
+
+  public static String messageType(MessageType messageType) {
+    return "messageType:" + messageType.toString();
+  }
+
+  public static String context(String key) {
+    return "context:" + key;
+  }
+
+  /**
+   * @param fileName
+   *          relative to the output path
+   * @return
+   */
+  public static String file(String fileName) {
+    return "file:" + fileName;
+  }
+
+  /**
+   * @param other
+   * @return true if either writes something the other reads or writes
+   */
+  public boolean conflictsWith(ProcessorResources other) {
+    return overlaps(writes, other.reads) || overlaps(writes, other.writes) || overlaps(reads, other.writes);
+  }
+
+  private static boolean overlaps(Set<String> a, Set<String> b) {
+    for (var x : a) {
+      for (var y : b) {
+        if (overlaps(x, y)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  static boolean overlaps(String a, String b) {
+    var aPrefix = a.endsWith("*") ? a.substring(0, a.length() - 1) : null;
+    var bPrefix = b.endsWith("*") ? b.substring(0, b.length() - 1) : null;
+    if (aPrefix != null && bPrefix != null) {
+      return aPrefix.startsWith(bPrefix) || bPrefix.startsWith(aPrefix);
+    } else if (aPrefix != null) {
+      return b.startsWith(aPrefix);
+    } else if (bPrefix != null) {
+      return a.startsWith(bPrefix);
+    } else {
+      return a.equals(b);
+    }
+  }
+}
@@ -48,7 +48,8 @@ public enum RejectType {
   UNSUPPORTED_TYPE(10, "unsupported type"), //
   CANT_PARSE_ETO_JSON(11, "can't parse ETO json"), //
   CANT_PARSE_DATE_TIME(12, "can't parse date/time"), //
-  CANT_FIND_FORMDATA(13, "can't find FormData in context");
+  CANT_FIND_FORMDATA(13, "can't find FormData in context"), //
+  CANT_EXTRACT_PDF_TEXT(14, "can't extract PDF text");
 
   /**
    * id serves NO purpose other than to discourage re-ordering of values
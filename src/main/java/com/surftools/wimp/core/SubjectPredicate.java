@@ -0,0 +1,118 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2019, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wimp.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * a subject Predicate that also declares the prefixes a matching subject must start with, so that classification can
+ * find candidate MessageTypes with a prefix trie, instead of evaluating every Predicate
+ *
+ * @author bobt
+ *
+ */
+public class SubjectPredicate implements Predicate<String> {
+  private final List<String> prefixes;
+  private final List<String> upperCasePrefixes;
+  private final Predicate<String> predicate;
+
+  private SubjectPredicate(List<String> prefixes, List<String> upperCasePrefixes, Predicate<String> predicate) {
+    this.prefixes = prefixes;
+    this.upperCasePrefixes = upperCasePrefixes;
+    this.predicate = predicate;
+  }
+
+  /**
+   * @param prefixes
+   * @return predicate that's true if subject starts with any of the prefixes
+   */
+  public static SubjectPredicate startsWith(String... prefixes) {
+    var list = List.of(prefixes);
+    return new SubjectPredicate(list, List.of(), s -> list.stream().anyMatch(p -> s.startsWith(p)));
+  }
+
+  /**
+   * @param value
+   * @return predicate that's true if subject equals value
+   */
+  public static SubjectPredicate equalTo(String value) {
+    return new SubjectPredicate(List.of(value), List.of(), s -> s.equals(value));
+  }
+
+  /**
+   * @param upperCasePrefixes
+   * @return predicate that's true if the upper-cased subject starts with any of the (upper case) prefixes
+   */
+  public static SubjectPredicate upperCaseStartsWith(String... upperCasePrefixes) {
+    var list = List.of(upperCasePrefixes);
+    return new SubjectPredicate(List.of(), list, s -> list.stream().anyMatch(p -> s.toUpperCase().startsWith(p)));
+  }
+
+  /**
+   * @param other
+   * @return predicate that's true if both are true, with the prefixes of this one
+   */
+  @Override
+  public SubjectPredicate and(Predicate<? super String> other) {
+    return new SubjectPredicate(prefixes, upperCasePrefixes, s -> predicate.test(s) && other.test(s));
+  }
+
+  /**
+   * @param other
+   * @return predicate that's true if either is true, with the prefixes of both
+   */
+  public SubjectPredicate or(SubjectPredicate other) {
+    var newPrefixes = new ArrayList<String>(prefixes);
+    newPrefixes.addAll(other.prefixes);
+    var newUpperCasePrefixes = new ArrayList<String>(upperCasePrefixes);
+    newUpperCasePrefixes.addAll(other.upperCasePrefixes);
+    return new SubjectPredicate(List.copyOf(newPrefixes), List.copyOf(newUpperCasePrefixes),
+        s -> predicate.test(s) || other.test(s));
+  }
+
+  @Override
+  public boolean test(String subject) {
+    return predicate.test(subject);
+  }
+
+  /**
+   * @return prefixes, one of which a matching subject must start with
+   */
+  public List<String> getPrefixes() {
+    return prefixes;
+  }
+
+  /**
+   * @return prefixes, one of which a matching upper-cased subject must start with
+   */
+  public List<String> getUpperCasePrefixes() {
+    return upperCasePrefixes;
+  }
+}
@@ -0,0 +1,144 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wimp.message;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import com.surftools.utils.ByteBufferInputStream;
+import com.surftools.wimp.message.MessageSpool.SpoolRef;
+
+/**
+ * lightweight view of one attachment, whether in memory or spilled to a MessageSpool
+ *
+ * views are made on demand; a spilled attachment is only copied onto the heap by getBytes()
+ *
+ * @author bobt
+ *
+ */
+public class AttachmentHandle {
+  private final String name;
+  private final int index;
+  private final byte[] bytes;
+  private final MessageSpool spool;
+  private final SpoolRef ref;
+
+  AttachmentHandle(String name, int index, byte[] bytes) {
+    this.name = name;
+    this.index = index;
+    this.bytes = bytes;
+    this.spool = null;
+    this.ref = null;
+  }
+
+  AttachmentHandle(String name, int index, MessageSpool spool, SpoolRef ref) {
+    this.name = name;
+    this.index = index;
+    this.bytes = null;
+    this.spool = spool;
+    this.ref = ref;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * @return position of attachment within message, starting from 0
+   */
+  public int getIndex() {
+    return index;
+  }
+
+  /**
+   * @return number of bytes, without reading them
+   */
+  public int getLength() {
+    return (ref != null) ? ref.length() : (bytes == null ? 0 : bytes.length);
+  }
+
+  /**
+   * @return new read-only view, positioned at the start
+   */
+  public ByteBuffer getByteBuffer() {
+    if (ref != null) {
+      return spool.getByteBuffer(ref);
+    }
+    return ByteBuffer.wrap(bytes == null ? new byte[0] : bytes).asReadOnlyBuffer();
+  }
+
+  public InputStream getInputStream() {
+    return new ByteBufferInputStream(getByteBuffer());
+  }
+
+  /**
+   * @return bytes, copied onto the heap if spilled; callers must not modify
+   */
+  public byte[] getBytes() {
+    return (ref != null) ? spool.read(ref) : bytes;
+  }
+
+  /**
+   * @param other
+   * @return true if content is the same as other, without copying it onto the heap
+   */
+  public boolean contentEquals(byte[] other) {
+    if (other == null) {
+      return bytes == null && ref == null;
+    }
+    return getLength() == other.length && getByteBuffer().equals(ByteBuffer.wrap(other));
+  }
+
+  /**
+   * write content to a file, directly from the view
+   *
+   * @param path
+   */
+  public void writeTo(Path path) {
+    try (var channel = FileChannel
+        .open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      var buffer = getByteBuffer();
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+    } catch (IOException e) {
+      throw new RuntimeException(
+          "Exception writing attachment: " + name + " to " + path + ", " + e.getLocalizedMessage());
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "AttachmentHandle {name: " + name + ", index: " + index + ", length: " + getLength() + ", spilled: "
+        + (ref != null) + "}";
+  }
+}
@@ -0,0 +1,249 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wimp.message;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import com.surftools.wimp.message.MessageSpool.SpoolRef;
+
+/**
+ * attachment name -> bytes, in insertion order, whose bytes can be spilled to a MessageSpool and re-read on demand
+ *
+ * names stay in memory, so keySet(), containsKey() and size() never touch the spool; once spilled, each get() re-reads
+ * the bytes, and nothing is cached again. Use getHandles() for views that don't copy the bytes onto the heap
+ *
+ * identical attachments (a photo forwarded by several senders) are only spilled once
+ *
+ * @author bobt
+ *
+ */
+public class AttachmentMap extends AbstractMap<String, byte[]> implements Serializable {
+  // no serialVersionUID, on purpose, like ExportedMessage
+
+  // name -> byte[] or SpoolRef
+  private transient LinkedHashMap<String, Object> valueMap;
+  private transient MessageSpool spool;
+
+  public AttachmentMap(Map<String, byte[]> map) {
+    valueMap = new LinkedHashMap<>(map);
+  }
+
+  /**
+   * @param map
+   * @return map, if already an AttachmentMap (so that copies share it), or null
+   */
+  public static Map<String, byte[]> of(Map<String, byte[]> map) {
+    return (map == null || map instanceof AttachmentMap) ? map : new AttachmentMap(map);
+  }
+
+  @Override
+  public byte[] get(Object key) {
+    return resolve(valueMap.get(key));
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return valueMap.containsKey(key);
+  }
+
+  @Override
+  public byte[] put(String key, byte[] value) {
+    return resolve(valueMap.put(key, value));
+  }
+
+  @Override
+  public byte[] remove(Object key) {
+    return resolve(valueMap.remove(key));
+  }
+
+  @Override
+  public int size() {
+    return valueMap.size();
+  }
+
+  @Override
+  public Set<String> keySet() {
+    return valueMap.keySet();
+  }
+
+  @Override
+  public Set<Entry<String, byte[]>> entrySet() {
+    return new AbstractSet<>() {
+      @Override
+      public Iterator<Entry<String, byte[]>> iterator() {
+        var iterator = valueMap.entrySet().iterator();
+        return new Iterator<>() {
+          @Override
+          public boolean hasNext() {
+            return iterator.hasNext();
+          }
+
+          @Override
+          public Entry<String, byte[]> next() {
+            var entry = iterator.next();
+            return new SpooledEntry(entry);
+          }
+
+          @Override
+          public void remove() {
+            iterator.remove();
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return valueMap.size();
+      }
+    };
+  }
+
+  /**
+   * @return handles for all attachments, in order
+   */
+  public List<AttachmentHandle> getHandles() {
+    var list = new ArrayList<AttachmentHandle>(valueMap.size());
+    for (var entry : valueMap.entrySet()) {
+      list.add(makeHandle(entry.getKey(), list.size(), entry.getValue()));
+    }
+    return list;
+  }
+
+  /**
+   * @param name
+   * @return handle for the named attachment, or null if none
+   */
+  public AttachmentHandle getHandle(String name) {
+    var index = 0;
+    for (var entry : valueMap.entrySet()) {
+      if (Objects.equals(entry.getKey(), name)) {
+        return makeHandle(name, index, entry.getValue());
+      }
+      ++index;
+    }
+    return null;
+  }
+
+  public boolean isSpilled() {
+    return spool != null;
+  }
+
+  /**
+   * write all bytes to the spool and release them; not safe to call concurrently with readers
+   *
+   * @param spool
+   */
+  public synchronized void spill(MessageSpool spool) {
+    if (this.spool != null) {
+      return;
+    }
+
+    this.spool = spool;
+    for (var entry : valueMap.entrySet()) {
+      if (entry.getValue() instanceof byte[] bytes) {
+        entry.setValue(spool.writeShared(bytes));
+      }
+    }
+  }
+
+  private AttachmentHandle makeHandle(String name, int index, Object value) {
+    return (value instanceof SpoolRef ref) ? new AttachmentHandle(name, index, spool, ref)
+        : new AttachmentHandle(name, index, (byte[]) value);
+  }
+
+  private byte[] resolve(Object value) {
+    return (value instanceof SpoolRef ref) ? spool.read(ref) : (byte[]) value;
+  }
+
+  /**
+   * bytes are only read from the spool when asked for
+   */
+  private class SpooledEntry implements Entry<String, byte[]> {
+    private final Entry<String, Object> entry;
+
+    private SpooledEntry(Entry<String, Object> entry) {
+      this.entry = entry;
+    }
+
+    @Override
+    public String getKey() {
+      return entry.getKey();
+    }
+
+    @Override
+    public byte[] getValue() {
+      return resolve(entry.getValue());
+    }
+
+    @Override
+    public byte[] setValue(byte[] value) {
+      return resolve(entry.setValue(value));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof Entry<?, ?> other && Objects.equals(getKey(), other.getKey())
+          && Objects.equals(getValue(), other.getValue());
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hashCode(getKey()) ^ Objects.hashCode(getValue());
+    }
+  }
+
+  // serialized in full, never as spool references
+  private void writeObject(ObjectOutputStream out) throws IOException {
+    out.writeInt(valueMap.size());
+    for (var key : valueMap.keySet()) {
+      out.writeObject(key);
+      out.writeObject(get(key));
+    }
+  }
+
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    var n = in.readInt();
+    valueMap = new LinkedHashMap<>();
+    for (var i = 0; i < n; ++i) {
+      var key = (String) in.readObject();
+      valueMap.put(key, in.readObject());
+    }
+  }
+}
@@ -27,11 +27,13 @@ SOFTWARE.
 
 package com.surftools.wimp.message;
 
+import java.io.Serializable;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.UnaryOperator;
 
 import com.surftools.utils.location.LatLongPair;
 import com.surftools.wimp.core.IMessage;
@@ -46,7 +48,12 @@ import com.surftools.wimp.core.MessageType;
  * @author bobt
  *
  */
-public class ExportedMessage implements IMessage, IWritableTable {
+public class ExportedMessage implements IMessage, IWritableTable, Serializable {
+  private static final long serialVersionUID = 1L;
+
+  // message code changes are caught by code fingerprints of the caches; bump only to force invalidation
+  public static final int CACHE_VERSION = 1;
+
   public record ExportedKey(String from, String messageId) {
   };
 
@@ -64,18 +71,26 @@ public class ExportedMessage implements IMessage, IWritableTable {
   public final LatLongPair msgLocation; // location from message meta-data; may or may not be present
   public final String msgLocationSource;
 
-  public final String mime;
   public final String plainContent;
-  public final Map<String, byte[]> attachments;
+  public final Map<String, byte[]> attachments; // an AttachmentMap, shared by copies, unless null
 
   public LocalDateTime sortDateTime; // date/time used for sorting
   public LatLongPair mapLocation; // location used for mapping
 
   public final boolean isP2p;
   public final String fileName;
-  public final List<String> lines;
   public final Map<String, String> extraData;
 
+  // mime and source lines, shared by copies, possibly spilled
+  private final RawContent rawContent;
+
+  // lazily built from mime, at most once per message
+  private transient volatile MimeHeaders mimeHeaders;
+
+  // toList and ccList, split once, shared by copies
+  private transient volatile List<String> toAddresses;
+  private transient volatile List<String> ccAddresses;
+
   @Override
   public int hashCode() {
     final int prime = 31;
@@ -123,16 +138,15 @@ public class ExportedMessage implements IMessage, IWritableTable {
     this.msgLocation = (location != null) ? location : LatLongPair.INVALID;
     this.msgLocationSource = locationSource;
 
-    this.mime = mime;
+    this.rawContent = new RawContent(mime, lines);
     this.plainContent = plainContent;
-    this.attachments = attachments;
+    this.attachments = AttachmentMap.of(attachments);
 
     this.sortDateTime = dateTime;
     this.mapLocation = location;
 
     this.isP2p = isP2p;
     this.fileName = fileName;
-    this.lines = lines;
     this.extraData = new HashMap<>();
   }
 
@@ -145,29 +159,42 @@ public class ExportedMessage implements IMessage, IWritableTable {
   }
 
   public ExportedMessage(ExportedMessage exportedMessage) {
+    this(exportedMessage, UnaryOperator.identity());
+  }
+
+  /**
+   * copy, with the same strings canonicalized as when reading: addresses, subject, location source and file name
+   *
+   * @param exportedMessage
+   * @param intern
+   */
+  public ExportedMessage(ExportedMessage exportedMessage, UnaryOperator<String> intern) {
     this.messageId = exportedMessage.messageId;
-    this.from = exportedMessage.from;
-    this.source = exportedMessage.source;
-    this.to = exportedMessage.to;
-    this.toList = exportedMessage.toList;
-    this.ccList = exportedMessage.ccList;
-    this.subject = exportedMessage.subject;
+    this.from = intern.apply(exportedMessage.from);
+    this.source = intern.apply(exportedMessage.source);
+    this.to = intern.apply(exportedMessage.to);
+    this.toList = intern.apply(exportedMessage.toList);
+    this.ccList = intern.apply(exportedMessage.ccList);
+    this.subject = intern.apply(exportedMessage.subject);
 
     this.msgDateTime = exportedMessage.msgDateTime;
     this.msgLocation = exportedMessage.msgLocation;
-    this.msgLocationSource = exportedMessage.msgLocationSource;
+    this.msgLocationSource = intern.apply(exportedMessage.msgLocationSource);
 
-    this.mime = exportedMessage.mime;
+    this.rawContent = exportedMessage.rawContent;
     this.plainContent = exportedMessage.plainContent;
     this.attachments = exportedMessage.attachments;
 
     this.sortDateTime = exportedMessage.sortDateTime;
     this.mapLocation = exportedMessage.mapLocation;
     this.isP2p = exportedMessage.isP2p;
-    this.fileName = exportedMessage.fileName;
-    this.lines = exportedMessage.lines;
+    this.fileName = intern.apply(exportedMessage.fileName);
     this.extraData = new HashMap<>();
     this.extraData.putAll(exportedMessage.extraData);
+
+    this.mimeHeaders = exportedMessage.mimeHeaders;
+    this.toAddresses = exportedMessage.toAddresses;
+    this.ccAddresses = exportedMessage.ccAddresses;
   }
 
   @Override
@@ -180,8 +207,118 @@ public class ExportedMessage implements IMessage, IWritableTable {
         + plainContent + attachmentsString + ", fileName: " + fileName + "}";
   }
 
+  public String getMime() {
+    return rawContent.getMime();
+  }
+
+  /**
+   * @return lines of mime, split once unless compacted; callers must not modify
+   */
   public String[] getMimeLines() {
-    return mime.split("\n");
+    return rawContent.getMimeLines();
+  }
+
+  /**
+   * @return lines of the exported message, as read, or null
+   */
+  public List<String> getLines() {
+    return rawContent.getLines();
+  }
+
+  /**
+   * @return handles for all attachments, in order, possibly empty
+   */
+  public List<AttachmentHandle> getAttachmentHandles() {
+    return (attachments instanceof AttachmentMap attachmentMap) ? attachmentMap.getHandles() : List.of();
+  }
+
+  /**
+   * @param name
+   * @return handle for the named attachment, or null if none
+   */
+  public AttachmentHandle getAttachmentHandle(String name) {
+    return (attachments instanceof AttachmentMap attachmentMap) ? attachmentMap.getHandle(name) : null;
+  }
+
+  /**
+   * release mime, source lines and attachment bytes (for this message and all of its copies) to the spool; they are
+   * re-read on demand
+   *
+   * @param spool
+   */
+  public void compact(MessageSpool spool) {
+    rawContent.spill(spool);
+    if (attachments instanceof AttachmentMap attachmentMap) {
+      attachmentMap.spill(spool);
+    }
+  }
+
+  /**
+   * @return index of the top-level MIME headers
+   */
+  public MimeHeaders getMimeHeaders() {
+    var headers = mimeHeaders;
+    if (headers == null) {
+      headers = MimeHeaders.parse(getMime());
+      mimeHeaders = headers;
+    }
+    return headers;
+  }
+
+  /**
+   * avoid re-parsing, when headers were already indexed while reading
+   *
+   * @param mimeHeaders
+   *          must have been parsed from this message's mime
+   */
+  public void setMimeHeaders(MimeHeaders mimeHeaders) {
+    this.mimeHeaders = mimeHeaders;
+  }
+
+  /**
+   * @return toList, split on commas, exactly as toList.split(","); callers must not modify
+   */
+  public List<String> getToAddresses() {
+    var addresses = toAddresses;
+    if (addresses == null) {
+      addresses = splitAddresses(toList);
+      toAddresses = addresses;
+    }
+    return addresses;
+  }
+
+  /**
+   * @return ccList, split on commas, exactly as ccList.split(","); callers must not modify
+   */
+  public List<String> getCcAddresses() {
+    var addresses = ccAddresses;
+    if (addresses == null) {
+      addresses = splitAddresses(ccList);
+      ccAddresses = addresses;
+    }
+    return addresses;
+  }
+
+  /**
+   * avoid re-splitting, when addresses were already split (and interned) while reading
+   *
+   * @param toAddresses
+   *          must be splitAddresses(toList)
+   * @param ccAddresses
+   *          must be splitAddresses(ccList)
+   */
+  public void setAddresses(List<String> toAddresses, List<String> ccAddresses) {
+    this.toAddresses = toAddresses;
+    this.ccAddresses = ccAddresses;
+  }
+
+  /**
+   * @param addresses
+   *          comma-delimited, like toList or ccList
+   * @return unmodifiable list, same as addresses.split(","), empty if addresses is null
+   */
+  public static List<String> splitAddresses(String addresses) {
+    return addresses == null ? List.of() : List.of(addresses.split(","));
   }
 
   public String getPlainContent() {
@@ -0,0 +1,209 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wimp.message;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+
+import com.surftools.utils.ByteBufferInputStream;
+import com.surftools.utils.FileUtils;
+
+/**
+ * append-only scratch file for raw message content that is no longer needed in memory
+ *
+ * the file is deleted when the spool is closed, or at exit if never closed. A pipeline owns one spool, shared through the
+ * context of its message manager, and closes it once no message can be read from it
+ *
+ * shared content (attachments) is written once per distinct content hash, and large content is viewed through a
+ * memory-mapped, read-only buffer, rather than copied back onto the heap
+ *
+ * @author bobt
+ *
+ */
+public class MessageSpool implements AutoCloseable {
+
+  public static final String CONTEXT_KEY = "messageSpool";
+
+  public static record SpoolRef(long offset, int length) {
+  };
+
+  // smaller content is read onto the heap, rather than mapped
+  public static final int MAP_THRESHOLD = 64 * 1024;
+
+  private final Path path;
+  private final FileChannel channel;
+  private long size = 0;
+
+  // content hash -> where content was written, for writeShared()
+  private final Map<String, SpoolRef> sharedMap = new HashMap<>();
+  private long sharedBytesSaved = 0;
+
+  /**
+   * @param dirPath
+   *          where to create the spool file
+   */
+  public MessageSpool(Path dirPath) {
+    try {
+      FileUtils.makeDirIfNeeded(dirPath);
+      path = Files.createTempFile(dirPath, "messageSpool-", ".bin");
+      path.toFile().deleteOnExit();
+      channel = FileChannel
+          .open(path, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+    } catch (IOException e) {
+      throw new RuntimeException("Exception creating message spool in: " + dirPath + ", " + e.getLocalizedMessage());
+    }
+  }
+
+  /**
+   * @param bytes
+   * @return where bytes were written
+   */
+  public synchronized SpoolRef write(byte[] bytes) {
+    var offset = size;
+    try {
+      var buffer = ByteBuffer.wrap(bytes);
+      var position = offset;
+      while (buffer.hasRemaining()) {
+        position += channel.write(buffer, position);
+      }
+    } catch (IOException e) {
+      throw new RuntimeException("Exception writing message spool: " + path + ", " + e.getLocalizedMessage());
+    }
+    size += bytes.length;
+    return new SpoolRef(offset, bytes.length);
+  }
+
+  /**
+   * write bytes, unless identical bytes have already been written by writeShared()
+   *
+   * @param bytes
+   * @return where bytes were written, possibly shared with other callers
+   */
+  public synchronized SpoolRef writeShared(byte[] bytes) {
+    var hash = makeHash(bytes);
+    var ref = sharedMap.get(hash);
+    if (ref == null) {
+      ref = write(bytes);
+      sharedMap.put(hash, ref);
+    } else {
+      sharedBytesSaved += bytes.length;
+    }
+    return ref;
+  }
+
+  /**
+   * safe to call concurrently
+   *
+   * @param ref
+   * @return
+   */
+  public byte[] read(SpoolRef ref) {
+    var bytes = new byte[ref.length()];
+    try {
+      var buffer = ByteBuffer.wrap(bytes);
+      var position = ref.offset();
+      while (buffer.hasRemaining()) {
+        var n = channel.read(buffer, position);
+        if (n < 0) {
+          throw new IOException("unexpected end of spool at: " + position);
+        }
+        position += n;
+      }
+    } catch (IOException e) {
+      throw new RuntimeException("Exception reading message spool: " + path + ", " + e.getLocalizedMessage());
+    }
+    return bytes;
+  }
+
+  /**
+   * safe to call concurrently
+   *
+   * @param ref
+   * @return read-only view of content; memory-mapped when at least MAP_THRESHOLD bytes
+   */
+  public ByteBuffer getByteBuffer(SpoolRef ref) {
+    if (ref.length() < MAP_THRESHOLD) {
+      return ByteBuffer.wrap(read(ref)).asReadOnlyBuffer();
+    }
+
+    try {
+      return channel.map(MapMode.READ_ONLY, ref.offset(), ref.length());
+    } catch (IOException e) {
+      throw new RuntimeException("Exception mapping message spool: " + path + ", " + e.getLocalizedMessage());
+    }
+  }
+
+  /**
+   * @param ref
+   * @return stream over content, without copying it onto the heap when mapped
+   */
+  public InputStream getInputStream(SpoolRef ref) {
+    return new ByteBufferInputStream(getByteBuffer(ref));
+  }
+
+  /**
+   * @return number of bytes not written, because identical content was already shared
+   */
+  public synchronized long getSharedBytesSaved() {
+    return sharedBytesSaved;
+  }
+
+  private static String makeHash(byte[] bytes) {
+    try {
+      return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+    } catch (Exception e) {
+      throw new RuntimeException("could not hash spool content: " + e.getMessage());
+    }
+  }
+
+  /**
+   * @return number of bytes spooled
+   */
+  public synchronized long size() {
+    return size;
+  }
+
+  @Override
+  public void close() {
+    try {
+      channel.close();
+    } catch (IOException e) {
+      throw new RuntimeException("Exception closing message spool: " + path + ", " + e.getLocalizedMessage());
+    }
+  }
+}
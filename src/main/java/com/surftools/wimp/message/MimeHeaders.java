@@ -0,0 +1,143 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2025, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wimp.message;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * immutable index of the (top-level) headers of a MIME message: case-insensitive name -> values, in order
+ *
+ * folded headers are unfolded for values; the physical lines are also kept, for callers that need them
+ *
+ * @author bobt
+ *
+ */
+public class MimeHeaders {
+  public static final MimeHeaders EMPTY = new MimeHeaders(Map.of(), Map.of());
+
+  private final Map<String, List<String>> valueMap; // lower-case name -> unfolded values
+  private final Map<String, List<String>> lineMap; // lower-case name -> physical lines, starting with "Name: "
+
+  private MimeHeaders(Map<String, List<String>> valueMap, Map<String, List<String>> lineMap) {
+    this.valueMap = valueMap;
+    this.lineMap = lineMap;
+  }
+
+  /**
+   * index the headers of a MIME message, up to the first blank line
+   *
+   * @param mime
+   * @return
+   */
+  public static MimeHeaders parse(String mime) {
+    if (mime == null || mime.isEmpty()) {
+      return EMPTY;
+    }
+
+    var valueMap = new LinkedHashMap<String, List<String>>();
+    var lineMap = new LinkedHashMap<String, List<String>>();
+    String name = null;
+    StringBuilder value = null;
+    var lineStart = 0;
+    var n = mime.length();
+    while (lineStart < n) {
+      var lineEnd = mime.indexOf('\n', lineStart);
+      if (lineEnd < 0) {
+        lineEnd = n;
+      }
+      var line = mime.substring(lineStart, lineEnd);
+      lineStart = lineEnd + 1;
+
+      if (line.isBlank()) {
+        break;
+      }
+
+      var firstChar = line.charAt(0);
+      if (firstChar == ' ' || firstChar == '\t') {
+        if (name != null) {
+          value.append(" ").append(line.strip());
+          lineMap.get(name).add(line);
+        }
+        continue;
+      }
+
+      add(valueMap, name, value);
+      name = null;
+      var colonIndex = line.indexOf(':');
+      if (colonIndex > 0) {
+        name = line.substring(0, colonIndex).strip().toLowerCase();
+        value = new StringBuilder(line.substring(colonIndex + 1).strip());
+        lineMap.computeIfAbsent(name, k -> new ArrayList<>()).add(line);
+      }
+    } // end loop over header lines
+    add(valueMap, name, value);
+
+    valueMap.replaceAll((k, v) -> Collections.unmodifiableList(v));
+    lineMap.replaceAll((k, v) -> Collections.unmodifiableList(v));
+    return new MimeHeaders(Collections.unmodifiableMap(valueMap), Collections.unmodifiableMap(lineMap));
+  }
+
+  private static void add(Map<String, List<String>> valueMap, String name, StringBuilder value) {
+    if (name != null) {
+      valueMap.computeIfAbsent(name, k -> new ArrayList<>()).add(value.toString());
+    }
+  }
+
+  /**
+   * @param name
+   * @return first (unfolded) value of header, or null if not present
+   */
+  public String getFirst(String name) {
+    var values = valueMap.get(name.toLowerCase());
+    return values == null ? null : values.get(0);
+  }
+
+  /**
+   * @param name
+   * @return all (unfolded) values of header, possibly empty
+   */
+  public List<String> getValues(String name) {
+    return valueMap.getOrDefault(name.toLowerCase(), List.of());
+  }
+
+  /**
+   * @param name
+   * @return all physical lines of header, including continuation lines, possibly empty
+   */
+  public List<String> getLines(String name) {
+    return lineMap.getOrDefault(name.toLowerCase(), List.of());
+  }
+
+  public boolean contains(String name) {
+    return valueMap.containsKey(name.toLowerCase());
+  }
+}
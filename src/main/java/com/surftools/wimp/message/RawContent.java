@@ -0,0 +1,174 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wimp.message;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.surftools.wimp.message.MessageSpool.SpoolRef;
+
+/**
+ * the raw mime and source lines of an exported message, shared by every copy of the message, so that spilling them to a
+ * MessageSpool releases them for all copies at once
+ *
+ * once spilled, each call re-reads from the spool; nothing is cached again
+ *
+ * @author bobt
+ *
+ */
+public class RawContent implements Serializable {
+  // no serialVersionUID, on purpose, like ExportedMessage
+
+  private transient volatile String mime;
+  private transient volatile List<String> lines;
+
+  // lazily split from mime, at most once, unless spilled
+  private transient volatile String[] mimeLines;
+
+  private transient MessageSpool spool;
+  private transient SpoolRef mimeRef;
+  private transient SpoolRef linesRef;
+
+  public RawContent(String mime, List<String> lines) {
+    this.mime = mime;
+    this.lines = lines;
+  }
+
+  public String getMime() {
+    var value = mime;
+    if (value == null && mimeRef != null) {
+      value = new String(spool.read(mimeRef), StandardCharsets.UTF_8);
+    }
+    return value;
+  }
+
+  /**
+   * @return lines of mime, split once unless spilled; callers must not modify
+   */
+  public String[] getMimeLines() {
+    var value = mimeLines;
+    if (value == null) {
+      var s = getMime();
+      value = s.split("\n");
+      if (spool == null) {
+        mimeLines = value;
+      }
+    }
+    return value;
+  }
+
+  public List<String> getLines() {
+    var value = lines;
+    if (value == null && linesRef != null) {
+      value = decodeLines(spool.read(linesRef));
+    }
+    return value;
+  }
+
+  public boolean isSpilled() {
+    return spool != null;
+  }
+
+  /**
+   * write mime and lines to the spool and release them; not safe to call concurrently with readers
+   *
+   * @param spool
+   */
+  public synchronized void spill(MessageSpool spool) {
+    if (this.spool != null) {
+      return;
+    }
+
+    if (mime != null) {
+      mimeRef = spool.write(mime.getBytes(StandardCharsets.UTF_8));
+    }
+    if (lines != null) {
+      linesRef = spool.write(encodeLines(lines));
+    }
+    this.spool = spool;
+    mime = null;
+    lines = null;
+    mimeLines = null;
+  }
+
+  private static byte[] encodeLines(List<String> lines) {
+    try {
+      var byteStream = new ByteArrayOutputStream();
+      var dataStream = new DataOutputStream(byteStream);
+      dataStream.writeInt(lines.size());
+      for (var line : lines) {
+        var bytes = line.getBytes(StandardCharsets.UTF_8);
+        dataStream.writeInt(bytes.length);
+        dataStream.write(bytes);
+      }
+      dataStream.flush();
+      return byteStream.toByteArray();
+    } catch (IOException e) {
+      throw new RuntimeException("Exception encoding lines: " + e.getLocalizedMessage());
+    }
+  }
+
+  private static List<String> decodeLines(byte[] bytes) {
+    try {
+      var dataStream = new DataInputStream(new ByteArrayInputStream(bytes));
+      var n = dataStream.readInt();
+      var list = new ArrayList<String>(n);
+      for (var i = 0; i < n; ++i) {
+        var lineBytes = new byte[dataStream.readInt()];
+        dataStream.readFully(lineBytes);
+        list.add(new String(lineBytes, StandardCharsets.UTF_8));
+      }
+      return Collections.unmodifiableList(list);
+    } catch (IOException e) {
+      throw new RuntimeException("Exception decoding lines: " + e.getLocalizedMessage());
+    }
+  }
+
+  // serialized in full, never as spool references
+  private void writeObject(ObjectOutputStream out) throws IOException {
+    out.writeObject(getMime());
+    var value = getLines();
+    out.writeObject(value == null ? null : new ArrayList<>(value));
+  }
+
+  @SuppressWarnings("unchecked")
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    mime = (String) in.readObject();
+    lines = (List<String>) in.readObject();
+  }
+}
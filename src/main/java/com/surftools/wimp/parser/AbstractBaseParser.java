@@ -42,18 +42,16 @@ import javax.activation.DataSource;
 import javax.mail.Session;
 import javax.mail.internet.MimeMessage;
 import javax.mail.util.ByteArrayDataSource;
-import javax.xml.XMLConstants;
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
 
 import org.apache.commons.mail.util.MimeMessageParser;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.w3c.dom.Document;
 import org.w3c.dom.NodeList;
-import org.xml.sax.InputSource;
 
+import com.surftools.utils.XmlParsers;
 import com.surftools.utils.location.LatLongPair;
+import com.surftools.wimp.configuration.Key;
 import com.surftools.wimp.core.IMessageManager;
 import com.surftools.wimp.core.IParser;
 import com.surftools.wimp.core.RejectType;
@@ -63,6 +61,9 @@ import com.surftools.wimp.utils.config.IConfigurationManager;
 
 public abstract class AbstractBaseParser implements IParser {
   private static final Logger logger = LoggerFactory.getLogger(AbstractBaseParser.class);
+
+  // [Fatal Error] :16:31: Character reference "&#21" is an invalid XML character.
+  private static final CharacterAssassinator XML_ASSASSINATOR = new CharacterAssassinator(null, Map.of("&#21", "_"));
   public static final String[] DEFAULT_LATLON_TAGS = new String[] { "maplat", "gps2", "GPS2", "gpslat" };
 
   public static final String DATA_SOURCE_RMS_VIEWER = "RmsViewer.xml";
@@ -72,8 +73,15 @@ public abstract class AbstractBaseParser implements IParser {
   protected IConfigurationManager cm;
   protected IMessageManager mm;
 
-  protected Document currentDocument = null;
-  protected String currentMessageId = null;
+  protected boolean isViewerStreamingEnabled = true;
+  protected ParsedAttachmentCache attachmentCache = ParsedAttachmentCache.uncached();
+
+  // per-thread, so that one parser instance can parse messages concurrently
+  private final ThreadLocal<Document> currentDocument = new ThreadLocal<>();
+  private final ThreadLocal<String> currentMessageId = new ThreadLocal<>();
+  // when streaming, the Document is only built if needed, from the (cleaned-up) xmlString
+  private final ThreadLocal<ViewerXmlValues> currentValues = new ThreadLocal<>();
+  private final ThreadLocal<String> currentXmlString = new ThreadLocal<>();
 
   @SuppressWarnings("unchecked")
   @Override
@@ -81,7 +89,11 @@ public abstract class AbstractBaseParser implements IParser {
     this.cm = cm;
     this.mm = mm;
 
+    isViewerStreamingEnabled = cm.getAsBoolean(Key.PARSE_VIEWER_STREAMING_ENABLED, true);
+
     filterIds = (Set<String>) mm.getContextObject("filterIds");
+
+    attachmentCache = ParsedAttachmentCache.from(mm);
   }
 
   /**
@@ -106,6 +118,25 @@ public abstract class AbstractBaseParser implements IParser {
     return "";
   }
 
+  /**
+   * like getValueFromMime(String[], String), but a key of the form "Name:" or "Name: " is looked up in the message's
+   * header index, without scanning the mime
+   *
+   * @param message
+   * @param key
+   * @return
+   */
+  public static String getValueFromMime(ExportedMessage message, String key) {
+    var name = key.strip();
+    if (name.endsWith(":")) {
+      var value = message.getMimeHeaders().getFirst(name.substring(0, name.length() - 1));
+      if (value != null) {
+        return value;
+      }
+    }
+    return getValueFromMime(message.getMimeLines(), key);
+  }
+
   public static MimeMessageParser makeMimeMessageParser(String messageId, String mimeContent) {
     try {
 
@@ -235,7 +266,7 @@ public abstract class AbstractBaseParser implements IParser {
   }
 
   public void makeDocument(String messageId, String xmlString, boolean removeParseme) {
-    xmlString = xmlString.trim().replaceFirst("^([\\W]+)<", "<");
+    xmlString = trimToFirstTag(xmlString);
 
     // I don't remember why I generally DON'T want parsme, //
     // but I NEED it for EyeWarnMessage
@@ -247,24 +278,69 @@ public abstract class AbstractBaseParser implements IParser {
       xmlString += ">";
     }
 
-    // [Fatal Error] :16:31: Character reference "&#21" is an invalid XML character.
-    xmlString = xmlString.replaceAll("&#21", "_");
+    xmlString = XML_ASSASSINATOR.assassinate(xmlString);
+
+    currentMessageId.set(messageId);
+    currentDocument.remove();
+    currentValues.remove();
+    currentXmlString.remove();
 
+    if (isViewerStreamingEnabled) {
+      try {
+        currentValues.set(ViewerXmlValues.parse(xmlString));
+        currentXmlString.set(xmlString);
+        return;
+      } catch (Exception e) {
+        // fall through to the DOM, which handles DTDs, and reports errors
+      }
+    }
+
+    currentDocument.set(parseDocument(xmlString));
+  }
+
+  private Document parseDocument(String xmlString) {
     try {
-      DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
-      dbf.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
-      DocumentBuilder db = dbf.newDocumentBuilder();
-      InputSource inputSource = new InputSource(new StringReader(xmlString));
-      Document doc = db.parse(inputSource);
-      doc.getDocumentElement().normalize();
-      currentDocument = doc;
-      currentMessageId = messageId;
+      return XmlParsers.parse(new StringReader(xmlString));
     } catch (Exception e) {
       logger.error("can't parse xml: " + xmlString + ", " + e.getLocalizedMessage());
       throw new RuntimeException("can't parse xml: " + e.getLocalizedMessage());
     }
   }
 
+  /**
+   * @return the Document from the last makeDocument() on this thread, built now if only streamed so far
+   */
+  protected Document getCurrentDocument() {
+    var document = currentDocument.get();
+    if (document == null && currentXmlString.get() != null) {
+      document = parseDocument(currentXmlString.get());
+      currentDocument.set(document);
+    }
+    return document;
+  }
+
+  /**
+   * same as trim().replaceFirst("^([\\W]+)<", "<"), without the regex: drop leading non-word characters, up to the last
+   * '<' among them
+   *
+   * @param xmlString
+   * @return
+   */
+  static String trimToFirstTag(String xmlString) {
+    xmlString = xmlString.trim();
+    var tagIndex = -1;
+    for (var i = 0; i < xmlString.length(); ++i) {
+      var c = xmlString.charAt(i);
+      if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_') {
+        break;
+      }
+      if (c == '<') {
+        tagIndex = i;
+      }
+    } // end loop over leading non-word characters
+    return tagIndex > 0 ? xmlString.substring(tagIndex) : xmlString;
+  }
+
   /**
    * return string with content between start of beginString and end of endString removed
    *
@@ -292,24 +368,11 @@ public abstract class AbstractBaseParser implements IParser {
   }
 
   public String getStringFromXml(String tagName) {
-    String s = null;
-    NodeList list = currentDocument.getElementsByTagName(tagName);
-    if (list != null && list.getLength() > 0) {
-      NodeList subList = list.item(0).getChildNodes();
-      if (subList != null && subList.getLength() > 0) {
-        s = subList.item(0).getNodeValue();
-      }
-    }
+    String s = getFirstChildValue(tagName);
 
     if (s == null && Character.isLowerCase(tagName.charAt(0))) {
       tagName = tagName.substring(0, 1).toUpperCase() + tagName.substring(1);
-      list = currentDocument.getElementsByTagName(tagName);
-      if (list != null && list.getLength() > 0) {
-        NodeList subList = list.item(0).getChildNodes();
-        if (subList != null && subList.getLength() > 0) {
-          s = subList.item(0).getNodeValue();
-        }
-      }
+      s = getFirstChildValue(tagName);
     }
 
     if (s != null) {
@@ -321,6 +384,27 @@ public abstract class AbstractBaseParser implements IParser {
     return s;
   }
 
+  /**
+   * @param tagName
+   * @return value of first child of first element named tagName, from the streamed values if we have them
+   */
+  private String getFirstChildValue(String tagName) {
+    var values = currentValues.get();
+    if (values != null) {
+      return values.get(tagName);
+    }
+
+    String s = null;
+    NodeList list = currentDocument.get().getElementsByTagName(tagName);
+    if (list != null && list.getLength() > 0) {
+      NodeList subList = list.item(0).getChildNodes();
+      if (subList != null && subList.getLength() > 0) {
+        s = subList.item(0).getNodeValue();
+      }
+    }
+    return s;
+  }
+
   public int getIntFromXml(String tagName) {
     var value = getStringFromXml(tagName);
     try {
@@ -368,7 +452,7 @@ public abstract class AbstractBaseParser implements IParser {
   protected Map<String, String> getXmlValueMap() {
     var map = new LinkedHashMap<String, String>();
     var variableNames = new ArrayList<String>();
-    var level1Node = currentDocument.getChildNodes().item(0);
+    var level1Node = getCurrentDocument().getChildNodes().item(0);
     var level1List = level1Node.getChildNodes();
     var nLevel1 = level1List.getLength();
     for (int iLevel1 = 0; iLevel1 < nLevel1; ++iLevel1) {
@@ -407,9 +491,9 @@ public abstract class AbstractBaseParser implements IParser {
   }
 
   public static String getExpressVersion(ExportedMessage message, String key) {
-    var expressVersion = getValueFromMime(message.getMimeLines(), key);
+    var expressVersion = getValueFromMime(message, key);
     if (expressVersion == null || expressVersion.length() == 0) {
-      var newLines = message.mime.split("=0A");
+      var newLines = message.getMime().split("=0A");
       for (var newLine : newLines) {
         newLine = newLine.replace("=\n", "");
         if (newLine.contains(key)) {
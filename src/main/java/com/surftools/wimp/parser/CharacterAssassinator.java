@@ -27,8 +27,11 @@ SOFTWARE.
 
 package com.surftools.wimp.parser;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -37,30 +40,57 @@ import java.util.Map;
  *
  * useful before handing off to XML processor
  *
+ * the delete and replace entries are literal strings, compiled once into an Aho-Corasick automaton, and the input is
+ * rewritten in a single pass. Matches don't overlap; when two entries overlap, the one that ends first wins. Input
+ * without any match is returned as-is
+ *
  * @author bobt
  *
  */
 public class CharacterAssassinator {
-  private List<String> deleteList;
-  private Map<String, String> replaceMap;
+  private static final int ASCII = 128;
+
+  // a StringBuilder per thread, re-used across calls, unless it gets too big to keep around
+  private static final int MAX_RETAINED_CAPACITY = 1 << 20;
+  private static final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(StringBuilder::new);
+
+  private final List<String> patterns = new ArrayList<>();
+  private final List<String> replacements = new ArrayList<>();
+
+  // per state: full transition table for ASCII, sparse goto map otherwise
+  private int[][] asciiDelta;
+  private List<Map<Character, Integer>> gotoList;
+  private int[] fail;
+  // per state: index of the pattern that ends here (or at a suffix state), -1 if none
+  private int[] output;
 
   public CharacterAssassinator() {
-    deleteList = new ArrayList<>();
-    replaceMap = new HashMap<>();
+    this(null, null);
   }
 
   public CharacterAssassinator(List<String> deleteList, Map<String, String> replaceMap) {
-    if (deleteList == null) {
-      this.deleteList = new ArrayList<>();
-    } else {
-      this.deleteList = deleteList;
+    // deletes take precedence over replaces, same as deleting first
+    var patternMap = new LinkedHashMap<String, String>();
+    if (deleteList != null) {
+      for (var s : deleteList) {
+        patternMap.putIfAbsent(s, "");
+      }
+    }
+
+    if (replaceMap != null) {
+      for (var key : replaceMap.keySet()) {
+        patternMap.putIfAbsent(key, replaceMap.get(key));
+      }
     }
 
-    if (replaceMap == null) {
-      this.replaceMap = new HashMap<>();
-    } else {
-      this.replaceMap = replaceMap;
+    for (var entry : patternMap.entrySet()) {
+      if (entry.getKey() != null && entry.getKey().length() > 0) {
+        patterns.add(entry.getKey());
+        replacements.add(entry.getValue() == null ? "" : entry.getValue());
+      }
     }
+
+    build();
   }
 
   /**
@@ -70,14 +100,116 @@ public class CharacterAssassinator {
    * @return
    */
   public String assassinate(String string) {
-    for (String s : deleteList) {
-      string = string.replaceAll(s, "");
+    if (string == null || patterns.size() == 0) {
+      return string;
+    }
+
+    StringBuilder sb = null;
+    var pending = 0; // start of input not yet copied to sb
+    var state = 0;
+    var n = string.length();
+    for (var i = 0; i < n; ++i) {
+      state = next(state, string.charAt(i));
+      var patternIndex = output[state];
+      if (patternIndex < 0) {
+        continue;
+      }
+
+      if (sb == null) {
+        sb = buffers.get();
+        sb.setLength(0);
+      }
+      var matchStart = i + 1 - patterns.get(patternIndex).length();
+      sb.append(string, pending, matchStart).append(replacements.get(patternIndex));
+      pending = i + 1;
+      state = 0;
+    } // end loop over input
+
+    if (sb == null) {
+      return string;
+    }
+
+    var result = sb.append(string, pending, n).toString();
+    if (sb.capacity() > MAX_RETAINED_CAPACITY) {
+      buffers.remove();
     }
+    return result;
+  }
+
+  private int next(int state, char c) {
+    return c < ASCII ? asciiDelta[state][c] : follow(state, c);
+  }
 
-    for (String key : replaceMap.keySet()) {
-      string = string.replaceAll(key, replaceMap.get(key));
+  /**
+   * build the trie, then the failure links and the ASCII transition table, breadth-first
+   */
+  private void build() {
+    gotoList = new ArrayList<>();
+    gotoList.add(new HashMap<>());
+    var outputList = new ArrayList<Integer>();
+    outputList.add(-1);
+
+    for (var patternIndex = 0; patternIndex < patterns.size(); ++patternIndex) {
+      var state = 0;
+      for (var c : patterns.get(patternIndex).toCharArray()) {
+        var target = gotoList.get(state).get(c);
+        if (target == null) {
+          target = gotoList.size();
+          gotoList.add(new HashMap<>());
+          outputList.add(-1);
+          gotoList.get(state).put(c, target);
+        }
+        state = target;
+      }
+      outputList.set(state, patternIndex);
+    } // end loop over patterns
+
+    var nStates = gotoList.size();
+    fail = new int[nStates];
+    output = outputList.stream().mapToInt(Integer::intValue).toArray();
+    asciiDelta = new int[nStates][ASCII];
+
+    var queue = new ArrayDeque<Integer>();
+    for (var entry : gotoList.get(0).entrySet()) {
+      fail[entry.getValue()] = 0;
+      queue.add(entry.getValue());
+    }
+    for (var c = 0; c < ASCII; ++c) {
+      asciiDelta[0][c] = gotoList.get(0).getOrDefault((char) c, 0);
     }
 
-    return string;
+    while (!queue.isEmpty()) {
+      int state = queue.remove();
+      if (output[state] < 0) {
+        output[state] = output[fail[state]];
+      }
+
+      asciiDelta[state] = Arrays.copyOf(asciiDelta[fail[state]], ASCII);
+      for (var entry : gotoList.get(state).entrySet()) {
+        char c = entry.getKey();
+        int target = entry.getValue();
+        fail[target] = state == 0 ? 0 : follow(fail[state], c);
+        if (c < ASCII) {
+          asciiDelta[state][c] = target;
+        }
+        queue.add(target);
+      }
+    } // end loop over states
+  }
+
+  /**
+   * goto, following failure links as needed
+   */
+  private int follow(int state, char c) {
+    while (true) {
+      var target = gotoList.get(state).get(c);
+      if (target != null) {
+        return target;
+      }
+      if (state == 0) {
+        return 0;
+      }
+      state = fail[state];
+    }
   }
 }
@@ -32,7 +32,6 @@ import java.time.format.DateTimeFormatter;
 import java.util.Arrays;
 import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -131,15 +130,9 @@ public class CheckInParser extends AbstractBaseParser {
       }
     } else {
       try {
-        @SuppressWarnings("unchecked")
-        var formDataMap = (Map<ExportedKey, Map<String, String>>) mm.getContextObject("formDataMap");
-        if (formDataMap == null) {
-          return reject(message, RejectType.CANT_FIND_FORMDATA, "no FormData map");
-        }
-
-        var messageKey = new ExportedKey(message.from, message.messageId);
-        var valueMap = formDataMap.get(messageKey);
-        if (valueMap == null) {
+        var valueMap = attachmentCache.getFormData(message);
+        if (valueMap.size() == 0) {
+          var messageKey = new ExportedKey(message.from, message.messageId);
           return reject(message, RejectType.CANT_FIND_FORMDATA, "no FormData entry for message: " + messageKey);
         }
 
@@ -45,7 +45,7 @@ public class EtoCheckInParser extends AbstractBaseParser {
         return reject(message, RejectType.CANT_PARSE_LATLONG, latLongString);
       }
     } else {
-      return reject(message, RejectType.CANT_PARSE_LATLONG, message.mime);
+      return reject(message, RejectType.CANT_PARSE_LATLONG, message.getMime());
     }
 
     var status = getStringFromFormLines(mimeLines, ":", "Status");
@@ -27,8 +27,6 @@ SOFTWARE.
 
 package com.surftools.wimp.parser;
 
-import java.util.Map;
-
 import com.surftools.utils.location.LatLongPair;
 import com.surftools.wimp.core.MessageType;
 import com.surftools.wimp.core.RejectType;
@@ -82,15 +80,9 @@ public class Ics213Parser extends AbstractBaseParser {
             isExercise, formLocation, version, DATA_SOURCE_RMS_VIEWER);
         return m;
       } else {
-        @SuppressWarnings("unchecked")
-        var formDataMap = (Map<ExportedKey, Map<String, String>>) mm.getContextObject("formDataMap");
-        if (formDataMap == null) {
-          return reject(message, RejectType.CANT_FIND_FORMDATA, "no FormData map");
-        }
-
-        var messageKey = new ExportedKey(message.from, message.messageId);
-        var valueMap = formDataMap.get(messageKey);
-        if (valueMap == null) {
+        var valueMap = attachmentCache.getFormData(message);
+        if (valueMap.size() == 0) {
+          var messageKey = new ExportedKey(message.from, message.messageId);
           return reject(message, RejectType.CANT_FIND_FORMDATA, "no FormData entry for message: " + messageKey);
         }
 
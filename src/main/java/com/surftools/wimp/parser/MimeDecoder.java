@@ -0,0 +1,488 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2022, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wimp.parser;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * one-pass decoder for the MIME of Winlink messages: plain text content and attachments, without javax.mail
+ *
+ * produces the same results as AbstractBaseParser.makeMimeMessageParser() + getAttachments() for the MIME that Winlink
+ * Express generates; returns null for anything it doesn't handle exactly the same way (RFC 2047/2231 encoded names,
+ * comments, unknown transfer encodings, CR/LF line endings, the ETO_2024_09_19 double-quote hack, etc.), in which case
+ * the caller must fall back to the javax.mail path
+ *
+ * @author bobt
+ *
+ */
+public class MimeDecoder {
+
+  public static record DecodedMime(String plainContent, Map<String, byte[]> attachments) {
+  };
+
+  private static record Attachment(String name, byte[] bytes) {
+  };
+
+  // charsets for which an all-ASCII 7bit/8bit text can be used as-is
+  private static final Set<Charset> ASCII_COMPATIBLE_CHARSETS = Set
+      .of(StandardCharsets.US_ASCII, StandardCharsets.ISO_8859_1, StandardCharsets.UTF_8);
+
+  private static final String TSPECIALS = "()<>@,;:\\\"/[]?=";
+
+  private final String mime;
+  private String plainContent = null;
+  private boolean isHtmlSeen = false;
+  private List<Attachment> attachmentList = new ArrayList<>();
+
+  private MimeDecoder(String mime) {
+    this.mime = mime;
+  }
+
+  /**
+   * decode the plain text content and attachments of a MIME message
+   *
+   * @param mime
+   * @return decoded content, or null if the caller should fall back to javax.mail
+   */
+  public static DecodedMime decode(String mime) {
+    if (mime == null || mime.indexOf('\r') >= 0 || needsEto20240919Hack(mime)) {
+      return null;
+    }
+
+    try {
+      // javax.mail drops all trailing newlines from the message
+      var end = mime.length();
+      while (end > 0 && mime.charAt(end - 1) == '\n') {
+        --end;
+      }
+
+      var decoder = new MimeDecoder(mime);
+      decoder.parsePart(0, end);
+
+      // same naming and collision semantics as AbstractBaseParser.getAttachments()
+      Map<String, byte[]> attachments = new LinkedHashMap<>();
+      int attachmentIndex = -1;
+      for (var attachment : decoder.attachmentList) {
+        ++attachmentIndex;
+        var attachmentName = attachment.name;
+        if (attachmentName == null || attachmentName.length() == 0) {
+          attachmentName = "attachment-" + attachmentIndex;
+        }
+        attachments.put(attachmentName, attachment.bytes);
+      }
+
+      return new DecodedMime(decoder.plainContent, attachments);
+    } catch (Exception e) {
+      return null;
+    }
+  }
+
+  /**
+   * see AbstractBaseParser.makeMimeMessageParser()
+   *
+   * @param mime
+   * @return true if there's a Content-Disposition: attachment line with doubled double-quotes
+   */
+  private static boolean needsEto20240919Hack(String mime) {
+    if (!mime.contains("\"\"")) {
+      return false;
+    }
+
+    final var prefix = "Content-Disposition: attachment;";
+    var index = mime.indexOf(prefix);
+    while (index >= 0) {
+      var lineEnd = mime.indexOf('\n', index);
+      var line = lineEnd < 0 ? mime.substring(index) : mime.substring(index, lineEnd);
+      if ((index == 0 || mime.charAt(index - 1) == '\n') && line.contains("\"\"")) {
+        return true;
+      }
+      index = mime.indexOf(prefix, index + 1);
+    }
+    return false;
+  }
+
+  /**
+   * the same decisions as MimeMessageParser.parse(): first non-attachment text/plain is the content, first
+   * non-attachment text/html is ignored, multipart is recursed into, and everything else is an attachment
+   *
+   * @param start
+   * @param end
+   */
+  private void parsePart(int start, int end) {
+    var headerMap = new HashMap<String, String>();
+    var bodyStart = parseHeaders(start, end, headerMap);
+
+    var contentTypeParams = new HashMap<String, String>();
+    var contentType = parseHeaderValue(headerMap.getOrDefault("content-type", "text/plain"), contentTypeParams);
+    var slashIndex = contentType.indexOf('/');
+    if (slashIndex <= 0 || slashIndex == contentType.length() - 1) {
+      throw new IllegalArgumentException("bad Content-Type: " + contentType);
+    }
+
+    var dispositionParams = new HashMap<String, String>();
+    var dispositionString = headerMap.get("content-disposition");
+    var disposition = dispositionString == null ? null : parseHeaderValue(dispositionString, dispositionParams);
+    var isAttachment = "attachment".equals(disposition);
+
+    var encoding = headerMap.get("content-transfer-encoding");
+    if (encoding != null) {
+      encoding = encoding.strip().toLowerCase();
+    }
+
+    if (contentType.equals("text/plain") && plainContent == null && !isAttachment) {
+      plainContent = decodeText(bodyStart, end, encoding, contentTypeParams.getOrDefault("charset", "us-ascii"));
+    } else if (contentType.equals("text/html") && !isHtmlSeen && !isAttachment) {
+      isHtmlSeen = true;
+    } else if (contentType.startsWith("multipart/")) {
+      var boundary = contentTypeParams.get("boundary");
+      if (boundary == null) {
+        throw new IllegalArgumentException("no boundary for multipart");
+      }
+      parseMultipart(bodyStart, end, "--" + boundary);
+    } else {
+      var name = dispositionParams.get("filename");
+      if (name == null) {
+        name = contentTypeParams.get("name");
+      }
+      if (name != null && name.contains("=?")) {
+        throw new IllegalArgumentException("encoded attachment name: " + name);
+      }
+      attachmentList.add(new Attachment(name, decodeBytes(bodyStart, end, encoding)));
+    }
+  }
+
+  /**
+   * split a multipart body on its boundary lines, parsing each part in turn
+   *
+   * @param start
+   * @param end
+   * @param boundary
+   *          the boundary, including leading "--"
+   */
+  private void parseMultipart(int start, int end, String boundary) {
+    // preamble, up to the first boundary line
+    var lineStart = start;
+    var isStarted = false;
+    while (lineStart < end) {
+      var lineEnd = lineEnd(lineStart, end);
+      var line = stripTrailing(mime.substring(lineStart, lineEnd));
+      lineStart = lineEnd + 1;
+      if (line.equals(boundary)) {
+        isStarted = true;
+        break;
+      } else if (line.equals(boundary + "--")) {
+        break;
+      }
+    } // end loop over preamble lines
+
+    if (!isStarted) {
+      throw new IllegalArgumentException("missing start boundary");
+    }
+
+    // a part ends at the newline before the next boundary line; a missing end boundary means end of content
+    var partStart = lineStart;
+    while (true) {
+      if (partStart > end) {
+        throw new IllegalArgumentException("boundary at end of content");
+      }
+      var partEnd = end;
+      var nextPartStart = end + 1;
+      var isDone = true;
+      lineStart = partStart;
+      while (lineStart < end) {
+        var lineEnd = lineEnd(lineStart, end);
+        if (mime.startsWith(boundary, lineStart) && lineEnd - lineStart >= boundary.length()) {
+          var rest = mime.substring(lineStart + boundary.length(), lineEnd);
+          if (rest.startsWith("--") || rest.isBlank()) {
+            partEnd = Math.max(partStart, lineStart - 1);
+            nextPartStart = lineEnd + 1;
+            isDone = rest.startsWith("--");
+            break;
+          }
+        }
+        lineStart = lineEnd + 1;
+      } // end loop over lines of part
+
+      parsePart(partStart, partEnd);
+      if (isDone) {
+        break;
+      }
+      partStart = nextPartStart;
+    } // end loop over parts
+  }
+
+  /**
+   * parse headers into (lower-case) name -> first value, unfolding continuation lines
+   *
+   * @param start
+   * @param end
+   * @param headerMap
+   * @return index of first byte of body
+   */
+  private int parseHeaders(int start, int end, Map<String, String> headerMap) {
+    var lineStart = start;
+    String name = null;
+    StringBuilder value = null;
+    while (lineStart < end) {
+      var lineEnd = lineEnd(lineStart, end);
+      if (lineEnd == lineStart) {
+        putHeader(headerMap, name, value);
+        return Math.min(lineEnd + 1, end);
+      }
+
+      var firstChar = mime.charAt(lineStart);
+      if (firstChar == ' ' || firstChar == '\t') {
+        if (name == null || mime.substring(lineStart, lineEnd).isBlank()) {
+          throw new IllegalArgumentException("bad header continuation");
+        }
+        value.append(" ").append(mime, lineStart, lineEnd);
+      } else {
+        putHeader(headerMap, name, value);
+        var colonIndex = mime.indexOf(':', lineStart);
+        if (colonIndex < 0 || colonIndex >= lineEnd || colonIndex == lineStart) {
+          throw new IllegalArgumentException("bad header line");
+        }
+        name = mime.substring(lineStart, colonIndex).strip().toLowerCase();
+        value = new StringBuilder(mime.substring(colonIndex + 1, lineEnd).stripLeading());
+      }
+      lineStart = lineEnd + 1;
+    } // end loop over header lines
+
+    // the empty line ending the headers is also the newline before the next boundary, so there's no content
+    if (lineStart == end && end > start && end < mime.length() && mime.charAt(end) == '\n') {
+      putHeader(headerMap, name, value);
+      return end;
+    }
+
+    throw new IllegalArgumentException("no end of headers");
+  }
+
+  private void putHeader(Map<String, String> headerMap, String name, StringBuilder value) {
+    if (name != null) {
+      headerMap.putIfAbsent(name, value.toString());
+    }
+  }
+
+  /**
+   * parse a structured header value, like Content-Type or Content-Disposition
+   *
+   * @param headerValue
+   * @param params
+   *          (lower-case) parameter name -> value
+   * @return the (lower-case) value before any parameters
+   */
+  private String parseHeaderValue(String headerValue, Map<String, String> params) {
+    if (headerValue.indexOf('(') >= 0 || headerValue.indexOf('\\') >= 0) {
+      throw new IllegalArgumentException("unsupported header: " + headerValue);
+    }
+
+    var semicolonIndex = headerValue.indexOf(';');
+    var value = (semicolonIndex < 0 ? headerValue : headerValue.substring(0, semicolonIndex)).strip().toLowerCase();
+    if (value.isEmpty() || containsWhitespace(value)) {
+      throw new IllegalArgumentException("bad header value: " + headerValue);
+    }
+
+    var i = semicolonIndex < 0 ? headerValue.length() : semicolonIndex + 1;
+    var n = headerValue.length();
+    while (i < n) {
+      i = skipWhitespace(headerValue, i);
+      if (i == n) {
+        break;
+      }
+
+      var equalsIndex = headerValue.indexOf('=', i);
+      if (equalsIndex < 0) {
+        throw new IllegalArgumentException("bad parameter: " + headerValue);
+      }
+      var paramName = headerValue.substring(i, equalsIndex).strip().toLowerCase();
+      if (paramName.isEmpty() || paramName.indexOf('*') >= 0 || !isToken(paramName)) {
+        throw new IllegalArgumentException("unsupported parameter: " + headerValue);
+      }
+
+      i = skipWhitespace(headerValue, equalsIndex + 1);
+      String paramValue;
+      if (i < n && headerValue.charAt(i) == '"') {
+        var closeIndex = headerValue.indexOf('"', i + 1);
+        if (closeIndex < 0) {
+          throw new IllegalArgumentException("unterminated quoted string: " + headerValue);
+        }
+        paramValue = headerValue.substring(i + 1, closeIndex);
+        i = closeIndex + 1;
+      } else {
+        var valueStart = i;
+        while (i < n && headerValue.charAt(i) != ';' && !Character.isWhitespace(headerValue.charAt(i))) {
+          ++i;
+        }
+        paramValue = headerValue.substring(valueStart, i);
+        if (paramValue.isEmpty() || !isToken(paramValue)) {
+          throw new IllegalArgumentException("unsupported parameter value: " + headerValue);
+        }
+      }
+      params.put(paramName, paramValue);
+
+      i = skipWhitespace(headerValue, i);
+      if (i < n) {
+        if (headerValue.charAt(i) != ';') {
+          throw new IllegalArgumentException("bad parameter separator: " + headerValue);
+        }
+        ++i;
+      }
+    } // end loop over parameters
+
+    return value;
+  }
+
+  private String decodeText(int start, int end, String encoding, String charsetName) {
+    var charset = Charset.forName(charsetName);
+    if (isIdentityEncoding(encoding) && ASCII_COMPATIBLE_CHARSETS.contains(charset) && isAscii(start, end)) {
+      return mime.substring(start, end);
+    }
+
+    var text = new String(decodeBytes(start, end, encoding), charset);
+    if (text.indexOf('\uFFFD') >= 0) {
+      // InputStreamReader and new String() don't always agree on replacement of malformed input
+      throw new IllegalArgumentException("malformed text for charset: " + charsetName);
+    }
+    return text;
+  }
+
+  private byte[] decodeBytes(int start, int end, String encoding) {
+    if (isIdentityEncoding(encoding)) {
+      return mime.substring(start, end).getBytes();
+    } else if (encoding.equals("base64")) {
+      return Base64.getMimeDecoder().decode(mime.substring(start, end));
+    } else if (encoding.equals("quoted-printable")) {
+      return decodeQuotedPrintable(mime.substring(start, end).getBytes());
+    }
+    throw new IllegalArgumentException("unsupported encoding: " + encoding);
+  }
+
+  /**
+   * same semantics as javax.mail's QPDecoderStream: soft line breaks are removed, and spaces before a line break are
+   * dropped
+   *
+   * @param in
+   * @return
+   */
+  private byte[] decodeQuotedPrintable(byte[] in) {
+    var out = new byte[in.length];
+    var nOut = 0;
+    var n = in.length;
+    var i = 0;
+    while (i < n) {
+      var c = in[i++];
+      if (c == ' ') {
+        var spaceStart = i - 1;
+        while (i < n && in[i] == ' ') {
+          ++i;
+        }
+        if (i < n && in[i] != '\n') {
+          for (var j = spaceStart; j < i; ++j) {
+            out[nOut++] = ' ';
+          }
+        }
+      } else if (c == '=') {
+        if (i == n) {
+          break;
+        } else if (in[i] == '\n') {
+          ++i;
+        } else if (i + 1 < n && isHexDigit(in[i]) && isHexDigit(in[i + 1])) {
+          out[nOut++] = (byte) Integer.parseInt(new String(in, i, 2, StandardCharsets.US_ASCII), 16);
+          i += 2;
+        } else {
+          throw new IllegalArgumentException("bad quoted-printable escape");
+        }
+      } else {
+        out[nOut++] = c;
+      }
+    } // end loop over input
+
+    var result = new byte[nOut];
+    System.arraycopy(out, 0, result, 0, nOut);
+    return result;
+  }
+
+  private boolean isIdentityEncoding(String encoding) {
+    return encoding == null || encoding.equals("7bit") || encoding.equals("8bit") || encoding.equals("binary");
+  }
+
+  private int lineEnd(int lineStart, int end) {
+    var index = mime.indexOf('\n', lineStart);
+    return (index < 0 || index > end) ? end : index;
+  }
+
+  private boolean isAscii(int start, int end) {
+    for (var i = start; i < end; ++i) {
+      if (mime.charAt(i) >= 0x80) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isHexDigit(byte b) {
+    return (b >= '0' && b <= '9') || (b >= 'a' && b <= 'f') || (b >= 'A' && b <= 'F');
+  }
+
+  private static boolean isToken(String s) {
+    for (var i = 0; i < s.length(); ++i) {
+      var c = s.charAt(i);
+      if (c <= ' ' || c >= 0x7f || TSPECIALS.indexOf(c) >= 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean containsWhitespace(String s) {
+    return s.chars().anyMatch(Character::isWhitespace);
+  }
+
+  private static int skipWhitespace(String s, int i) {
+    while (i < s.length() && Character.isWhitespace(s.charAt(i))) {
+      ++i;
+    }
+    return i;
+  }
+
+  private static String stripTrailing(String line) {
+    var i = line.length() - 1;
+    while (i >= 0 && (line.charAt(i) == ' ' || line.charAt(i) == '\t')) {
+      --i;
+    }
+    return line.substring(0, i + 1);
+  }
+}
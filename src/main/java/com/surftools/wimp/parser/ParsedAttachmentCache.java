@@ -0,0 +1,197 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2025, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wimp.parser;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.surftools.wimp.core.IMessageManager;
+import com.surftools.wimp.message.ExportedMessage;
+import com.surftools.wimp.service.pdfText.PdfTextService;
+
+/**
+ * per-message cache of decoded attachments, so that classification and parsing decode each attachment at most once
+ *
+ * entries are keyed by (identical) message and attachment name, and should be evicted once the message has been
+ * parsed; not by sender and messageId, which aren't unique across exports
+ *
+ * @author bobt
+ *
+ */
+public class ParsedAttachmentCache {
+  private static final Logger logger = LoggerFactory.getLogger(ParsedAttachmentCache.class);
+
+  public static final String CONTEXT_KEY = "parsedAttachmentCache";
+  public static final String FORM_DATA_NAME = "FormData.txt";
+
+  // ConcurrentHashMap doesn't allow null values
+  private static final Object NULL_VALUE = new Object();
+
+  private final boolean isCaching;
+  private final PdfTextService pdfTextService;
+  private final Map<ExportedMessage, Map<String, Object>> messageMap = Collections
+      .synchronizedMap(new IdentityHashMap<>());
+
+  public ParsedAttachmentCache(PdfTextService pdfTextService) {
+    this(true, pdfTextService);
+  }
+
+  private ParsedAttachmentCache(boolean isCaching, PdfTextService pdfTextService) {
+    this.isCaching = isCaching;
+    this.pdfTextService = pdfTextService;
+  }
+
+  /**
+   * @return a "cache" that decodes on every call, for parsers used outside of classification
+   */
+  public static ParsedAttachmentCache uncached() {
+    return new ParsedAttachmentCache(false, PdfTextService.direct());
+  }
+
+  /**
+   * @param mm
+   * @return the cache shared through the context of mm, or an uncached one if there is none
+   */
+  public static ParsedAttachmentCache from(IMessageManager mm) {
+    var cache = (mm == null) ? null : (ParsedAttachmentCache) mm.getContextObject(CONTEXT_KEY);
+    return (cache == null) ? uncached() : cache;
+  }
+
+  /**
+   * @param message
+   * @return read-only name -> value map of the FormData.txt attachment, empty if none
+   */
+  @SuppressWarnings("unchecked")
+  public Map<String, String> getFormData(ExportedMessage message) {
+    return (Map<String, String>) get(message, "formData:" + FORM_DATA_NAME, () -> parseFormData(message));
+  }
+
+  /**
+   * @param message
+   * @param attachmentName
+   * @return text from all pages of the PDF attachment, or null if not a PDF, too many pages, or too slow
+   */
+  public String getPdfText(ExportedMessage message, String attachmentName) {
+    return (String) get(message, "pdfText:" + attachmentName,
+        () -> pdfTextService.getText(getPdfBytes(message, attachmentName)));
+  }
+
+  /**
+   * @param message
+   * @param attachmentName
+   * @return last line of text of the PDF attachment, usually from only the last page, or null if not a PDF
+   */
+  public String getPdfLastLine(ExportedMessage message, String attachmentName) {
+    return (String) get(message, "pdfLastLine:" + attachmentName,
+        () -> pdfTextService.getLastLine(getPdfBytes(message, attachmentName)));
+  }
+
+  /**
+   * sniff the (possibly spilled) attachment, so that only PDFs are copied onto the heap
+   *
+   * @param message
+   * @param attachmentName
+   * @return bytes, or null if not a PDF
+   */
+  private static byte[] getPdfBytes(ExportedMessage message, String attachmentName) {
+    var handle = message.getAttachmentHandle(attachmentName);
+    if (handle == null || !PdfTextService.hasPdfMagic(handle.getByteBuffer())) {
+      return null;
+    }
+    return handle.getBytes();
+  }
+
+  /**
+   * forget everything decoded for this message
+   *
+   * @param message
+   */
+  public void evict(ExportedMessage message) {
+    messageMap.remove(message);
+  }
+
+  /**
+   * @return number of messages with cached attachments
+   */
+  public int size() {
+    return messageMap.size();
+  }
+
+  private Object get(ExportedMessage message, String viewKey, Supplier<Object> supplier) {
+    if (!isCaching) {
+      return supplier.get();
+    }
+
+    var viewMap = messageMap.computeIfAbsent(message, k -> new ConcurrentHashMap<>());
+    var value = viewMap.computeIfAbsent(viewKey, k -> {
+      var v = supplier.get();
+      return v == null ? NULL_VALUE : v;
+    });
+    return value == NULL_VALUE ? null : value;
+  }
+
+  private static Map<String, String> parseFormData(ExportedMessage m) {
+    var attachments = m.attachments;
+    if (attachments == null || !attachments.containsKey(FORM_DATA_NAME)) {
+      return Map.of();
+    }
+
+    var valueMap = new HashMap<String, String>();
+    var formDataString = new String(attachments.get(FORM_DATA_NAME));
+    var lines = formDataString.split("\n");
+    for (var line : lines) {
+      if (line == null || line.strip().isEmpty() || line.startsWith("*")) {
+        continue;
+      }
+      var fields = line.split("=");
+      if (fields.length == 2) {
+        var mapKey = fields[0].split(":")[0].strip();
+        var mapValue = fields[1].strip();
+        valueMap.put(mapKey, mapValue);
+      } else if (fields.length == 1) {
+        var mapKey = fields[0].split(":")[0].strip();
+        var mapValue = "";
+        valueMap.put(mapKey, mapValue);
+      } else {
+        logger
+            .warn(String
+                .format("###  wrong number of fields in FormData: %s for sender: %s, mId: %s", //
+                    line, m.from, m.messageId));
+      }
+    } // end loop over lines
+
+    return Collections.unmodifiableMap(valueMap);
+  }
+}
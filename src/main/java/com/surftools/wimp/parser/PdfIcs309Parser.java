@@ -28,12 +28,11 @@ SOFTWARE.
 package com.surftools.wimp.parser;
 
 import java.util.ArrayList;
-import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.surftools.utils.pdf.PdfUtils;
+import com.surftools.wimp.configuration.Key;
 import com.surftools.wimp.core.RejectType;
 import com.surftools.wimp.message.ExportedMessage;
 import com.surftools.wimp.message.Ics309Message;
@@ -55,14 +54,17 @@ public class PdfIcs309Parser extends AbstractBaseParser {
     var mId = message.messageId;
     try {
       // get the first (and hopefully only) PDF ICS-309, extract text, split into lines
-      String pdfAttachmentIndices = makePdfAttachmentIndices(message.attachments);
+      String pdfAttachmentIndices = makePdfAttachmentIndices(message);
       var indexArray = pdfAttachmentIndices.split(",");
       int first309Index = Integer.valueOf(indexArray[0]);
       var keyList = new ArrayList<String>(message.attachments.keySet());
       var attachmentName = keyList.get(first309Index);
-      var bytes = message.attachments.get(attachmentName);
-      var pdfUtils = new PdfUtils();
-      var text = pdfUtils.getTextFromAllPages(bytes);
+      var text = attachmentCache.getPdfText(message, attachmentName);
+      if (text == null) {
+        // PdfTextService gives up on big or slow PDFs, rather than hold up the whole run
+        return reject(message, RejectType.CANT_EXTRACT_PDF_TEXT, "no text from " + attachmentName + ": more than "
+            + Key.PDF_MAX_PAGES + " pages, or extraction took longer than " + Key.PDF_TIMEOUT_SECONDS);
+      }
       var lines = text.split("\n");
 
       var pageList = new ArrayList<String>();
@@ -300,16 +302,16 @@ public class PdfIcs309Parser extends AbstractBaseParser {
   /**
    * find the indices of all the attachments that are ICS-309 pdfs. Hopefully only one!
    *
-   * @param attachments
+   * @param message
    * @return
    */
-  private String makePdfAttachmentIndices(Map<String, byte[]> attachments) {
+  private String makePdfAttachmentIndices(ExportedMessage message) {
+    var attachments = message.attachments;
     var indexList = new ArrayList<String>();
     var keyList = new ArrayList<String>(attachments.keySet());
     for (var i = 0; i < attachments.size(); ++i) {
       var attachmentName = keyList.get(i);
-      var bytes = attachments.get(attachmentName);
-      if (isAttachmentPdfIcs309(bytes)) {
+      if (isIcs309Footer(attachmentCache.getPdfLastLine(message, attachmentName))) {
         indexList.add(String.valueOf(i));
       }
     }
@@ -317,6 +319,16 @@ public class PdfIcs309Parser extends AbstractBaseParser {
   }
 
   public static boolean isPdfIcs309(ExportedMessage message) {
+    return isPdfIcs309(message, ParsedAttachmentCache.uncached());
+  }
+
+  /**
+   * @param message
+   * @param attachmentCache
+   *          where the extracted text is kept, for the parser
+   * @return
+   */
+  public static boolean isPdfIcs309(ExportedMessage message, ParsedAttachmentCache attachmentCache) {
     if (message.attachments == null) {
       return false;
     }
@@ -324,8 +336,7 @@ public class PdfIcs309Parser extends AbstractBaseParser {
     var keyList = new ArrayList<String>(message.attachments.keySet());
     for (var i = 0; i < message.attachments.size(); ++i) {
       var attachmentName = keyList.get(i);
-      var bytes = message.attachments.get(attachmentName);
-      var isPdfIcs309 = isAttachmentPdfIcs309(bytes);
+      var isPdfIcs309 = isIcs309Footer(attachmentCache.getPdfLastLine(message, attachmentName));
       if (isPdfIcs309) {
         return true;
       }
@@ -334,30 +345,13 @@ public class PdfIcs309Parser extends AbstractBaseParser {
     return false;
   }
 
-  private static boolean isAttachmentPdfIcs309(byte[] bytes) {
-    var pdfUtils = new PdfUtils();
-
-    var isPdf = pdfUtils.isPdf(bytes);
-    if (!isPdf) {
-      return false;
-    }
-
-    var text = pdfUtils.getTextFromAllPages(bytes);
-    if (text == null) {
-      return false;
-    }
-
-    var lines = text.split("\n");
-    if (lines == null || lines.length == 0) {
-      return false;
-    }
-
-    var lastLine = lines[lines.length - 1];
-    if (lastLine.contains("309 communications log generated by Winlink Express")) {
-      return true;
-    }
-
-    return false;
+  /**
+   * @param lastLine
+   *          of text from all pages, null if not a PDF
+   * @return
+   */
+  private static boolean isIcs309Footer(String lastLine) {
+    return lastLine != null && lastLine.contains("309 communications log generated by Winlink Express");
   }
 
 }
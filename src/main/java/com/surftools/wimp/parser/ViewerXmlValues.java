@@ -0,0 +1,133 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2025, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wimp.parser;
+
+import java.io.StringReader;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import com.surftools.utils.XmlParsers;
+
+/**
+ * immutable tag -> value map of an RMS viewer XML attachment, from a single StAX pass, no DOM
+ *
+ * the value for a tag is the value of the first child node of the first element with that name, in document order;
+ * exactly what getElementsByTagName(tag).item(0).getFirstChild().getNodeValue() gives on a normalized Document
+ *
+ * @author bobt
+ *
+ */
+public class ViewerXmlValues {
+
+  // only tags whose first element has a non-null first child value
+  private final Map<String, String> valueMap;
+
+  private ViewerXmlValues(Map<String, String> valueMap) {
+    this.valueMap = valueMap;
+  }
+
+  /**
+   * @param xmlString
+   * @return
+   * @throws XMLStreamException
+   *           if not well-formed, or if it has a DTD, which only the DOM path handles
+   */
+  public static ViewerXmlValues parse(String xmlString) throws XMLStreamException {
+    var valueMap = new HashMap<String, String>();
+    var seenNames = new HashSet<String>();
+
+    var reader = XmlParsers.createDomLikeXMLStreamReader(new StringReader(xmlString));
+    try {
+      String pendingName = null; // first occurrence, just opened, first child not yet seen
+      String textName = null;
+      StringBuilder text = null;
+      while (reader.hasNext()) {
+        var event = reader.next();
+
+        if (text != null) {
+          if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.SPACE) {
+            text.append(reader.getText());
+            continue;
+          }
+          valueMap.put(textName, text.toString());
+          text = null;
+        }
+
+        if (event == XMLStreamConstants.DTD) {
+          throw new XMLStreamException("DTD not supported");
+        }
+
+        if (pendingName != null) {
+          switch (event) {
+          case XMLStreamConstants.CHARACTERS, XMLStreamConstants.SPACE -> {
+            // adjacent text is one node, once normalized
+            textName = pendingName;
+            text = new StringBuilder(reader.getText());
+          }
+          case XMLStreamConstants.CDATA, XMLStreamConstants.COMMENT -> valueMap.put(pendingName, reader.getText());
+          case XMLStreamConstants.PROCESSING_INSTRUCTION -> valueMap.put(pendingName, reader.getPIData());
+          default -> {
+            // child element or end of element: no value
+          }
+          }
+          pendingName = null;
+        }
+
+        if (event == XMLStreamConstants.START_ELEMENT) {
+          var name = getName(reader);
+          if (seenNames.add(name)) {
+            pendingName = name;
+          }
+        }
+      } // end loop over events
+    } finally {
+      reader.close();
+    }
+
+    return new ViewerXmlValues(Map.copyOf(valueMap));
+  }
+
+  /**
+   * @param tagName
+   * @return unstripped value of first child of first element named tagName, or null
+   */
+  public String get(String tagName) {
+    return valueMap.get(tagName);
+  }
+
+  private static String getName(XMLStreamReader reader) {
+    var prefix = reader.getPrefix();
+    var localName = reader.getLocalName();
+    return (prefix == null || prefix.isEmpty()) ? localName : prefix + ":" + localName;
+  }
+}
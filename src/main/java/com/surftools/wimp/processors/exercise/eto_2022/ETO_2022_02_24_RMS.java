@@ -102,20 +102,19 @@ public class ETO_2022_02_24_RMS extends AbstractBaseProcessor {
       var anyImagePresent = false;
       var anyImageRightSized = false;
       var imageCountForThisMessage = 0;
-      for (var attachmentName : m.attachments.keySet()) {
+      for (var handle : m.getAttachmentHandles()) {
         ++attachmentIndex;
-        var bytes = m.attachments.get(attachmentName);
-        if (areBytesAnImage(bytes)) {
+        if (isAnImage(handle)) {
           ++imageCountForThisMessage;
           anyImagePresent = true;
-          var imageFileName = m.from + "-" + attachmentIndex + "-" + attachmentName;
-          if (bytes.length <= imageMaxSize) {
+          var imageFileName = m.from + "-" + attachmentIndex + "-" + handle.getName();
+          if (handle.getLength() <= imageMaxSize) {
             anyImageRightSized = true;
-            writeContent(bytes, imageFileName, imageAllPath, imageGoodPaths);
+            writeContent(handle, imageFileName, imageAllPath, imageGoodPaths);
           } else {
-            writeContent(bytes, imageFileName, imageAllPath, imageBadPaths);
+            writeContent(handle, imageFileName, imageAllPath, imageBadPaths);
           }
-        } // end if areBytesAnImage
+        } // end if isAnImage
       } // end loop over attachments
       if (anyImagePresent) {
         points += 50;
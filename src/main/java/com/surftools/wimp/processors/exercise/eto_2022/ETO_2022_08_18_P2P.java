@@ -249,8 +249,7 @@ public class ETO_2022_08_18_P2P extends AbstractBaseP2PProcessor {
     var readProcessor = new ReadProcessor();
     readProcessor.initialize(cm, mm);
 
-    var classifierProcessor = new ClassifierProcessor();
-    classifierProcessor.initialize(cm, mm);
+    var classifierProcessor = new ClassifierProcessor(mm);
 
     // var reader = new ReadProcessor();
     // reader.initialize(cm, mm);
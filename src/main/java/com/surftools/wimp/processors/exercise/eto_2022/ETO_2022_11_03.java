@@ -165,18 +165,18 @@ public class ETO_2022_11_03 extends AbstractBaseProcessor {
 
       var imageFileName = getFirstImageFile(m);
       if (imageFileName != null) {
-        var bytes = m.attachments.get(imageFileName);
+        var handle = m.getAttachmentHandle(imageFileName);
         ++ppImagePresentOk;
         points += 10;
 
-        if (bytes.length <= imageMaxSize) {
+        if (handle.getLength() <= imageMaxSize) {
           ++ppImageSizeOk;
           points += 15;
-          writeContent(bytes, imageFileName, imageAllPath, imageGoodPaths);
+          writeContent(handle, imageFileName, imageAllPath, imageGoodPaths);
         } else {
           ++ppImageSizeTooBig;
-          explanations.add("image size (" + bytes.length + ") larger than " + imageMaxSize + " bytes");
-          writeContent(bytes, imageFileName, imageAllPath, imageBadPaths);
+          explanations.add("image size (" + handle.getLength() + ") larger than " + imageMaxSize + " bytes");
+          writeContent(handle, imageFileName, imageAllPath, imageBadPaths);
         }
       } else {
         explanations.add("no image attachment found");
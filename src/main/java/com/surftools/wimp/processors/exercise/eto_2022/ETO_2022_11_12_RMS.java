@@ -276,19 +276,19 @@ public class ETO_2022_11_12_RMS extends AbstractBaseProcessor {
 
         var imageFileName = getImageFile(icsMessage);
         if (imageFileName != null) {
-          var bytes = icsMessage.attachments.get(imageFileName);
-          if (bytes != null) {
+          var handle = icsMessage.getAttachmentHandle(imageFileName);
+          if (handle != null) {
             ++ppIcsImageAttachedOk;
-            icsImageSize = bytes.length;
+            icsImageSize = handle.getLength();
 
-            if (bytes.length <= maxImageSize) {
+            if (handle.getLength() <= maxImageSize) {
               ++ppIcsImageSizeOk;
               points += 25;
               explanations.add("extra credit for attached image");
-              writeContent(bytes, imageFileName, imageAllPath, imageGoodPaths);
+              writeContent(handle, imageFileName, imageAllPath, imageGoodPaths);
             } else {
               explanations.add("no extra credit too large image");
-              writeContent(bytes, imageFileName, imageAllPath, imageBadPaths);
+              writeContent(handle, imageFileName, imageAllPath, imageBadPaths);
             }
           }
         } else {
@@ -411,11 +411,12 @@ public class ETO_2022_11_12_RMS extends AbstractBaseProcessor {
   }
 
   private String getImageFile(ExportedMessage m) {
-    for (String key : m.attachments.keySet()) {
-      var bytes = m.attachments.get(key);
-      if (areBytesAnImage(bytes)) {
-        logger.debug("image found for call: " + m.from + ", attachment: " + key + ", size:" + bytes.length);
-        return key;
+    for (var handle : m.getAttachmentHandles()) {
+      if (isAnImage(handle)) {
+        logger
+            .debug("image found for call: " + m.from + ", attachment: " + handle.getName() + ", size:"
+                + handle.getLength());
+        return handle.getName();
       }
     }
     return null;
@@ -27,15 +27,12 @@ SOFTWARE.
 
 package com.surftools.wimp.processors.exercise.eto_2022;
 
-import java.io.ByteArrayInputStream;
 import java.nio.file.Path;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
-import javax.imageio.ImageIO;
-
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -237,18 +234,18 @@ public class ETO_2022_12_22 extends AbstractBaseProcessor {
 
       var imageFileName = getImageFile(message);
       if (imageFileName != null) {
-        var bytes = message.attachments.get(imageFileName);
-        if (bytes != null) {
+        var handle = message.getAttachmentHandle(imageFileName);
+        if (handle != null) {
           ++ppImageAttachedOk;
           points += 25;
 
           List<Path> linkPaths = null;
-          if (bytes.length <= maxImageSize) {
+          if (handle.getLength() <= maxImageSize) {
             ++ppImageSizeOk;
             points += 25;
             linkPaths = imagePassPaths;
           } else {
-            explanations.add("image size (" + bytes.length + ") > max(" + maxImageSize + ")");
+            explanations.add("image size (" + handle.getLength() + ") > max(" + maxImageSize + ")");
             linkPaths = imageBadPaths;
           }
 
@@ -258,7 +255,7 @@ public class ETO_2022_12_22 extends AbstractBaseProcessor {
             newImageFileName = sender + imageFileName.toLowerCase().substring(lastIndex);
           }
 
-          writeContent(bytes, newImageFileName, imageAllPath, linkPaths);
+          writeContent(handle, newImageFileName, imageAllPath, linkPaths);
         }
       } else {
         explanations.add("no image attachment found");
@@ -496,17 +493,12 @@ public class ETO_2022_12_22 extends AbstractBaseProcessor {
   }
 
   private String getImageFile(ExportedMessage m) {
-    for (String key : m.attachments.keySet()) {
-      try {
-        var bytes = m.attachments.get(key);
-        var bufferedImage = ImageIO.read(new ByteArrayInputStream(bytes));
-        if (bufferedImage == null) {
-          continue;
-        }
-        logger.debug("image found for call: " + m.from + ", attachment: " + key + ", size:" + bytes.length);
-        return key;
-      } catch (Exception e) {
-        ;
+    for (var handle : m.getAttachmentHandles()) {
+      if (isAnImage(handle)) {
+        logger
+            .debug("image found for call: " + m.from + ", attachment: " + handle.getName() + ", size:"
+                + handle.getLength());
+        return handle.getName();
       }
     }
     return null;
@@ -420,7 +420,7 @@ public class ETO_2024_05_11 extends FeedbackProcessor {
   }
 
   protected void handlePlain(ExportedMessage m) {
-    var text = m.mime;
+    var text = m.getMime();
 
     if (text.contains("Winlink Check-in") && text.contains("0. HEADER")) {
       sts.test("Winlink Check In message should include XML attachment", false);
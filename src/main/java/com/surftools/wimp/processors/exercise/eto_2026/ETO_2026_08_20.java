@@ -64,8 +64,7 @@ public class ETO_2026_08_20 extends SingleMessageFeedbackProcessor implements IE
     outboundMessageExtraContent = extraOutboundMessageText + OB_DISCLAIMER;
 
     // to enable editing of the exportedMessage
-    classifer = new ClassifierProcessor();
-    classifer.initialize(cm, mm);
+    classifer = new ClassifierProcessor(mm);
     parser = new CheckInParser();
     BaseReadProcessor.setExportedMessageEditor(this);
   }
@@ -120,7 +119,7 @@ public class ETO_2026_08_20 extends SingleMessageFeedbackProcessor implements IE
             m.messageId, source, source, m.to, m.toList, m.ccList, //
             m.subject, m.msgDateTime, //
             m.msgLocation, m.msgLocationSource, //
-            m.mime, m.plainContent, m.attachments, m.isP2p, m.fileName, m.lines);
+            m.getMime(), m.plainContent, m.attachments, m.isP2p, m.fileName, m.getLines());
 
         newExportedMessage.extraData.put(ORIGINAL_SENDER, originalSender);
 
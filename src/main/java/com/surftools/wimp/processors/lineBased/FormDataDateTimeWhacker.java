@@ -106,7 +106,7 @@ public class FormDataDateTimeWhacker extends AbstractBaseProcessor {
           default:
             continue;
           } // end switch over messages
-          var newMessageString = stompTheStamp(m.lines, trueFormDateTimeString);
+          var newMessageString = stompTheStamp(m.getLines(), trueFormDateTimeString);
           rewrittenMessageStrings.add(newMessageString);
         } // end for over messages of a given type
       } // end for over messageTypes
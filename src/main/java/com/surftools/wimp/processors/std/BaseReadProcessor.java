@@ -27,20 +27,31 @@ SOFTWARE.
 
 package com.surftools.wimp.processors.std;
 
+import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipInputStream;
 
-import javax.xml.XMLConstants;
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 import org.slf4j.Logger;
 import org.w3c.dom.Document;
@@ -48,6 +59,11 @@ import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 
+import com.surftools.utils.CodeFingerprint;
+import com.surftools.utils.LimitedInputStream;
+import com.surftools.utils.StringInterner;
+import com.surftools.utils.XmlParsers;
+import com.surftools.utils.location.CoordinateParser;
 import com.surftools.utils.location.LatLongPair;
 import com.surftools.utils.location.LocationUtils;
 import com.surftools.wimp.configuration.Key;
@@ -55,10 +71,13 @@ import com.surftools.wimp.core.IExportedMessageEditor;
 import com.surftools.wimp.core.IMessageManager;
 import com.surftools.wimp.core.RejectType;
 import com.surftools.wimp.message.ExportedMessage;
+import com.surftools.wimp.message.MimeHeaders;
 import com.surftools.wimp.message.RejectionMessage;
 import com.surftools.wimp.parser.AbstractBaseParser;
 import com.surftools.wimp.parser.CharacterAssassinator;
+import com.surftools.wimp.parser.MimeDecoder;
 import com.surftools.wimp.processors.std.baseExercise.AbstractBaseProcessor;
+import com.surftools.wimp.service.ingestIndex.IngestIndexService;
 import com.surftools.wimp.utils.config.IConfigurationManager;
 
 public abstract class BaseReadProcessor extends AbstractBaseProcessor implements IExportedMessageEditor {
@@ -68,14 +87,43 @@ public abstract class BaseReadProcessor extends AbstractBaseProcessor implements
   private Set<String> secondaryDestinations = new LinkedHashSet<>();
 
   private boolean isReadFilteringEnabled = false;
-  private int readFilterIncludeCount = 0;
-  private int readFilterExcludeCount = 0;
+  private final AtomicInteger readFilterIncludeCount = new AtomicInteger();
+  private final AtomicInteger readFilterExcludeCount = new AtomicInteger();
   private Set<String> includeSenderSet;
   private Set<String> excludeSenderSet;
 
+  // read-time filters, evaluated against the envelope (and MIME headers), before the MIME is decoded
+  private boolean isWindowFilterEnabled = false;
+  private LocalDateTime windowOpenDT = null;
+  private LocalDateTime windowCloseDT = null;
+  private List<String> subjectPrefixes = new ArrayList<>();
+  private boolean isDestinationFilterEnabled = false;
+  private final AtomicInteger readFilterWindowCount = new AtomicInteger();
+  private final AtomicInteger readFilterSubjectCount = new AtomicInteger();
+  private final AtomicInteger readFilterDestinationCount = new AtomicInteger();
+
   protected static IExportedMessageEditor editor;
 
   private static final List<String> DELETE_LIST = Arrays.asList(new String[] { "&#21" });
+  private static final CharacterAssassinator ASSASSINATOR = new CharacterAssassinator(DELETE_LIST, null);
+
+  // the envelope tags of a <message>, first occurrence wins, same as getElementsByTagName(tag).item(0)
+  private static final List<String> ENVELOPE_TAGS = List
+      .of("id", "subject", "time", "sender", "source", "mime", "location", "peertopeer");
+
+  protected boolean isStreamingEnabled = false;
+  protected boolean isMimeDecoderEnabled = true;
+
+  // so that a "zip bomb" fails, rather than exhausting memory
+  public static final int DEFAULT_MAX_ENTRY_MB = 100;
+  protected long maxEntryBytes = DEFAULT_MAX_ENTRY_MB * 1024L * 1024L;
+
+  // besides those of the reader, the editor and the classifier: MimeDecoder, MimeHeaders, MessageType, etc.
+  private static final String[] READ_HELPER_PACKAGES = { "com.surftools.wimp.parser", "com.surftools.wimp.message",
+      "com.surftools.wimp.core", "com.surftools.utils" };
+
+  // canonical callsigns, addresses, file names, etc., shared by all messages read
+  protected StringInterner interner = null;
 
   static record LocationResult(LatLongPair location, String source) {
   };
@@ -88,6 +136,16 @@ public abstract class BaseReadProcessor extends AbstractBaseProcessor implements
   public void baseInitialize(IConfigurationManager cm, IMessageManager mm) {
     isReadFilteringEnabled = cm.getAsBoolean(Key.READ_FILTER_ENABLED, false);
 
+    isMimeDecoderEnabled = cm.getAsBoolean(Key.READ_MIME_DECODER_ENABLED, true);
+    maxEntryBytes = getMaxEntryBytes(cm);
+    if (cm.getAsBoolean(Key.READ_INTERN_ENABLED, true)) {
+      interner = new StringInterner();
+    }
+    isStreamingEnabled = cm.getAsBoolean(Key.READ_STREAMING_ENABLED, false);
+    if (isStreamingEnabled) {
+      logger.info("streaming read enabled");
+    }
+
     var expectedDestinationsString = cm.getAsString(Key.EXPECTED_DESTINATIONS);
     if (expectedDestinationsString != null) {
       var fields = expectedDestinationsString.split(",");
@@ -108,6 +166,37 @@ public abstract class BaseReadProcessor extends AbstractBaseProcessor implements
       logger.info("Secondary Destinations: " + secondaryDestinations.toString());
     }
 
+    isWindowFilterEnabled = cm.getAsBoolean(Key.READ_FILTER_WINDOW_ENABLED, false);
+    if (isWindowFilterEnabled) {
+      var windowOpenString = cm.getAsString(Key.EXERCISE_WINDOW_OPEN);
+      if (windowOpenString != null) {
+        windowOpenDT = LocalDateTime.parse(windowOpenString, DTF);
+      }
+
+      var windowCloseString = cm.getAsString(Key.EXERCISE_WINDOW_CLOSE);
+      if (windowCloseString != null) {
+        windowCloseDT = LocalDateTime.parse(windowCloseString, DTF);
+      }
+      logger.info("read filter window: " + windowOpenDT + " to " + windowCloseDT);
+    }
+
+    subjectPrefixes = new ArrayList<>();
+    var subjectPrefixesString = cm.getAsString(Key.READ_FILTER_SUBJECT_PREFIXES);
+    if (subjectPrefixesString != null) {
+      for (var field : subjectPrefixesString.split(",")) {
+        if (!field.isBlank()) {
+          subjectPrefixes.add(field.strip().toUpperCase());
+        }
+      }
+      logger.info("read filter subject prefixes: " + String.join(",", subjectPrefixes));
+    }
+
+    isDestinationFilterEnabled = cm.getAsBoolean(Key.READ_FILTER_DESTINATIONS_ENABLED, false);
+    if (isDestinationFilterEnabled && expectedDestinations.size() == 0 && secondaryDestinations.size() == 0) {
+      logger.warn("### read filter destinations enabled, but no expected or secondary destinations");
+      isDestinationFilterEnabled = false;
+    }
+
     editor = this;
   }
 
@@ -118,8 +207,7 @@ public abstract class BaseReadProcessor extends AbstractBaseProcessor implements
   }
 
   private InputStream fixInputString(String content) {
-    CharacterAssassinator assassinator = new CharacterAssassinator(DELETE_LIST, null);
-    content = assassinator.assassinate(content);
+    content = ASSASSINATOR.assassinate(content);
     return new ByteArrayInputStream(content.getBytes());
   }
 
@@ -152,18 +240,19 @@ public abstract class BaseReadProcessor extends AbstractBaseProcessor implements
       var iNode = 0;
       var nNodes = 0;
       try {
-        DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
-        dbf.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
-        DocumentBuilder db = dbf.newDocumentBuilder();
-        Document doc = db.parse(inputStream);
-        doc.getDocumentElement().normalize();
+        Document doc = XmlParsers.parse(inputStream);
         NodeList nodeList = doc.getElementsByTagName("message");
         nNodes = nodeList.getLength();
         for (iNode = 0; iNode < nNodes; ++iNode) {
           Node node = nodeList.item(iNode);
           if (node.getNodeType() == Node.ELEMENT_NODE) {
             Element element = (Element) node;
-            ExportedMessage message = readMessage(element, fileName, lines);
+            var fields = getEnvelopeFields(element);
+            var mimeHeaders = MimeHeaders.parse(fields.get("mime"));
+            if (!envelopeFilter(fields, mimeHeaders)) {
+              continue;
+            }
+            ExportedMessage message = readMessage(fields, mimeHeaders, fileName, lines);
             var isSelected = readFilter(message);
             if (isSelected) {
               messages.add(message);
@@ -180,16 +269,81 @@ public abstract class BaseReadProcessor extends AbstractBaseProcessor implements
     return messages;
   }
 
+  /**
+   * the cheap filters: only the envelope fields and MIME headers, no MIME decoding
+   *
+   * @param fields
+   * @param mimeHeaders
+   *          parsed once, for both the filters and readMessage()
+   * @return true if message should be read
+   */
+  private boolean envelopeFilter(Map<String, String> fields, MimeHeaders mimeHeaders) {
+    if (isSenderFilterPushedDown() && !readFilter(fields.get("sender"))) {
+      return false;
+    }
+
+    if (isWindowFilterEnabled) {
+      try {
+        var dateTime = LocalDateTime.parse(fields.get("time"), DT_FORMATTER);
+        if ((windowOpenDT != null && dateTime.isBefore(windowOpenDT))
+            || (windowCloseDT != null && dateTime.isAfter(windowCloseDT))) {
+          readFilterWindowCount.incrementAndGet();
+          return false;
+        }
+      } catch (Exception e) {
+        ; // let readMessage() report it
+      }
+    }
+
+    if (subjectPrefixes.size() > 0) {
+      var subject = fields.get("subject");
+      var upperSubject = subject == null ? "" : subject.strip().toUpperCase();
+      if (subjectPrefixes.stream().noneMatch(p -> upperSubject.startsWith(p))) {
+        readFilterSubjectCount.incrementAndGet();
+        return false;
+      }
+    }
+
+    if (isDestinationFilterEnabled) {
+      var addresses = makeAddressList(mimeHeaders.getLines("To"));
+      addresses.addAll(makeAddressList(mimeHeaders.getLines("Cc")));
+      var isToDestination = addresses
+          .stream()
+          .map(a -> post_fix(a))
+          .anyMatch(a -> expectedDestinations.contains(a) || secondaryDestinations.contains(a));
+      if (!isToDestination) {
+        readFilterDestinationCount.incrementAndGet();
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  /**
+   * the sender filter can only be applied to the envelope if the editor can't change the sender
+   *
+   * @return
+   */
+  private boolean isSenderFilterPushedDown() {
+    return isReadFilteringEnabled && editor instanceof BaseReadProcessor;
+  }
+
   private boolean readFilter(ExportedMessage message) {
-    if (!isReadFilteringEnabled) {
+    if (isSenderFilterPushedDown()) {
       return true;
     }
+    return readFilter(message.from);
+  }
 
-    var sender = message.from;
+  private boolean readFilter(String sender) {
+    if (!isReadFilteringEnabled) {
+      return true;
+    }
 
     if (includeSenderSet.size() > 0) {
       if (includeSenderSet.contains(sender)) {
-        ++readFilterIncludeCount;
+        readFilterIncludeCount.incrementAndGet();
         return true;
       } else {
         return false;
@@ -198,7 +352,7 @@ public abstract class BaseReadProcessor extends AbstractBaseProcessor implements
 
     if (excludeSenderSet.size() > 0) {
       if (excludeSenderSet.contains(sender)) {
-        ++readFilterExcludeCount;
+        readFilterExcludeCount.incrementAndGet();
         return false;
       } else {
         return true;
@@ -207,135 +361,385 @@ public abstract class BaseReadProcessor extends AbstractBaseProcessor implements
     return true;
   }
 
-  private ExportedMessage readMessage(Element element, String fileName, List<String> lines) {
+  /**
+   * read all exported messages from a reader, streaming or not
+   *
+   * @param reader
+   * @param fileName
+   * @return
+   * @throws IOException
+   */
+  protected List<ExportedMessage> readMessages(BufferedReader reader, String fileName) throws IOException {
+    if (isStreamingEnabled) {
+      var messages = new ArrayList<ExportedMessage>();
+      streamExportedMessages(reader, fileName, messages::add);
+      logger.info("streamed " + messages.size() + " exported messages from file: " + fileName);
+      return messages;
+    }
 
-    var messageId = element.getElementsByTagName("id").item(0).getTextContent();
-    var subject = element.getElementsByTagName("subject").item(0).getTextContent();
-    var dtString = element.getElementsByTagName("time").item(0).getTextContent();
-    var sender = element.getElementsByTagName("sender").item(0).getTextContent();
-    var source = element.getElementsByTagName("source").item(0).getTextContent();
-    var mime = element.getElementsByTagName("mime").item(0).getTextContent();
+    var fileLines = new ArrayList<String>();
+    String line = null;
+    while ((line = reader.readLine()) != null) {
+      fileLines.add(line);
+    }
+    var messages = parseExportedMessages(fileLines, fileName);
+    logger.info("extracted " + messages.size() + " exported messages from file: " + fileName);
+    return messages;
+  }
+
+  /**
+   * @param fileName
+   * @return true for a .zip, .gz or .xml.gz file
+   */
+  public static boolean isArchiveFileName(String fileName) {
+    var lowerName = fileName.toLowerCase();
+    return lowerName.endsWith(".zip") || lowerName.endsWith(".gz");
+  }
+
+  /**
+   * @param fileName
+   * @return true for an exported message file, plain or compressed
+   */
+  public static boolean isExportFileName(String fileName) {
+    return fileName.toLowerCase().endsWith(".xml") || isArchiveFileName(fileName);
+  }
+
+  /**
+   * the name an archive entry, or a gzipped file, would have if it had been extracted into the input directory
+   *
+   * @param name
+   * @return
+   */
+  protected static String getExtractedFileName(String name) {
+    name = name.substring(name.lastIndexOf('/') + 1);
+    return name.toLowerCase().endsWith(".gz") ? name.substring(0, name.length() - 3) : name;
+  }
+
+  /**
+   * @param cm
+   * @return largest number of bytes to decompress from a .zip entry or .gz file
+   */
+  public static long getMaxEntryBytes(IConfigurationManager cm) {
+    return cm.getAsInt(Key.READ_MAX_ENTRY_MB, DEFAULT_MAX_ENTRY_MB) * 1024L * 1024L;
+  }
+
+  /**
+   * read all exported messages from a .zip or .gz stream, without extracting to disk
+   *
+   * zip entries are read sequentially, and returned in entry name order, same as if extracted into a directory; an
+   * entry that decompresses to more than maxEntryBytes fails the whole archive
+   *
+   * @param inputStream
+   * @param archiveName
+   * @return
+   * @throws IOException
+   */
+  protected List<ExportedMessage> readArchive(InputStream inputStream, String archiveName) throws IOException {
+    if (archiveName.toLowerCase().endsWith(".gz")) {
+      try (var reader = new BufferedReader(
+          new InputStreamReader(new LimitedInputStream(new GZIPInputStream(inputStream, 65536), maxEntryBytes),
+              StandardCharsets.UTF_8))) {
+        return readMessages(reader, getExtractedFileName(archiveName));
+      }
+    }
+
+    var entryMap = new TreeMap<String, List<ExportedMessage>>();
+    try (var zipInputStream = new ZipInputStream(inputStream, StandardCharsets.UTF_8)) {
+      var entry = zipInputStream.getNextEntry();
+      while (entry != null) {
+        if (!entry.isDirectory() && entry.getName().toLowerCase().endsWith(".xml")) {
+          // don't close the reader, that would close the zip stream
+          var reader = new BufferedReader(
+              new InputStreamReader(new LimitedInputStream(zipInputStream, maxEntryBytes), StandardCharsets.UTF_8));
+          entryMap.put(entry.getName(), readMessages(reader, getExtractedFileName(entry.getName())));
+        }
+        entry = zipInputStream.getNextEntry();
+      }
+    }
+
+    var messages = new ArrayList<ExportedMessage>();
+    entryMap.values().forEach(messages::addAll);
+    return messages;
+  }
+
+  /**
+   * single pass over a reader of exported messages, no DOM, no full copy of the input
+   *
+   * each message is framed by it's <message> and </message> lines, the lines are retained (for the lineBased
+   * processors), the envelope is pulled via StAX, and the message is handed to the consumer before the next message is
+   * read. Memory is bounded by the largest single message, not by the size of the file
+   *
+   * @param reader
+   * @param fileName
+   * @param consumer
+   * @return number of messages handed to consumer
+   * @throws IOException
+   */
+  protected int streamExportedMessages(BufferedReader reader, String fileName, Consumer<ExportedMessage> consumer)
+      throws IOException {
+    var messageCount = 0;
+    var iMessage = 0;
+    List<String> lines = null;
+    String line = null;
+    while ((line = reader.readLine()) != null) {
+      var trimmedLine = line.trim();
+      if (trimmedLine.equals("<message>")) {
+        lines = new ArrayList<>();
+      }
+
+      if (lines == null) {
+        continue;
+      }
+
+      lines.add(line);
+
+      if (trimmedLine.equals("</message>")) {
+        ++iMessage;
+        var messageLines = lines;
+        lines = null;
+        try {
+          var fields = getEnvelopeFields(String.join("\n", messageLines));
+          var mimeHeaders = MimeHeaders.parse(fields.get("mime"));
+          if (!envelopeFilter(fields, mimeHeaders)) {
+            continue;
+          }
+          var message = readMessage(fields, mimeHeaders, fileName, messageLines);
+          if (readFilter(message)) {
+            consumer.accept(message);
+            ++messageCount;
+          }
+        } catch (Exception e) {
+          logger
+              .error("Exception streaming message " + iMessage + " from " + fileName
+                  + " (maybe not exported Winlink Messages XML file) : " + e.getLocalizedMessage());
+        }
+      }
+    } // end while over lines
+
+    return messageCount;
+  }
+
+  /**
+   * pull the envelope fields from the XML for a single message
+   *
+   * @param messageXml
+   * @return
+   * @throws XMLStreamException
+   */
+  private Map<String, String> getEnvelopeFields(String messageXml) throws XMLStreamException {
+    var fields = new HashMap<String, String>();
+    var content = ASSASSINATOR.assassinate(messageXml);
+    XMLStreamReader xsr = XmlParsers.createXMLStreamReader(new StringReader(content));
+    try {
+      while (xsr.hasNext()) {
+        if (xsr.next() != XMLStreamConstants.START_ELEMENT) {
+          continue;
+        }
+
+        var tagName = xsr.getLocalName();
+        if (ENVELOPE_TAGS.contains(tagName) && !fields.containsKey(tagName)) {
+          fields.put(tagName, getTextContent(xsr));
+        }
+      }
+    } finally {
+      xsr.close();
+    }
+    return fields;
+  }
+
+  /**
+   * equivalent of DOM getTextContent(), concatenating text of all descendants; reader is left on the END_ELEMENT
+   *
+   * @param xsr
+   * @return
+   * @throws XMLStreamException
+   */
+  private String getTextContent(XMLStreamReader xsr) throws XMLStreamException {
+    var sb = new StringBuilder();
+    var depth = 1;
+    while (depth > 0 && xsr.hasNext()) {
+      var event = xsr.next();
+      switch (event) {
+      case XMLStreamConstants.START_ELEMENT:
+        ++depth;
+        break;
+      case XMLStreamConstants.END_ELEMENT:
+        --depth;
+        break;
+      case XMLStreamConstants.CHARACTERS:
+      case XMLStreamConstants.CDATA:
+      case XMLStreamConstants.SPACE:
+        sb.append(xsr.getText());
+        break;
+      default:
+        break;
+      }
+    }
+    return sb.toString();
+  }
+
+  /**
+   * pull the envelope fields from the DOM element for a single message
+   *
+   * @param element
+   * @return
+   */
+  private Map<String, String> getEnvelopeFields(Element element) {
+    var fields = new HashMap<String, String>();
+    for (var tagName : ENVELOPE_TAGS) {
+      var nodeList = element.getElementsByTagName(tagName);
+      if (nodeList != null && nodeList.item(0) != null) {
+        fields.put(tagName, nodeList.item(0).getTextContent());
+      }
+    }
+    return fields;
+  }
+
+  private String getRequiredField(Map<String, String> fields, String tagName) {
+    var value = fields.get(tagName);
+    if (value == null) {
+      throw new IllegalArgumentException("missing <" + tagName + "> element");
+    }
+    return value;
+  }
+
+  private ExportedMessage readMessage(Map<String, String> fields, MimeHeaders mimeHeaders, String fileName,
+      List<String> lines) {
+
+    var messageId = getRequiredField(fields, "id");
+    var subject = intern(getRequiredField(fields, "subject"));
+    var dtString = getRequiredField(fields, "time");
+    var sender = intern(getRequiredField(fields, "sender"));
+    var source = intern(getRequiredField(fields, "source"));
+    var mime = getRequiredField(fields, "mime");
 
     var isP2p = false;
-    var v = element.getElementsByTagName("peertopeer");
-    if (v != null && v.item(0) != null && v.item(0).getTextContent() != null) {
-      isP2p = Boolean.parseBoolean(v.item(0).getTextContent());
+    var p2pString = fields.get("peertopeer");
+    if (p2pString != null) {
+      isP2p = Boolean.parseBoolean(p2pString);
     }
 
-    var locationResult = parseLocation(element, mime, sender, messageId);
+    var locationResult = parseLocation(fields.get("location"), mimeHeaders, sender, messageId);
     var localDateTime = LocalDateTime.parse(dtString, DT_FORMATTER);
 
-    String[] mimeLines = mime.split("\\n");
-
-    var recipients = getRecipients(mimeLines);
+    var recipients = getRecipients(mimeHeaders);
     if (recipients == null) {
       logger.error("null recipients: messageId: " + messageId + ", from " + sender);
     }
-    String recipient = recipients[0];
-    String toList = recipients[1];
-    String ccList = recipients[2];
+    String recipient = intern(recipients[0]);
+    String toList = intern(recipients[1]);
+    String ccList = intern(recipients[2]);
 
     ExportedMessage message = null;
     String plainContent = null;
     Map<String, byte[]> attachments = null;
 
-    var parser = AbstractBaseParser.makeMimeMessageParser(messageId, mime);
-    if (parser == null) {
-      message = new ExportedMessage(messageId, sender, source, recipient, toList, ccList, subject, //
-          localDateTime, locationResult.location, locationResult.source, //
-          mime, plainContent, attachments, isP2p, fileName, lines);
-      return new RejectionMessage(message, RejectType.CANT_PARSE_MIME, message.mime);
-    }
+    var decodedMime = isMimeDecoderEnabled ? MimeDecoder.decode(mime) : null;
+    if (decodedMime != null) {
+      plainContent = decodedMime.plainContent();
+      attachments = decodedMime.attachments();
+    } else {
+      // the javax.mail path, for anything the MimeDecoder doesn't handle
+      var parser = AbstractBaseParser.makeMimeMessageParser(messageId, mime);
+      if (parser == null) {
+        message = new ExportedMessage(messageId, sender, source, recipient, toList, ccList, subject, //
+            localDateTime, locationResult.location, intern(locationResult.source), //
+            mime, plainContent, attachments, isP2p, intern(fileName), lines);
+        return new RejectionMessage(message, RejectType.CANT_PARSE_MIME, message.getMime());
+      }
 
-    plainContent = parser.getPlainContent();
-    attachments = AbstractBaseParser.getAttachments(parser);
+      plainContent = parser.getPlainContent();
+      attachments = AbstractBaseParser.getAttachments(parser);
+    }
 
     message = new ExportedMessage(messageId, sender, source, recipient, toList, ccList, subject, //
-        localDateTime, locationResult.location, locationResult.source, //
-        mime, plainContent, attachments, isP2p, fileName, lines);
+        localDateTime, locationResult.location, intern(locationResult.source), //
+        mime, plainContent, attachments, isP2p, intern(fileName), lines);
+    message.setMimeHeaders(mimeHeaders);
 
-    message = editor.edit(message);
+    // editors are not required to be thread-safe, but files may be read concurrently
+    synchronized (editor) {
+      message = editor.edit(message);
+    }
+
+    if (message != null) {
+      internAddresses(message);
+    }
 
     return message;
   }
 
+  private String intern(String s) {
+    return interner == null ? s : interner.intern(s);
+  }
+
+  private void internAddresses(ExportedMessage message) {
+    if (interner != null) {
+      message
+          .setAddresses(interner.internAll(ExportedMessage.splitAddresses(message.toList)),
+              interner.internAll(ExportedMessage.splitAddresses(message.ccList)));
+    }
+  }
+
+  /**
+   * canonical strings for a message restored from the ingest index, the same as if it had been read
+   *
+   * fields are final, so messages are copied; an editor's own subclass is only given interned addresses
+   *
+   * @param message
+   * @return
+   */
+  protected ExportedMessage intern(ExportedMessage message) {
+    if (interner == null) {
+      return message;
+    }
+
+    var interned = message;
+    if (message.getClass() == ExportedMessage.class) {
+      interned = new ExportedMessage(message, this::intern);
+    } else if (message.getClass() == RejectionMessage.class) {
+      var rejection = (RejectionMessage) message;
+      interned = new RejectionMessage(new ExportedMessage(message, this::intern), rejection.reason, rejection.context);
+    }
+    internAddresses(interned);
+    return interned;
+  }
+
+  /**
+   * @return the canonical strings of messages read so far, or null if not interning
+   */
+  public StringInterner getStringInterner() {
+    return interner;
+  }
+
   /**
    * location may be missing, present as "40.187500N, 92.541667W", or even "40.187500N, 92.541667W (GRID SQUARE)"
    *
-   * @param element
+   * @param locationString
    * @return
    */
-  private LocationResult parseLocation(Element element, String mime, String sender, String messageId) {
+  private LocationResult parseLocation(String locationString, MimeHeaders mimeHeaders, String sender,
+      String messageId) {
     LatLongPair location = null;
     String source = null;
 
     try {
-      var locationString = element.getElementsByTagName("location").item(0).getTextContent();
       if (locationString != null) {
-        var fields = locationString.split(",");
-        if (fields.length >= 2) {
-          var latString = fields[0].substring(0, fields[0].length() - 1);
-          if (fields[0].endsWith("S")) {
-            latString = "-" + latString.trim();
-          }
-
-          var subfields = fields[1].trim().split(" ");
-          var lonString = subfields[0].substring(0, subfields[0].length() - 1);
-          if (subfields[0].endsWith("W")) {
-            lonString = "-" + lonString.trim();
-          }
-
-          location = new LatLongPair(latString, lonString);
-
-          var leftParenIndex = fields[1].indexOf("(");
-          var rightParenIndex = fields[1].indexOf(")");
-          if (leftParenIndex >= 0 && rightParenIndex >= 0 && leftParenIndex < rightParenIndex) {
-            source = fields[1].substring(leftParenIndex + 1, rightParenIndex);
-          }
+        var envelopeResult = parseEnvelopeLocation(locationString);
+        if (envelopeResult != null) {
+          return envelopeResult;
         } else {
-          if (mime != null) {
+          if (mimeHeaders != null) {
             // looking for something like: X-Location: 38.660000N, 122.870667W (SPECIFIED)
-            var mimeLines = mime.split("\n");
-            for (var line : mimeLines) {
-              line = line.toUpperCase();
-              if (line.startsWith("X-LOCATION:")) {
-                fields = line.split(" ");
-                if (fields.length >= 4) {
-                  var latString = fields[1].substring(0, fields[0].length() - 2);
-                  if (fields[0].endsWith("S")) {
-                    latString = "-" + latString.trim();
-                  }
-
-                  var lonString = fields[2].substring(0, fields[2].length() - 1);
-                  if (fields[2].endsWith("W")) {
-                    lonString = "-" + lonString.trim();
-                  }
-
-                  location = new LatLongPair(latString, lonString);
-
-                  source = "OTHER";
-                  if (line.contains("GRID SQUARE")) {
-                    source = "GRID SQUARE";
-                  } else if (line.contains("SPECIFIED")) {
-                    source = "SPECIFIED";
-                  } else if (line.contains("GPS")) {
-                    source = "GPS";
-                  } else {
-                    source = "UNKNOWN";
-                  }
-
-                  break;
-                } else if (fields.length == 2) {// end if 4 fields in X-Location
-                  var gridSquare = fields[1];
-                  gridSquare = (gridSquare.length() > 6) ? gridSquare.substring(0, 6) : gridSquare;
-                  if (LocationUtils.isValidMaidenhead(gridSquare)) {
-                    location = new LatLongPair(gridSquare);
-                    source = "GRID SQUARE";
-                  }
-                }
-              } // end if X-Location line
-            } // end loop over mimeLines
-          } // end if mime != null
+            for (var value : mimeHeaders.getValues("X-Location")) {
+              var xLocationResult = parseXLocation(value);
+              if (xLocationResult != null) {
+                location = xLocationResult.location();
+                source = xLocationResult.source();
+                break;
+              }
+            } // end loop over X-Location values
+          } // end if mimeHeaders != null
         } // end if <location> tag has 2 fields
       } // end if location string
     } catch (Exception e) {
@@ -346,6 +750,113 @@ public abstract class BaseReadProcessor extends AbstractBaseProcessor implements
     return locationResult;
   }
 
+  /**
+   * parse the envelope location, like "40.187500N, 92.541667W (GPS)", by index, without split()
+   *
+   * same Strings as splitting on "," then on " ", so the same LatLongPair
+   *
+   * @param locationString
+   * @return null if there aren't two comma-separated fields, empty result if malformed
+   */
+  static LocationResult parseEnvelopeLocation(String locationString) {
+    var firstComma = locationString.indexOf(',');
+    if (firstComma < 0) {
+      return null;
+    }
+
+    // split() drops trailing empty fields, so there's a second field only if there's something other than commas
+    var secondComma = locationString.indexOf(',', firstComma + 1);
+    var hasSecondField = false;
+    for (var i = firstComma + 1; i < locationString.length(); ++i) {
+      if (locationString.charAt(i) != ',') {
+        hasSecondField = true;
+        break;
+      }
+    }
+    if (!hasSecondField) {
+      return null;
+    }
+
+    var malformed = new LocationResult(null, null);
+    if (firstComma == 0) {
+      return malformed;
+    }
+
+    var latString = locationString.substring(0, firstComma - 1);
+    if (locationString.charAt(firstComma - 1) == 'S') {
+      latString = "-" + latString.trim();
+    }
+
+    var lonField = locationString.substring(firstComma + 1, secondComma < 0 ? locationString.length() : secondComma);
+    var trimmedLonField = lonField.trim();
+    if (trimmedLonField.isEmpty()) {
+      return malformed;
+    }
+    var spaceIndex = trimmedLonField.indexOf(' ');
+    var lonEnd = spaceIndex < 0 ? trimmedLonField.length() : spaceIndex;
+    var lonString = trimmedLonField.substring(0, lonEnd - 1);
+    if (trimmedLonField.charAt(lonEnd - 1) == 'W') {
+      lonString = "-" + lonString.trim();
+    }
+
+    String source = null;
+    var leftParenIndex = lonField.indexOf("(");
+    var rightParenIndex = lonField.indexOf(")");
+    if (leftParenIndex >= 0 && rightParenIndex >= 0 && leftParenIndex < rightParenIndex) {
+      source = lonField.substring(leftParenIndex + 1, rightParenIndex);
+    }
+
+    return new LocationResult(new LatLongPair(latString, lonString), source);
+  }
+
+  /**
+   * parse an X-Location header value, like "38.660000N, 122.870667W (SPECIFIED)" or "CM88QK", by index, without split()
+   *
+   * @param value
+   * @return null if neither a coordinate pair nor a valid grid square
+   */
+  static LocationResult parseXLocation(String value) {
+    if (value == null) {
+      return null;
+    }
+
+    var line = value.trim().toUpperCase();
+    var comma = line.indexOf(',');
+    if (comma < 0) {
+      var spaceIndex = line.indexOf(' ');
+      var gridSquare = spaceIndex < 0 ? line : line.substring(0, spaceIndex);
+      gridSquare = (gridSquare.length() > 6) ? gridSquare.substring(0, 6) : gridSquare;
+      if (LocationUtils.isValidMaidenhead(gridSquare)) {
+        return new LocationResult(new LatLongPair(gridSquare), "GRID SQUARE");
+      }
+      return null;
+    }
+
+    var lonStart = comma + 1;
+    while (lonStart < line.length() && line.charAt(lonStart) == ' ') {
+      ++lonStart;
+    }
+    var lonEnd = line.indexOf(' ', lonStart);
+    lonEnd = lonEnd < 0 ? line.length() : lonEnd;
+
+    var latString = CoordinateParser.parseHemisphere(line, 0, comma, 'N', 'S');
+    var lonString = CoordinateParser.parseHemisphere(line, lonStart, lonEnd, 'E', 'W');
+    if (latString == null || lonString == null) {
+      return null;
+    }
+
+    var source = "UNKNOWN";
+    if (line.contains("GRID SQUARE")) {
+      source = "GRID SQUARE";
+    } else if (line.contains("SPECIFIED")) {
+      source = "SPECIFIED";
+    } else if (line.contains("GPS")) {
+      source = "GPS";
+    }
+
+    return new LocationResult(new LatLongPair(latString, lonString), source);
+  }
+
   // Subject: DYFI Automatic Entry - Winlink EXERCISE
   // To: SMTP:dyfi_reports_automated@usgs.gov,
   // ETO-02@winlink.org
@@ -366,36 +877,9 @@ public abstract class BaseReadProcessor extends AbstractBaseProcessor implements
    *
    *         2 -- the ccList
    */
-  public String[] getRecipients(String[] mimeLines) {
-    List<String> toList = new ArrayList<String>();
-    List<String> ccList = new ArrayList<String>();
-    List<String> theList = null;
-
-    boolean isFound = false;
-    for (String line : mimeLines) {
-      if (line.startsWith("Message-ID: ")) {
-        break;
-      }
-
-      if (line.startsWith("To: ")) {
-        isFound = true;
-        theList = toList;
-      }
-
-      if (line.startsWith("Cc: ")) {
-        isFound = true;
-        theList = ccList;
-      }
-
-      if (isFound) {
-        line = pre_fixAddress(line);
-        if (line != null && !line.isBlank()) {
-          theList.add(line);
-        }
-      } else {
-        continue;
-      }
-    } // end for over lines
+  public String[] getRecipients(MimeHeaders mimeHeaders) {
+    List<String> toList = makeAddressList(mimeHeaders.getLines("To"));
+    List<String> ccList = makeAddressList(mimeHeaders.getLines("Cc"));
 
     List<String> addresses = new ArrayList<>();
     addresses.addAll(toList);
@@ -414,6 +898,22 @@ public abstract class BaseReadProcessor extends AbstractBaseProcessor implements
     return strings;
   } // end getRecipients
 
+  /**
+   * @param lines
+   *          physical lines of a To: or Cc: header, including continuation lines
+   * @return cleaned-up addresses
+   */
+  private List<String> makeAddressList(List<String> lines) {
+    List<String> list = new ArrayList<String>();
+    for (var line : lines) {
+      line = pre_fixAddress(line);
+      if (line != null && !line.isBlank()) {
+        list.add(line);
+      }
+    }
+    return list;
+  }
+
   /**
    * clean up line, strip leading To: Cc: and space, strip trailing ,
    *
@@ -480,6 +980,35 @@ public abstract class BaseReadProcessor extends AbstractBaseProcessor implements
 
   }
 
+  /**
+   * identify everything, other than file content, that determines what messages we read, and how they are classified
+   *
+   * @return
+   */
+  protected String makeReadFingerprint() {
+    return IngestIndexService
+        .makeFingerprint(List
+            .of(IngestIndexService.toSortedString(expectedDestinations), //
+                IngestIndexService.toSortedString(secondaryDestinations), //
+                editor.getClass().getName(), //
+                String.valueOf(isReadFilteringEnabled), //
+                IngestIndexService.toSortedString(includeSenderSet), //
+                IngestIndexService.toSortedString(excludeSenderSet), //
+                String.valueOf(windowOpenDT) + "/" + String.valueOf(windowCloseDT), //
+                String.join(",", subjectPrefixes), //
+                String.valueOf(isDestinationFilterEnabled), //
+                makeCodeFingerprint(), //
+                "message:" + ExportedMessage.CACHE_VERSION, //
+                "classifier:" + ClassifierProcessor.CLASSIFIER_VERSION));
+  }
+
+  /**
+   * @return fingerprint of the code that reads, edits and classifies messages, so that any change to it is a miss
+   */
+  protected String makeCodeFingerprint() {
+    return CodeFingerprint.of(List.of(getClass(), editor.getClass(), ClassifierProcessor.class), READ_HELPER_PACKAGES);
+  }
+
   /**
    * set the editor to override default behavior of no editing
    *
@@ -498,11 +1027,25 @@ public abstract class BaseReadProcessor extends AbstractBaseProcessor implements
 
   @Override
   public void postProcess() {
-    if (isReadFilteringEnabled && readFilterIncludeCount > 0) {
-      logger.warn("### Read Filter: " + readFilterIncludeCount + " messages included");
+    if (isReadFilteringEnabled && readFilterIncludeCount.get() > 0) {
+      logger.warn("### Read Filter: " + readFilterIncludeCount.get() + " messages included");
+    }
+    if (isReadFilteringEnabled && readFilterExcludeCount.get() > 0) {
+      logger.warn("### Read Filter: " + readFilterExcludeCount.get() + " messages excluded");
+    }
+    if (readFilterWindowCount.get() > 0) {
+      logger.warn("### Read Filter: " + readFilterWindowCount.get() + " messages outside exercise window skipped");
+    }
+    if (readFilterSubjectCount.get() > 0) {
+      logger.warn("### Read Filter: " + readFilterSubjectCount.get() + " messages without subject prefix skipped");
+    }
+    if (readFilterDestinationCount.get() > 0) {
+      logger.warn("### Read Filter: " + readFilterDestinationCount.get() + " messages not to destinations skipped");
     }
-    if (isReadFilteringEnabled && readFilterExcludeCount > 0) {
-      logger.warn("### Read Filter: " + readFilterExcludeCount + " messages excluded");
+    if (interner != null) {
+      logger
+          .info("interned " + interner.size() + " distinct strings, " + interner.getDuplicateCount()
+              + " duplicates, ~" + interner.getBytesSaved() + " bytes saved");
     }
   }
 }
@@ -0,0 +1,170 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2025, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wimp.processors.std;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.surftools.wimp.core.MessageType;
+import com.surftools.wimp.core.SubjectPredicate;
+
+/**
+ * lookup structures for classification, built once from the MessageType values
+ *
+ * every lookup gives the same answer as looping over MessageType.values() in order: the MessageType with the lowest
+ * ordinal wins
+ *
+ * @author bobt
+ *
+ */
+class ClassificationIndex {
+
+  private static class TrieNode {
+    private final Map<Character, TrieNode> children = new HashMap<>();
+    private final List<MessageType> types = new ArrayList<>();
+  }
+
+  private final TrieNode rmsViewerTrie = new TrieNode();
+  private final Map<String, MessageType> formDataMap = new HashMap<>();
+
+  private final TrieNode subjectTrie = new TrieNode();
+  private final TrieNode upperCaseSubjectTrie = new TrieNode();
+  private final List<MessageType> subjectTypes = new ArrayList<>();
+  // types with a Predicate that doesn't declare prefixes, always candidates
+  private final EnumSet<MessageType> opaqueSubjectTypes = EnumSet.noneOf(MessageType.class);
+
+  ClassificationIndex() {
+    for (var messageType : MessageType.values()) {
+      if (messageType.rmsViewerName() != null) {
+        add(rmsViewerTrie, messageType.rmsViewerName(), messageType);
+      }
+
+      if (messageType.formDataName() != null) {
+        formDataMap.putIfAbsent(messageType.formDataName(), messageType);
+      }
+
+      var predicate = messageType.getSubjectPredicate();
+      if (predicate != null) {
+        subjectTypes.add(messageType);
+        if (predicate instanceof SubjectPredicate subjectPredicate) {
+          for (var prefix : subjectPredicate.getPrefixes()) {
+            add(subjectTrie, prefix, messageType);
+          }
+          for (var prefix : subjectPredicate.getUpperCasePrefixes()) {
+            add(upperCaseSubjectTrie, prefix, messageType);
+          }
+        } else {
+          opaqueSubjectTypes.add(messageType);
+        }
+      }
+    } // end loop over messageTypes
+  }
+
+  private void add(TrieNode root, String key, MessageType messageType) {
+    var node = root;
+    for (var i = 0; i < key.length(); ++i) {
+      node = node.children.computeIfAbsent(key.charAt(i), k -> new TrieNode());
+    }
+    node.types.add(messageType);
+  }
+
+  /**
+   * @param attachmentName
+   * @return lowest-ordinal type whose rmsViewerName is a prefix of attachmentName, or null
+   */
+  MessageType findRmsViewerType(String attachmentName) {
+    MessageType best = null;
+    var node = rmsViewerTrie;
+    for (var i = 0; i < attachmentName.length(); ++i) {
+      node = node.children.get(attachmentName.charAt(i));
+      if (node == null) {
+        break;
+      }
+      for (var messageType : node.types) {
+        if (best == null || messageType.ordinal() < best.ordinal()) {
+          best = messageType;
+        }
+      }
+    } // end loop over characters
+    return best;
+  }
+
+  /**
+   * @param mapFileName
+   * @return lowest-ordinal type whose formDataName equals mapFileName, or null
+   */
+  MessageType findFormDataType(String mapFileName) {
+    return formDataMap.get(mapFileName);
+  }
+
+  /**
+   * evaluate only the subject Predicates of types whose prefixes match, in ordinal order
+   *
+   * @param subject
+   * @return lowest-ordinal type whose subject Predicate is true, or null
+   */
+  MessageType findSubjectType(String subject) {
+    if (subject == null) {
+      // let the Predicates decide, same as always
+      for (var messageType : subjectTypes) {
+        if (messageType.testSubject(subject)) {
+          return messageType;
+        }
+      }
+      return null;
+    }
+
+    var candidates = EnumSet.copyOf(opaqueSubjectTypes);
+    collect(subjectTrie, subject, candidates);
+    if (!upperCaseSubjectTrie.children.isEmpty()) {
+      // String.toUpperCase(), not char by char, since some characters upper-case to more than one
+      collect(upperCaseSubjectTrie, subject.toUpperCase(), candidates);
+    }
+
+    for (var messageType : candidates) {
+      if (messageType.testSubject(subject)) {
+        return messageType;
+      }
+    }
+    return null;
+  }
+
+  private void collect(TrieNode root, String subject, EnumSet<MessageType> candidates) {
+    var node = root;
+    for (var i = 0; i < subject.length(); ++i) {
+      node = node.children.get(subject.charAt(i));
+      if (node == null) {
+        return;
+      }
+      candidates.addAll(node.types);
+    } // end loop over characters
+  }
+}
@@ -27,22 +27,35 @@ SOFTWARE.
 
 package com.surftools.wimp.processors.std;
 
+import java.nio.file.Path;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.surftools.utils.location.LatLongPair;
+import com.surftools.wimp.configuration.Key;
 import com.surftools.wimp.core.IDetailableMessage;
 import com.surftools.wimp.core.IMessageManager;
 import com.surftools.wimp.core.IParser;
 import com.surftools.wimp.core.MessageType;
 import com.surftools.wimp.message.ExportedMessage;
-import com.surftools.wimp.message.ExportedMessage.ExportedKey;
+import com.surftools.wimp.message.MessageSpool;
+import com.surftools.wimp.parser.ParsedAttachmentCache;
 import com.surftools.wimp.parser.PdfIcs309Parser;
 import com.surftools.wimp.processors.std.baseExercise.AbstractBaseProcessor;
+import com.surftools.wimp.service.ingestIndex.IIngestIndexService;
+import com.surftools.wimp.service.parseCache.IParseCacheService;
+import com.surftools.wimp.service.parseCache.ParseCacheService;
+import com.surftools.wimp.service.pdfText.PdfTextService;
 import com.surftools.wimp.utils.config.IConfigurationManager;
 
 /**
@@ -56,15 +69,72 @@ public class ClassifierProcessor extends AbstractBaseProcessor {
   public final static List<MessageType> IGNORED_TYPES = List
       .of(MessageType.EXPORTED, MessageType.REJECTS, MessageType.EYEWARN_DETAIL);
 
+  // classifier code changes are caught by the ingest index code fingerprint; bump only to force invalidation
+  public static final int CLASSIFIER_VERSION = 1;
+
   private static final Logger logger = LoggerFactory.getLogger(ClassifierProcessor.class);
 
   private Map<MessageType, IParser> parserMap = new HashMap<>();
-  private Map<ExportedKey, Map<String, String>> formDataMap = new HashMap<>();
+  private ParsedAttachmentCache attachmentCache = ParsedAttachmentCache.uncached();
+  private final ClassificationIndex classificationIndex = new ClassificationIndex();
+
+  // in watch mode, parse results are retained across pipeline runs, so only new messages are parsed
+  static record RetainedParse(ExportedMessage parsedMessage, LocalDateTime sortDateTime, LatLongPair mapLocation) {
+  };
+
+  private Map<ExportedMessage, RetainedParse> retainedParseMap = null;
+
+  private int parallelism = 1;
+
+  // persistent, so that re-runs only parse new or changed messages
+  private IParseCacheService parseCacheService = null;
+
+  // raw content of parsed messages is released to here, when the pipeline has a spool
+  private MessageSpool messageSpool = null;
+
+  public ClassifierProcessor() {
+  }
+
+  /**
+   * a classifier for findMessageType() alone, for processors other than the pipeline's Classifier
+   *
+   * shares the attachment cache (and PDF service) of the pipeline, rather than initialize() making parsers and caches
+   *
+   * @param mm
+   */
+  public ClassifierProcessor(IMessageManager mm) {
+    attachmentCache = ParsedAttachmentCache.from(mm);
+  }
 
   @Override
   public void initialize(IConfigurationManager cm, IMessageManager mm) {
     super.initialize(cm, mm, logger);
 
+    // made, and shut down, by the pipeline; parsers pick this up in their initialize()
+    attachmentCache = (ParsedAttachmentCache) mm.getContextObject(ParsedAttachmentCache.CONTEXT_KEY);
+    if (attachmentCache == null) {
+      // not in a pipeline, so extract PDF text on the calling thread, leaving no pool to shut down
+      attachmentCache = new ParsedAttachmentCache(makePdfTextService(0));
+      mm.putContextObject(ParsedAttachmentCache.CONTEXT_KEY, attachmentCache);
+    }
+
+    parallelism = cm.getAsInt(Key.CLASSIFY_PARALLELISM, 1);
+    if (parallelism <= 0) {
+      parallelism = Runtime.getRuntime().availableProcessors();
+    }
+    if (parallelism > 1) {
+      logger.info("classifying with parallelism: " + parallelism);
+    }
+
+    if (cm.getAsBoolean(Key.CLASSIFY_PARSE_CACHE_ENABLED, false)) {
+      var service = new ParseCacheService(Path.of(exercisePathName, "parseCache"));
+      service.initialize();
+      parseCacheService = service;
+    }
+
+    // made, and closed, by the pipeline, when enabled
+    messageSpool = (MessageSpool) mm.getContextObject(MessageSpool.CONTEXT_KEY);
+
     for (var type : MessageType.values()) {
       if (IGNORED_TYPES.contains(type)) {
         continue;
@@ -81,21 +151,28 @@ public class ClassifierProcessor extends AbstractBaseProcessor {
     }
   }
 
+  /**
+   * @param threads
+   *          size of the extraction pool, 0 to extract on the calling thread
+   * @return a PdfTextService, as configured for this exercise
+   */
+  static PdfTextService makePdfTextService(int threads) {
+    var pdfCachePath = cm.getAsBoolean(Key.PDF_CACHE_ENABLED, false) ? Path.of(exercisePathName, "pdfTextCache")
+        : null;
+    return new PdfTextService(pdfCachePath, threads, cm.getAsInt(Key.PDF_MAX_PAGES, 100),
+        cm.getAsInt(Key.PDF_TIMEOUT_SECONDS, 60));
+  }
+
   @Override
   public void process() {
     var messages = mm.getOriginalMessages();
 
     if (messages != null) {
       var tmpMessageMap = new HashMap<MessageType, List<ExportedMessage>>();
+      var ingestIndexService = (IIngestIndexService) mm.getContextObject("ingestIndexService");
 
-      for (var message : messages) {
-        var messageType = findMessageType(message);
-        var parser = parserMap.get(messageType);
-        ExportedMessage parsedMessage = message;
-        if (parser != null) {
-          parsedMessage = parser.parse(message);
-        }
-
+      var parsedMessages = classifyAndParseAll(messages, ingestIndexService);
+      for (var parsedMessage : parsedMessages) {
         var parsedMessageType = parsedMessage.getMessageType();
         var list = tmpMessageMap.getOrDefault(parsedMessageType, new ArrayList<ExportedMessage>());
         list.add(parsedMessage);
@@ -110,21 +187,166 @@ public class ClassifierProcessor extends AbstractBaseProcessor {
           tmpMessageMap.put(detailType, existingDetailList);
         }
 
-      } // end loop over messages
+      } // end loop over parsed messages
+
+      if (ingestIndexService != null) {
+        ingestIndexService.store();
+      }
+
+      if (parseCacheService != null) {
+        parseCacheService.store();
+      }
+
+      if (messageSpool != null) {
+        logger
+            .info("spooled " + messageSpool.size() + " bytes of raw message content, "
+                + messageSpool.getSharedBytesSaved() + " bytes of duplicate attachments not spooled");
+      }
 
       mm.load(tmpMessageMap);
     }
   }
 
   /**
-   * determine the messageType of the ExportedMessage
+   * retain parse results, by (identical) original message, across multiple calls to process(), for watch mode
    *
-   * this is the "heart and soul" of classification
+   * @param isRetained
+   */
+  public void setRetainMessages(boolean isRetained) {
+    retainedParseMap = isRetained ? Collections.synchronizedMap(new IdentityHashMap<>()) : null;
+  }
+
+  /**
+   * classify and parse each message, possibly concurrently
+   *
+   * results are always in the order of messages, regardless of parallelism, so output is the same as a serial pass
+   *
+   * @param messages
+   * @param ingestIndexService
+   *          may be null
+   * @return
+   */
+  private List<ExportedMessage> classifyAndParseAll(List<ExportedMessage> messages,
+      IIngestIndexService ingestIndexService) {
+    var parsedMessages = new ArrayList<ExportedMessage>(messages.size());
+
+    if (parallelism <= 1 || messages.size() <= 1) {
+      for (var message : messages) {
+        parsedMessages.add(classifyAndParse(message, ingestIndexService));
+      }
+      return parsedMessages;
+    }
+
+    var executor = Executors.newFixedThreadPool(Math.min(parallelism, messages.size()));
+    try {
+      var futures = new ArrayList<Future<ExportedMessage>>(messages.size());
+      for (var message : messages) {
+        futures.add(executor.submit(() -> classifyAndParse(message, ingestIndexService)));
+      }
+
+      for (var future : futures) {
+        parsedMessages.add(future.get());
+      }
+    } catch (Exception e) {
+      logger.error("Exception classifying in parallel: " + e.getLocalizedMessage());
+      throw new RuntimeException("Exception classifying in parallel: " + e.getLocalizedMessage());
+    } finally {
+      executor.shutdown();
+    }
+
+    return parsedMessages;
+  }
+
+  private ExportedMessage classifyAndParse(ExportedMessage message, IIngestIndexService ingestIndexService) {
+    if (retainedParseMap != null) {
+      var retainedParse = retainedParseMap.get(message);
+      if (retainedParse != null) {
+        // downstream processors may have moved the message in time or space
+        var parsedMessage = retainedParse.parsedMessage;
+        parsedMessage.setSortDateTime(retainedParse.sortDateTime);
+        parsedMessage.setMapLocation(retainedParse.mapLocation);
+        return parsedMessage;
+      }
+    }
+
+    var messageType = findMessageType(message, ingestIndexService);
+    var parser = parserMap.get(messageType);
+    ExportedMessage parsedMessage = message;
+    if (parser != null) {
+      parsedMessage = parse(parser, messageType, message);
+    }
+    attachmentCache.evict(message);
+
+    if (messageSpool != null) {
+      message.compact(messageSpool);
+      parsedMessage.compact(messageSpool);
+    }
+
+    if (retainedParseMap != null) {
+      retainedParseMap
+          .put(message, new RetainedParse(parsedMessage, parsedMessage.sortDateTime, parsedMessage.mapLocation));
+    }
+    return parsedMessage;
+  }
+
+  private ExportedMessage parse(IParser parser, MessageType messageType, ExportedMessage message) {
+    if (parseCacheService == null) {
+      return parser.parse(message);
+    }
+
+    var parsedMessage = parseCacheService.get(message, messageType, parser);
+    if (parsedMessage == null) {
+      parsedMessage = parser.parse(message);
+      parseCacheService.put(message, messageType, parser, parsedMessage);
+    }
+    return parsedMessage;
+  }
+
+  /**
+   * determine the messageType, reusing the type from the ingest index when message hasn't changed
+   *
+   * @param message
+   * @param ingestIndexService
+   *          may be null
+   * @return
+   */
+  private MessageType findMessageType(ExportedMessage message, IIngestIndexService ingestIndexService) {
+    if (ingestIndexService == null) {
+      return classify(message);
+    }
+
+    var messageType = ingestIndexService.getMessageType(message);
+    if (messageType == null) {
+      messageType = classify(message);
+      ingestIndexService.putMessageType(message, messageType);
+    }
+
+    return messageType;
+  }
+
+  /**
+   * determine the messageType of the ExportedMessage, forgetting any attachments decoded to do so
    *
    * @param message
    * @return
    */
   public MessageType findMessageType(ExportedMessage message) {
+    try {
+      return classify(message);
+    } finally {
+      attachmentCache.evict(message);
+    }
+  }
+
+  /**
+   * determine the messageType of the ExportedMessage, leaving decoded attachments in the cache for parsing
+   *
+   * this is the "heart and soul" of classification
+   *
+   * @param message
+   * @return
+   */
+  private MessageType classify(ExportedMessage message) {
     // First choice: for source-of-truth is the RMS viewer (aka XML blob) attachment
     var messageType = getMessageTypeFromRmsViewerData(message);
     if (messageType != null) {
@@ -132,7 +354,7 @@ public class ClassifierProcessor extends AbstractBaseProcessor {
     }
 
     // Second choice: FormData.txt attachment
-    messageType = getMessageTypeFromFormData(message, null);
+    messageType = getMessageTypeFromFormData(message);
     if (messageType != null) {
       return messageType;
     }
@@ -144,7 +366,7 @@ public class ClassifierProcessor extends AbstractBaseProcessor {
     }
 
     // Last choice is message content
-    if (PdfIcs309Parser.isPdfIcs309(message)) {
+    if (PdfIcs309Parser.isPdfIcs309(message, attachmentCache)) {
       return MessageType.PDF_ICS_309;
     }
 
@@ -163,91 +385,35 @@ public class ClassifierProcessor extends AbstractBaseProcessor {
         continue;
       }
 
-      for (var messageType : MessageType.values()) {
-        if (messageType.rmsViewerName() == null) {
-          continue;
-        }
-
-        if (attachmentName.startsWith(messageType.rmsViewerName())) {
-          return messageType;
-        }
-
-      } // end loop over messageTypes
+      var messageType = classificationIndex.findRmsViewerType(attachmentName);
+      if (messageType != null) {
+        return messageType;
+      }
     } // end loop over attachment names
 
     return null;
   }
 
-  private MessageType getMessageTypeFromFormData(ExportedMessage m, MessageType subjectMessageType) {
-    var attachments = m.attachments;
-    if (attachments != null && attachments.size() > 0) {
-      var attachmentNames = attachments.keySet();
-      final var formDataKey = "FormData.txt";
-      if (attachmentNames.contains(formDataKey)) {
-        var valueMap = new HashMap<String, String>();
-        var formDataString = new String(attachments.get(formDataKey));
-        var lines = formDataString.split("\n");
-        for (var line : lines) {
-          if (line == null || line.strip().isEmpty() || line.startsWith("*")) {
-            continue;
-          }
-          var fields = line.split("=");
-          if (fields.length == 2) {
-            var mapKey = fields[0].split(":")[0].strip();
-            var mapValue = fields[1].strip();
-            valueMap.put(mapKey, mapValue);
-          } else if (fields.length == 1) {
-            var mapKey = fields[0].split(":")[0].strip();
-            var mapValue = "";
-            valueMap.put(mapKey, mapValue);
-          } else {
-            logger
-                .warn(String
-                    .format("###  wrong number of fields in FormData: %s for sender: %s, mId: %s", //
-                        line, m.from, m.messageId));
-          }
-        } // end loop over lines
-
-        if (valueMap.size() > 0) {
-          if (subjectMessageType == null) {
-            var mapFileName = valueMap.get("MapFileName");
-            if (mapFileName == null) {
-              logger
-                  .warn(String
-                      .format("###  couldn't find MapFileName in FormData: for sender: %s, mId: %s", //
-                          m.from, m.messageId));
-              return null;
-            }
-            for (var messageType : MessageType.values()) {
-              if (messageType.formDataName() != null && messageType.formDataName().equals(mapFileName)) {
-                var messageKey = new ExportedKey(m.from, m.messageId);
-                formDataMap.put(messageKey, valueMap);
-                mm.putContextObject("formDataMap", formDataMap);
-                return messageType;
-              }
-            }
-          } else {
-            // FormData won't be containing a map file name, we must rely on messageType set by subject
-            var messageKey = new ExportedKey(m.from, m.messageId);
-            formDataMap.put(messageKey, valueMap);
-            mm.putContextObject("formDataMap", formDataMap);
-            return subjectMessageType;
-          } // end if subjectMessageType != null
-        } // end if parsed map.size() > 0
-      } // end if attachments contains FormData.txt
-    } // end if attachments != null
+  private MessageType getMessageTypeFromFormData(ExportedMessage m) {
+    var valueMap = attachmentCache.getFormData(m);
+    if (valueMap.size() == 0) {
+      return null;
+    }
 
-    return null;
+    var mapFileName = valueMap.get("MapFileName");
+    if (mapFileName == null) {
+      logger
+          .warn(String
+              .format("###  couldn't find MapFileName in FormData: for sender: %s, mId: %s", //
+                  m.from, m.messageId));
+      return null;
+    }
+
+    return classificationIndex.findFormDataType(mapFileName);
   }
 
   private MessageType getMessageTypeFromSubject(ExportedMessage message) {
-    var subject = message.subject;
-    for (var messageType : MessageType.values()) {
-      if (messageType.testSubject(subject)) {
-        return messageType;
-      }
-    }
-    return null;
+    return classificationIndex.findSubjectType(message.subject);
   }
 
 }
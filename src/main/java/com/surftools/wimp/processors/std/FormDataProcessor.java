@@ -30,9 +30,11 @@ package com.surftools.wimp.processors.std;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 import com.surftools.wimp.core.IMessageManager;
 import com.surftools.wimp.core.IWritableTable;
+import com.surftools.wimp.core.ProcessorResources;
 import com.surftools.wimp.processors.std.baseExercise.AbstractBaseProcessor;
 import com.surftools.wimp.utils.config.IConfigurationManager;
 
@@ -78,8 +80,13 @@ public class FormDataProcessor extends AbstractBaseProcessor {
   @Override
   public void initialize(IConfigurationManager cm, IMessageManager mm) {
     super.initialize(cm, mm);
-    myClassifier = new ClassifierProcessor();
-    myClassifier.initialize(cm, mm);
+    myClassifier = new ClassifierProcessor(mm);
+  }
+
+  @Override
+  public ProcessorResources getResources() {
+    return new ProcessorResources(Set.of(ProcessorResources.ORIGINAL_MESSAGES),
+        Set.of(ProcessorResources.file("formDataSummay.csv")));
   }
 
   @Override
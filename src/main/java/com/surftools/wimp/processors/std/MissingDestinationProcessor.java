@@ -37,6 +37,7 @@ import org.slf4j.LoggerFactory;
 import com.surftools.utils.counter.Counter;
 import com.surftools.wimp.configuration.Key;
 import com.surftools.wimp.core.IMessageManager;
+import com.surftools.wimp.core.ProcessorResources;
 import com.surftools.wimp.processors.std.baseExercise.AbstractBaseProcessor;
 import com.surftools.wimp.utils.config.IConfigurationManager;
 
@@ -67,6 +68,11 @@ public class MissingDestinationProcessor extends AbstractBaseProcessor {
 
   }
 
+  @Override
+  public ProcessorResources getResources() {
+    return new ProcessorResources(Set.of(ProcessorResources.ALL_MESSAGE_TYPES), Set.of());
+  }
+
   @Override
   public void process() {
     var missingExpectedDestinations = new TreeSet<String>(expectedDestinations);
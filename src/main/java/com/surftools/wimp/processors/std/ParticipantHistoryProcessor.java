@@ -32,6 +32,7 @@ import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -39,6 +40,7 @@ import org.slf4j.LoggerFactory;
 import com.surftools.wimp.configuration.Key;
 import com.surftools.wimp.core.IMessageManager;
 import com.surftools.wimp.core.IWritableTable;
+import com.surftools.wimp.core.ProcessorResources;
 import com.surftools.wimp.persistence.IPersistenceManager;
 import com.surftools.wimp.persistence.PersistenceManager;
 import com.surftools.wimp.persistence.dto.Exercise;
@@ -61,6 +63,14 @@ public class ParticipantHistoryProcessor extends AbstractBaseProcessor {
     this.cm = (IWritableConfigurationManager) cm;
   }
 
+  @Override
+  public ProcessorResources getResources() {
+    return new ProcessorResources(Set.of(ProcessorResources.PERSISTENCE),
+        Set
+            .of(ProcessorResources.file(dateString + "-participantHistory.csv"),
+                ProcessorResources.file(dateString + "-participantSummary.csv")));
+  }
+
   @Override
   public void process() {
   }
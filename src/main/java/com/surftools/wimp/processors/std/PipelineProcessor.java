@@ -27,25 +27,43 @@ SOFTWARE.
 
 package com.surftools.wimp.processors.std;
 
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.surftools.wimp.configuration.Key;
+import com.surftools.wimp.core.ConcurrentMessageManager;
 import com.surftools.wimp.core.IMessageManager;
 import com.surftools.wimp.core.IProcessor;
 import com.surftools.wimp.core.MessageManager;
+import com.surftools.wimp.message.MessageSpool;
+import com.surftools.wimp.parser.ParsedAttachmentCache;
 import com.surftools.wimp.processors.std.baseExercise.AbstractBaseProcessor;
+import com.surftools.wimp.service.pdfText.PdfTextService;
 import com.surftools.wimp.utils.config.IConfigurationManager;
 import com.surftools.wimp.utils.config.impl.PropertyFileConfigurationManager;
 
-public class PipelineProcessor extends AbstractBaseProcessor {
+public class PipelineProcessor extends AbstractBaseProcessor implements AutoCloseable {
   private static final Logger logger = LoggerFactory.getLogger(PipelineProcessor.class);
 
   // the processors that make up the pipeline
   private List<IProcessor> processors;
+  private List<String> processorNames;
+  private PipelineScheduler scheduler;
+
+  // shared by all processors, across watch re-runs, until close()
+  private PdfTextService pdfTextService;
+  private ParsedAttachmentCache attachmentCache;
+  private MessageSpool messageSpool; // null unless enabled
 
   // default no-args constructor
   public PipelineProcessor() {
@@ -53,15 +71,19 @@ public class PipelineProcessor extends AbstractBaseProcessor {
 
   // code-golfing constructor
   public PipelineProcessor(String configurationFileName) throws Exception {
-    initialize(new PropertyFileConfigurationManager(configurationFileName, Key.values()), null);
-    process();
-    postProcess();
+    try {
+      initialize(new PropertyFileConfigurationManager(configurationFileName, Key.values()), null);
+      process();
+      postProcess();
+    } finally {
+      close();
+    }
   }
 
   @Override
   public void initialize(IConfigurationManager cm, IMessageManager _mm) {
     if (_mm == null) {
-      _mm = new MessageManager();
+      _mm = makeMessageManager(cm);
     }
     super.initialize(cm, _mm, logger);
 
@@ -71,21 +93,167 @@ public class PipelineProcessor extends AbstractBaseProcessor {
         .getAsString(Key.PIPELINE_STDOUT,
             "Write,MissingDestination,FormData,Summary,ParticipantHistory,Cleanup,Finalize");
     var processorString = String.join(",", List.of(stdin, main, stdout));
-    var processorNames = Arrays.stream(processorString.split(",")).filter(s -> isValidProcessorName(s)).toList();
+    processorNames = Arrays.stream(processorString.split(",")).filter(s -> isValidProcessorName(s)).toList();
     processors = processorNames.stream().map(pn -> findProcessor(pn)).toList();
     logger.info("Processors: " + String.join(",", processorNames));
 
+    pdfTextService = ClassifierProcessor.makePdfTextService(cm.getAsInt(Key.PDF_THREADS, 2));
+    attachmentCache = new ParsedAttachmentCache(pdfTextService);
+    if (cm.getAsBoolean(Key.CLASSIFY_SPOOL_ENABLED, false)) {
+      messageSpool = new MessageSpool(Path.of(exercisePathName, "spool"));
+    }
+    publishServices();
+
     processors.stream().forEach(p -> p.initialize(cm, mm));
+    scheduler = makeScheduler(processors);
   }
 
   @Override
   public void process() {
-    processors.stream().forEach(p -> p.process());
+    scheduler.run(p -> p.process());
   }
 
   @Override
   public void postProcess() {
-    processors.stream().forEach(p -> p.postProcess());
+    scheduler.run(p -> p.postProcess());
+  }
+
+  /**
+   * shut down what the processors share, once the pipeline won't be run again
+   */
+  @Override
+  public void close() {
+    if (pdfTextService != null) {
+      pdfTextService.shutdown();
+      pdfTextService = null;
+    }
+
+    // (retained) messages may have been compacted to the spool, so it must outlive every run
+    if (messageSpool != null) {
+      messageSpool.close();
+      messageSpool = null;
+    }
+  }
+
+  /**
+   * make what the processors share available through the context of the (current) message manager
+   */
+  private void publishServices() {
+    mm.putContextObject(ParsedAttachmentCache.CONTEXT_KEY, attachmentCache);
+    if (messageSpool != null) {
+      mm.putContextObject(MessageSpool.CONTEXT_KEY, messageSpool);
+    }
+  }
+
+  /**
+   * run the pipeline, then re-run it each time Exported Message files are created or modified in the input directory
+   *
+   * only new or changed files are read, and only new messages are classified and parsed; Finalize is skipped on re-runs
+   *
+   * doesn't return until interrupted
+   */
+  public void watch() {
+    processors.stream().forEach(p -> setRetainMessages(p));
+    process();
+    postProcess();
+
+    var quietSeconds = cm.getAsInt(Key.WATCH_QUIET_SECONDS, 5);
+    logger.info("watching " + inputPathName + " for new or changed files, quiet period: " + quietSeconds + " seconds");
+    try (var watchService = FileSystems.getDefault().newWatchService()) {
+      inputPath.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+      while (true) {
+        var isChanged = hasXmlEvent(watchService.take());
+
+        // wait for the input directory to settle, Winlink Express may export in several writes
+        WatchKey watchKey;
+        while ((watchKey = watchService.poll(quietSeconds, TimeUnit.SECONDS)) != null) {
+          isChanged |= hasXmlEvent(watchKey);
+        }
+
+        if (isChanged) {
+          rerun();
+        }
+      } // end loop forever
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      logger.info("watch interrupted");
+    } catch (IOException e) {
+      throw new RuntimeException("Exception watching " + inputPathName + ", " + e.getLocalizedMessage());
+    }
+  }
+
+  private boolean hasXmlEvent(WatchKey watchKey) {
+    var isXml = watchKey.pollEvents().stream().anyMatch(e -> BaseReadProcessor.isExportFileName(e.context().toString()));
+    watchKey.reset();
+    return isXml;
+  }
+
+  /**
+   * re-run the pipeline against a fresh MessageManager, keeping the (retaining) Read and Classifier processors
+   *
+   * output directories are not reset, so what the first run published is kept; only rebuilt processors are initialized
+   */
+  private void rerun() {
+    logger.info("input changed, re-running pipeline");
+    var newProcessors = new ArrayList<IProcessor>();
+    var rebuiltProcessors = new ArrayList<IProcessor>();
+    for (var i = 0; i < processorNames.size(); ++i) {
+      var processor = processors.get(i);
+      if (processor instanceof FinalizeProcessor) {
+        logger.info("skipping Finalize on re-run");
+        continue;
+      }
+      var isRetaining = processor instanceof ReadProcessor || processor instanceof ClassifierProcessor;
+      if (isRetaining) {
+        newProcessors.add(processor);
+      } else {
+        var rebuiltProcessor = findProcessor(processorNames.get(i));
+        newProcessors.add(rebuiltProcessor);
+        rebuiltProcessors.add(rebuiltProcessor);
+      }
+    }
+
+    reinitialize(makeMessageManager(cm));
+    publishServices();
+    rebuiltProcessors.stream().forEach(p -> p.initialize(cm, mm));
+    var newScheduler = makeScheduler(newProcessors);
+    newScheduler.run(p -> p.process());
+    newScheduler.run(p -> p.postProcess());
+  }
+
+  private static IMessageManager makeMessageManager(IConfigurationManager cm) {
+    var isConcurrent = cm.getAsBoolean(Key.PIPELINE_CONCURRENT_MESSAGE_MANAGER, false) || getParallelism(cm) > 1;
+    return isConcurrent ? new ConcurrentMessageManager() : new MessageManager();
+  }
+
+  private static int getParallelism(IConfigurationManager cm) {
+    var parallelism = cm.getAsInt(Key.PIPELINE_PARALLELISM, 1);
+    return parallelism <= 0 ? Runtime.getRuntime().availableProcessors() : parallelism;
+  }
+
+  /**
+   * processors only run concurrently when they can safely share the message manager
+   */
+  private PipelineScheduler makeScheduler(List<IProcessor> list) {
+    var parallelism = getParallelism(cm);
+    if (parallelism > 1 && !(mm instanceof ConcurrentMessageManager)) {
+      logger.warn("message manager is not concurrent, running processors serially");
+      parallelism = 1;
+    }
+
+    var newScheduler = new PipelineScheduler(list, parallelism);
+    if (parallelism > 1) {
+      logger.info("running processors with parallelism: " + parallelism + newScheduler.describe());
+    }
+    return newScheduler;
+  }
+
+  private void setRetainMessages(IProcessor processor) {
+    if (processor instanceof ReadProcessor readProcessor) {
+      readProcessor.setRetainMessages(true);
+    } else if (processor instanceof ClassifierProcessor classifierProcessor) {
+      classifierProcessor.setRetainMessages(true);
+    }
   }
 
   private boolean isValidProcessorName(String s) {
@@ -0,0 +1,126 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wimp.processors.std;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.surftools.wimp.core.IProcessor;
+
+/**
+ * runs one phase (process or postProcess) of a list of processors, possibly concurrently
+ *
+ * each processor waits for every earlier processor it conflicts with, according to getResources(); a processor without
+ * resources conflicts with everything, so undeclared processors still run alone, in list order
+ *
+ * @author bobt
+ *
+ */
+public class PipelineScheduler {
+  private static final Logger logger = LoggerFactory.getLogger(PipelineScheduler.class);
+
+  private final List<IProcessor> processors;
+  private final int parallelism;
+
+  // for each processor, indices of the earlier processors it must wait for
+  private final List<List<Integer>> predecessors;
+
+  public PipelineScheduler(List<IProcessor> processors, int parallelism) {
+    this.processors = processors;
+    this.parallelism = parallelism;
+
+    predecessors = new ArrayList<>(processors.size());
+    for (var j = 0; j < processors.size(); ++j) {
+      var jResources = processors.get(j).getResources();
+      var list = new ArrayList<Integer>();
+      for (var i = 0; i < j; ++i) {
+        var iResources = processors.get(i).getResources();
+        if (iResources == null || jResources == null || iResources.conflictsWith(jResources)) {
+          list.add(i);
+        }
+      }
+      predecessors.add(list);
+    }
+  }
+
+  public List<List<Integer>> getPredecessors() {
+    return predecessors;
+  }
+
+  /**
+   * @return one line per processor, with the processors it waits for
+   */
+  public String describe() {
+    var sb = new StringBuilder();
+    for (var j = 0; j < processors.size(); ++j) {
+      var names = predecessors.get(j).stream().map(i -> processors.get(i).getName()).toList();
+      sb.append("\n  " + processors.get(j).getName() + " after: " + String.join(",", names));
+    }
+    return sb.toString();
+  }
+
+  /**
+   * run phase on every processor, returning when all have completed
+   *
+   * @param phase
+   *          like IProcessor::process
+   */
+  public void run(Consumer<IProcessor> phase) {
+    if (parallelism <= 1 || processors.size() <= 1) {
+      processors.stream().forEach(p -> phase.accept(p));
+      return;
+    }
+
+    var executor = Executors.newFixedThreadPool(Math.min(parallelism, processors.size()));
+    try {
+      var futures = new ArrayList<CompletableFuture<Void>>(processors.size());
+      for (var j = 0; j < processors.size(); ++j) {
+        var processor = processors.get(j);
+        var before = predecessors.get(j).stream().map(i -> futures.get(i)).toArray(CompletableFuture[]::new);
+        futures.add(CompletableFuture.allOf(before).thenRunAsync(() -> phase.accept(processor), executor));
+      }
+      CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+    } catch (CompletionException e) {
+      var cause = e.getCause();
+      logger.error("Exception running processors in parallel: " + cause.getLocalizedMessage());
+      if (cause instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw new RuntimeException("Exception running processors in parallel: " + cause.getLocalizedMessage());
+    } finally {
+      executor.shutdown();
+    }
+  }
+}
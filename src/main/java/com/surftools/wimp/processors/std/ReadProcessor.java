@@ -27,15 +27,27 @@ SOFTWARE.
 
 package com.surftools.wimp.processors.std;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
 import java.io.Reader;
 import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Function;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -44,8 +56,12 @@ import com.opencsv.CSVParser;
 import com.opencsv.CSVParserBuilder;
 import com.opencsv.CSVReader;
 import com.opencsv.CSVReaderBuilder;
+import com.surftools.utils.LimitedInputStream;
+import com.surftools.wimp.configuration.Key;
 import com.surftools.wimp.core.IMessageManager;
 import com.surftools.wimp.message.ExportedMessage;
+import com.surftools.wimp.service.ingestIndex.IIngestIndexService;
+import com.surftools.wimp.service.ingestIndex.IngestIndexService;
 import com.surftools.wimp.utils.config.IConfigurationManager;
 
 /**
@@ -57,31 +73,144 @@ import com.surftools.wimp.utils.config.IConfigurationManager;
 public class ReadProcessor extends BaseReadProcessor {
   private static final Logger logger = LoggerFactory.getLogger(ReadProcessor.class);
 
+  private int parallelism = 1;
+  private boolean isIngestIndexEnabled = false;
+  private IIngestIndexService ingestIndexService;
+
+  // in watch mode, messages are retained across pipeline runs, so only new or changed files are read
+  static record RetainedFile(long size, long lastModified, List<ExportedMessage> messages) {
+  };
+
+  private Map<Path, RetainedFile> retainedFileMap = null;
+
   @Override
   public void initialize(IConfigurationManager cm, IMessageManager mm) {
     super.initialize(cm, mm, logger);
+
+    parallelism = cm.getAsInt(Key.READ_PARALLELISM, 1);
+    if (parallelism <= 0) {
+      parallelism = Runtime.getRuntime().availableProcessors();
+    }
+    if (parallelism > 1) {
+      logger.info("reading with parallelism: " + parallelism);
+    }
+
+    isIngestIndexEnabled = cm.getAsBoolean(Key.READ_INGEST_INDEX_ENABLED, false);
   }
 
   @Override
   public void process() {
     super.process();
 
+    if (isIngestIndexEnabled) {
+      // fingerprint must wait until super.process() has the filter sets
+      var service = new IngestIndexService(Path.of(exercisePathName, "ingestIndex"), makeReadFingerprint());
+      service.initialize();
+      ingestIndexService = service;
+      mm.putContextObject("ingestIndexService", ingestIndexService);
+    }
+
     // read all Exported Messages from files
-    List<ExportedMessage> exportedMessages = new ArrayList<>();
+    var filePaths = new ArrayList<Path>();
     for (File file : Arrays.asList(inputPath.toFile().listFiles()).stream().sorted().toList()) {
       if (file.isFile()) {
-        if (!file.getName().toLowerCase().endsWith(".xml")) {
+        if (!isExportFileName(file.getName())) {
           continue;
         }
-        var fileExportedMessages = readAll(file.toPath());
-        exportedMessages.addAll(fileExportedMessages);
+        filePaths.add(file.toPath());
       }
     }
+
+    var exportedMessages = readAll(filePaths, parallelism);
     logger.info("read " + exportedMessages.size() + " exported messages from all files");
 
+    if (ingestIndexService != null) {
+      ingestIndexService.store();
+    }
+
     mm.load(exportedMessages);
   }
 
+  /**
+   * read through service, rather than the ingest index that process() makes from configuration
+   *
+   * @param service
+   */
+  void setIngestIndexService(IIngestIndexService service) {
+    ingestIndexService = service;
+  }
+
+  /**
+   * retain messages, by file, across multiple calls to process(), for watch mode
+   *
+   * @param isRetained
+   */
+  public void setRetainMessages(boolean isRetained) {
+    retainedFileMap = isRetained ? new ConcurrentHashMap<>() : null;
+  }
+
+  /**
+   * reads multiple files, possibly concurrently, returns a list of ExportedMessage records
+   *
+   * results are always in the order of filePaths, regardless of parallelism, so output is the same as a serial read
+   *
+   * @param filePaths
+   * @param parallelism
+   * @return
+   */
+  public List<ExportedMessage> readAll(List<Path> filePaths, int parallelism) {
+    return readInOrder(filePaths, parallelism, this::readAll);
+  }
+
+  /**
+   * apply reader to each source, possibly concurrently, concatenating results in the order of sources
+   *
+   * @param <T>
+   * @param sources
+   * @param parallelism
+   * @param reader
+   * @return
+   */
+  private <T> List<ExportedMessage> readInOrder(List<T> sources, int parallelism,
+      Function<T, List<ExportedMessage>> reader) {
+    List<ExportedMessage> exportedMessages = new ArrayList<>();
+
+    if (parallelism <= 1 || sources.size() <= 1) {
+      for (var source : sources) {
+        exportedMessages.addAll(reader.apply(source));
+      }
+      return exportedMessages;
+    }
+
+    var tasks = new ArrayList<ForkJoinTask<List<ExportedMessage>>>(sources.size());
+    for (var source : sources) {
+      tasks.add(ForkJoinTask.adapt(() -> reader.apply(source)));
+    }
+
+    // entries of a .zip file are read from within a task; share that pool rather than nesting another
+    var pool = ForkJoinTask.inForkJoinPool() ? null : new ForkJoinPool(Math.min(parallelism, sources.size()));
+    try {
+      if (pool == null) {
+        ForkJoinTask.invokeAll(tasks);
+      } else {
+        pool.submit(() -> ForkJoinTask.invokeAll(tasks)).get();
+      }
+
+      for (var task : tasks) {
+        exportedMessages.addAll(task.join());
+      }
+    } catch (Exception e) {
+      logger.error("Exception reading in parallel: " + e.getLocalizedMessage());
+      throw new RuntimeException("Exception reading in parallel: " + e.getLocalizedMessage());
+    } finally {
+      if (pool != null) {
+        pool.shutdown();
+      }
+    }
+
+    return exportedMessages;
+  }
+
   /**
    * reads a single file (from a clearinghouse), returns a list of ExportedMessage records
    *
@@ -91,9 +220,50 @@ public class ReadProcessor extends BaseReadProcessor {
   public List<ExportedMessage> readAll(Path filePath) {
     logger.debug("Processing file: " + filePath.getFileName());
 
+    if (retainedFileMap != null) {
+      var file = filePath.toFile();
+      var retainedFile = retainedFileMap.get(filePath);
+      if (retainedFile != null && retainedFile.size == file.length() && retainedFile.lastModified == file.lastModified()) {
+        return retainedFile.messages;
+      }
+
+      var size = file.length();
+      var lastModified = file.lastModified();
+      var messages = readFile(filePath);
+      retainedFileMap.put(filePath, new RetainedFile(size, lastModified, messages));
+      return messages;
+    }
+
+    return readFile(filePath);
+  }
+
+  private List<ExportedMessage> readFile(Path filePath) {
+    if (ingestIndexService != null) {
+      var messages = ingestIndexService.getMessages(filePath, this::intern);
+      if (messages != null) {
+        logger.info("reused " + messages.size() + " indexed messages from file: " + filePath.getFileName());
+        return messages;
+      }
+    }
+
     try {
-      var messages = parseExportedMessages(Files.readAllLines(filePath), filePath.getFileName().toString());
-      logger.info("extracted " + messages.size() + " exported messages from file: " + filePath.getFileName());
+      List<ExportedMessage> messages = null;
+      var fileName = filePath.getFileName().toString();
+      if (fileName.toLowerCase().endsWith(".zip")) {
+        messages = readZip(filePath);
+      } else if (isArchiveFileName(fileName)) {
+        try (var inputStream = Files.newInputStream(filePath)) {
+          messages = readArchive(inputStream, fileName);
+        }
+      } else {
+        try (var reader = Files.newBufferedReader(filePath, StandardCharsets.UTF_8)) {
+          messages = readMessages(reader, fileName);
+        }
+      }
+
+      if (ingestIndexService != null) {
+        ingestIndexService.putMessages(filePath, messages);
+      }
       return messages;
     } catch (Exception e) {
       logger.error("Exception processing file: " + filePath + ", " + e.getLocalizedMessage());
@@ -102,6 +272,40 @@ public class ReadProcessor extends BaseReadProcessor {
 
   }
 
+  /**
+   * reads the .xml entries of a zip file, without extracting, decompressing entries concurrently
+   *
+   * results are in entry name order, same as if the zip file had been extracted into the input directory
+   *
+   * @param filePath
+   * @return
+   * @throws IOException
+   */
+  private List<ExportedMessage> readZip(Path filePath) throws IOException {
+    try (var zipFile = new ZipFile(filePath.toFile(), StandardCharsets.UTF_8)) {
+      var entries = zipFile
+          .stream()
+          .filter(e -> !e.isDirectory() && e.getName().toLowerCase().endsWith(".xml"))
+          .sorted(Comparator.comparing(ZipEntry::getName))
+          .toList();
+      logger.info("reading " + entries.size() + " entries from zip file: " + filePath.getFileName());
+      return readInOrder(entries, parallelism, entry -> readZipEntry(zipFile, entry));
+    }
+  }
+
+  private List<ExportedMessage> readZipEntry(ZipFile zipFile, ZipEntry entry) {
+    var fileName = getExtractedFileName(entry.getName());
+    try (var reader = new BufferedReader(
+        new InputStreamReader(new LimitedInputStream(zipFile.getInputStream(entry), maxEntryBytes),
+            StandardCharsets.UTF_8),
+        65536)) {
+      return readMessages(reader, fileName);
+    } catch (Exception e) {
+      logger.error("Exception processing zip entry: " + entry.getName() + ", " + e.getLocalizedMessage());
+      return new ArrayList<ExportedMessage>();
+    }
+  }
+
   /**
    * semi-generic method to read a CSV s into a list of array of String fields
    *
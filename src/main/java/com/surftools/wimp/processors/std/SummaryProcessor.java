@@ -44,6 +44,7 @@ import com.surftools.wimp.configuration.Key;
 import com.surftools.wimp.core.IMessageManager;
 import com.surftools.wimp.core.IWritableTable;
 import com.surftools.wimp.core.MessageType;
+import com.surftools.wimp.core.ProcessorResources;
 import com.surftools.wimp.message.RejectionMessage;
 import com.surftools.wimp.processors.std.baseExercise.AbstractBaseProcessor;
 import com.surftools.wimp.utils.config.IConfigurationManager;
@@ -204,6 +205,13 @@ public class SummaryProcessor extends AbstractBaseProcessor {
     } // end if isHistoryEnabled
   }
 
+  @Override
+  public ProcessorResources getResources() {
+    return new ProcessorResources(
+        Set.of(ProcessorResources.ALL_MESSAGE_TYPES, ProcessorResources.context("dedupeCount")),
+        Set.of(ProcessorResources.file("database/*")));
+  }
+
   @Override
   public void process() {
     Counter participantCounter = new Counter();
@@ -27,6 +27,9 @@ SOFTWARE.
 
 package com.surftools.wimp.processors.std;
 
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -73,6 +76,22 @@ public class WebReadProcessor extends BaseReadProcessor {
     try {
       var webExportedMessages = (String) mm.getContextObject("webReqestMessages");
       var fileName = (String) mm.getContextObject("webFileName");
+
+      // compressed uploads arrive as bytes, and are never written to disk
+      var webArchiveBytes = (byte[]) mm.getContextObject("webRequestArchiveBytes");
+      if (webArchiveBytes != null) {
+        var messages = readArchive(new ByteArrayInputStream(webArchiveBytes), fileName);
+        logger.info("extracted " + messages.size() + " exported messages from web archive: " + fileName);
+        return messages;
+      }
+
+      if (isStreamingEnabled) {
+        var messages = new ArrayList<ExportedMessage>();
+        streamExportedMessages(new BufferedReader(new StringReader(webExportedMessages)), fileName, messages::add);
+        logger.info("streamed " + messages.size() + " exported messages from web: ");
+        return messages;
+      }
+
       var messages = parseExportedMessages(new ArrayList<String>(Arrays.asList(webExportedMessages.split("\n"))),
           fileName);
       logger.info("extracted " + messages.size() + " exported messages from web: ");
@@ -33,10 +33,11 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -48,6 +49,7 @@ import com.surftools.utils.location.LocationUtils;
 import com.surftools.wimp.core.IMessageManager;
 import com.surftools.wimp.core.IWritableTable;
 import com.surftools.wimp.core.MessageType;
+import com.surftools.wimp.core.ProcessorResources;
 import com.surftools.wimp.message.ExportedMessage;
 import com.surftools.wimp.processors.std.baseExercise.AbstractBaseProcessor;
 import com.surftools.wimp.utils.config.IConfigurationManager;
@@ -96,8 +98,8 @@ public class WriteProcessor extends AbstractBaseProcessor {
       var lon = newLocation == null ? m.mapLocation.getLongitude() : newLocation.getLongitude();
 
       var addressesList = new ArrayList<String>();
-      addressesList.addAll(Arrays.asList(m.toList.split(",")));
-      addressesList.addAll(Arrays.asList(m.ccList.split(",")));
+      addressesList.addAll(m.getToAddresses());
+      addressesList.addAll(m.getCcAddresses());
       addressesList.remove(m.to);
       var addresses = String.join(",", addressesList);
       var nAttachments = m.attachments == null ? "" : String.valueOf(m.attachments.size());
@@ -113,6 +115,17 @@ public class WriteProcessor extends AbstractBaseProcessor {
     super.initialize(cm, mm, logger);
   }
 
+  @Override
+  public ProcessorResources getResources() {
+    var writes = new HashSet<String>();
+    for (var messageType : MessageType.values()) {
+      writes.add(ProcessorResources.file(messageType.toString() + ".csv"));
+    }
+    writes.add(ProcessorResources.file("typedMessages.csv"));
+    return new ProcessorResources(Set.of(ProcessorResources.ALL_MESSAGE_TYPES, ProcessorResources.ORIGINAL_MESSAGES),
+        writes);
+  }
+
   @Override
   public void postProcess() {
     var typedMessages = new ArrayList<IWritableTable>();
@@ -167,8 +180,10 @@ public class WriteProcessor extends AbstractBaseProcessor {
    */
   public void writeOutput(List<ExportedMessage> messages, MessageType messageType) {
     Path outputPath = Path.of(outputPathName, messageType.toString() + ".csv");
-    Collections.sort(messages);
-    writeTable(new ArrayList<IWritableTable>(messages), outputPath);
+    // sort a copy; lists from the message manager may be shared, or unmodifiable
+    var sortedMessages = new ArrayList<IWritableTable>(messages);
+    Collections.sort(sortedMessages);
+    writeTable(sortedMessages, outputPath);
   }
 
   public static void writeTable(List<IWritableTable> records, Path path) {
@@ -38,6 +38,7 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -156,6 +157,13 @@ public abstract class AbstractBaseP2PProcessor extends AbstractBaseProcessor {
   public static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy/MM/dd");
   public static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
 
+  // full tiebreak, so that list order doesn't depend on the order in which targets were visited
+  private static final Comparator<ExportedMessage> MESSAGE_ORDER = Comparator
+      .comparing((ExportedMessage m) -> m.sortDateTime)
+        .thenComparing(m -> m.from)
+        .thenComparing(m -> m.to)
+        .thenComparing(m -> m.messageId);
+
   protected Map<String, BaseField> fieldMap = new HashMap<>();
   protected Map<String, BaseTarget> targetMap = new HashMap<>();
 
@@ -177,61 +185,38 @@ public abstract class AbstractBaseP2PProcessor extends AbstractBaseProcessor {
   public void p2p_process() {
     checkForCoLocation();
 
-    var notValidTargetCounter = new Counter();
     var notValidFieldCounter = new Counter();
 
-    // build to/from lists
-    for (var messageType : requiredMessageTypeSet) {
-      var exportedMessages = mm.getMessagesForType(messageType);
-      if (exportedMessages != null) {
-        for (var m : exportedMessages) {
-
-          if (!m.isP2p) {
-            continue;
-          }
-
-          var from = m.from;
-          var to = m.to;
-          var field = fieldMap.get(from);
-          if (field == null) {
-            logger.debug("### unexpected message from: " + from + ", not in field map");
-            continue;
-          }
-
-          var target = targetMap.get(to);
-          if (target == null) {
-            logger.debug("### unexpected message to: " + to + ", not in target map");
-            continue;
-          }
+    // build to/from lists, from the messages addressed to each target
+    for (var entry : targetMap.entrySet()) {
+      var to = entry.getKey();
+      var target = entry.getValue();
+      for (var m : mm.getMessagesForRecipient(to)) {
+        if (!m.isP2p || !to.equals(m.to) || !requiredMessageTypeSet.contains(m.getMessageType())) {
+          continue;
+        }
 
-          var toList = field.toList;
-          if (targetMap.containsKey(to)) {
-            toList.add(m);
-          } else {
-            logger.warn("### skipping message: " + m + " because to(" + to + ") not in targets");
-            notValidTargetCounter.increment(to);
-          }
+        var from = m.from;
+        var field = fieldMap.get(from);
+        if (field == null) {
+          logger.debug("### unexpected message from: " + from + ", not in field map");
+          notValidFieldCounter.increment(from);
+          continue;
+        }
 
-          var fromList = target.fromList;
-          if (fieldMap.containsKey(from)) {
-            fromList.add(m);
-          } else {
-            logger.warn("### skipping message: " + m + " because from(" + from + ") not in fields");
-            notValidFieldCounter.increment(from);
-          }
-        } // end loop over messages in exportedMesssage list
-      } // end if non-null list of exported messages
-    } // end loop over messageTypes
+        field.toList.add(m);
+        target.fromList.add(m);
+      } // end loop over messages to target
+    } // end loop over targets
 
     logger.info("messages skipped for unsupported Field station: " + notValidFieldCounter.getValueTotal());
-    logger.info("messages skipped for unsupported Target station: " + notValidTargetCounter.getValueTotal());
 
     for (var field : fieldMap.values()) {
-      field.toList.sort((m1, m2) -> m1.sortDateTime.compareTo(m2.sortDateTime));
+      field.toList.sort(MESSAGE_ORDER);
     }
 
     for (var target : targetMap.values()) {
-      target.fromList.sort((m1, m2) -> m1.sortDateTime.compareTo(m2.sortDateTime));
+      target.fromList.sort(MESSAGE_ORDER);
     }
 
     displayMissingTargets();
@@ -29,6 +29,7 @@ package com.surftools.wimp.processors.std.baseExercise;
 
 import java.io.ByteArrayInputStream;
 import java.io.FileWriter;
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.LocalDate;
@@ -57,6 +58,7 @@ import com.surftools.wimp.core.IProcessor;
 import com.surftools.wimp.core.IWritableTable;
 import com.surftools.wimp.core.MessageType;
 import com.surftools.wimp.formField.FormFieldManager;
+import com.surftools.wimp.message.AttachmentHandle;
 import com.surftools.wimp.message.ExportedMessage;
 import com.surftools.wimp.service.outboundMessage.OutboundMessage;
 import com.surftools.wimp.utils.config.IConfigurationManager;
@@ -115,6 +117,26 @@ public abstract class AbstractBaseProcessor implements IProcessor {
     isInitialized = false;
   }
 
+  /**
+   * begin another run of the same exercise with a new message manager, keeping what earlier runs have written
+   *
+   * @param _mm
+   */
+  protected static void reinitialize(IMessageManager _mm) {
+    mm = _mm;
+    outboundMessageList = new ArrayList<>();
+  }
+
+  /**
+   * empty the output, published and winlink directories, once per exercise
+   */
+  private static void resetDirectories() {
+    for (var path : List.of(outputPath, publishedPath, winlinkPath)) {
+      FileUtils.deleteDirectory(path);
+      FileUtils.makeDirIfNeeded(path.toString());
+    }
+  }
+
   protected void doInitialization(IConfigurationManager _cm, IMessageManager _mm) {
     cm = _cm;
     mm = _mm;
@@ -139,20 +161,16 @@ public abstract class AbstractBaseProcessor implements IProcessor {
     inputPathName = inputPath.toString();
 
     outputPath = Path.of(exercisePathName, "output");
-    FileUtils.deleteDirectory(outputPath);
-    FileUtils.makeDirIfNeeded(outputPath.toString());
     outputPathName = outputPath.toString();
 
     publishedPath = Path.of(exercisePathName, "published");
-    FileUtils.deleteDirectory(publishedPath);
-    FileUtils.makeDirIfNeeded(publishedPath.toString());
     publishedPathName = publishedPath.toString();
 
     winlinkPath = Path.of(exercisePathName, "winlink-to-be-imported");
-    FileUtils.deleteDirectory(winlinkPath);
-    FileUtils.makeDirIfNeeded(winlinkPath.toString());
     winlinkPathName = winlinkPath.toString();
 
+    resetDirectories();
+
     outboundMessageSender = cm.getAsString(Key.OUTBOUND_MESSAGE_SENDER);
     outboundMessageSubject = cm.getAsString(Key.OUTBOUND_MESSAGE_SUBJECT);
     doOutboundMessaging = outboundMessageSender != null && outboundMessageSubject != null
@@ -324,17 +342,44 @@ public abstract class AbstractBaseProcessor implements IProcessor {
       Files.write(filePath, bytes);
 
       // create links
-      if (linkPaths != null) {
-        for (var linkDirPath : linkPaths) {
-          var linkPath = Path.of(linkDirPath.toString(), fileName);
-          Files.createLink(linkPath, filePath);
-        }
-      }
+      createLinks(filePath, fileName, linkPaths);
     } catch (Exception e) {
       logger.error("Exception writing file for:  " + fileName + ", " + e.getLocalizedMessage());
     }
   }
 
+  /**
+   * write an attachment directly from its view, without copying a spilled attachment onto the heap
+   *
+   * @param handle
+   *          -- of attachment to be written
+   * @param fileName
+   *          -- of file to be written
+   * @param path
+   *          -- of output dir, must exist
+   * @param linkPaths
+   *          -- optional, if present, list of directory paths where file will be linked to
+   */
+  protected void writeContent(AttachmentHandle handle, String fileName, Path path, List<Path> linkPaths) {
+
+    try {
+      var filePath = Path.of(path.toString(), fileName);
+      handle.writeTo(filePath);
+      createLinks(filePath, fileName, linkPaths);
+    } catch (Exception e) {
+      logger.error("Exception writing file for:  " + fileName + ", " + e.getLocalizedMessage());
+    }
+  }
+
+  private void createLinks(Path filePath, String fileName, List<Path> linkPaths) throws IOException {
+    if (linkPaths != null) {
+      for (var linkDirPath : linkPaths) {
+        var linkPath = Path.of(linkDirPath.toString(), fileName);
+        Files.createLink(linkPath, filePath);
+      }
+    }
+  }
+
   /**
    * return the name of the first attachment that represents an image
    *
@@ -342,16 +387,29 @@ public abstract class AbstractBaseProcessor implements IProcessor {
    * @return
    */
   protected String getFirstImageFile(ExportedMessage m) {
-    for (var entry : m.attachments.entrySet()) {
-      var fileName = entry.getKey();
-      var bytes = entry.getValue();
-      if (areBytesAnImage(bytes)) {
-        return fileName;
+    for (var handle : m.getAttachmentHandles()) {
+      if (isAnImage(handle)) {
+        return handle.getName();
       }
     }
     return null;
   }
 
+  /**
+   * determine if an attachment represents an image, reading from its view
+   *
+   * @param handle
+   * @return
+   */
+  protected boolean isAnImage(AttachmentHandle handle) {
+    try {
+      var bufferedImage = ImageIO.read(handle.getInputStream());
+      return bufferedImage != null;
+    } catch (Exception e) {
+      return false;
+    }
+  }
+
   /**
    * determine is a byte array represents an image
    *
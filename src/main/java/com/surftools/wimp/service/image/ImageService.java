@@ -27,17 +27,14 @@ SOFTWARE.
 
 package com.surftools.wimp.service.image;
 
-import java.io.ByteArrayInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 
 import javax.imageio.ImageIO;
 
@@ -76,18 +73,16 @@ public class ImageService implements IService {
   public Map<String, ImageRecord> getImageAttachments(ExportedMessage m) {
     var returnMap = new LinkedHashMap<String, ImageRecord>();
 
-    var attachmentIndex = -1;
-    for (Entry<String, byte[]> entry : m.attachments.entrySet()) {
+    // only images are copied onto the heap, when attachments have been spilled
+    for (var handle : m.getAttachmentHandles()) {
       try {
-        ++attachmentIndex;
-        var bytes = entry.getValue();
-        var bufferedImage = ImageIO.read(new ByteArrayInputStream(bytes));
+        var bufferedImage = ImageIO.read(handle.getInputStream());
         if (bufferedImage == null) {
           continue;
         }
-        var imageRecord = new ImageRecord(entry.getKey(), bytes, attachmentIndex);
+        var imageRecord = new ImageRecord(handle.getName(), handle.getBytes(), handle.getIndex());
         logger.debug("image found: " + imageRecord.toString());
-        returnMap.put(entry.getKey(), imageRecord);
+        returnMap.put(handle.getName(), imageRecord);
       } catch (Exception e) {
         ;
       }
@@ -185,7 +180,7 @@ public class ImageService implements IService {
     var byTypePath = FileUtils.makeDirIfNeeded(imagePath, "by-type");
 
     var messageTypeName = m.getMessageType().toString();
-    var index = getAttachmentIndex(m.attachments, imageFileName, bytes);
+    var index = getAttachmentIndex(m, imageFileName, bytes);
 
     var filename = String.format("%s-%s-%s-%s-%s", m.from, m.messageId, messageTypeName, imageFileName, index);
     var allImagePath = Path.of(allPath.toString(), filename);
@@ -207,18 +202,16 @@ public class ImageService implements IService {
   /**
    * because there can be two different attachments with same name, etc.
    *
-   * @param attachments
+   * @param m
    * @param imageFileName
    * @param bytes
    * @return
    */
-  private String getAttachmentIndex(Map<String, byte[]> attachments, String imageFileName, byte[] bytes) {
-    var index = 0;
-    for (Entry<String, byte[]> image : attachments.entrySet()) {
-      if (image.getKey().equals(imageFileName) && Arrays.equals(image.getValue(), bytes)) {
-        return String.valueOf(index);
+  private String getAttachmentIndex(ExportedMessage m, String imageFileName, byte[] bytes) {
+    for (var handle : m.getAttachmentHandles()) {
+      if (handle.getName().equals(imageFileName) && handle.contentEquals(bytes)) {
+        return String.valueOf(handle.getIndex());
       }
-      ++index;
     }
     return "###";
   }
@@ -247,7 +240,7 @@ public class ImageService implements IService {
     var mId = m.messageId;
     var messageType = m.getMessageType();
     var messageTypeName = messageType.toString();
-    var index = getAttachmentIndex(m.attachments, result.imageName(), result.imageBytes());
+    var index = getAttachmentIndex(m, result.imageName(), result.imageBytes());
     var filename = String.join("-", List.of(from, mId, messageTypeName, result.imageName(), index, score));
 
     var allImagePath = Path.of(allPath.toString(), filename);
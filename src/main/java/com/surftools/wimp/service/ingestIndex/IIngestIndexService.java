@@ -0,0 +1,79 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wimp.service.ingestIndex;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+import com.surftools.wimp.core.MessageType;
+import com.surftools.wimp.message.ExportedMessage;
+
+/**
+ * persistent, per-file index of what we've already read, so that re-runs only read new or changed files
+ */
+public interface IIngestIndexService {
+
+  public void initialize();
+
+  /**
+   * get previously read messages for a file
+   *
+   * @param filePath
+   * @param restorer
+   *          applied to each message read from the index, before it is recorded, typically to intern it's strings
+   * @return messages or null if file is new, changed or was read with a different configuration
+   */
+  public List<ExportedMessage> getMessages(Path filePath, UnaryOperator<ExportedMessage> restorer);
+
+  /**
+   * record the messages read from a file
+   *
+   * @param filePath
+   * @param messages
+   */
+  public void putMessages(Path filePath, List<ExportedMessage> messages);
+
+  /**
+   * get previously classified type of message
+   *
+   * @param message
+   * @return type or null if not known
+   */
+  public MessageType getMessageType(ExportedMessage message);
+
+  /**
+   * record the classified type of message
+   *
+   * @param message
+   * @param messageType
+   */
+  public void putMessageType(ExportedMessage message, MessageType messageType);
+
+  public void store();
+}
@@ -0,0 +1,62 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wimp.service.ingestIndex;
+
+import com.surftools.wimp.core.IWritableTable;
+
+/**
+ * one row of the ingest index, one per message (or one per file, if file has no messages)
+ */
+public record IngestIndexEntry(String fileName, long fileSize, String fileHash, String fingerprint, String entryName,
+    String messageId, String messageType) implements IWritableTable {
+
+  @Override
+  public int compareTo(IWritableTable other) {
+    var o = (IngestIndexEntry) other;
+    var cmp = fileName.compareTo(o.fileName);
+    if (cmp != 0) {
+      return cmp;
+    }
+    cmp = entryName.compareTo(o.entryName);
+    if (cmp != 0) {
+      return cmp;
+    }
+    return messageId.compareTo(o.messageId);
+  }
+
+  @Override
+  public String[] getHeaders() {
+    return new String[] { "FileName", "FileSize", "FileHash", "Fingerprint", "EntryName", "MessageId", "MessageType" };
+  }
+
+  @Override
+  public String[] getValues() {
+    return new String[] { fileName, String.valueOf(fileSize), fileHash, fingerprint, entryName, messageId, messageType };
+  }
+
+}
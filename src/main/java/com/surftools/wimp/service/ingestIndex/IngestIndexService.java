@@ -0,0 +1,346 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wimp.service.ingestIndex;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.surftools.utils.FileUtils;
+import com.surftools.wimp.core.IWritableTable;
+import com.surftools.wimp.core.MessageType;
+import com.surftools.wimp.message.ExportedMessage;
+import com.surftools.wimp.processors.std.ReadProcessor;
+import com.surftools.wimp.processors.std.WriteProcessor;
+import com.surftools.wimp.service.IService;
+
+/**
+ * on-disk index of input files: file name + size + content hash -> entry names and messageIds (and their classified
+ * types), plus a serialized copy of the messages read from each file
+ *
+ * the fingerprint identifies the read configuration (destinations, filters, editor) and the code that reads and
+ * classifies messages; a change in fingerprint is treated like a change in file content
+ *
+ * within a file, messages are keyed by entry name and messageId, because the entries of an archive may repeat
+ * messageIds; the entry name of a plain file is its own name
+ *
+ * @author bobt
+ *
+ */
+public class IngestIndexService implements IIngestIndexService, IService {
+  private static final Logger logger = LoggerFactory.getLogger(IngestIndexService.class);
+
+  public static final String INDEX_FILE_NAME = "ingestIndex.csv";
+
+  static record MessageKey(String entryName, String messageId) {
+  };
+
+  static class FileEntry {
+    final long fileSize;
+    final String fileHash;
+    final String fingerprint;
+    final Map<MessageKey, MessageType> messageTypeMap = new ConcurrentHashMap<>();
+    final List<MessageKey> messageKeys = new ArrayList<>();
+
+    FileEntry(long fileSize, String fileHash, String fingerprint) {
+      this.fileSize = fileSize;
+      this.fileHash = fileHash;
+      this.fingerprint = fingerprint;
+    }
+  }
+
+  private final Path cachePath;
+  private final String fingerprint;
+
+  // what's on disk from the previous run
+  private final Map<String, FileEntry> previousMap = new ConcurrentHashMap<>();
+
+  // what we've seen this run, the only entries we will store
+  private final Map<String, FileEntry> currentMap = new ConcurrentHashMap<>();
+
+  // so that we only hash a file once per run
+  private final Map<String, FileEntry> hashedMap = new ConcurrentHashMap<>();
+
+  // message (by identity) -> entry for the input file it was read from, this run
+  private final Map<ExportedMessage, FileEntry> messageFileMap = Collections.synchronizedMap(new IdentityHashMap<>());
+
+  private int hitCount = 0;
+  private int missCount = 0;
+
+  public IngestIndexService(Path cachePath, String fingerprint) {
+    this.cachePath = cachePath;
+    this.fingerprint = fingerprint;
+  }
+
+  @Override
+  public String getName() {
+    return "IngestIndexService";
+  }
+
+  @Override
+  public void initialize() {
+    FileUtils.makeDirIfNeeded(cachePath);
+    var indexPath = Path.of(cachePath.toString(), INDEX_FILE_NAME);
+    if (!indexPath.toFile().exists()) {
+      logger.info("ingest index: " + indexPath + " does not exist");
+      return;
+    }
+
+    var fieldsArray = ReadProcessor.readCsvFileIntoFieldsArray(indexPath, ',', false, 1);
+    for (var fields : fieldsArray) {
+      if (fields.length < 7) {
+        continue;
+      }
+      var fileName = fields[0];
+      var fileEntry = previousMap.get(fileName);
+      if (fileEntry == null) {
+        fileEntry = new FileEntry(Long.parseLong(fields[1]), fields[2], fields[3]);
+        previousMap.put(fileName, fileEntry);
+      }
+
+      var messageId = fields[5];
+      var messageType = MessageType.fromString(fields[6]);
+      if (!messageId.isEmpty() && messageType != null) {
+        fileEntry.messageTypeMap.put(new MessageKey(fields[4], messageId), messageType);
+      }
+    }
+    logger.info("read ingest index for " + previousMap.size() + " files from: " + indexPath);
+  }
+
+  @Override
+  public List<ExportedMessage> getMessages(Path filePath, UnaryOperator<ExportedMessage> restorer) {
+    var fileName = filePath.getFileName().toString();
+    var fileEntry = makeFileEntry(filePath);
+    if (fileEntry == null) {
+      return null;
+    }
+
+    var previousEntry = previousMap.get(fileName);
+    if (previousEntry == null || previousEntry.fileSize != fileEntry.fileSize
+        || !previousEntry.fileHash.equals(fileEntry.fileHash) || !previousEntry.fingerprint.equals(fingerprint)) {
+      return null;
+    }
+
+    var messages = readMessages(fileEntry);
+    if (messages == null) {
+      return null;
+    }
+    messages.replaceAll(restorer);
+
+    fileEntry.messageTypeMap.putAll(previousEntry.messageTypeMap);
+    addMessages(fileEntry, messages);
+    currentMap.put(fileName, fileEntry);
+    synchronized (this) {
+      ++hitCount;
+    }
+    return messages;
+  }
+
+  @Override
+  public void putMessages(Path filePath, List<ExportedMessage> messages) {
+    var fileName = filePath.getFileName().toString();
+    var fileEntry = makeFileEntry(filePath);
+    if (fileEntry == null) {
+      return;
+    }
+
+    if (!writeMessages(fileEntry, messages)) {
+      return;
+    }
+
+    addMessages(fileEntry, messages);
+    currentMap.put(fileName, fileEntry);
+    synchronized (this) {
+      ++missCount;
+    }
+  }
+
+  private void addMessages(FileEntry fileEntry, List<ExportedMessage> messages) {
+    for (var message : messages) {
+      fileEntry.messageKeys.add(makeMessageKey(message));
+      messageFileMap.put(message, fileEntry);
+    }
+  }
+
+  private static MessageKey makeMessageKey(ExportedMessage message) {
+    return new MessageKey(String.valueOf(message.fileName), message.messageId);
+  }
+
+  @Override
+  public MessageType getMessageType(ExportedMessage message) {
+    var fileEntry = messageFileMap.get(message);
+    return (fileEntry == null) ? null : fileEntry.messageTypeMap.get(makeMessageKey(message));
+  }
+
+  @Override
+  public void putMessageType(ExportedMessage message, MessageType messageType) {
+    var fileEntry = messageFileMap.get(message);
+    if (fileEntry != null && messageType != null) {
+      fileEntry.messageTypeMap.put(makeMessageKey(message), messageType);
+    }
+  }
+
+  @Override
+  public void store() {
+    var entries = new ArrayList<IWritableTable>();
+    for (var mapEntry : currentMap.entrySet()) {
+      var fileName = mapEntry.getKey();
+      var fileEntry = mapEntry.getValue();
+      if (fileEntry.messageKeys.size() == 0) {
+        entries
+            .add(new IngestIndexEntry(fileName, fileEntry.fileSize, fileEntry.fileHash, fileEntry.fingerprint, "", "",
+                ""));
+        continue;
+      }
+      for (var messageKey : fileEntry.messageKeys) {
+        var messageType = fileEntry.messageTypeMap.get(messageKey);
+        entries
+            .add(new IngestIndexEntry(fileName, fileEntry.fileSize, fileEntry.fileHash, fileEntry.fingerprint,
+                messageKey.entryName(), messageKey.messageId(), messageType == null ? "" : messageType.toString()));
+      }
+    }
+
+    WriteProcessor.writeTable(entries, Path.of(cachePath.toString(), INDEX_FILE_NAME));
+
+    // remove cached messages for files that have changed or gone away
+    var keepNames = currentMap.values().stream().map(e -> getMessagesPath(e).getFileName().toString()).toList();
+    var cacheFiles = cachePath.toFile().listFiles((dir, name) -> name.endsWith(".ser"));
+    if (cacheFiles != null) {
+      for (var file : cacheFiles) {
+        if (!keepNames.contains(file.getName())) {
+          file.delete();
+        }
+      }
+    }
+    logger.info("ingest index: " + hitCount + " files reused, " + missCount + " files read");
+  }
+
+  private FileEntry makeFileEntry(Path filePath) {
+    var fileName = filePath.getFileName().toString();
+    var hashedEntry = hashedMap.get(fileName);
+    if (hashedEntry != null) {
+      return new FileEntry(hashedEntry.fileSize, hashedEntry.fileHash, fingerprint);
+    }
+
+    try {
+      var fileSize = Files.size(filePath);
+      var md = MessageDigest.getInstance("SHA-256");
+      try (var inputStream = new BufferedInputStream(Files.newInputStream(filePath))) {
+        var buffer = new byte[64 * 1024];
+        var n = 0;
+        while ((n = inputStream.read(buffer)) > 0) {
+          md.update(buffer, 0, n);
+        }
+      }
+      hashedEntry = new FileEntry(fileSize, HexFormat.of().formatHex(md.digest()), fingerprint);
+      hashedMap.put(fileName, hashedEntry);
+      return new FileEntry(hashedEntry.fileSize, hashedEntry.fileHash, fingerprint);
+    } catch (Exception e) {
+      logger.error("Exception hashing file: " + filePath + ", " + e.getLocalizedMessage());
+      return null;
+    }
+  }
+
+  private Path getMessagesPath(FileEntry fileEntry) {
+    return Path.of(cachePath.toString(), fileEntry.fileHash + "-" + fileEntry.fingerprint + ".ser");
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<ExportedMessage> readMessages(FileEntry fileEntry) {
+    var path = getMessagesPath(fileEntry);
+    if (!path.toFile().exists()) {
+      return null;
+    }
+
+    try (var ois = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+      return (List<ExportedMessage>) ois.readObject();
+    } catch (Exception e) {
+      // most likely, the classes have changed since we wrote the cache
+      logger.warn("could not read cached messages from: " + path + ", " + e.getLocalizedMessage());
+      return null;
+    }
+  }
+
+  private boolean writeMessages(FileEntry fileEntry, List<ExportedMessage> messages) {
+    var path = getMessagesPath(fileEntry);
+    try (var oos = new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+      oos.writeObject(new ArrayList<ExportedMessage>(messages));
+      return true;
+    } catch (Exception e) {
+      logger.error("could not write cached messages to: " + path + ", " + e.getLocalizedMessage());
+      path.toFile().delete();
+      return false;
+    }
+  }
+
+  /**
+   * make a short, file-name safe fingerprint for a set of strings
+   *
+   * @param strings
+   * @return
+   */
+  public static String makeFingerprint(List<String> strings) {
+    try {
+      var md = MessageDigest.getInstance("SHA-256");
+      for (var s : strings) {
+        md.update(String.valueOf(s).getBytes());
+        md.update((byte) 0);
+      }
+      return HexFormat.of().formatHex(md.digest()).substring(0, 16);
+    } catch (Exception e) {
+      throw new RuntimeException("could not make fingerprint: " + e.getMessage());
+    }
+  }
+
+  /**
+   * ordered, for a stable fingerprint
+   *
+   * @param set
+   * @return
+   */
+  public static String toSortedString(Set<String> set) {
+    return (set == null) ? "" : String.join(",", set.stream().sorted().toList());
+  }
+
+}
@@ -0,0 +1,63 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wimp.service.parseCache;
+
+import com.surftools.wimp.core.IParser;
+import com.surftools.wimp.core.MessageType;
+import com.surftools.wimp.message.ExportedMessage;
+
+/**
+ * persistent cache of parse results, so that re-runs only parse new or changed messages, or messages whose parser has
+ * changed
+ */
+public interface IParseCacheService {
+
+  public void initialize();
+
+  /**
+   * get the previous result of parsing message
+   *
+   * @param message
+   * @param messageType
+   * @param parser
+   * @return parsed message or null if message is new or changed, or the parser has changed
+   */
+  public ExportedMessage get(ExportedMessage message, MessageType messageType, IParser parser);
+
+  /**
+   * record the result of parsing message
+   *
+   * @param message
+   * @param messageType
+   * @param parser
+   * @param parsedMessage
+   */
+  public void put(ExportedMessage message, MessageType messageType, IParser parser, ExportedMessage parsedMessage);
+
+  public void store();
+}
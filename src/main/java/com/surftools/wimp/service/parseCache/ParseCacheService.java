@@ -0,0 +1,406 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wimp.service.parseCache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.surftools.utils.CodeFingerprint;
+import com.surftools.utils.FileUtils;
+import com.surftools.wimp.core.IParser;
+import com.surftools.wimp.core.MessageType;
+import com.surftools.wimp.message.ExportedMessage;
+import com.surftools.wimp.service.IService;
+
+/**
+ * on-disk cache of parse results: messageId + messageType + raw-content hash + parser class + parser code fingerprint
+ * -> serialized parsed message
+ *
+ * the code fingerprint covers the class files of the parser, it's superclasses and the packages parsers call, so any
+ * change to parser code is a miss, automatically. PARSER_CACHE_VERSION or ExportedMessage.CACHE_VERSION can still be
+ * bumped to invalidate the whole cache; a message class without a serialVersionUID of it's own is also caught when
+ * deserializing, as a miss
+ *
+ * only the offset and length of each entry is kept in memory. Entries used or parsed are appended to a working file as
+ * we go, which is copied over the cache file on store(), and closed until the next get() or put()
+ *
+ * @author bobt
+ *
+ */
+public class ParseCacheService implements IParseCacheService, IService {
+  private static final Logger logger = LoggerFactory.getLogger(ParseCacheService.class);
+
+  // parser code changes are caught by the fingerprint; bump only to force invalidation for something that isn't code
+  public static final int PARSER_CACHE_VERSION = 1;
+
+  // besides those of the parser and it's superclasses
+  private static final String[] PARSER_HELPER_PACKAGES = { "com.surftools.wimp.parser", "com.surftools.wimp.message",
+      "com.surftools.utils", "com.surftools.wimp.service.pdfText" };
+
+  public static final String CACHE_FILE_NAME = "parseCache.bin";
+  public static final String WORKING_FILE_NAME = "parseCache.bin.tmp";
+
+  private static final int MAGIC = 0x57504331; // "WPC1"
+  private static final int HEADER_LENGTH = 12;
+
+  static record Ref(long offset, int length) {
+  };
+
+  private final Path cachePath;
+  private final int parserCacheVersion;
+  private final Function<Class<?>, String> fingerprinter;
+  private final Map<Class<?>, String> fingerprintMap = new ConcurrentHashMap<>();
+
+  // what's on disk from the previous run
+  private FileChannel previousChannel;
+  private final Map<String, Ref> previousMap = new ConcurrentHashMap<>();
+
+  // what we've used or parsed this run, the only entries we will store; null when closed
+  private FileChannel currentChannel;
+  private Path workingPath;
+  private long currentSize = 0;
+  private final Map<String, Ref> currentMap = new ConcurrentHashMap<>();
+
+  private final AtomicInteger hitCount = new AtomicInteger();
+  private final AtomicInteger missCount = new AtomicInteger();
+
+  public ParseCacheService(Path cachePath) {
+    this(cachePath, PARSER_CACHE_VERSION, ParseCacheService::makeParserFingerprint);
+  }
+
+  ParseCacheService(Path cachePath, int parserCacheVersion, Function<Class<?>, String> fingerprinter) {
+    this.cachePath = cachePath;
+    this.parserCacheVersion = parserCacheVersion;
+    this.fingerprinter = fingerprinter;
+  }
+
+  /**
+   * @param parserClass
+   * @return fingerprint of the code of parserClass, it's superclasses and the packages parsers call
+   */
+  static String makeParserFingerprint(Class<?> parserClass) {
+    return CodeFingerprint.of(List.of(parserClass), PARSER_HELPER_PACKAGES);
+  }
+
+  @Override
+  public String getName() {
+    return "ParseCacheService";
+  }
+
+  @Override
+  public void initialize() {
+    FileUtils.makeDirIfNeeded(cachePath);
+
+    workingPath = Path.of(cachePath.toString(), WORKING_FILE_NAME);
+    try {
+      currentChannel = FileChannel
+          .open(workingPath, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ,
+              StandardOpenOption.WRITE);
+      var header = makeHeader();
+      writeFully(currentChannel, header, 0);
+      currentSize = header.capacity();
+    } catch (IOException e) {
+      throw new RuntimeException("could not create parse cache: " + workingPath + ", " + e.getLocalizedMessage());
+    }
+
+    var path = Path.of(cachePath.toString(), CACHE_FILE_NAME);
+    if (!path.toFile().exists()) {
+      logger.info("parse cache: " + path + " does not exist");
+      return;
+    }
+
+    try {
+      previousChannel = FileChannel.open(path, StandardOpenOption.READ);
+      if (!readHeader(previousChannel)) {
+        logger.info("parse cache: " + path + " is from another version, not reused");
+        closePrevious();
+        return;
+      }
+
+      var size = previousChannel.size();
+      var position = (long) HEADER_LENGTH;
+      while (position < size) {
+        var keyLength = readInt(previousChannel, position);
+        var key = new String(readBytes(previousChannel, position + 4, keyLength), StandardCharsets.UTF_8);
+        var length = readInt(previousChannel, position + 4 + keyLength);
+        var offset = position + 8 + keyLength;
+        previousMap.put(key, new Ref(offset, length));
+        position = offset + length;
+      }
+      logger.info("read parse cache for " + previousMap.size() + " messages from: " + path);
+    } catch (Exception e) {
+      logger.warn("could not read parse cache from: " + path + ", " + e.getLocalizedMessage());
+      previousMap.clear();
+      closePrevious();
+    }
+  }
+
+  @Override
+  public ExportedMessage get(ExportedMessage message, MessageType messageType, IParser parser) {
+    var key = makeKey(message, messageType, parser);
+
+    byte[] bytes = null;
+    var isPrevious = false;
+    try {
+      var ref = currentMap.get(key);
+      if (ref != null) {
+        bytes = readBytes(getCurrentChannel(), ref.offset(), ref.length());
+      } else {
+        ref = previousMap.get(key);
+        if (ref != null && previousChannel != null) {
+          bytes = readBytes(previousChannel, ref.offset(), ref.length());
+          isPrevious = true;
+        }
+      }
+    } catch (IOException e) {
+      logger.debug("could not read cached message: " + message.messageId + ", " + e.getLocalizedMessage());
+    }
+
+    if (bytes == null) {
+      missCount.incrementAndGet();
+      return null;
+    }
+
+    try (var ois = new ObjectInputStream(new GZIPInputStream(new ByteArrayInputStream(bytes)))) {
+      var parsedMessage = (ExportedMessage) ois.readObject();
+      if (isPrevious) {
+        append(key, bytes);
+      }
+      hitCount.incrementAndGet();
+      return parsedMessage;
+    } catch (Exception e) {
+      // most likely, the message class has changed since we wrote the cache
+      missCount.incrementAndGet();
+      return null;
+    }
+  }
+
+  @Override
+  public void put(ExportedMessage message, MessageType messageType, IParser parser, ExportedMessage parsedMessage) {
+    if (parsedMessage == null) {
+      return;
+    }
+
+    var key = makeKey(message, messageType, parser);
+    var bos = new ByteArrayOutputStream();
+    try (var oos = new ObjectOutputStream(new GZIPOutputStream(bos))) {
+      oos.writeObject(parsedMessage);
+    } catch (Exception e) {
+      logger.debug("could not cache parsed message: " + message.messageId + ", " + e.getLocalizedMessage());
+      return;
+    }
+    append(key, bos.toByteArray());
+  }
+
+  /**
+   * replace the cache file with what we've used or parsed so far; in watch mode, we keep appending, and store again
+   *
+   * entries of the previous run that haven't been used by now are dropped
+   */
+  @Override
+  public synchronized void store() {
+    var path = Path.of(cachePath.toString(), CACHE_FILE_NAME);
+    try {
+      if (currentChannel != null) {
+        currentChannel.close();
+        currentChannel = null;
+      }
+      closePrevious();
+      previousMap.clear();
+      Files.copy(workingPath, path, StandardCopyOption.REPLACE_EXISTING);
+    } catch (Exception e) {
+      logger.error("could not write parse cache to: " + path + ", " + e.getLocalizedMessage());
+      path.toFile().delete();
+    }
+    logger.info("parse cache: " + hitCount.get() + " messages reused, " + missCount.get() + " messages parsed");
+  }
+
+  private synchronized void append(String key, byte[] bytes) {
+    if (currentMap.containsKey(key)) {
+      return;
+    }
+
+    var keyBytes = key.getBytes(StandardCharsets.UTF_8);
+    var buffer = ByteBuffer.allocate(8 + keyBytes.length + bytes.length);
+    buffer.putInt(keyBytes.length).put(keyBytes).putInt(bytes.length).put(bytes).flip();
+    try {
+      writeFully(getCurrentChannel(), buffer, currentSize);
+    } catch (IOException e) {
+      logger.debug("could not write cached message: " + key + ", " + e.getLocalizedMessage());
+      return;
+    }
+    currentMap.put(key, new Ref(currentSize + 8 + keyBytes.length, bytes.length));
+    currentSize += buffer.capacity();
+  }
+
+  /**
+   * @return the working file, re-opened after store()
+   * @throws IOException
+   */
+  private synchronized FileChannel getCurrentChannel() throws IOException {
+    if (currentChannel == null) {
+      currentChannel = FileChannel.open(workingPath, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+    return currentChannel;
+  }
+
+  private ByteBuffer makeHeader() {
+    return ByteBuffer
+        .allocate(HEADER_LENGTH)
+          .putInt(MAGIC)
+          .putInt(parserCacheVersion)
+          .putInt(ExportedMessage.CACHE_VERSION)
+          .flip();
+  }
+
+  private boolean readHeader(FileChannel channel) throws IOException {
+    if (channel.size() < HEADER_LENGTH) {
+      return false;
+    }
+    return ByteBuffer.wrap(readBytes(channel, 0, HEADER_LENGTH)).equals(makeHeader());
+  }
+
+  private void closePrevious() {
+    if (previousChannel != null) {
+      try {
+        previousChannel.close();
+      } catch (IOException e) {
+        ;
+      }
+      previousChannel = null;
+    }
+  }
+
+  private static int readInt(FileChannel channel, long position) throws IOException {
+    return ByteBuffer.wrap(readBytes(channel, position, 4)).getInt();
+  }
+
+  /**
+   * safe to call concurrently
+   */
+  private static byte[] readBytes(FileChannel channel, long position, int length) throws IOException {
+    if (length < 0 || position + length > channel.size()) {
+      throw new IOException("truncated entry at: " + position);
+    }
+
+    var bytes = new byte[length];
+    var buffer = ByteBuffer.wrap(bytes);
+    while (buffer.hasRemaining()) {
+      var n = channel.read(buffer, position + buffer.position());
+      if (n < 0) {
+        throw new IOException("unexpected end of file at: " + (position + buffer.position()));
+      }
+    }
+    return bytes;
+  }
+
+  private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+    while (buffer.hasRemaining()) {
+      position += channel.write(buffer, position);
+    }
+  }
+
+  private String makeKey(ExportedMessage message, MessageType messageType, IParser parser) {
+    var parserClass = parser.getClass();
+    return message.messageId + "|" + messageType.name() + "|" + makeContentHash(message) + "|" + parserClass.getName()
+        + "|" + fingerprintMap.computeIfAbsent(parserClass, fingerprinter);
+  }
+
+  /**
+   * hash of everything a parser can see in a message
+   *
+   * @param message
+   * @return
+   */
+  static String makeContentHash(ExportedMessage message) {
+    try {
+      var md = MessageDigest.getInstance("SHA-256");
+      for (var s : new String[] { message.messageId, message.from, message.source, message.to, message.toList,
+          message.ccList, message.subject, String.valueOf(message.msgDateTime), String.valueOf(message.msgLocation),
+          message.msgLocationSource, String.valueOf(message.sortDateTime), String.valueOf(message.mapLocation),
+          message.getMime(), message.plainContent, String.valueOf(message.isP2p), message.fileName }) {
+        update(md, s);
+      }
+
+      if (message.attachments != null) {
+        for (var entry : message.attachments.entrySet()) {
+          update(md, entry.getKey());
+          var bytes = entry.getValue(); // may be re-read from the spool
+          md.update(bytes == null ? new byte[0] : bytes);
+          md.update((byte) 0);
+        }
+      }
+
+      var lines = message.getLines();
+      if (lines != null) {
+        for (var line : lines) {
+          update(md, line);
+        }
+      }
+
+      if (message.extraData != null) {
+        for (var entry : new TreeMap<>(message.extraData).entrySet()) {
+          update(md, entry.getKey());
+          update(md, entry.getValue());
+        }
+      }
+
+      return HexFormat.of().formatHex(md.digest());
+    } catch (Exception e) {
+      throw new RuntimeException("could not hash message: " + message.messageId + ", " + e.getMessage());
+    }
+  }
+
+  private static void update(MessageDigest md, String s) {
+    md.update(String.valueOf(s).getBytes());
+    md.update((byte) 0);
+  }
+}
@@ -0,0 +1,411 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wimp.service.pdfText;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.itextpdf.text.pdf.PdfReader;
+import com.itextpdf.text.pdf.parser.PdfTextExtractor;
+import com.surftools.utils.FileUtils;
+import com.surftools.utils.pdf.PdfUtils;
+import com.surftools.wimp.service.IService;
+
+/**
+ * extract text from PDF attachments: once per distinct attachment, on a bounded pool, with page and time limits
+ *
+ * text is the same as PdfUtils.getTextFromAllPages(), but from a single PdfReader, instead of one per page. Text is
+ * cached by SHA-256 of the attachment, in memory and optionally on disk.
+ *
+ * iText ignores interrupts, so a timeout only abandons an extraction: the caller stops waiting, but the pool thread stays
+ * busy until iText finishes. The page limit bounds how long that can be; and while every thread is busy with an
+ * abandoned extraction, no more are started, rather than queueing behind them. One service is shared by a pipeline, and
+ * shut down with it
+ *
+ * @author bobt
+ *
+ */
+public class PdfTextService implements IService {
+  private static final Logger logger = LoggerFactory.getLogger(PdfTextService.class);
+
+  private static final String TEXT_FILE_SUFFIX = ".txt.gz";
+
+  // ConcurrentHashMap doesn't allow null values
+  private static final String NULL_VALUE = new String("<null>");
+
+  // the last page alone doesn't tell us the last line
+  private static final String LAST_PAGE_NOT_ENOUGH = new String("<not enough>");
+
+  private final Path cachePath; // null for no disk cache
+  private final boolean isMemoryCached;
+  private final int maxPages; // 0 for no limit
+  private final int timeoutSeconds;
+  private final int threads;
+  private final ExecutorService executor; // null to extract on the calling thread
+
+  // extractions we stopped waiting for, that are still running
+  private final AtomicInteger abandonedCount = new AtomicInteger();
+
+  // state of a submitted extraction
+  private static final int QUEUED = 0;
+  private static final int RUNNING = 1;
+  private static final int ABANDONED = 2;
+  private static final int DONE = 3;
+
+  private final Map<String, String> textMap = new ConcurrentHashMap<>();
+  private final Map<String, String> lastLineMap = new ConcurrentHashMap<>();
+
+  /**
+   * @param cachePath
+   *          for the on-disk cache, or null
+   * @param threads
+   *          size of the extraction pool, 0 to extract on the calling thread, without a time limit
+   * @param maxPages
+   *          don't extract PDFs with more pages, 0 for no limit
+   * @param timeoutSeconds
+   *          how long to wait for each extraction, before abandoning it
+   */
+  public PdfTextService(Path cachePath, int threads, int maxPages, int timeoutSeconds) {
+    this(cachePath, true, threads, maxPages, timeoutSeconds);
+  }
+
+  private PdfTextService(Path cachePath, boolean isMemoryCached, int threads, int maxPages, int timeoutSeconds) {
+    this.cachePath = cachePath;
+    this.isMemoryCached = isMemoryCached;
+    this.maxPages = maxPages;
+    this.timeoutSeconds = timeoutSeconds;
+    this.threads = threads;
+
+    if (threads > 0) {
+      executor = Executors.newFixedThreadPool(threads, r -> {
+        var thread = new Thread(r, "pdf-text");
+        thread.setDaemon(true);
+        return thread;
+      });
+    } else {
+      executor = null;
+    }
+
+    if (cachePath != null) {
+      FileUtils.makeDirIfNeeded(cachePath);
+    }
+  }
+
+  /**
+   * @return a service that extracts on the calling thread, with no limits and no caching, just like PdfUtils
+   */
+  public static PdfTextService direct() {
+    return new PdfTextService(null, false, 0, 0, 0);
+  }
+
+  @Override
+  public String getName() {
+    return "PdfTextService";
+  }
+
+  /**
+   * stop the extraction pool; later extractions return null
+   *
+   * running extractions are interrupted, which iText ignores, but the threads are daemons, so they won't keep the JVM
+   * alive
+   */
+  public void shutdown() {
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * @return number of extractions that timed out, but haven't finished
+   */
+  int getAbandonedCount() {
+    return abandonedCount.get();
+  }
+
+  /**
+   * @param bytes
+   * @return text from all pages, or null if not a PDF, too many pages, or too slow
+   */
+  public String getText(byte[] bytes) {
+    if (!hasPdfMagic(bytes)) {
+      return null;
+    }
+
+    var hash = makeHash(bytes);
+    var text = isMemoryCached ? textMap.get(hash) : null;
+    if (text == null) {
+      text = readText(hash);
+      if (text == null) {
+        text = submit(() -> extractAllPages(bytes));
+        writeText(hash, text);
+      }
+      if (isMemoryCached) {
+        textMap.put(hash, text == null ? NULL_VALUE : text);
+      }
+    }
+    return text == NULL_VALUE ? null : text;
+  }
+
+  /**
+   * same as the last of getText(bytes).split("\n"), but usually from only the last page
+   *
+   * @param bytes
+   * @return last line of text, or null if not a PDF, too many pages, or too slow
+   */
+  public String getLastLine(byte[] bytes) {
+    if (!hasPdfMagic(bytes)) {
+      return null;
+    }
+
+    var hash = makeHash(bytes);
+    var lastLine = isMemoryCached ? lastLineMap.get(hash) : null;
+    if (lastLine == null) {
+      var text = (isMemoryCached && textMap.containsKey(hash)) ? textMap.get(hash) : readText(hash);
+      if (text == null) {
+        text = submit(() -> extractLastPage(bytes));
+        if (text == LAST_PAGE_NOT_ENOUGH) {
+          text = getText(bytes);
+        }
+      }
+      lastLine = (text == null || text == NULL_VALUE) ? NULL_VALUE : getLastLine(text);
+      if (isMemoryCached) {
+        lastLineMap.put(hash, lastLine);
+      }
+    }
+    return lastLine == NULL_VALUE ? null : lastLine;
+  }
+
+  private static String getLastLine(String text) {
+    var lines = text.split("\n");
+    return (lines.length == 0) ? "" : lines[lines.length - 1];
+  }
+
+  /**
+   * cheap check of the magic bytes, before any real PDF work: PdfUtils.isPdf() requires a "%PDF-" header
+   *
+   * @param bytes
+   * @return false if bytes can't possibly be a PDF
+   */
+  public static boolean hasPdfMagic(byte[] bytes) {
+    return bytes != null && bytes.length >= 5 && bytes[0] == '%' && (bytes[1] == 'P' || bytes[1] == 'p')
+        && (bytes[2] == 'D' || bytes[2] == 'd') && (bytes[3] == 'F' || bytes[3] == 'f') && bytes[4] == '-';
+  }
+
+  /**
+   * same as hasPdfMagic(bytes), but without copying a (possibly memory-mapped) view onto the heap
+   *
+   * @param buffer
+   *          position is unchanged
+   * @return false if buffer can't possibly be a PDF
+   */
+  public static boolean hasPdfMagic(ByteBuffer buffer) {
+    if (buffer == null || buffer.remaining() < 5) {
+      return false;
+    }
+    var p = buffer.position();
+    var b1 = buffer.get(p + 1);
+    var b2 = buffer.get(p + 2);
+    var b3 = buffer.get(p + 3);
+    return buffer.get(p) == '%' && (b1 == 'P' || b1 == 'p') && (b2 == 'D' || b2 == 'd') && (b3 == 'F' || b3 == 'f')
+        && buffer.get(p + 4) == '-';
+  }
+
+  private String extractAllPages(byte[] bytes) throws Exception {
+    var reader = openReader(bytes);
+    if (reader == null) {
+      return null;
+    }
+
+    try {
+      var text = new StringBuilder();
+      var nPages = reader.getNumberOfPages();
+      for (var pageNumber = 1; pageNumber <= nPages; ++pageNumber) {
+        text.append(PdfTextExtractor.getTextFromPage(reader, pageNumber));
+      }
+      return text.toString();
+    } finally {
+      reader.close();
+    }
+  }
+
+  private String extractLastPage(byte[] bytes) throws Exception {
+    var reader = openReader(bytes);
+    if (reader == null) {
+      return null;
+    }
+
+    try {
+      var nPages = reader.getNumberOfPages();
+      if (nPages == 0) {
+        return "";
+      }
+
+      // pages are concatenated without a separator, so the last page must have a line break of it's own
+      var text = PdfTextExtractor.getTextFromPage(reader, nPages);
+      var end = text.length();
+      while (end > 0 && text.charAt(end - 1) == '\n') {
+        --end;
+      }
+      return (text.lastIndexOf('\n', end - 1) >= 0) ? text : LAST_PAGE_NOT_ENOUGH;
+    } finally {
+      reader.close();
+    }
+  }
+
+  private PdfReader openReader(byte[] bytes) throws Exception {
+    if (!new PdfUtils().isPdf(bytes)) {
+      return null;
+    }
+
+    var reader = new PdfReader(bytes);
+    if (maxPages > 0 && reader.getNumberOfPages() > maxPages) {
+      logger.warn("not extracting text from PDF with " + reader.getNumberOfPages() + " pages, limit is " + maxPages);
+      reader.close();
+      return null;
+    }
+    return reader;
+  }
+
+  String submit(Callable<String> callable) {
+    if (executor == null) {
+      try {
+        return callable.call();
+      } catch (RuntimeException e) {
+        throw e;
+      } catch (Exception e) {
+        throw new RuntimeException(e);
+      }
+    }
+
+    if (abandonedCount.get() >= threads) {
+      logger.warn("not extracting text from PDF, all " + threads + " threads busy with abandoned extractions");
+      return null;
+    }
+
+    var state = new AtomicInteger(QUEUED);
+    Future<String> future;
+    try {
+      future = executor.submit(() -> {
+        if (!state.compareAndSet(QUEUED, RUNNING)) {
+          return null;
+        }
+        try {
+          return callable.call();
+        } finally {
+          if (state.getAndSet(DONE) == ABANDONED) {
+            abandonedCount.decrementAndGet();
+          }
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      logger.warn("not extracting text from PDF, service is shut down");
+      return null;
+    }
+
+    try {
+      return future.get(timeoutSeconds, TimeUnit.SECONDS);
+    } catch (TimeoutException e) {
+      if (state.compareAndSet(RUNNING, ABANDONED)) {
+        abandonedCount.incrementAndGet();
+      } else {
+        state.compareAndSet(QUEUED, DONE);
+      }
+      future.cancel(true);
+      logger.warn("gave up extracting text from PDF after " + timeoutSeconds + " seconds");
+      return null;
+    } catch (Exception e) {
+      logger.error("Exception extracting text from PDF: " + e.getLocalizedMessage());
+      return null;
+    }
+  }
+
+  private String makeHash(byte[] bytes) {
+    try {
+      return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+    } catch (Exception e) {
+      throw new RuntimeException("could not hash PDF: " + e.getMessage());
+    }
+  }
+
+  private Path getTextPath(String hash) {
+    return Path.of(cachePath.toString(), hash + TEXT_FILE_SUFFIX);
+  }
+
+  private String readText(String hash) {
+    if (cachePath == null) {
+      return null;
+    }
+
+    var path = getTextPath(hash);
+    if (!path.toFile().exists()) {
+      return null;
+    }
+
+    try (var inputStream = new GZIPInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+      return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+    } catch (Exception e) {
+      logger.warn("could not read cached PDF text from: " + path + ", " + e.getLocalizedMessage());
+      return null;
+    }
+  }
+
+  private void writeText(String hash, String text) {
+    if (cachePath == null || text == null) {
+      return;
+    }
+
+    var path = getTextPath(hash);
+    try (var outputStream = new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+      outputStream.write(text.getBytes(StandardCharsets.UTF_8));
+    } catch (Exception e) {
+      logger.error("could not write cached PDF text to: " + path + ", " + e.getLocalizedMessage());
+      path.toFile().delete();
+    }
+  }
+}
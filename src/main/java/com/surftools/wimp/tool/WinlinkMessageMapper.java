@@ -57,6 +57,9 @@ public class WinlinkMessageMapper {
   @Option(name = "--configurationFile", usage = "path to configuration file", required = false)
   private String configurationFileName = "configuration.txt";
 
+  @Option(name = "--watch", usage = "re-run when new Exported Message files arrive in the input directory", required = false)
+  private boolean isWatch = false;
+
   public static void main(String[] args) {
     WinlinkMessageMapper app = new WinlinkMessageMapper();
     CmdLineParser parser = new CmdLineParser(app);
@@ -76,10 +79,15 @@ public class WinlinkMessageMapper {
     try {
       logger.info("begin");
 
-      var pipeline = new PipelineProcessor();
-      pipeline.initialize(new PropertyFileConfigurationManager(configurationFileName, Key.values()), null);
-      pipeline.process();
-      pipeline.postProcess();
+      try (var pipeline = new PipelineProcessor()) {
+        pipeline.initialize(new PropertyFileConfigurationManager(configurationFileName, Key.values()), null);
+        if (isWatch) {
+          pipeline.watch();
+        } else {
+          pipeline.process();
+          pipeline.postProcess();
+        }
+      }
 
       logger.info("exiting");
     } catch (Exception e) {
@@ -13,9 +13,10 @@ import com.surftools.wimp.utils.config.impl.PropertyFileConfigurationManager;
 
 public class WinlinkMessageTool {
   public static void main(String[] args) throws Exception {
-    var pipeline = new PipelineProcessor();
-    pipeline.initialize(new PropertyFileConfigurationManager(args[0], Key.values()), null);
-    pipeline.process();
-    pipeline.postProcess();
+    try (var pipeline = new PipelineProcessor()) {
+      pipeline.initialize(new PropertyFileConfigurationManager(args[0], Key.values()), null);
+      pipeline.process();
+      pipeline.postProcess();
+    }
   }
 }
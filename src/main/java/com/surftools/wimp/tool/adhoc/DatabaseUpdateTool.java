@@ -94,10 +94,11 @@ public class DatabaseUpdateTool {
         cm.putString(Key.PIPELINE_MAIN, "DatabaseUpdate"); // exercise-specific processors go here!
         cm.putString(Key.PIPELINE_STDOUT, "Write");
 
-        var pipeline = new PipelineProcessor();
-        pipeline.initialize(cm, null);
-        pipeline.process();
-        pipeline.postProcess();
+        try (var pipeline = new PipelineProcessor()) {
+          pipeline.initialize(cm, null);
+          pipeline.process();
+          pipeline.postProcess();
+        }
 
         // copy the 4 database files from the exercise output folder to the
         for (var filename : CsvDatabaseEngine.FILE_NAMES) {
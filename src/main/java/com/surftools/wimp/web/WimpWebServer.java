@@ -32,6 +32,7 @@ import java.io.ByteArrayInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.LocalDateTime;
@@ -42,9 +43,8 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Map;
 import java.util.stream.Collectors;
-
-import javax.xml.XMLConstants;
-import javax.xml.parsers.DocumentBuilderFactory;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipInputStream;
 
 import org.kohsuke.args4j.CmdLineParser;
 import org.kohsuke.args4j.Option;
@@ -54,10 +54,13 @@ import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 
 import com.surftools.utils.FileUtils;
+import com.surftools.utils.LimitedInputStream;
+import com.surftools.utils.XmlParsers;
 import com.surftools.wimp.configuration.Key;
+import com.surftools.wimp.core.ConcurrentMessageManager;
 import com.surftools.wimp.core.IMessageManager;
 import com.surftools.wimp.core.IProcessor;
-import com.surftools.wimp.core.MessageManager;
+import com.surftools.wimp.processors.std.BaseReadProcessor;
 import com.surftools.wimp.processors.std.PipelineProcessor;
 import com.surftools.wimp.processors.std.baseExercise.AbstractBaseProcessor;
 import com.surftools.wimp.utils.config.IConfigurationManager;
@@ -113,7 +116,7 @@ public class WimpWebServer {
       logger.info("begin");
 
       cm = new PropertyFileConfigurationManager(configurationFileName, Key.values());
-      mm = new MessageManager();
+      mm = new ConcurrentMessageManager();
       pathName = AbstractBaseProcessor.inputPathName;
       outputPathName = AbstractBaseProcessor.outputPathName;
       if (outputPathName == null) {
@@ -179,18 +182,36 @@ public class WimpWebServer {
       var responseText = "";
       var responseStatus = HttpStatus.OK;
       var fileName = ctx.req().getHeader("X_FILENAME");
-      var fileContent = ctx.req().getReader().lines().collect(Collectors.joining("\n"));
+
+      // compressed exports are kept as bytes and decompressed in memory by the WebReadProcessor
+      var isArchive = fileName != null && BaseReadProcessor.isArchiveFileName(fileName);
+      var fileBytes = isArchive ? ctx.bodyAsBytes() : null;
+      var fileContent = "";
+      try {
+        fileContent = isArchive ? getArchiveContent(fileBytes, fileName)
+            : ctx.req().getReader().lines().collect(Collectors.joining("\n"));
+      } catch (IllegalArgumentException e) {
+        logger.info("rejected file: " + fileName + ", " + e.getLocalizedMessage());
+        ctx.status(HttpStatus.BAD_REQUEST);
+        ctx.result(e.getLocalizedMessage());
+        return;
+      }
       var callsign = getExportCallsign(fileContent);
       logger.info("received file: " + fileName + ", from call: " + callsign);
-      log_request(ctx, fileContent, fileName, callsign);
+      log_request(ctx, isArchive ? fileBytes : fileContent.getBytes(), fileName, callsign);
 
-      mm = new MessageManager();
-      mm.putContextObject("webReqestMessages", fileContent);
+      mm = new ConcurrentMessageManager();
+      mm.putContextObject("webReqestMessages", isArchive ? "" : fileContent);
+      mm.putContextObject("webRequestArchiveBytes", fileBytes);
       mm.putContextObject("webFileName", fileName);
       pipeline = new PipelineProcessor();
-      pipeline.initialize(cm, mm);
-      pipeline.process();
-      pipeline.postProcess();
+      try {
+        pipeline.initialize(cm, mm);
+        pipeline.process();
+        pipeline.postProcess();
+      } finally {
+        pipeline.close();
+      }
 
       @SuppressWarnings("unchecked")
       var feedbackMap = (Map<String, String>) mm.getContextObject("webOutboundMessage");
@@ -223,13 +244,65 @@ public class WimpWebServer {
       log_response(ctx, fileContent, fileName, responseStatus, responseText, callsign);
     }
 
+    /**
+     * return the text of the single export file in a .zip or .gz upload
+     *
+     * the pipeline reads every entry, so an archive with more than one export file is rejected rather than only
+     * partially logged; so is anything that decompresses to more than read.maxEntryMB
+     *
+     * @param fileBytes
+     * @param fileName
+     * @return
+     * @throws IllegalArgumentException
+     *           if the upload can't be accepted
+     */
+    private String getArchiveContent(byte[] fileBytes, String fileName) {
+      var maxEntryBytes = BaseReadProcessor.getMaxEntryBytes(cm);
+      try {
+        if (fileName.toLowerCase().endsWith(".gz")) {
+          try (var inputStream = new LimitedInputStream(
+              new GZIPInputStream(new ByteArrayInputStream(fileBytes)), maxEntryBytes)) {
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+          }
+        }
+
+        var nEntries = 0;
+        try (var zipInputStream = new ZipInputStream(new ByteArrayInputStream(fileBytes))) {
+          var entry = zipInputStream.getNextEntry();
+          while (entry != null) {
+            if (!entry.isDirectory() && entry.getName().toLowerCase().endsWith(".xml")) {
+              ++nEntries;
+            }
+            entry = zipInputStream.getNextEntry();
+          }
+        }
+
+        if (nEntries != 1) {
+          throw new IllegalArgumentException("Found " + nEntries + " exported message files in: " + fileName
+              + ", please upload one exported message file at a time");
+        }
+
+        try (var zipInputStream = new ZipInputStream(new ByteArrayInputStream(fileBytes))) {
+          var entry = zipInputStream.getNextEntry();
+          while (entry != null) {
+            if (!entry.isDirectory() && entry.getName().toLowerCase().endsWith(".xml")) {
+              // don't close, that would close the zip stream
+              var inputStream = new LimitedInputStream(zipInputStream, maxEntryBytes);
+              return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            entry = zipInputStream.getNextEntry();
+          }
+        }
+      } catch (IOException e) {
+        logger.error("Exception decompressing upload: " + fileName + ", " + e.getLocalizedMessage());
+        throw new IllegalArgumentException("Could not decompress: " + fileName + ", " + e.getLocalizedMessage());
+      }
+      return "";
+    }
+
     private String getExportCallsign(String fileContent) {
       try {
-        var dbf = DocumentBuilderFactory.newInstance();
-        dbf.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
-        var db = dbf.newDocumentBuilder();
-        var doc = db.parse(new ByteArrayInputStream(fileContent.getBytes()));
-        doc.getDocumentElement().normalize();
+        var doc = XmlParsers.parse(new ByteArrayInputStream(fileContent.getBytes()));
 
         var nodeList = doc.getElementsByTagName("callsign");
         var nNodes = nodeList.getLength();
@@ -246,7 +319,7 @@ public class WimpWebServer {
       return "unknown callsign";
     }
 
-    private void log_request(Context ctx, String fileContent, String fileName, String callsign) {
+    private void log_request(Context ctx, byte[] fileBytes, String fileName, String callsign) {
       // outputPath/
       // ____commonLog.txt //
       // ________/<call-sign>/ //
@@ -260,7 +333,7 @@ public class WimpWebServer {
       var path = FileUtils.makeDirIfNeeded(Path.of(outputPathName, callsign, senderTimestamp));
       senderPath.set(path);
       try {
-        Files.writeString(Path.of(path.toString(), fileName), fileContent);
+        Files.write(Path.of(path.toString(), fileName), fileBytes);
       } catch (Exception e) {
         logger.error("Error writing request from " + callsign + ", " + e.getLocalizedMessage());
       }
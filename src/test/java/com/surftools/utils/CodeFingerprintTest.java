@@ -0,0 +1,64 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import com.surftools.wimp.parser.PlainParser;
+
+public class CodeFingerprintTest {
+
+  @Test
+  public void test_stable() {
+    var a = CodeFingerprint.of(List.of(PlainParser.class), "com.surftools.utils");
+    var b = CodeFingerprint.of(List.of(PlainParser.class), "com.surftools.utils");
+    assertEquals(a, b);
+  }
+
+  @Test
+  public void test_packages() {
+    var utils = CodeFingerprint.getPackageHash("com.surftools.utils");
+    assertFalse(utils.equals(CodeFingerprint.getPackageHash("com.surftools.wimp.parser")));
+
+    // helper packages count
+    var withoutHelpers = CodeFingerprint.of(List.of(PlainParser.class));
+    assertFalse(withoutHelpers.equals(CodeFingerprint.of(List.of(PlainParser.class), "com.surftools.utils")));
+  }
+
+  @Test
+  public void test_unreadable_package() {
+    // never matches anything real
+    var utils = CodeFingerprint.getPackageHash("com.surftools.utils");
+    assertFalse(utils.equals(CodeFingerprint.getPackageHash("com.surftools.no.such.package")));
+  }
+}
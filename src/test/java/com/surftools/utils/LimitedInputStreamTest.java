@@ -0,0 +1,65 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.junit.Test;
+
+public class LimitedInputStreamTest {
+
+  @Test
+  public void test_read_within_limit() throws IOException {
+    try (var inputStream = new LimitedInputStream(new ByteArrayInputStream(new byte[100]), 100)) {
+      assertEquals(100, inputStream.readAllBytes().length);
+    }
+  }
+
+  @Test
+  public void test_read_beyond_limit() {
+    // an endless stream of zeros, like a decompressed "zip bomb"
+    var endless = new InputStream() {
+      @Override
+      public int read() {
+        return 0;
+      }
+    };
+
+    try (var inputStream = new LimitedInputStream(endless, 1000)) {
+      inputStream.readAllBytes();
+      fail("expected IOException");
+    } catch (IOException e) {
+      assertEquals("more than 1000 bytes", e.getMessage());
+    }
+  }
+}
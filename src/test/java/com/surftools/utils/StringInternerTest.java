@@ -0,0 +1,69 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import com.surftools.wimp.message.ExportedMessage;
+
+public class StringInternerTest {
+
+  @Test
+  public void test_intern() {
+    var interner = new StringInterner();
+    var first = new String("KM6SO");
+    var second = new String("KM6SO");
+
+    assertSame(first, interner.intern(first));
+    assertSame(first, interner.intern(second));
+    assertNull(interner.intern(null));
+    assertEquals(1, interner.size());
+    assertEquals(1, interner.getDuplicateCount());
+    assertEquals(StringInterner.estimateBytes(second), interner.getBytesSaved());
+  }
+
+  @Test
+  public void test_intern_addresses() {
+    var interner = new StringInterner();
+    var to = interner.internAll(ExportedMessage.splitAddresses("ETO-01,SMTP:a@example.com"));
+    var cc = interner.internAll(ExportedMessage.splitAddresses(",ETO-01"));
+
+    // same as String.split(), including empty addresses
+    assertEquals(List.of("ETO-01", "SMTP:a@example.com"), to);
+    assertEquals(List.of("", "ETO-01"), cc);
+    assertEquals(List.of(""), ExportedMessage.splitAddresses(""));
+    assertEquals(List.of(), ExportedMessage.splitAddresses(null));
+    assertSame(to.get(0), cc.get(1));
+  }
+}
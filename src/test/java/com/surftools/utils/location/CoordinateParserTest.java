@@ -0,0 +1,89 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.utils.location;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class CoordinateParserTest {
+
+  @Test
+  public void test_parseDecimal() {
+    for (var s : new String[] { "0", "38.660000", "-122.870667", "+90", "12.", ".5", "0.000001", "123456789012345" }) {
+      assertEquals(s, Double.parseDouble(s), CoordinateParser.parseDecimal(s, 0, s.length()), 0d);
+    }
+
+    // only s[start, end)
+    assertEquals(122.87d, CoordinateParser.parseDecimal("X 122.87 W", 2, 8), 0d);
+  }
+
+  @Test
+  public void test_parseDecimal_malformed() {
+    for (var s : new String[] { "", " ", "-", "+", ".", "1.2.3", "1e5", "12a", " 12", "1,5", "--1",
+        "1234567890123456" }) {
+      assertTrue("should be NaN: \"" + s + "\"", Double.isNaN(CoordinateParser.parseDecimal(s, 0, s.length())));
+    }
+    assertTrue(Double.isNaN(CoordinateParser.parseDecimal(null, 0, 0)));
+    assertTrue(Double.isNaN(CoordinateParser.parseDecimal("12", 2, 1)));
+  }
+
+  @Test
+  public void test_parseHemisphere() {
+    assertEquals("38.660000", parseLatitude("38.660000N"));
+    assertEquals("-38.660000", parseLatitude("38.660000S"));
+    assertEquals("122.870667", parseLongitude("122.870667E"));
+    assertEquals("-122.870667", parseLongitude("122.870667W"));
+
+    // surrounding spaces and lower case hemispheres
+    assertEquals("-122.870667", parseLongitude("  122.870667w "));
+    assertEquals("38.66", parseLatitude(" 38.66n"));
+  }
+
+  @Test
+  public void test_parseHemisphere_malformed() {
+    for (var s : new String[] { "", "   ", "N", "38.66", "38.66X", "-38.66N", "+38.66N", "38.6.6N", "3 8N", "38.66NN" }) {
+      assertNull("should be null: \"" + s + "\"", parseLatitude(s));
+    }
+
+    // wrong axis
+    assertNull(parseLatitude("122.870667W"));
+    assertNull(parseLongitude("38.660000N"));
+    assertNull(CoordinateParser.parseHemisphere(null, 0, 0, 'N', 'S'));
+  }
+
+  private String parseLatitude(String s) {
+    return CoordinateParser.parseHemisphere(s, 0, s.length(), 'N', 'S');
+  }
+
+  private String parseLongitude(String s) {
+    return CoordinateParser.parseHemisphere(s, 0, s.length(), 'E', 'W');
+  }
+}
@@ -0,0 +1,223 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2022, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wimp.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
+
+import com.surftools.utils.FileUtils;
+
+/**
+ * generate synthetic Winlink "Exported Message" files, for benchmarking the read/classify/parse stages
+ *
+ * messages are a mix of plain text, ICS-213 (RMS viewer XML attachment) and Winlink Check-in (FormData.txt attachment)
+ *
+ * @author bobt
+ *
+ */
+public class SyntheticExportGenerator {
+  private final Random random;
+
+  public SyntheticExportGenerator(long seed) {
+    random = new Random(seed);
+  }
+
+  /**
+   * write fileCount files of messagesPerFile messages each into dirPath
+   *
+   * @param dirPath
+   * @param fileCount
+   * @param messagesPerFile
+   * @return list of file paths written, in sorted order
+   */
+  public List<Path> generate(Path dirPath, int fileCount, int messagesPerFile) {
+    FileUtils.makeDirIfNeeded(dirPath);
+    var paths = new ArrayList<Path>();
+    var messageNumber = 0;
+    for (var iFile = 0; iFile < fileCount; ++iFile) {
+      var sb = new StringBuilder();
+      sb.append("<?xml version=\"1.0\"?>\n");
+      sb.append("<Winlink_Express_message_export>\n");
+      sb.append("  <export_parameters>\n    <xml_file_version>1.0</xml_file_version>\n  </export_parameters>\n");
+      sb.append("  <message_list>\n");
+      for (var iMessage = 0; iMessage < messagesPerFile; ++iMessage) {
+        sb.append(makeMessage(++messageNumber));
+      }
+      sb.append("  </message_list>\n");
+      sb.append("</Winlink_Express_message_export>\n");
+
+      var path = Path.of(dirPath.toString(), String.format("synthetic-%03d.xml", iFile));
+      try {
+        Files.writeString(path, sb.toString(), StandardCharsets.UTF_8);
+      } catch (Exception e) {
+        throw new RuntimeException("Exception writing file: " + path + ", " + e.getLocalizedMessage());
+      }
+      paths.add(path);
+    }
+    return paths;
+  }
+
+  /**
+   * make the XML for a single exported message
+   *
+   * @param n
+   * @return
+   */
+  public String makeMessage(int n) {
+    var messageId = String.format("SYN%09d", n);
+    var sender = "K" + (n % 97) + "SYN";
+    var latitude = 25d + 23d * random.nextDouble();
+    var longitude = -70d - 50d * random.nextDouble();
+    var time = String.format("2024/09/12 %02d:%02d", (n / 60) % 24, n % 60);
+
+    String subject;
+    String body;
+    var kind = random.nextInt(3);
+    if (kind == 0) {
+      subject = "Synthetic plain message " + n;
+      body = makePlainBody(n);
+    } else if (kind == 1) {
+      subject = "ICS-213 synthetic " + n;
+      body = makeAttachmentBody(n, "RMS_Express_Form_ICS213_Initial_Viewer.xml",
+          makeIcs213Xml(n, sender, latitude, longitude));
+    } else {
+      subject = "Winlink Check-in " + n;
+      body = makeAttachmentBody(n, "FormData.txt", makeCheckInFormData(n, sender, latitude, longitude));
+    }
+
+    var location = String.format("%.6fN, %.6fW", latitude, -longitude);
+    var mime = "Date: Thu, 12 Sep 2024 15:30:00 +0000\n" //
+        + "From: " + sender + "@winlink.org\n" //
+        + "Subject: " + subject + "\n" //
+        + "To: ETO-0" + (n % 3 + 1) + "@winlink.org,\n" //
+        + " SMTP:synthetic" + n + "@example.com\n" //
+        + "Cc: " + sender + "@winlink.org\n" //
+        + "Message-ID: " + messageId + "\n" //
+        + "X-Source: " + sender + "\n" //
+        + "X-Location: " + location + " (GPS)\n" //
+        + "X-Express-Version: Winlink Express 1.7.12.0\n" //
+        + "MIME-Version: 1.0\n" //
+        + body;
+
+    return "    <message>\n" //
+        + "      <id>" + messageId + "</id>\n" //
+        + "      <foldertype>Fixed</foldertype>\n" //
+        + "      <folder>InBox</folder>\n" //
+        + "      <subject>" + escape(subject) + "</subject>\n" //
+        + "      <time>" + time + "</time>\n" //
+        + "      <sender>" + sender + "</sender>\n" //
+        + "      <location>" + location + " (GPS)</location>\n" //
+        + "      <peertopeer>False</peertopeer>\n" //
+        + "      <source>" + sender + "</source>\n" //
+        + "      <mime>" + escape(mime) + "</mime>\n" //
+        + "    </message>\n";
+  }
+
+  private String makePlainBody(int n) {
+    return "Content-Type: text/plain; charset=\"iso-8859-1\"\n" //
+        + "Content-Transfer-Encoding: quoted-printable\n" //
+        + "\n" //
+        + "This is synthetic message =3D " + n + "\n" //
+        + "with a long line that is broken by a quoted-printable soft line break=\n" //
+        + " and continued here.\n";
+  }
+
+  private String makeAttachmentBody(int n, String attachmentName, String attachmentContent) {
+    var boundary = "boundary_" + n;
+    var encoded = Base64.getMimeEncoder(76, "\n".getBytes()).encodeToString(attachmentContent.getBytes());
+    return "Content-Type: multipart/mixed; boundary=\"" + boundary + "\"\n" //
+        + "\n" //
+        + "--" + boundary + "\n" //
+        + "Content-Type: text/plain; charset=\"iso-8859-1\"\n" //
+        + "Content-Transfer-Encoding: quoted-printable\n" //
+        + "\n" //
+        + "Synthetic form message " + n + "\n" //
+        + "\n" //
+        + "--" + boundary + "\n" //
+        + "Content-Type: application/octet-stream; name=\"" + attachmentName + "\"\n" //
+        + "Content-Transfer-Encoding: base64\n" //
+        + "Content-Disposition: attachment; filename=\"" + attachmentName + "\"\n" //
+        + "\n" //
+        + encoded + "\n" //
+        + "--" + boundary + "--\n";
+  }
+
+  private String makeIcs213Xml(int n, String sender, double latitude, double longitude) {
+    return "<?xml version=\"1.0\"?>\n" //
+        + "<RMS_Express_Form>\n" //
+        + "  <form_parameters>\n" //
+        + "    <xml_file_version>1.0</xml_file_version>\n" //
+        + "    <rms_express_version>1.7.12.0</rms_express_version>\n" //
+        + "    <submission_datetime>20240912153000</submission_datetime>\n" //
+        + "    <senders_callsign>" + sender + "</senders_callsign>\n" //
+        + "    <display_form>ICS213_Initial_Viewer.html</display_form>\n" //
+        + "  </form_parameters>\n" //
+        + "  <variables>\n" //
+        + "    <msgto>ETO-01</msgto>\n" //
+        + "    <msgfrom>" + sender + "</msgfrom>\n" //
+        + "    <subjectline>Synthetic ICS-213 " + n + "</subjectline>\n" //
+        + "    <mdate>2024-09-12</mdate>\n" //
+        + "    <mtime>15:30</mtime>\n" //
+        + "    <message>Synthetic message " + n + "\nwith two lines</message>\n" //
+        + "    <approved_name>Operator " + sender + "</approved_name>\n" //
+        + "    <approved_postitle>Radio</approved_postitle>\n" //
+        + "    <incident_name>Synthetic Drill</incident_name>\n" //
+        + "    <templateversion>ICS 213 v 2.3</templateversion>\n" //
+        + "    <maplat>" + String.format("%.6f", latitude) + "</maplat>\n" //
+        + "    <maplon>" + String.format("%.6f", longitude) + "</maplon>\n" //
+        + "    <msgisdrill>true</msgisdrill>\n" //
+        + "  </variables>\n" //
+        + "</RMS_Express_Form>\n";
+  }
+
+  private String makeCheckInFormData(int n, String sender, double latitude, double longitude) {
+    return "*** FormData ***\n" //
+        + "MapFileName=Winlink Check-in\n" //
+        + "0a. Organization=Synthetic\n" //
+        + "1a. Date-Time=2024-09-12 15:30\n" //
+        + "1d. Station Contact Name=Operator " + sender + "\n" //
+        + "1e. Initial Operators=" + sender + "\n" //
+        + "2a. Type=Exercise\n" //
+        + "2b. Service=Amateur\n" //
+        + "2c. Band=VHF\n" //
+        + "2d. Session=Packet\n" //
+        + "3a. Location=Synthetic Location " + n + "\n" //
+        + "3b. Latitude=" + String.format("%.6f", latitude) + "\n" //
+        + "3c. Longitude=" + String.format("%.6f", longitude) + "\n" //
+        + "4a. Comments=synthetic " + n + "\n";
+  }
+
+  private String escape(String s) {
+    return s.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+  }
+}
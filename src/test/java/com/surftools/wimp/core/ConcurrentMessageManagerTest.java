@@ -0,0 +1,238 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wimp.core;
+
+import static com.surftools.wimp.core.MessageManagerTest.makeMessage;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+import com.surftools.wimp.message.ExportedMessage;
+
+public class ConcurrentMessageManagerTest {
+
+  private static final List<MessageType> TYPES = MessageManagerTest.TYPES;
+
+  /**
+   * same operations must give the same answers as MessageManager
+   */
+  @Test
+  public void test_same_as_MessageManager() {
+    var random = new Random(11);
+    for (var trial = 0; trial < 100; ++trial) {
+      var mm = new MessageManager();
+      var cmm = new ConcurrentMessageManager();
+
+      var typeMap = new HashMap<MessageType, List<ExportedMessage>>();
+      var messageCount = random.nextInt(100);
+      for (var i = 0; i < messageCount; ++i) {
+        var type = TYPES.get(random.nextInt(TYPES.size()));
+        typeMap.computeIfAbsent(type, k -> new ArrayList<>()).add(makeMessage(random, "S" + random.nextInt(10)));
+      }
+      mm.load(typeMap);
+      cmm.load(typeMap);
+
+      for (var step = 0; step < 20; ++step) {
+        var sender = "S" + random.nextInt(12);
+        if (random.nextInt(4) == 0) {
+          mm.removeMessagesForSender(sender);
+          cmm.removeMessagesForSender(sender);
+        } else {
+          var map = cmm.getMessagesForSender(sender);
+          if (map == null) {
+            map = new HashMap<>();
+          }
+          var type = TYPES.get(random.nextInt(TYPES.size()));
+          map.computeIfAbsent(type, k -> new ArrayList<>()).add(makeMessage(random, sender));
+          mm.putMessagesForSender(sender, copy(map));
+          cmm.putMessagesForSender(sender, map);
+        }
+
+        var difference = findDifference(mm, cmm);
+        assertNull("trial: " + trial + ", step: " + step + ", " + difference, difference);
+      }
+    }
+  }
+
+  @Test
+  public void test_snapshots_are_read_only() {
+    var cmm = new ConcurrentMessageManager();
+    var random = new Random(3);
+    var a = makeMessage(random, "A");
+    var b = makeMessage(random, "B");
+    cmm.load(Map.of(MessageType.PLAIN, List.of(a, b)));
+
+    var before = cmm.getMessagesForType(MessageType.PLAIN);
+    try {
+      before.clear();
+      fail("expected UnsupportedOperationException");
+    } catch (UnsupportedOperationException e) {
+      ;
+    }
+
+    // callers may mutate what they get for a sender, without changing the manager
+    cmm.getMessagesForSender("A").get(MessageType.PLAIN).clear();
+    assertEquals(2, cmm.getMessagesForType(MessageType.PLAIN).size());
+
+    cmm.removeMessagesForSender("A");
+    assertEquals(2, before.size());
+    assertEquals(List.of(b), cmm.getMessagesForType(MessageType.PLAIN));
+    assertNull(cmm.getMessagesForSender("A"));
+
+    cmm.putContextObject("key", "value");
+    cmm.putContextObject("key", null);
+    assertNull(cmm.getContextObject("key"));
+  }
+
+  /**
+   * readers running alongside a writer must only ever see complete, sorted lists
+   */
+  @Test
+  public void test_concurrent_readers() throws Exception {
+    var cmm = new ConcurrentMessageManager();
+    var random = new Random(5);
+    var typeMap = new HashMap<MessageType, List<ExportedMessage>>();
+    for (var i = 0; i < 200; ++i) {
+      var type = TYPES.get(random.nextInt(TYPES.size()));
+      typeMap.computeIfAbsent(type, k -> new ArrayList<>()).add(makeMessage(random, "S" + random.nextInt(20)));
+    }
+    cmm.load(typeMap);
+
+    var isDone = new AtomicBoolean(false);
+    var errors = new ConcurrentLinkedQueue<String>();
+    var readers = new ArrayList<Thread>();
+    for (var r = 0; r < 4; ++r) {
+      var reader = new Thread(() -> {
+        try {
+          while (!isDone.get()) {
+            var it = cmm.getMessageTypeIteror();
+            while (it.hasNext()) {
+              var list = cmm.getMessagesForType(it.next());
+              if (list == null) {
+                continue; // removed since we got the iterator
+              }
+              for (var i = 1; i < list.size(); ++i) {
+                if (list.get(i - 1).compareTo(list.get(i)) > 0) {
+                  errors.add("unsorted list");
+                }
+              }
+            }
+            cmm.getSenderIterator().forEachRemaining(s -> cmm.getAllMessagesForSender(s));
+            cmm.getMessagesForRecipient("ETO-01");
+          }
+        } catch (Exception e) {
+          errors.add(e.toString());
+        }
+      });
+      readers.add(reader);
+      reader.start();
+    }
+
+    for (var step = 0; step < 2000; ++step) {
+      var sender = "S" + random.nextInt(25);
+      if (random.nextInt(4) == 0) {
+        cmm.removeMessagesForSender(sender);
+      } else {
+        var map = cmm.getMessagesForSender(sender);
+        if (map == null) {
+          map = new HashMap<>();
+        }
+        var type = TYPES.get(random.nextInt(TYPES.size()));
+        map.computeIfAbsent(type, k -> new ArrayList<>()).add(makeMessage(random, sender));
+        cmm.putMessagesForSender(sender, map);
+      }
+    }
+
+    isDone.set(true);
+    for (var reader : readers) {
+      reader.join();
+    }
+    assertTrue("errors: " + errors, errors.isEmpty());
+  }
+
+  /**
+   * @param expected
+   * @param actual
+   * @return null if the same, otherwise what differs
+   */
+  private String findDifference(IMessageManager expected, IMessageManager actual) {
+    var expectedSenders = new ArrayList<String>();
+    expected.getSenderIterator().forEachRemaining(expectedSenders::add);
+    var actualSenders = new ArrayList<String>();
+    actual.getSenderIterator().forEachRemaining(actualSenders::add);
+    if (!expectedSenders.equals(actualSenders)) {
+      return "senders: " + expectedSenders + " vs " + actualSenders;
+    }
+
+    var expectedTypes = new HashSet<MessageType>();
+    expected.getMessageTypeIteror().forEachRemaining(expectedTypes::add);
+    var actualTypes = new HashSet<MessageType>();
+    actual.getMessageTypeIteror().forEachRemaining(actualTypes::add);
+    if (!expectedTypes.equals(actualTypes)) {
+      return "types: " + expectedTypes + " vs " + actualTypes;
+    }
+
+    for (var type : TYPES) {
+      var e = expected.getMessagesForType(type);
+      var a = actual.getMessagesForType(type);
+      if (e == null || a == null ? e != a : !e.equals(a)) {
+        return "messages for type: " + type;
+      }
+    }
+
+    for (var sender : expectedSenders) {
+      var e = new HashSet<>(expected.getAllMessagesForSender(sender));
+      if (!e.equals(new HashSet<>(actual.getAllMessagesForSender(sender)))) {
+        return "messages for sender: " + sender;
+      }
+    }
+
+    if (!expected.getMessagesForRecipient("ETO-01").equals(actual.getMessagesForRecipient("ETO-01"))) {
+      return "messages for recipient: ETO-01";
+    }
+    return null;
+  }
+
+  private Map<MessageType, List<ExportedMessage>> copy(Map<MessageType, List<ExportedMessage>> map) {
+    var copy = new HashMap<MessageType, List<ExportedMessage>>();
+    map.forEach((k, v) -> copy.put(k, new ArrayList<>(v)));
+    return copy;
+  }
+}
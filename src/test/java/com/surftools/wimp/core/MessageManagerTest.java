@@ -0,0 +1,212 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wimp.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.surftools.utils.location.LatLongPair;
+import com.surftools.wimp.message.ExportedMessage;
+
+public class MessageManagerTest {
+
+  static final List<MessageType> TYPES = List
+      .of(MessageType.PLAIN, MessageType.ACK, MessageType.CHECK_IN, MessageType.ICS_213);
+
+  /**
+   * the incrementally maintained by-type lists must be exactly what rebuilding and re-sorting from scratch gave
+   */
+  @Test
+  public void test_getMessagesForType_same_as_rebuild() {
+    var random = new Random(7);
+    for (var trial = 0; trial < 200; ++trial) {
+      var mm = new MessageManager();
+
+      var typeMap = new HashMap<MessageType, List<ExportedMessage>>();
+      var messageCount = random.nextInt(100);
+      for (var i = 0; i < messageCount; ++i) {
+        var type = TYPES.get(random.nextInt(TYPES.size()));
+        typeMap.computeIfAbsent(type, k -> new ArrayList<>()).add(makeMessage(random, "S" + random.nextInt(10)));
+      }
+      mm.load(typeMap);
+
+      // what rebuildMessageMap() worked from: a copy of every sender's lists
+      var expectedSenderMap = new HashMap<String, Map<MessageType, List<ExportedMessage>>>();
+      for (var entry : typeMap.entrySet()) {
+        for (var message : entry.getValue()) {
+          expectedSenderMap
+              .computeIfAbsent(message.from, k -> new HashMap<>())
+                .computeIfAbsent(entry.getKey(), k -> new ArrayList<>())
+                .add(message);
+        }
+      }
+
+      for (var step = 0; step < 20; ++step) {
+        var sender = "S" + random.nextInt(12);
+        if (random.nextInt(4) == 0) {
+          mm.removeMessagesForSender(sender);
+          expectedSenderMap.remove(sender);
+        } else {
+          // like de-duplication: mutate the sender's map in place, then put it back
+          var map = mm.getMessagesForSender(sender);
+          if (map == null) {
+            map = new HashMap<>();
+          }
+          for (var type : new ArrayList<>(map.keySet())) {
+            var outputList = new ArrayList<>(map.get(type));
+            if (outputList.size() > 0 && random.nextBoolean()) {
+              outputList.remove(random.nextInt(outputList.size()));
+            }
+            map.put(type, outputList);
+          }
+          var type = TYPES.get(random.nextInt(TYPES.size()));
+          var list = new ArrayList<>(map.getOrDefault(type, List.of()));
+          list.add(makeMessage(random, sender));
+          map.put(type, list);
+          mm.putMessagesForSender(sender, map);
+
+          var copy = new HashMap<MessageType, List<ExportedMessage>>();
+          map.forEach((k, v) -> copy.put(k, new ArrayList<>(v)));
+          expectedSenderMap.put(sender, copy);
+        }
+
+        if (random.nextInt(3) > 0) {
+          continue;
+        }
+
+        for (var type : TYPES) {
+          List<ExportedMessage> expected = null;
+          for (var senderMap : expectedSenderMap.values()) {
+            if (senderMap.containsKey(type)) {
+              expected = expected == null ? new ArrayList<>() : expected;
+              expected.addAll(senderMap.get(type));
+            }
+          }
+          if (expected != null) {
+            Collections.sort(expected);
+          }
+
+          assertTrue("by-type mismatch, trial: " + trial + ", step: " + step + ", type: " + type,
+              isSameMessages(expected, mm.getMessagesForType(type)));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void test_published_list_not_modified() {
+    var mm = new MessageManager();
+    var random = new Random(1);
+    var a = makeMessage(random, "A");
+    var b = makeMessage(random, "B");
+    mm.load(Map.of(MessageType.PLAIN, List.of(a, b)));
+
+    var before = mm.getMessagesForType(MessageType.PLAIN);
+    assertEquals(2, before.size());
+
+    mm.removeMessagesForSender("A");
+    assertEquals(2, before.size());
+    assertEquals(1, mm.getMessagesForType(MessageType.PLAIN).size());
+    assertSame(b, mm.getMessagesForType(MessageType.PLAIN).get(0));
+
+    mm.removeMessagesForSender("B");
+    assertNull(mm.getMessagesForType(MessageType.PLAIN));
+    assertEquals(false, mm.getMessageTypeIteror().hasNext());
+  }
+
+  @Test
+  public void test_indexes() {
+    var mm = new MessageManager();
+    var dateTime = LocalDateTime.of(2024, 9, 12, 15, 0);
+    var a = new ExportedMessage("MID1", "A", "A", "ETO-01", "ETO-01,ETO-02", "B", "subject", dateTime,
+        new LatLongPair(47.6, -122.3), null, "", "", new LinkedHashMap<>(), false, "test.xml", null);
+    var b = new ExportedMessage("MID2", "B", "B", "ETO-02", "ETO-02", "", "subject", dateTime.plusHours(1),
+        new LatLongPair(45.5, -122.7), null, "", "", new LinkedHashMap<>(), false, "test.xml", null);
+    mm.load(Map.of(MessageType.PLAIN, List.of(a, b)));
+
+    assertEquals(List.of(a), mm.getMessagesForId("MID1"));
+    assertEquals(0, mm.getMessagesForId("MID3").size());
+
+    assertEquals(List.of(a), mm.getMessagesForRecipient("ETO-01"));
+    assertEquals(List.of(a, b), mm.getMessagesForRecipient("ETO-02"));
+    assertEquals(List.of(a), mm.getMessagesForRecipient("B"));
+    assertEquals(0, mm.getMessagesForRecipient("ETO-03").size());
+
+    assertEquals(List.of(a, b), mm.getMessagesForTimeWindow(null, null));
+    assertEquals(List.of(a), mm.getMessagesForTimeWindow(dateTime, dateTime.plusHours(1)));
+    assertEquals(List.of(b), mm.getMessagesForTimeWindow(dateTime.plusMinutes(1), null));
+
+    // Seattle to Portland is about 145 miles
+    var seattle = new LatLongPair(47.6, -122.3);
+    assertEquals(List.of(a), mm.getMessagesNear(seattle, 100));
+    assertEquals(List.of(a, b), mm.getMessagesNear(seattle, 200));
+
+    mm.removeMessagesForSender("A");
+    assertEquals(0, mm.getMessagesForId("MID1").size());
+    assertEquals(List.of(b), mm.getMessagesForRecipient("ETO-02"));
+    assertEquals(0, mm.getMessagesForRecipient("ETO-01").size());
+    assertEquals(0, mm.getMessagesNear(seattle, 100).size());
+  }
+
+  private boolean isSameMessages(List<ExportedMessage> expected, List<ExportedMessage> actual) {
+    if (expected == null || actual == null) {
+      return expected == actual;
+    }
+
+    if (expected.size() != actual.size()) {
+      return false;
+    }
+
+    for (var i = 0; i < expected.size(); ++i) {
+      if (expected.get(i) != actual.get(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  static ExportedMessage makeMessage(Random random, String from) {
+    var messageId = "MID" + random.nextInt(1000);
+    var dateTime = LocalDateTime.of(2024, 9, 12, 15, random.nextInt(5));
+    return new ExportedMessage(messageId, from, from, "ETO-01", "ETO-01", "", "subject", dateTime, null, null, "", "",
+        new LinkedHashMap<>(), false, "test.xml", null);
+  }
+}
@@ -0,0 +1,150 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wimp.message;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class ExportedMessageCompactTest {
+
+  private static final String MIME = "Subject: test\nFrom: UNIT_TEST\n\nbody";
+  private static final List<String> LINES = List.of("<xml>", "  <id>MID</id>", "</xml>");
+
+  private ExportedMessage makeMessage() {
+    var attachments = new LinkedHashMap<String, byte[]>();
+    attachments.put("FormData.txt", "MapFileName=ICS213_Initial_Viewer.html\n".getBytes());
+    attachments.put("photo.jpg", new byte[] { 1, 2, 3, 4, 5 });
+    return makeMessage("MID", attachments);
+  }
+
+  private ExportedMessage makeMessage(String messageId, Map<String, byte[]> attachments) {
+    return new ExportedMessage(messageId, "UNIT_TEST", "UNIT_TEST", "ETO-01", "ETO-01", "", "subject",
+        LocalDateTime.of(2026, 1, 2, 3, 4), null, null, MIME, "plain", attachments, false, "test.xml", LINES);
+  }
+
+  @Test
+  public void test_compact_rereads_same_content() throws Exception {
+    var message = makeMessage();
+    var copy = new ExportedMessage(message);
+    var mimeLines = message.getMimeLines();
+
+    try (var spool = new MessageSpool(Files.createTempDirectory("wimp-spool-test"))) {
+      message.compact(spool);
+      assertTrue(spool.size() > 0);
+
+      // copies share raw content, so are compacted too
+      for (var m : List.of(message, copy)) {
+        assertEquals(MIME, m.getMime());
+        assertEquals(LINES, m.getLines());
+        assertArrayEquals(mimeLines, m.getMimeLines());
+        assertEquals(List.of("FormData.txt", "photo.jpg"), new ArrayList<>(m.attachments.keySet()));
+        assertArrayEquals(new byte[] { 1, 2, 3, 4, 5 }, m.attachments.get("photo.jpg"));
+        assertTrue(((AttachmentMap) m.attachments).isSpilled());
+      }
+
+      // compacting again writes nothing
+      var size = spool.size();
+      copy.compact(spool);
+      assertEquals(size, spool.size());
+    }
+  }
+
+  @Test
+  public void test_serialize_compacted() throws Exception {
+    var message = makeMessage();
+    ExportedMessage restored;
+
+    try (var spool = new MessageSpool(Files.createTempDirectory("wimp-spool-test"))) {
+      message.compact(spool);
+      var byteStream = new ByteArrayOutputStream();
+      try (var out = new ObjectOutputStream(byteStream)) {
+        out.writeObject(message);
+      }
+      try (var in = new ObjectInputStream(new ByteArrayInputStream(byteStream.toByteArray()))) {
+        restored = (ExportedMessage) in.readObject();
+      }
+    }
+
+    // spool is gone, but content was serialized in full
+    assertEquals(MIME, restored.getMime());
+    assertEquals(LINES, restored.getLines());
+    assertArrayEquals(new byte[] { 1, 2, 3, 4, 5 }, restored.attachments.get("photo.jpg"));
+    assertFalse(((AttachmentMap) restored.attachments).isSpilled());
+  }
+
+  @Test
+  public void test_shared_attachment_handles() throws Exception {
+    // big enough to be memory-mapped
+    var photo = new byte[MessageSpool.MAP_THRESHOLD * 2];
+    for (var i = 0; i < photo.length; ++i) {
+      photo[i] = (byte) i;
+    }
+
+    var first = makeMessage("MID1", Map.of("photo.jpg", photo));
+    var second = makeMessage("MID2", Map.of("forwarded.jpg", photo.clone()));
+
+    try (var spool = new MessageSpool(Files.createTempDirectory("wimp-spool-test"))) {
+      first.compact(spool);
+      var size = spool.size();
+      second.compact(spool);
+
+      // identical attachment is only spooled once; second message only adds its mime and lines
+      assertEquals(photo.length, spool.getSharedBytesSaved());
+      assertTrue(spool.size() - size < photo.length);
+
+      var handle = second.getAttachmentHandle("forwarded.jpg");
+      assertEquals(0, handle.getIndex());
+      assertEquals(photo.length, handle.getLength());
+      assertTrue(handle.contentEquals(photo));
+      assertEquals(ByteBuffer.wrap(photo), handle.getByteBuffer());
+      assertArrayEquals(photo, handle.getInputStream().readAllBytes());
+      assertArrayEquals(photo, first.getAttachmentHandles().get(0).getBytes());
+
+      var path = Files.createTempFile("wimp-spool-test", ".jpg");
+      handle.writeTo(path);
+      assertArrayEquals(photo, Files.readAllBytes(path));
+      Files.delete(path);
+    }
+  }
+}
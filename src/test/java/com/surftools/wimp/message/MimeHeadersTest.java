@@ -0,0 +1,97 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wimp.message;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+
+public class MimeHeadersTest {
+
+  static final String MIME = String.join("\n", //
+      "Date: Thu, 12 Sep 2024 15:31:00 +0000", //
+      "From: KM6SO@winlink.org", //
+      "Subject: ETO Winlink Thursday", //
+      "To: ETO-01@winlink.org,", //
+      " ETO-02@winlink.org,", //
+      "\tKM6SO@winlink.org", //
+      "Message-ID: 5WBHJRFQ2LQ3", //
+      "X-Source: KM6SO", //
+      "X-Location: 37.717500N, 122.412500W (GRID SQUARE)", //
+      "MIME-Version: 1.0", //
+      "Content-Type: text/plain; charset=\"iso-8859-1\"", //
+      "", //
+      "To: not a header", //
+      "body");
+
+  @Test
+  public void test_empty() {
+    assertSame(MimeHeaders.EMPTY, MimeHeaders.parse(null));
+    assertSame(MimeHeaders.EMPTY, MimeHeaders.parse(""));
+    assertNull(MimeHeaders.EMPTY.getFirst("To"));
+    assertEquals(List.of(), MimeHeaders.EMPTY.getLines("To"));
+  }
+
+  @Test
+  public void test_values() {
+    var headers = MimeHeaders.parse(MIME);
+    assertEquals("5WBHJRFQ2LQ3", headers.getFirst("Message-ID"));
+    assertEquals("5WBHJRFQ2LQ3", headers.getFirst("message-id"));
+    assertEquals("37.717500N, 122.412500W (GRID SQUARE)", headers.getFirst("X-Location"));
+    assertTrue(headers.contains("x-source"));
+    assertFalse(headers.contains("Cc"));
+    assertEquals(List.of(), headers.getValues("Cc"));
+
+    // unfolded
+    assertEquals(List.of("ETO-01@winlink.org, ETO-02@winlink.org, KM6SO@winlink.org"), headers.getValues("To"));
+  }
+
+  @Test
+  public void test_lines() {
+    var headers = MimeHeaders.parse(MIME);
+
+    // physical lines, including continuations, but nothing from the body
+    assertEquals(List.of("To: ETO-01@winlink.org,", " ETO-02@winlink.org,", "\tKM6SO@winlink.org"),
+        headers.getLines("To"));
+    assertEquals(List.of("Subject: ETO Winlink Thursday"), headers.getLines("subject"));
+  }
+
+  @Test
+  public void test_repeated() {
+    var headers = MimeHeaders.parse("Received: one\nReceived: two\nno colon here\nCc: ETO-01\n\nbody");
+    assertEquals(List.of("one", "two"), headers.getValues("Received"));
+    assertEquals("one", headers.getFirst("Received"));
+    assertEquals("ETO-01", headers.getFirst("Cc"));
+  }
+}
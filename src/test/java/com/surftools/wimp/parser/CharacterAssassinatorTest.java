@@ -0,0 +1,83 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2025, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wimp.parser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class CharacterAssassinatorTest {
+
+  @Test
+  public void test_same_as_replaceAll() {
+    var assassinator = new CharacterAssassinator(List.of("&#21"), Map.of("&#22", "_", "é", "e"));
+    var random = new Random(1L);
+    var alphabet = "&#212xé<>";
+    for (var i = 0; i < 2000; ++i) {
+      var sb = new StringBuilder();
+      var n = random.nextInt(40);
+      for (var j = 0; j < n; ++j) {
+        sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+      }
+      var s = sb.toString();
+      var expected = s.replaceAll("&#21", "").replaceAll("&#22", "_").replaceAll("é", "e");
+      // single pass doesn't re-scan the output, so skip inputs where a deletion creates a new match
+      if (!expected.contains("&#2")) {
+        assertEquals(s, expected, assassinator.assassinate(s));
+      }
+    }
+  }
+
+  @Test
+  public void test_overlapping_patterns() {
+    // the match that ends first wins
+    var assassinator = new CharacterAssassinator(List.of("bcd", "abcde", "c"), null);
+    assertEquals("abdede", assassinator.assassinate("abcdede"));
+    assertEquals("xx", assassinator.assassinate("xcx"));
+  }
+
+  @Test
+  public void test_no_match_returns_input() {
+    var assassinator = new CharacterAssassinator(List.of("&#21"), null);
+    var s = "<message>no match &#20</message>";
+    assertSame(s, assassinator.assassinate(s));
+    assertEquals("", assassinator.assassinate("&#21&#21"));
+  }
+
+  @Test
+  public void test_trimToFirstTag() {
+    for (var s : List.of("  <?xml?>", "﻿<?xml?>", "-- < <a>", "<a>", "x <a>", "  ", "\n\t>&<b>c")) {
+      assertEquals(s, s.trim().replaceFirst("^([\\W]+)<", "<"), AbstractBaseParser.trimToFirstTag(s));
+    }
+  }
+}
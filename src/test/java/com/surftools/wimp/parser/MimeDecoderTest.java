@@ -0,0 +1,156 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2025, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wimp.parser;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+import com.surftools.wimp.benchmark.SyntheticExportGenerator;
+
+public class MimeDecoderTest {
+
+  /**
+   * MimeDecoder must agree with javax.mail, or decline
+   *
+   * @param mime
+   */
+  private void assertSameAsJavaMail(String mime) {
+    var decoded = MimeDecoder.decode(mime);
+    assertNotNull(decoded);
+
+    var parser = AbstractBaseParser.makeMimeMessageParser("test", mime);
+    var attachments = AbstractBaseParser.getAttachments(parser);
+    assertEquals(parser.getPlainContent(), decoded.plainContent());
+    assertEquals(attachments.keySet().stream().toList(), decoded.attachments().keySet().stream().toList());
+    for (var name : attachments.keySet()) {
+      assertArrayEquals(attachments.get(name), decoded.attachments().get(name));
+    }
+  }
+
+  @Test
+  public void test_synthetic_messages() {
+    var generator = new SyntheticExportGenerator(1L);
+    for (var i = 1; i <= 30; ++i) {
+      var xml = generator.makeMessage(i);
+      var mime = xml.substring(xml.indexOf("<mime>") + 6, xml.indexOf("</mime>"));
+      mime = mime.replace("&lt;", "<").replace("&gt;", ">").replace("&amp;", "&");
+      assertSameAsJavaMail(mime);
+    }
+  }
+
+  @Test
+  public void test_quoted_printable() {
+    var mime = """
+        Subject: test
+        Content-Type: text/plain; charset=utf-8
+        Content-Transfer-Encoding: quoted-printable
+
+        trailing spaces are dropped  \n\
+        soft =
+        line break, =3D and =C3=A9
+        """;
+    assertSameAsJavaMail(mime);
+  }
+
+  @Test
+  public void test_multipart() {
+    var mime = """
+        Subject: test
+        Content-Type: multipart/mixed;
+        \tboundary="outer"
+
+        preamble
+        --outer
+        Content-Type: multipart/alternative; boundary=inner
+
+        --inner
+        Content-Type: text/plain
+
+        the plain content
+        --inner
+        Content-Type: text/html
+
+        <b>ignored</b>
+        --inner--
+
+        --outer
+        Content-Type: text/plain; name="second.txt"
+
+        second text/plain is an attachment
+        --outer
+        Content-Type: application/octet-stream
+        Content-Disposition: attachment; filename=hello.txt
+        Content-Transfer-Encoding: base64
+
+        aGVsbG8=
+        --outer
+        Content-Type: image/png
+
+        unnamed
+        --outer--
+        epilogue
+        """;
+    assertSameAsJavaMail(mime);
+    assertEquals(3, MimeDecoder.decode(mime).attachments().size());
+  }
+
+  @Test
+  public void test_fallback() {
+    // encoded-word attachment names
+    assertNull(MimeDecoder.decode("""
+        Subject: test
+        Content-Type: multipart/mixed; boundary=b
+
+        --b
+        Content-Type: application/pdf; name="=?utf-8?Q?x.pdf?="
+
+        x
+        --b--
+        """));
+
+    // ETO_2024_09_19 hack
+    assertNull(MimeDecoder.decode("""
+        Subject: test
+        Content-Type: multipart/mixed; boundary=b
+
+        --b
+        Content-Disposition: attachment; name=""ETO Welfare Message Exercise".pdf"
+        Content-Transfer-Encoding: base64
+
+        aGVsbG8=
+        --b--
+        """));
+
+    // missing boundary
+    assertNull(MimeDecoder.decode("Subject: test\nContent-Type: multipart/mixed\n\nno boundary\n"));
+  }
+}
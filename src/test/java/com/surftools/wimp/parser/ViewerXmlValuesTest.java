@@ -0,0 +1,99 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2025, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wimp.parser;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.StringReader;
+import java.util.List;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.junit.Test;
+import org.w3c.dom.Document;
+
+import com.surftools.utils.XmlParsers;
+
+public class ViewerXmlValuesTest {
+
+  private static final List<String> TAGS = List
+      .of("RMS_Express_Form", "form_parameters", "xml_file_version", "variables", "maplat", "maplon", "msg", "a", "b",
+          "c", "d", "e", "f", "g", "h", "i", "j", "k", "l", "p:m", "m", "n", "missing");
+
+  private String getFromDocument(Document document, String tagName) {
+    var list = document.getElementsByTagName(tagName);
+    if (list.getLength() == 0) {
+      return null;
+    }
+    var subList = list.item(0).getChildNodes();
+    return subList.getLength() > 0 ? subList.item(0).getNodeValue() : null;
+  }
+
+  /**
+   * ViewerXmlValues must agree with the (normalized) DOM, for every tag
+   *
+   * @param xmlString
+   * @throws Exception
+   */
+  private void assertSameAsDom(String xmlString) throws Exception {
+    var document = XmlParsers.parse(new StringReader(xmlString));
+    var values = ViewerXmlValues.parse(xmlString);
+    for (var tag : TAGS) {
+      assertEquals(tag, getFromDocument(document, tag), values.get(tag));
+    }
+  }
+
+  @Test
+  public void test_rms_viewer() throws Exception {
+    assertSameAsDom("""
+        <?xml version="1.0"?>
+        <RMS_Express_Form>
+          <form_parameters>
+            <xml_file_version>1.0</xml_file_version>
+          </form_parameters>
+          <variables>
+            <maplat>47.5</maplat>
+            <maplon></maplon>
+            <msg>line 1\r\nline 2 &amp; more</msg>
+          </variables>
+        </RMS_Express_Form>
+        """);
+  }
+
+  @Test
+  public void test_first_occurrence_and_node_types() throws Exception {
+    assertSameAsDom("<r><a>x</a><b> y &amp; z </b><a>2</a><c/><d><e>q</e></d><f><![CDATA[cd]]>t</f>"
+        + "<g>t<![CDATA[cd]]></g><h><!--cm-->v</h><i>a<!--c-->b</i><j>\n  <k>1</k></j><l>&#65;&#x42;c</l>"
+        + "<p:m>ns</p:m><n><?pi data?></n></r>");
+  }
+
+  @Test(expected = XMLStreamException.class)
+  public void test_malformed() throws Exception {
+    ViewerXmlValues.parse("<a><b></a>");
+  }
+}
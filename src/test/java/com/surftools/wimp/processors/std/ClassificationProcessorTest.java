@@ -2,9 +2,26 @@ package com.surftools.wimp.processors.std;
 
 import static org.junit.Assert.assertEquals;
 
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.junit.Test;
 
+import com.surftools.wimp.configuration.Key;
+import com.surftools.wimp.core.MessageManager;
+import com.surftools.wimp.core.MessageType;
+import com.surftools.wimp.core.SubjectPredicate;
+import com.surftools.wimp.message.ExportedMessage;
+import com.surftools.wimp.parser.PdfIcs309Parser;
+import com.surftools.wimp.utils.config.impl.MemoryConfigurationManager;
+
 public class ClassificationProcessorTest {
+  // unique messageIds, so that cached attachments can't be shared between messages
+  private int messageCount = 0;
 
   @Test
   public void test_makeParserName() {
@@ -28,4 +45,148 @@ public class ClassificationProcessorTest {
     assertEquals("ParserName mismatchs (" + mismatchCount + ")", 0, mismatchCount);
   }
 
+  /**
+   * the dispatch index must classify exactly as looping over MessageType.values() did
+   *
+   * @throws Exception
+   */
+  @Test
+  public void test_findMessageType_same_as_loops() throws Exception {
+    var cm = new MemoryConfigurationManager(Key.values());
+    cm.putString(Key.PATH_EXERCISES, "!!" + Files.createTempDirectory("wimp-classification-test").toString());
+    cm.putString(Key.EXERCISE_DATE, "2024-09-12");
+    var processor = new ClassifierProcessor();
+    processor.initialize(cm, new MessageManager());
+
+    var attachmentNames = new ArrayList<String>(List.of("FormData.txt", "foo.pdf", "RMS_Express_Form_", ""));
+    var subjects = new ArrayList<String>(List.of("", "Hello", "I Am Safe Message From X - DO NOT REPLY!",
+        "I Am Safe Message From X", "MIRO Check In", "MIRO Check In extra", "re: qtc 1 w", "rE: QtC 1 TEST W",
+        "re: qtc 1 \u1E98", "QTC 1 w", "Position Report", "Position Report 2"));
+    for (var type : MessageType.values()) {
+      var name = type.rmsViewerName();
+      if (name != null) {
+        attachmentNames.addAll(List.of(name, name + " x", name.substring(0, name.length() - 1), name.toLowerCase()));
+      }
+      if (type.getSubjectPredicate() instanceof SubjectPredicate predicate) {
+        var prefixes = new ArrayList<String>(predicate.getPrefixes());
+        prefixes.addAll(predicate.getUpperCasePrefixes());
+        for (var prefix : prefixes) {
+          subjects.addAll(List.of(prefix, prefix + " tail", prefix.substring(0, prefix.length() - 1),
+              prefix.toLowerCase(), prefix.toUpperCase(), "Re: " + prefix));
+        }
+      }
+    }
+
+    var messages = new ArrayList<ExportedMessage>();
+    for (var subject : subjects) {
+      messages.add(makeMessage(subject, null));
+      for (var i = 0; i < attachmentNames.size(); ++i) {
+        var attachments = new LinkedHashMap<String, byte[]>();
+        attachments.put(attachmentNames.get(i), "not a pdf".getBytes());
+        attachments.put(attachmentNames.get((i * 7 + 3) % attachmentNames.size()), "%PDF".getBytes());
+        messages.add(makeMessage(subject, attachments));
+      }
+    }
+    for (var type : MessageType.values()) {
+      if (type.formDataName() != null) {
+        for (var mapFileName : List.of(type.formDataName(), type.formDataName() + "x")) {
+          var attachments = new LinkedHashMap<String, byte[]>();
+          attachments.put("FormData.txt", ("*** FormData ***\nMapFileName=" + mapFileName + "\n").getBytes());
+          messages.add(makeMessage("Hello", attachments));
+          messages.add(makeMessage("ACK: Hello", attachments));
+        }
+      }
+    }
+
+    var mismatchCount = 0;
+    var firstMismatch = "";
+    for (var message : messages) {
+      var expected = findMessageTypeByLoops(message);
+      var actual = processor.findMessageType(message);
+      if (expected != actual) {
+        if (mismatchCount++ == 0) {
+          firstMismatch = ", first: messageId: " + message.messageId + ", subject: " + message.subject
+              + ", attachments: " + message.attachments.keySet() + ", expected: " + expected + ", actual: " + actual;
+        }
+      }
+    }
+    assertEquals("classification mismatches (" + mismatchCount + ")" + firstMismatch, 0, mismatchCount);
+  }
+
+  /**
+   * messages are classified by their own attachments, even when sender and messageId are the same as another's
+   *
+   * @throws Exception
+   */
+  @Test
+  public void test_findMessageType_same_messageId() throws Exception {
+    var cm = new MemoryConfigurationManager(Key.values());
+    cm.putString(Key.PATH_EXERCISES, "!!" + Files.createTempDirectory("wimp-classification-test").toString());
+    cm.putString(Key.EXERCISE_DATE, "2024-09-12");
+    var mm = new MessageManager();
+    var processor = new ClassifierProcessor();
+    processor.initialize(cm, mm);
+    var secondaryProcessor = new ClassifierProcessor(mm);
+
+    var types = new ArrayList<MessageType>();
+    for (var type : MessageType.values()) {
+      if (type.formDataName() != null) {
+        types.add(type);
+      }
+    }
+
+    for (var classifier : List.of(processor, secondaryProcessor)) {
+      for (var type : types) {
+        var attachments = new LinkedHashMap<String, byte[]>();
+        attachments.put("FormData.txt", ("*** FormData ***\nMapFileName=" + type.formDataName() + "\n").getBytes());
+        var message = new ExportedMessage("MID", "UNIT_TEST", "UNIT_TEST", "ETO-01", "ETO-01", "", "Hello",
+            LocalDateTime.now(), null, null, "", "", attachments, false, "test.xml", null);
+        assertEquals("type for MapFileName: " + type.formDataName(), findMessageTypeByLoops(message),
+            classifier.findMessageType(message));
+      }
+    }
+  }
+
+  private ExportedMessage makeMessage(String subject, Map<String, byte[]> attachments) {
+    var messageId = "MID" + (++messageCount);
+    return new ExportedMessage(messageId, "UNIT_TEST", "UNIT_TEST", "ETO-01", "ETO-01", "", subject,
+        LocalDateTime.now(), null, null, "", "", attachments == null ? new LinkedHashMap<>() : attachments, false,
+        "test.xml", null);
+  }
+
+  /**
+   * classification, the way it was done before the dispatch index
+   *
+   * @param message
+   * @return
+   */
+  private MessageType findMessageTypeByLoops(ExportedMessage message) {
+    var attachments = message.attachments;
+    for (var attachmentName : attachments.keySet()) {
+      for (var type : MessageType.values()) {
+        if (attachmentName != null && type.rmsViewerName() != null && attachmentName.startsWith(type.rmsViewerName())) {
+          return type;
+        }
+      }
+    }
+
+    var formData = attachments.get("FormData.txt");
+    if (formData != null && new String(formData).contains("MapFileName=")) {
+      var mapFileName = new String(formData).split("MapFileName=")[1].split("\n")[0].strip();
+      for (var type : MessageType.values()) {
+        if (type.formDataName() != null && type.formDataName().equals(mapFileName)) {
+          return type;
+        }
+      }
+    }
+
+    for (var type : MessageType.values()) {
+      if (type.testSubject(message.subject)) {
+        return type;
+      }
+    }
+
+    return PdfIcs309Parser.isPdfIcs309(message) ? MessageType.PDF_ICS_309 : MessageType.PLAIN;
+  }
+
 }
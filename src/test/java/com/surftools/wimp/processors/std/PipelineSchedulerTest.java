@@ -0,0 +1,182 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wimp.processors.std;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.surftools.wimp.core.IMessageManager;
+import com.surftools.wimp.core.IProcessor;
+import com.surftools.wimp.core.MessageType;
+import com.surftools.wimp.core.ProcessorResources;
+import com.surftools.wimp.utils.config.IConfigurationManager;
+
+public class PipelineSchedulerTest {
+
+  static class TestProcessor implements IProcessor {
+    private final String name;
+    private final ProcessorResources resources;
+    private final Runnable runnable;
+
+    TestProcessor(String name, ProcessorResources resources, Runnable runnable) {
+      this.name = name;
+      this.resources = resources;
+      this.runnable = runnable;
+    }
+
+    @Override
+    public void initialize(IConfigurationManager cm, IMessageManager mm) {
+    }
+
+    @Override
+    public void process() {
+      runnable.run();
+    }
+
+    @Override
+    public void postProcess() {
+    }
+
+    @Override
+    public String getName() {
+      return name;
+    }
+
+    @Override
+    public ProcessorResources getResources() {
+      return resources;
+    }
+  }
+
+  private static ProcessorResources reads(String... names) {
+    return new ProcessorResources(Set.of(names), Set.of());
+  }
+
+  private static ProcessorResources writes(String... names) {
+    return new ProcessorResources(Set.of(), Set.of(names));
+  }
+
+  @Test
+  public void test_predecessors() {
+    var all = ProcessorResources.ALL_MESSAGE_TYPES;
+    var ics213 = ProcessorResources.messageType(MessageType.ICS_213);
+    var processors = List
+        .<IProcessor>of( //
+            new TestProcessor("Read", null, () -> {
+            }), // 0: undeclared
+            new TestProcessor("Write", reads(all), () -> {
+            }), // 1
+            new TestProcessor("Summary", reads(all), () -> {
+            }), // 2
+            new TestProcessor("Fixer", writes(ics213), () -> {
+            }), // 3: must wait for readers of all types
+            new TestProcessor("Database", writes(ProcessorResources.file("database/*")), () -> {
+            }), // 4
+            new TestProcessor("History", writes(ProcessorResources.file("database/history.csv")), () -> {
+            }), // 5: must wait for Database
+            new TestProcessor("Cleanup", null, () -> {
+            })); // 6: undeclared
+
+    var predecessors = new PipelineScheduler(processors, 4).getPredecessors();
+    assertEquals(List.of(), predecessors.get(0));
+    assertEquals(List.of(0), predecessors.get(1));
+    assertEquals(List.of(0), predecessors.get(2));
+    assertEquals(List.of(0, 1, 2), predecessors.get(3));
+    assertEquals(List.of(0), predecessors.get(4));
+    assertEquals(List.of(0, 4), predecessors.get(5));
+    assertEquals(List.of(0, 1, 2, 3, 4, 5), predecessors.get(6));
+  }
+
+  /**
+   * independent processors must overlap, and everything must still finish before the undeclared processor runs
+   */
+  @Test
+  public void test_run_concurrently() {
+    var latch = new CountDownLatch(2);
+    var order = Collections.synchronizedList(new ArrayList<String>());
+    Runnable meet = () -> {
+      latch.countDown();
+      try {
+        // would time out if the two weren't running at the same time
+        order.add(latch.await(10, TimeUnit.SECONDS) ? "met" : "timeout");
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    };
+
+    var processors = List
+        .<IProcessor>of( //
+            new TestProcessor("A", reads(ProcessorResources.ALL_MESSAGE_TYPES), meet), //
+            new TestProcessor("B", reads(ProcessorResources.ORIGINAL_MESSAGES), meet), //
+            new TestProcessor("C", null, () -> order.add("last")));
+
+    new PipelineScheduler(processors, 2).run(p -> p.process());
+    assertEquals(List.of("met", "met", "last"), order);
+  }
+
+  @Test
+  public void test_run_serially() {
+    var order = Collections.synchronizedList(new ArrayList<String>());
+    var processors = new ArrayList<IProcessor>();
+    for (var i = 0; i < 10; ++i) {
+      var name = String.valueOf(i);
+      processors.add(new TestProcessor(name, writes(ProcessorResources.context("x")), () -> order.add(name)));
+    }
+
+    new PipelineScheduler(processors, 4).run(p -> p.process());
+    assertEquals(List.of("0", "1", "2", "3", "4", "5", "6", "7", "8", "9"), order);
+  }
+
+  @Test
+  public void test_exception_propagates() {
+    var processors = List
+        .<IProcessor>of( //
+            new TestProcessor("A", reads("a"), () -> {
+              throw new IllegalStateException("boom");
+            }), //
+            new TestProcessor("B", reads("b"), () -> {
+            }));
+
+    var message = "";
+    try {
+      new PipelineScheduler(processors, 2).run(p -> p.process());
+    } catch (IllegalStateException e) {
+      message = e.getMessage();
+    }
+    assertTrue(message.equals("boom"));
+  }
+}
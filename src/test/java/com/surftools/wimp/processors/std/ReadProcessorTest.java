@@ -0,0 +1,410 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wimp.processors.std;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.Test;
+
+import com.surftools.utils.CodeFingerprint;
+import com.surftools.wimp.benchmark.SyntheticExportGenerator;
+import com.surftools.wimp.configuration.Key;
+import com.surftools.wimp.core.MessageManager;
+import com.surftools.wimp.message.ExportedMessage;
+import com.surftools.wimp.message.MimeHeaders;
+import com.surftools.wimp.service.ingestIndex.IngestIndexService;
+import com.surftools.wimp.utils.config.impl.MemoryConfigurationManager;
+
+public class ReadProcessorTest {
+
+  private ReadProcessor makeReadProcessor(Path exercisePath) {
+    return makeReadProcessor(exercisePath, Map.of());
+  }
+
+  private ReadProcessor makeReadProcessor(Path exercisePath, Map<Key, String> settings) {
+    var cm = new MemoryConfigurationManager(Key.values());
+    cm.putString(Key.PATH_EXERCISES, "!!" + exercisePath.toString());
+    cm.putString(Key.EXERCISE_DATE, "2024-09-12");
+    cm.putString(Key.EXPECTED_DESTINATIONS, "ETO-01");
+    settings.forEach((key, value) -> cm.putString(key, value));
+    var readProcessor = new ReadProcessor();
+    readProcessor.initialize(cm, new MessageManager());
+    return readProcessor;
+  }
+
+  /**
+   * what Winlink Express exports that the synthetic generator doesn't: a &#21 (not legal XML), a CDATA section and
+   * elements we don't know about, with and without children
+   */
+  static final String FIXTURE = String.join("\n", //
+      "<?xml version=\"1.0\"?>", //
+      "<Winlink_Express_message_export>", //
+      "  <export_parameters>", //
+      "    <xml_file_version>1.0</xml_file_version>", //
+      "  </export_parameters>", //
+      "  <message_list>", //
+      "    <message>", //
+      "      <id>FIXTURE00001</id>", //
+      "      <foldertype>Fixed</foldertype>", //
+      "      <folder>InBox</folder>", //
+      "      <subject>Control &#21; character &amp; entity</subject>", //
+      "      <time>2024/09/12 15:30</time>", //
+      "      <sender>KM6SO</sender>", //
+      "      <unknown_element attribute=\"value\"><nested>nested text</nested> tail</unknown_element>", //
+      "      <location>37.717500N, 122.412500W (GPS)</location>", //
+      "      <peertopeer>False</peertopeer>", //
+      "      <source>KM6SO</source>", //
+      "      <mime>Date: Thu, 12 Sep 2024 15:30:00 +0000", //
+      "From: KM6SO@winlink.org", //
+      "Subject: Control &#21; character &amp; entity", //
+      "To: ETO-01@winlink.org", //
+      "Message-ID: FIXTURE00001", //
+      "X-Source: KM6SO", //
+      "MIME-Version: 1.0", //
+      "Content-Type: text/plain; charset=\"iso-8859-1\"", //
+      "Content-Transfer-Encoding: quoted-printable", //
+      "", //
+      "line with &lt;angle brackets&gt; and a &#21; control", //
+      "</mime>", //
+      "    </message>", //
+      "    <message>", //
+      "      <id>FIXTURE00002</id>", //
+      "      <subject>CDATA mime</subject>", //
+      "      <time>2024/09/12 16:45</time>", //
+      "      <sender>KM6SO</sender>", //
+      "      <empty_unknown/>", //
+      "      <peertopeer>True</peertopeer>", //
+      "      <source>KM6SO</source>", //
+      "      <mime><![CDATA[Date: Thu, 12 Sep 2024 16:45:00 +0000", //
+      "From: KM6SO@winlink.org", //
+      "Subject: CDATA mime", //
+      "To: ETO-02@winlink.org,", //
+      " ETO-01@winlink.org", //
+      "Cc: KM6SO@winlink.org", //
+      "Message-ID: FIXTURE00002", //
+      "X-Source: KM6SO", //
+      "X-Location: 37.717500N, 122.412500W (GRID SQUARE)", //
+      "MIME-Version: 1.0", //
+      "Content-Type: text/plain; charset=\"iso-8859-1\"", //
+      "", //
+      "raw <angle brackets> & ampersand, not escaped", //
+      "]]></mime>", //
+      "    </message>", //
+      "  </message_list>", //
+      "</Winlink_Express_message_export>", //
+      "");
+
+  /**
+   * the streaming (StAX) read must produce exactly what the DOM read does
+   *
+   * @throws Exception
+   */
+  @Test
+  public void test_streaming_same_as_dom() throws Exception {
+    var exercisePath = Files.createTempDirectory("wimp-read-test");
+    var inputPath = Path.of(exercisePath.toString(), "input");
+    var filePaths = new ArrayList<>(new SyntheticExportGenerator(1L).generate(inputPath, 2, 25));
+    filePaths.add(Files.writeString(Path.of(inputPath.toString(), "fixture.xml"), FIXTURE));
+
+    var dom = makeReadProcessor(exercisePath, Map.of(Key.READ_STREAMING_ENABLED, "false")).readAll(filePaths, 1);
+    var stax = makeReadProcessor(exercisePath, Map.of(Key.READ_STREAMING_ENABLED, "true")).readAll(filePaths, 1);
+
+    assertEquals(52, dom.size());
+    assertEquals("FIXTURE00002", dom.get(51).messageId);
+    assertTrue(dom.get(50).subject.startsWith("Control"));
+    assertTrue(dom.get(51).getMime().contains("raw <angle brackets> & ampersand"));
+    assertSameMessages(dom, stax);
+  }
+
+  /**
+   * the destination filter sees the same MIME headers that readMessage() then uses, streaming or not
+   *
+   * @throws Exception
+   */
+  @Test
+  public void test_destination_filter() throws Exception {
+    var exercisePath = Files.createTempDirectory("wimp-read-test");
+    var filePaths = new SyntheticExportGenerator(1L).generate(Path.of(exercisePath.toString(), "input"), 1, 30);
+
+    for (var isStreaming : List.of("false", "true")) {
+      var messages = makeReadProcessor(exercisePath,
+          Map.of(Key.READ_FILTER_DESTINATIONS_ENABLED, "true", Key.READ_STREAMING_ENABLED, isStreaming))
+            .readAll(filePaths, 1);
+
+      // synthetic messages go to ETO-01, ETO-02 and ETO-03 in turn
+      assertEquals(10, messages.size());
+      for (var m : messages) {
+        assertEquals("ETO-01", m.to);
+        assertEquals(m.getMimeHeaders().getLines("To"), MimeHeaders.parse(m.getMime()).getLines("To"));
+      }
+    }
+  }
+
+  /**
+   * results are in the order of the files, and of the entries of a .zip, regardless of parallelism
+   *
+   * @throws Exception
+   */
+  @Test
+  public void test_parallel_same_as_serial() throws Exception {
+    var exercisePath = Files.createTempDirectory("wimp-read-test");
+    var inputPath = Path.of(exercisePath.toString(), "input");
+    var generator = new SyntheticExportGenerator(1L);
+    var filePaths = new ArrayList<>(generator.generate(inputPath, 6, 15));
+
+    // entries written out of name order, one in a sub-directory, and one that isn't an export
+    var entryPaths = generator.generate(Path.of(exercisePath.toString(), "entries"), 4, 10);
+    var zipPath = Path.of(inputPath.toString(), "zz-export.zip");
+    try (var zipOutputStream = new ZipOutputStream(Files.newOutputStream(zipPath))) {
+      for (var i = entryPaths.size() - 1; i >= 0; --i) {
+        var entryName = (i == 2 ? "sub/" : "") + entryPaths.get(i).getFileName().toString();
+        zipOutputStream.putNextEntry(new ZipEntry(entryName));
+        zipOutputStream.write(Files.readAllBytes(entryPaths.get(i)));
+        zipOutputStream.closeEntry();
+      }
+      zipOutputStream.putNextEntry(new ZipEntry("readme.txt"));
+      zipOutputStream.write("not an export".getBytes());
+      zipOutputStream.closeEntry();
+    }
+    filePaths.add(zipPath);
+
+    var serial = makeReadProcessor(exercisePath, Map.of(Key.READ_PARALLELISM, "1")).readAll(filePaths, 1);
+    var parallel = makeReadProcessor(exercisePath, Map.of(Key.READ_PARALLELISM, "4")).readAll(filePaths, 4);
+
+    assertEquals(130, serial.size());
+    // entry name order, by full name: sub/synthetic-002.xml sorts first
+    var zipMessages = serial.subList(90, 130);
+    assertEquals(List.of("synthetic-002.xml", "synthetic-000.xml", "synthetic-001.xml", "synthetic-003.xml"),
+        List.of(zipMessages.get(0).fileName, zipMessages.get(10).fileName, zipMessages.get(20).fileName,
+            zipMessages.get(30).fileName));
+    assertSameMessages(serial, parallel);
+  }
+
+  /**
+   * field for field, in the same order
+   *
+   * @param expected
+   * @param actual
+   */
+  private void assertSameMessages(List<ExportedMessage> expected, List<ExportedMessage> actual) {
+    assertEquals(messageIds(expected), messageIds(actual));
+    for (var i = 0; i < expected.size(); ++i) {
+      var e = expected.get(i);
+      var a = actual.get(i);
+      assertEquals(e.getClass(), a.getClass());
+      assertEquals(Arrays.asList(e.getValues()), Arrays.asList(a.getValues()));
+      assertEquals(e.source, a.source);
+      assertEquals(e.msgDateTime, a.msgDateTime);
+      assertEquals(String.valueOf(e.msgLocation), String.valueOf(a.msgLocation));
+      assertEquals(e.isP2p, a.isP2p);
+      assertEquals(e.getMime(), a.getMime());
+      assertEquals(e.getLines(), a.getLines());
+      assertEquals(e.extraData, a.extraData);
+
+      var eAttachments = e.attachments == null ? Map.<String, byte[]>of() : e.attachments;
+      var aAttachments = a.attachments == null ? Map.<String, byte[]>of() : a.attachments;
+      assertEquals(List.copyOf(eAttachments.keySet()), List.copyOf(aAttachments.keySet()));
+      for (var key : eAttachments.keySet()) {
+        assertArrayEquals(eAttachments.get(key), aAttachments.get(key));
+      }
+    }
+  }
+
+  /**
+   * messages restored from the ingest index share canonical strings, just like messages read
+   *
+   * @throws Exception
+   */
+  @Test
+  public void test_ingest_index_interned() throws Exception {
+    var exercisePath = Files.createTempDirectory("wimp-read-test");
+    var filePaths = new SyntheticExportGenerator(1L).generate(Path.of(exercisePath.toString(), "input"), 3, 20);
+    var indexPath = Path.of(exercisePath.toString(), "ingestIndex");
+
+    var service = new IngestIndexService(indexPath, "fingerprint");
+    service.initialize();
+    var readProcessor = makeReadProcessor(exercisePath);
+    readProcessor.setIngestIndexService(service);
+    var read = readProcessor.readAll(filePaths, 1);
+    service.store();
+
+    service = new IngestIndexService(indexPath, "fingerprint");
+    service.initialize();
+    readProcessor = makeReadProcessor(exercisePath);
+    readProcessor.setIngestIndexService(service);
+    var restored = readProcessor.readAll(filePaths, 1);
+
+    assertEquals(60, read.size());
+    assertEquals(messageIds(read), messageIds(restored));
+    for (var i = 0; i < read.size(); ++i) {
+      // restored, not read again
+      assertNotSame(read.get(i).getMime(), restored.get(i).getMime());
+    }
+
+    var interner = readProcessor.getStringInterner();
+    for (var m : restored) {
+      assertSame(interner.intern(m.from), m.from);
+      assertSame(interner.intern(m.source), m.source);
+      assertSame(interner.intern(m.to), m.to);
+      assertSame(interner.intern(m.toList), m.toList);
+      assertSame(interner.intern(m.subject), m.subject);
+      assertSame(interner.intern(m.fileName), m.fileName);
+      for (var address : m.getToAddresses()) {
+        assertSame(interner.intern(address), address);
+      }
+    }
+  }
+
+  /**
+   * derived from configuration and the class files of the reader, so the same for every run of the same build
+   *
+   * @throws Exception
+   */
+  @Test
+  public void test_read_fingerprint() throws Exception {
+    var exercisePath = Files.createTempDirectory("wimp-read-test");
+    var fingerprint = makeReadProcessor(exercisePath).makeReadFingerprint();
+    assertEquals(fingerprint, makeReadProcessor(exercisePath).makeReadFingerprint());
+
+    // hashed from class files, rather than a one-run fallback that would never match
+    for (var packageName : List
+        .of("com.surftools.wimp.processors.std", "com.surftools.wimp.parser", "com.surftools.wimp.message",
+            "com.surftools.wimp.core", "com.surftools.utils")) {
+      assertTrue(packageName, CodeFingerprint.getPackageHash(packageName).matches("[0-9a-f]{64}"));
+    }
+  }
+
+  static final String HEADER_START = String.join("\n", //
+      "Date: Thu, 12 Sep 2024 15:31:00 +0000", //
+      "From: KM6SO@winlink.org", //
+      "Subject: ETO Winlink Thursday");
+
+  static final String HEADER_END = String.join("\n", //
+      "Message-ID: 5WBHJRFQ2LQ3", //
+      "X-Source: KM6SO", //
+      "X-Location: 37.717500N, 122.412500W (GRID SQUARE)", //
+      "MIME-Version: 1.0", //
+      "Content-Type: text/plain; charset=\"iso-8859-1\"", //
+      "", //
+      "forwarded:", //
+      "To: KM6SO@winlink.org", //
+      "Cc: ETO-02@winlink.org");
+
+  private String makeMime(String... recipientLines) {
+    return HEADER_START + "\n" + String.join("\n", recipientLines) + "\n" + HEADER_END;
+  }
+
+  /**
+   * the scan for To: and Cc: before MimeHeaders: every line from the first To: or Cc: up to Message-ID:
+   *
+   * @param readProcessor
+   * @param mime
+   * @return recipient, toList, ccList
+   */
+  private String[] getBaselineRecipients(ReadProcessor readProcessor, String mime) {
+    var toList = new ArrayList<String>();
+    var ccList = new ArrayList<String>();
+    List<String> theList = null;
+    for (var line : mime.split("\\n")) {
+      if (line.startsWith("Message-ID: ")) {
+        break;
+      }
+      if (line.startsWith("To: ")) {
+        theList = toList;
+      }
+      if (line.startsWith("Cc: ")) {
+        theList = ccList;
+      }
+      if (theList != null) {
+        line = readProcessor.pre_fixAddress(line);
+        if (line != null && !line.isBlank()) {
+          theList.add(line);
+        }
+      }
+    }
+
+    var addresses = new ArrayList<String>(toList);
+    addresses.addAll(ccList);
+    var recipient = addresses
+        .stream()
+          .filter(a -> a.replaceFirst("^SMTP:", "").replaceFirst("@.*", "").equals("ETO-01"))
+          .findFirst()
+          .orElse(addresses.get(0));
+    recipient = recipient.replaceFirst("^SMTP:", "").replaceFirst("@.*", "");
+    return new String[] { recipient, String.join(",", toList), String.join(",", ccList) };
+  }
+
+  private void assertRecipients(String[] expected, String mime) throws Exception {
+    var readProcessor = makeReadProcessor(Files.createTempDirectory("wimp-read-test"));
+    var actual = readProcessor.getRecipients(MimeHeaders.parse(mime));
+    assertEquals(List.of(expected), List.of(actual));
+    assertEquals(List.of(getBaselineRecipients(readProcessor, mime)), List.of(actual));
+  }
+
+  @Test
+  public void test_recipients_single_to() throws Exception {
+    assertRecipients(new String[] { "ETO-01", "ETO-01@winlink.org", "" }, makeMime("To: ETO-01@winlink.org"));
+  }
+
+  @Test
+  public void test_recipients_folded_to() throws Exception {
+    assertRecipients(new String[] { "ETO-01", "ETO-02@winlink.org,ETO-01@winlink.org,KM6SO@winlink.org", "" },
+        makeMime("To: ETO-02@winlink.org,", " ETO-01@winlink.org,", "\tKM6SO@winlink.org"));
+  }
+
+  @Test
+  public void test_recipients_to_and_cc() throws Exception {
+    assertRecipients(new String[] { "ETO-01", "ETO-BK@winlink.org", "KM6SO@winlink.org,ETO-01@winlink.org" },
+        makeMime("To: ETO-BK@winlink.org", "Cc: KM6SO@winlink.org,", " ETO-01@winlink.org"));
+  }
+
+  @Test
+  public void test_recipients_smtp() throws Exception {
+    assertRecipients(new String[] { "ETO-01", "SMTP:someone@example.com", "ETO-01@winlink.org" },
+        makeMime("To: SMTP:someone@example.com", "Cc: ETO-01@winlink.org"));
+    assertRecipients(new String[] { "someone", "SMTP:someone@example.com", "" },
+        makeMime("To: SMTP:someone@example.com"));
+  }
+
+  private List<String> messageIds(List<ExportedMessage> messages) {
+    return messages.stream().map(m -> m.messageId).toList();
+  }
+}
@@ -0,0 +1,165 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wimp.service.ingestIndex;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+import org.junit.Test;
+
+import com.surftools.wimp.core.MessageType;
+import com.surftools.wimp.message.ExportedMessage;
+
+public class IngestIndexServiceTest {
+
+  private ExportedMessage makeMessage(String messageId, String fileName) {
+    return new ExportedMessage(messageId, "UNIT_TEST", "UNIT_TEST", "ETO-01", "ETO-01", "", "subject",
+        LocalDateTime.of(2025, 1, 2, 3, 4), null, null, "mime", "plain", new LinkedHashMap<>(), false, fileName,
+        null);
+  }
+
+  private IngestIndexService makeService(Path cachePath, String fingerprint) {
+    var service = new IngestIndexService(cachePath, fingerprint);
+    service.initialize();
+    return service;
+  }
+
+  private List<String> messageIds(List<ExportedMessage> messages) {
+    return messages.stream().map(m -> m.messageId).toList();
+  }
+
+  @Test
+  public void test_unchanged_file() throws Exception {
+    var dirPath = Files.createTempDirectory("wimp-ingest-index-test");
+    var cachePath = Path.of(dirPath.toString(), "ingestIndex");
+    var filePath = Files.writeString(Path.of(dirPath.toString(), "export.xml"), "content");
+
+    var service = makeService(cachePath, "fingerprint");
+    assertNull(service.getMessages(filePath, UnaryOperator.identity()));
+    service.putMessages(filePath, List.of(makeMessage("MID1", "export.xml"), makeMessage("MID2", "export.xml")));
+    service.store();
+
+    service = makeService(cachePath, "fingerprint");
+    var messages = service.getMessages(filePath, UnaryOperator.identity());
+    assertNotNull(messages);
+    assertEquals(List.of("MID1", "MID2"), messageIds(messages));
+  }
+
+  @Test
+  public void test_changed_file() throws Exception {
+    var dirPath = Files.createTempDirectory("wimp-ingest-index-test");
+    var cachePath = Path.of(dirPath.toString(), "ingestIndex");
+    var filePath = Files.writeString(Path.of(dirPath.toString(), "export.xml"), "content");
+
+    var service = makeService(cachePath, "fingerprint");
+    service.putMessages(filePath, List.of(makeMessage("MID1", "export.xml")));
+    service.store();
+
+    // same size, different content
+    Files.writeString(filePath, "CONTENT");
+    service = makeService(cachePath, "fingerprint");
+    assertNull(service.getMessages(filePath, UnaryOperator.identity()));
+  }
+
+  /**
+   * entries of an archive may repeat messageIds; classified types are kept by entry name and messageId
+   *
+   * @throws Exception
+   */
+  @Test
+  public void test_entry_names() throws Exception {
+    var dirPath = Files.createTempDirectory("wimp-ingest-index-test");
+    var cachePath = Path.of(dirPath.toString(), "ingestIndex");
+    var filePath = Files.writeString(Path.of(dirPath.toString(), "export.zip"), "zip content");
+
+    var service = makeService(cachePath, "fingerprint");
+    var a = makeMessage("MID1", "a.xml");
+    var b = makeMessage("MID1", "b.xml");
+    service.putMessages(filePath, List.of(a, b));
+    service.putMessageType(a, MessageType.PLAIN);
+    service.putMessageType(b, MessageType.QUICK);
+    assertEquals(MessageType.PLAIN, service.getMessageType(a));
+    assertEquals(MessageType.QUICK, service.getMessageType(b));
+    service.store();
+
+    service = makeService(cachePath, "fingerprint");
+    var messages = service.getMessages(filePath, UnaryOperator.identity());
+    assertEquals(2, messages.size());
+    assertEquals("a.xml", messages.get(0).fileName);
+    assertEquals(MessageType.PLAIN, service.getMessageType(messages.get(0)));
+    assertEquals("b.xml", messages.get(1).fileName);
+    assertEquals(MessageType.QUICK, service.getMessageType(messages.get(1)));
+
+    // not a message restored from, or put into, the index
+    assertNull(service.getMessageType(makeMessage("MID1", "a.xml")));
+  }
+
+  /**
+   * an index written with another fingerprint (configuration or code) is ignored, and its messages removed on store
+   *
+   * @throws Exception
+   */
+  @Test
+  public void test_old_index_ignored() throws Exception {
+    var dirPath = Files.createTempDirectory("wimp-ingest-index-test");
+    var cachePath = Path.of(dirPath.toString(), "ingestIndex");
+    var filePath = Files.writeString(Path.of(dirPath.toString(), "export.xml"), "content");
+
+    var service = makeService(cachePath, "old");
+    service.putMessages(filePath, List.of(makeMessage("MID1", "export.xml")));
+    service.putMessageType(makeMessage("MID1", "export.xml"), MessageType.PLAIN);
+    service.store();
+    assertTrue(hasMessagesFile(cachePath, "old"));
+
+    service = makeService(cachePath, "new");
+    assertNull(service.getMessages(filePath, UnaryOperator.identity()));
+    var message = makeMessage("MID1", "export.xml");
+    service.putMessages(filePath, List.of(message));
+    assertNull(service.getMessageType(message));
+    service.store();
+    assertFalse(hasMessagesFile(cachePath, "old"));
+    assertTrue(hasMessagesFile(cachePath, "new"));
+
+    assertNotNull(makeService(cachePath, "new").getMessages(filePath, UnaryOperator.identity()));
+  }
+
+  private boolean hasMessagesFile(Path cachePath, String fingerprint) {
+    var files = cachePath.toFile().listFiles((dir, name) -> name.endsWith("-" + fingerprint + ".ser"));
+    return files != null && files.length > 0;
+  }
+}
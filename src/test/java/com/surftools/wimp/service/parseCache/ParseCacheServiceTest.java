@@ -0,0 +1,159 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wimp.service.parseCache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+
+import org.junit.Test;
+
+import com.surftools.wimp.core.IMessageManager;
+import com.surftools.wimp.core.IParser;
+import com.surftools.wimp.core.MessageType;
+import com.surftools.wimp.message.ExportedMessage;
+import com.surftools.wimp.parser.PlainParser;
+import com.surftools.wimp.utils.config.IConfigurationManager;
+
+public class ParseCacheServiceTest {
+
+  static class TestParser implements IParser {
+    @Override
+    public ExportedMessage parse(ExportedMessage message) {
+      return new ExportedMessage(message);
+    }
+
+    @Override
+    public void initialize(IConfigurationManager cm, IMessageManager mm) {
+    }
+  }
+
+  private ExportedMessage makeMessage(String subject) {
+    return new ExportedMessage("MID", "UNIT_TEST", "UNIT_TEST", "ETO-01", "ETO-01", "", subject,
+        LocalDateTime.of(2025, 1, 2, 3, 4), null, null, "mime", "plain", new LinkedHashMap<>(), false, "test.xml",
+        null);
+  }
+
+  @Test
+  public void test_reuse_across_runs() throws Exception {
+    var cachePath = Files.createTempDirectory("wimp-parse-cache-test");
+    var parser = new TestParser();
+    var message = makeMessage("subject");
+
+    var service = new ParseCacheService(cachePath);
+    service.initialize();
+    assertNull(service.get(message, MessageType.PLAIN, parser));
+    service.put(message, MessageType.PLAIN, parser, parser.parse(message));
+    service.store();
+
+    service = new ParseCacheService(cachePath);
+    service.initialize();
+    var cached = service.get(message, MessageType.PLAIN, parser);
+    assertNotNull(cached);
+    assertEquals(message.messageId, cached.messageId);
+    assertEquals(message.subject, cached.subject);
+    assertEquals(message.msgDateTime, cached.msgDateTime);
+
+    // different content, type or parser: not reused
+    assertNull(service.get(makeMessage("other subject"), MessageType.PLAIN, parser));
+    assertNull(service.get(message, MessageType.QUICK, parser));
+    assertNull(service.get(message, MessageType.PLAIN, new PlainParser()));
+  }
+
+  @Test
+  public void test_version() throws Exception {
+    var cachePath = Files.createTempDirectory("wimp-parse-cache-test");
+    var parser = new TestParser();
+    var message = makeMessage("subject");
+
+    var service = new ParseCacheService(cachePath, 1, ParseCacheService::makeParserFingerprint);
+    service.initialize();
+    service.put(message, MessageType.PLAIN, parser, parser.parse(message));
+    service.store();
+
+    // bumped: nothing reused
+    service = new ParseCacheService(cachePath, 2, ParseCacheService::makeParserFingerprint);
+    service.initialize();
+    assertNull(service.get(message, MessageType.PLAIN, parser));
+  }
+
+  /**
+   * parser code changed, without any version bump
+   *
+   * @throws Exception
+   */
+  @Test
+  public void test_fingerprint() throws Exception {
+    var cachePath = Files.createTempDirectory("wimp-parse-cache-test");
+    var parser = new TestParser();
+    var message = makeMessage("subject");
+
+    var service = new ParseCacheService(cachePath, 1, c -> "a");
+    service.initialize();
+    service.put(message, MessageType.PLAIN, parser, parser.parse(message));
+    service.store();
+
+    service = new ParseCacheService(cachePath, 1, c -> "a");
+    service.initialize();
+    assertNotNull(service.get(message, MessageType.PLAIN, parser));
+
+    service = new ParseCacheService(cachePath, 1, c -> "b");
+    service.initialize();
+    assertNull(service.get(message, MessageType.PLAIN, parser));
+  }
+
+  /**
+   * in watch mode, the same service stores after every run
+   *
+   * @throws Exception
+   */
+  @Test
+  public void test_store_again() throws Exception {
+    var cachePath = Files.createTempDirectory("wimp-parse-cache-test");
+    var parser = new TestParser();
+    var first = makeMessage("first");
+    var second = makeMessage("second");
+
+    var service = new ParseCacheService(cachePath);
+    service.initialize();
+    service.put(first, MessageType.PLAIN, parser, parser.parse(first));
+    service.store();
+    assertNotNull(service.get(first, MessageType.PLAIN, parser));
+    service.put(second, MessageType.PLAIN, parser, parser.parse(second));
+    service.store();
+
+    service = new ParseCacheService(cachePath);
+    service.initialize();
+    assertEquals("first", service.get(first, MessageType.PLAIN, parser).subject);
+    assertEquals("second", service.get(second, MessageType.PLAIN, parser).subject);
+  }
+}
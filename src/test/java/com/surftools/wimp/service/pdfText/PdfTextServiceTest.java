@@ -0,0 +1,82 @@
+/**
+
+The MIT License (MIT)
+
+Copyright (c) 2026, Robert Tykulsker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+
+*/
+
+package com.surftools.wimp.service.pdfText;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+
+public class PdfTextServiceTest {
+
+  /**
+   * an extraction that times out is abandoned, not stopped; while it holds the only thread, no others are started
+   *
+   * @throws Exception
+   */
+  @Test
+  public void test_timeout() throws Exception {
+    var service = new PdfTextService(null, 1, 0, 1);
+    var release = new CountDownLatch(1);
+
+    // like iText, ignores interrupts
+    var start = System.nanoTime();
+    assertNull(service.submit(() -> {
+      while (release.getCount() > 0) {
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          ;
+        }
+      }
+      return "too late";
+    }));
+    var elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+    assertTrue("waited " + elapsedMillis + " ms", elapsedMillis >= 1000 && elapsedMillis < 5000);
+    assertEquals(1, service.getAbandonedCount());
+
+    // the only thread is still busy, so don't wait for it
+    start = System.nanoTime();
+    assertNull(service.submit(() -> "not started"));
+    elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+    assertTrue("waited " + elapsedMillis + " ms", elapsedMillis < 500);
+
+    release.countDown();
+    for (var i = 0; i < 100 && service.getAbandonedCount() > 0; ++i) {
+      Thread.sleep(10);
+    }
+    assertEquals(0, service.getAbandonedCount());
+    assertEquals("on time", service.submit(() -> "on time"));
+
+    service.shutdown();
+    assertNull(service.submit(() -> "shut down"));
+  }
+}